@@ -0,0 +1,163 @@
+package com.scheduler.schedulerapp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.service.appointment.AppointmentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/api/appointments")
+public class AppointmentExportController {
+
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    private static final int FLUSH_EVERY = 500;
+    private static final List<String> COLUMNS = List.of("id", "title", "description", "doctorId", "patientId",
+            "branchId", "status", "startTime", "endTime", "createdAt", "updatedAt");
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CUSTOMER_CARE')")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String branchId,
+            @RequestParam(required = false) String doctorId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format + ". Use ndjson or csv");
+        }
+
+        LocalDateTime fromTime = from != null ? parseDateTime(from) : null;
+        LocalDateTime toTime = to != null ? parseDateTime(to) : null;
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            try (Stream<Appointment> appointments = appointmentService.streamAppointments(branchId, doctorId, status, fromTime, toTime)) {
+                if (csv) {
+                    writeCsv(appointments, writer);
+                } else {
+                    writeNdjson(appointments, writer);
+                }
+            }
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"appointments." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    void writeNdjson(Stream<Appointment> appointments, Writer writer) throws IOException {
+        int written = 0;
+        Iterator<Appointment> iterator = appointments.iterator();
+        while (iterator.hasNext()) {
+            writer.write(objectMapper.writeValueAsString(toRow(iterator.next())));
+            writer.write('\n');
+            if (++written % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+    }
+
+    void writeCsv(Stream<Appointment> appointments, Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write('\n');
+
+        int written = 0;
+        Iterator<Appointment> iterator = appointments.iterator();
+        while (iterator.hasNext()) {
+            Map<String, String> row = toRow(iterator.next());
+            StringBuilder line = new StringBuilder();
+            for (String column : COLUMNS) {
+                if (!line.isEmpty()) {
+                    line.append(',');
+                }
+                line.append(escapeCsv(row.get(column)));
+            }
+            writer.write(line.toString());
+            writer.write('\n');
+            if (++written % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+    }
+
+    private Map<String, String> toRow(Appointment appointment) {
+        Map<String, String> row = new LinkedHashMap<>();
+        row.put("id", appointment.getId());
+        row.put("title", appointment.getTitle());
+        row.put("description", appointment.getDescription());
+        row.put("doctorId", appointment.getDoctorId());
+        row.put("patientId", appointment.getPatientId());
+        row.put("branchId", appointment.getBranchId());
+        row.put("status", appointment.getStatus());
+        row.put("startTime", format(appointment.getStartTime()));
+        row.put("endTime", format(appointment.getEndTime()));
+        row.put("createdAt", format(appointment.getCreatedAt()));
+        row.put("updatedAt", format(appointment.getUpdatedAt()));
+        return row;
+    }
+
+    private String format(LocalDateTime time) {
+        return time != null ? time.format(ISO_FORMATTER) : null;
+    }
+
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private LocalDateTime parseDateTime(String dateTimeStr) {
+        try {
+            return LocalDateTime.parse(dateTimeStr);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format. Use ISO format: 2024-12-15T10:00:00");
+        }
+    }
+}
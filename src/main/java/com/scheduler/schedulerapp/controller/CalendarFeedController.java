@@ -0,0 +1,191 @@
+package com.scheduler.schedulerapp.controller;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.HospitalBranch;
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.service.calendar.CalendarFeedService;
+import com.scheduler.schedulerapp.service.calendar.CalendarFeedVersion;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.hospitalbranch.HospitalBranchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * iCalendar feeds for calendar apps that poll a doctor's or a branch's schedule.
+ * Every response carries an ETag and Last-Modified from {@link CalendarFeedVersion};
+ * a poll whose validators still match is answered with 304 before any appointment
+ * is read. A feed is only served with the token issued for it; an unknown id or a
+ * missing or wrong token is answered with 404, so feed ids cannot be probed.
+ */
+@RestController
+@RequestMapping("/api/calendar")
+public class CalendarFeedController {
+
+    private static final MediaType CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+    private static final DateTimeFormatter ICS_UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final int FLUSH_EVERY = 500;
+
+    @Autowired
+    private CalendarFeedService calendarFeedService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private HospitalBranchService hospitalBranchService;
+
+    @GetMapping("/doctors/{doctorId}.ics")
+    public ResponseEntity<StreamingResponseBody> doctorFeed(@PathVariable String doctorId,
+                                                            @RequestParam(required = false) String token,
+                                                            WebRequest request) {
+        if (!calendarFeedService.isDoctorFeedToken(doctorId, token)) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<HospitalStaff> doctor = doctorService.getDoctorById(doctorId);
+        if (doctor.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return feed(request, calendarFeedService.getDoctorFeedVersion(doctorId), doctor.get().getName(),
+                () -> calendarFeedService.streamDoctorFeed(doctorId));
+    }
+
+    @GetMapping("/branches/{branchId}.ics")
+    public ResponseEntity<StreamingResponseBody> branchFeed(@PathVariable String branchId,
+                                                            @RequestParam(required = false) String token,
+                                                            WebRequest request) {
+        if (!calendarFeedService.isBranchFeedToken(branchId, token)) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<HospitalBranch> branch = hospitalBranchService.getBranchById(branchId);
+        if (branch.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return feed(request, calendarFeedService.getBranchFeedVersion(branchId), branch.get().getBranchCode(),
+                () -> calendarFeedService.streamBranchFeed(branchId));
+    }
+
+    private ResponseEntity<StreamingResponseBody> feed(WebRequest request, CalendarFeedVersion version, String name,
+                                                       Supplier<Stream<Appointment>> appointments) {
+        String etag = version.etag();
+        long lastModified = version.lastModifiedMillis();
+        if (request.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .build();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            try (Stream<Appointment> stream = appointments.get()) {
+                writeCalendar(name, stream, writer);
+            }
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(CALENDAR)
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"calendar.ics\"")
+                .body(body);
+    }
+
+    void writeCalendar(String name, Stream<Appointment> appointments, Writer writer) throws IOException {
+        writeLine(writer, "BEGIN:VCALENDAR");
+        writeLine(writer, "VERSION:2.0");
+        writeLine(writer, "PRODID:-//Scheduler//Appointments//EN");
+        writeLine(writer, "CALSCALE:GREGORIAN");
+        writeLine(writer, "METHOD:PUBLISH");
+        if (name != null) {
+            writeLine(writer, "X-WR-CALNAME:" + escape(name));
+        }
+
+        int written = 0;
+        Iterator<Appointment> iterator = appointments.iterator();
+        while (iterator.hasNext()) {
+            writeEvent(iterator.next(), writer);
+            if (++written % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writeLine(writer, "END:VCALENDAR");
+    }
+
+    private void writeEvent(Appointment appointment, Writer writer) throws IOException {
+        LocalDateTime stamp = appointment.getUpdatedAt() != null ? appointment.getUpdatedAt() : appointment.getCreatedAt();
+
+        writeLine(writer, "BEGIN:VEVENT");
+        writeLine(writer, "UID:" + appointment.getId() + "@scheduler");
+        writeLine(writer, "DTSTAMP:" + utc(stamp != null ? stamp : appointment.getStartTime()));
+        writeLine(writer, "DTSTART:" + utc(appointment.getStartTime()));
+        writeLine(writer, "DTEND:" + utc(appointment.getEndTime()));
+        if (stamp != null) {
+            writeLine(writer, "LAST-MODIFIED:" + utc(stamp));
+        }
+        writeLine(writer, "SUMMARY:" + escape(appointment.getTitle() != null ? appointment.getTitle() : "Appointment"));
+        if (appointment.getDescription() != null) {
+            writeLine(writer, "DESCRIPTION:" + escape(appointment.getDescription()));
+        }
+        writeLine(writer, "STATUS:" + ("cancelled".equals(appointment.getStatus()) ? "CANCELLED" : "CONFIRMED"));
+        writeLine(writer, "END:VEVENT");
+    }
+
+    private String utc(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).format(ICS_UTC);
+    }
+
+    private String escape(String value) {
+        return value.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "\\n");
+    }
+
+    private void writeLine(Writer writer, String line) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > MAX_LINE_OCTETS) {
+                writer.write("\r\n ");
+                octets = 1;
+            }
+            writer.write(Character.toChars(codePoint));
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+}
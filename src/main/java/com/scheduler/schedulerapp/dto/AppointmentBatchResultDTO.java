@@ -0,0 +1,16 @@
+package com.scheduler.schedulerapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AppointmentBatchResultDTO {
+    private Integer index;
+    private Boolean success;
+    private AppointmentResponseDTO appointment;
+    private String error;
+    private Integer conflictsWithIndex;
+}
@@ -0,0 +1,20 @@
+package com.scheduler.schedulerapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AppointmentChangeDTO {
+    private String changeType;
+    private String appointmentId;
+    private String doctorId;
+    private String patientId;
+    private String branchId;
+    private String status;
+    private String startTime;
+    private String endTime;
+    private String occurredAt;
+}
@@ -0,0 +1,28 @@
+package com.scheduler.schedulerapp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class AppointmentRequestInputDTO {
+
+    @NotBlank(message = "Request ID is required")
+    private String requestId;
+
+    @NotBlank(message = "Patient ID is required")
+    private String patientId;
+
+    @NotNull(message = "Duration is required")
+    @Positive(message = "Duration must be positive")
+    private Integer durationMinutes;
+
+    @NotBlank(message = "Earliest start is required")
+    private String earliestStart;
+
+    @NotBlank(message = "Latest end is required")
+    private String latestEnd;
+
+    private String preferredDoctorId;
+}
@@ -23,4 +23,6 @@ public class AppointmentResponseDTO {
     private String duration;
     private String branchId;
     private String branchLocation;
+    private String seriesId;
+    private String originalStartTime;
 }
\ No newline at end of file
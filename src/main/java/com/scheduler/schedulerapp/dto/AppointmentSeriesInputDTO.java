@@ -0,0 +1,59 @@
+package com.scheduler.schedulerapp.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+@Data
+public class AppointmentSeriesInputDTO {
+
+    @NotBlank(message = "Doctor ID is required")
+    private String doctorId;
+
+    @NotBlank(message = "Patient ID is required")
+    private String patientId;
+
+    @NotBlank(message = "Title is required")
+    private String title;
+
+    private String description;
+
+    private String branchId;
+
+    @NotBlank(message = "Start time is required")
+    private String startTime;
+
+    @NotBlank(message = "End time is required")
+    private String endTime;
+
+    @NotBlank(message = "Recurrence rule is required")
+    private String recurrenceRule;
+
+    @AssertTrue(message = "End time must be after start time")
+    public boolean isValidTimeRange() {
+        if (startTime == null || endTime == null) return true;
+        try {
+            LocalDateTime start = LocalDateTime.parse(startTime);
+            LocalDateTime end = LocalDateTime.parse(endTime);
+            return end.isAfter(start);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    @AssertTrue(message = "Appointment duration cannot exceed 4 hours")
+    public boolean isValidDuration() {
+        if (startTime == null || endTime == null) return true;
+        try {
+            LocalDateTime start = LocalDateTime.parse(startTime);
+            LocalDateTime end = LocalDateTime.parse(endTime);
+            return Duration.between(start, end).toHours() <= 4;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.scheduler.schedulerapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AppointmentSeriesResponseDTO {
+    private String id;
+    private String title;
+    private String description;
+    private String doctorId;
+    private String patientId;
+    private String branchId;
+    private String startTime;
+    private String endTime;
+    private String recurrenceRule;
+    private String seriesEnd;
+    private String status;
+    private String createdAt;
+    private String updatedAt;
+}
@@ -0,0 +1,27 @@
+package com.scheduler.schedulerapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AppointmentSweepStatusDTO {
+    private Boolean running;
+    private String cutoff;
+    private String sweptUpTo;
+    private Long backlog;
+    private Long processed;
+    private Long completed;
+    private Long noShow;
+    private Long chunks;
+    private Double throughputPerSecond;
+    private String lastStartedAt;
+    private String lastFinishedAt;
+    private Long lastDurationMillis;
+    private String lastError;
+    private Long totalRuns;
+    private Long totalCompleted;
+    private Long totalNoShow;
+}
@@ -0,0 +1,15 @@
+package com.scheduler.schedulerapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailableSlotDTO {
+    private String doctorId;
+    private String branchId;
+    private String startTime;
+    private String endTime;
+}
@@ -0,0 +1,16 @@
+package com.scheduler.schedulerapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BranchOccupancyBucketDTO {
+    private String date;
+    private Integer dayOfWeek;
+    private Integer hour;
+    private Long appointments;
+    private Long bookedMinutes;
+}
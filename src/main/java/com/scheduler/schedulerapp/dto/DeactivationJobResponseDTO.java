@@ -0,0 +1,25 @@
+package com.scheduler.schedulerapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeactivationJobResponseDTO {
+    private String id;
+    private String targetType;
+    private String targetId;
+    private String status;
+    private String phase;
+    private Long cancelledAppointments;
+    private Long cancelledSeries;
+    private Long removedMappings;
+    private Integer batches;
+    private Integer attempts;
+    private String error;
+    private String createdAt;
+    private String updatedAt;
+    private String completedAt;
+}
@@ -0,0 +1,19 @@
+package com.scheduler.schedulerapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DoctorAgendaDTO {
+    private String doctorId;
+    private String doctorName;
+    private String date;
+    private List<DoctorAgendaEntryDTO> entries;
+    private Integer bookedMinutes;
+    private String updatedAt;
+}
@@ -0,0 +1,22 @@
+package com.scheduler.schedulerapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DoctorAgendaEntryDTO {
+    private String appointmentId;
+    private String title;
+    private String startTime;
+    private String endTime;
+    private Integer durationMinutes;
+    private String status;
+    private String patientId;
+    private String patientName;
+    private String branchId;
+    private String branchCode;
+    private String seriesId;
+}
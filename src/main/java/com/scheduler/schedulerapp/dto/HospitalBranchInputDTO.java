@@ -1,6 +1,7 @@
 package com.scheduler.schedulerapp.dto;
 
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
@@ -26,4 +27,10 @@ public class HospitalBranchInputDTO {
 
     @NotBlank(message = "Phone number is required")
     private String phoneNumber;
+
+    @Min(value = 1, message = "Hourly capacity must be at least 1")
+    private Integer hourlyCapacity;
+
+    @Min(value = 1, message = "Daily capacity must be at least 1")
+    private Integer dailyCapacity;
 }
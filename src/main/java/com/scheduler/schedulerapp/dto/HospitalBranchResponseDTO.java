@@ -19,4 +19,6 @@ public class HospitalBranchResponseDTO {
     private String startedAt;
     private String closedAt;
     private Boolean isActive;
+    private Integer hourlyCapacity;
+    private Integer dailyCapacity;
 }
\ No newline at end of file
@@ -12,4 +12,8 @@ public class HospitalBranchUpdateInputDTO {
     private String email;
     private String phoneNumber;
     private Boolean isActive;
+    private Integer hourlyCapacity;
+    private Integer dailyCapacity;
+    private Boolean clearHourlyCapacity;
+    private Boolean clearDailyCapacity;
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.scheduler.schedulerapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScheduleAssignmentDTO {
+    private String requestId;
+    private String doctorId;
+    private String patientId;
+    private String startTime;
+    private String endTime;
+}
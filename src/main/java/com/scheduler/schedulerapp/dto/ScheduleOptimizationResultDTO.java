@@ -0,0 +1,17 @@
+package com.scheduler.schedulerapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScheduleOptimizationResultDTO {
+    private List<ScheduleAssignmentDTO> assignments;
+    private List<UnplacedRequestDTO> unplaced;
+    private Long elapsedMillis;
+    private Boolean timedOut;
+}
@@ -0,0 +1,17 @@
+package com.scheduler.schedulerapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StaffCacheStatsDTO {
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+    private Double hitRate;
+    private Integer size;
+    private Integer maxSize;
+}
@@ -0,0 +1,39 @@
+package com.scheduler.schedulerapp.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class WaitlistEntryInputDTO {
+
+    @NotBlank(message = "Patient ID is required")
+    private String patientId;
+
+    private String doctorId;
+
+    private String branchId;
+
+    private String title;
+
+    private String description;
+
+    @NotNull(message = "Duration is required")
+    @Positive(message = "Duration must be positive")
+    private Integer durationMinutes;
+
+    @NotBlank(message = "Earliest start is required")
+    private String earliestStart;
+
+    @NotBlank(message = "Latest end is required")
+    private String latestEnd;
+
+    private Integer priority;
+
+    @AssertTrue(message = "A doctor or a branch is required")
+    public boolean isDoctorOrBranchPresent() {
+        return doctorId != null || branchId != null;
+    }
+}
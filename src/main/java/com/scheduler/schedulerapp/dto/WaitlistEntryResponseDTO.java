@@ -0,0 +1,25 @@
+package com.scheduler.schedulerapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaitlistEntryResponseDTO {
+    private String id;
+    private String patientId;
+    private String doctorId;
+    private String branchId;
+    private String title;
+    private String description;
+    private Integer durationMinutes;
+    private String earliestStart;
+    private String latestEnd;
+    private Integer priority;
+    private String status;
+    private String appointmentId;
+    private String createdAt;
+    private String updatedAt;
+}
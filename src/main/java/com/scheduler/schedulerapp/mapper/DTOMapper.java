@@ -6,16 +6,14 @@ import com.scheduler.schedulerapp.dto.recordtabdto.*;
 import com.scheduler.schedulerapp.model.*;
 
 import com.scheduler.schedulerapp.model.recordtab.*;
-import com.scheduler.schedulerapp.repository.DoctorRepository;
-import com.scheduler.schedulerapp.repository.PatientRepository;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import com.scheduler.schedulerapp.service.live.AppointmentChange;
+
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Optional;
 import java.util.List;
 
 @Component
@@ -23,12 +21,6 @@ public class DTOMapper {
 
     private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
-    @Autowired
-    private DoctorRepository doctorRepository;
-
-    @Autowired
-    private PatientRepository patientRepository;
-
     public DoctorResponseDTO toDoctorResponseDTO(HospitalStaff doctor) {
         DoctorResponseDTO dto = new DoctorResponseDTO();
         dto.setId(doctor.getId());
@@ -68,15 +60,109 @@ public class DTOMapper {
         dto.setUpdatedAt(appointment.getUpdatedAt().format(ISO_FORMATTER));
         dto.setDuration(calculateDuration(appointment));
 
-        Optional<HospitalStaff> doctor = doctorRepository.findById(appointment.getDoctorId());
-        dto.setDoctorName(doctor.map(HospitalStaff::getName).orElse("Unknown doctor"));
-
-        Optional<Patient> patient = patientRepository.findById(appointment.getPatientId());
-        dto.setPatientName(patient.map(Patient::getName).orElse("Unknown patient"));
-
         if (appointment.getBranchId() != null) {
             dto.setBranchLocation("Branch Location");
         }
+        dto.setSeriesId(appointment.getSeriesId());
+        dto.setOriginalStartTime(appointment.getOriginalStartTime() != null
+                ? appointment.getOriginalStartTime().format(ISO_FORMATTER) : null);
+        return dto;
+    }
+
+    public AppointmentSeriesResponseDTO toAppointmentSeriesResponseDTO(AppointmentSeries series) {
+        AppointmentSeriesResponseDTO dto = new AppointmentSeriesResponseDTO();
+        dto.setId(series.getId());
+        dto.setTitle(series.getTitle());
+        dto.setDescription(series.getDescription());
+        dto.setDoctorId(series.getDoctorId());
+        dto.setPatientId(series.getPatientId());
+        dto.setBranchId(series.getBranchId());
+        dto.setStartTime(series.getSeriesStart().format(ISO_FORMATTER));
+        dto.setEndTime(series.getSeriesStart().plusMinutes(series.getDurationMinutes()).format(ISO_FORMATTER));
+        dto.setRecurrenceRule(series.getRecurrenceRule());
+        dto.setSeriesEnd(series.getSeriesEnd().format(ISO_FORMATTER));
+        dto.setStatus(series.getStatus());
+        dto.setCreatedAt(series.getCreatedAt().format(ISO_FORMATTER));
+        dto.setUpdatedAt(series.getUpdatedAt().format(ISO_FORMATTER));
+        return dto;
+    }
+
+    public WaitlistEntryResponseDTO toWaitlistEntryResponseDTO(WaitlistEntry entry) {
+        WaitlistEntryResponseDTO dto = new WaitlistEntryResponseDTO();
+        dto.setId(entry.getId());
+        dto.setPatientId(entry.getPatientId());
+        dto.setDoctorId(entry.getDoctorId());
+        dto.setBranchId(entry.getBranchId());
+        dto.setTitle(entry.getTitle());
+        dto.setDescription(entry.getDescription());
+        dto.setDurationMinutes(entry.getDurationMinutes());
+        dto.setEarliestStart(entry.getEarliestStart().format(ISO_FORMATTER));
+        dto.setLatestEnd(entry.getLatestEnd().format(ISO_FORMATTER));
+        dto.setPriority(entry.getPriority());
+        dto.setStatus(entry.getStatus());
+        dto.setAppointmentId(entry.getAppointmentId());
+        dto.setCreatedAt(entry.getCreatedAt().format(ISO_FORMATTER));
+        dto.setUpdatedAt(entry.getUpdatedAt().format(ISO_FORMATTER));
+        return dto;
+    }
+
+    public DeactivationJobResponseDTO toDeactivationJobResponseDTO(DeactivationJob job) {
+        DeactivationJobResponseDTO dto = new DeactivationJobResponseDTO();
+        dto.setId(job.getId());
+        dto.setTargetType(job.getTargetType());
+        dto.setTargetId(job.getTargetId());
+        dto.setStatus(job.getStatus());
+        dto.setPhase(job.getPhase());
+        dto.setCancelledAppointments(job.getCancelledAppointments());
+        dto.setCancelledSeries(job.getCancelledSeries());
+        dto.setRemovedMappings(job.getRemovedMappings());
+        dto.setBatches(job.getBatches());
+        dto.setAttempts(job.getAttempts());
+        dto.setError(job.getError());
+        dto.setCreatedAt(job.getCreatedAt().format(ISO_FORMATTER));
+        dto.setUpdatedAt(job.getUpdatedAt().format(ISO_FORMATTER));
+        dto.setCompletedAt(job.getCompletedAt() != null ? job.getCompletedAt().format(ISO_FORMATTER) : null);
+        return dto;
+    }
+
+    public AppointmentChangeDTO toAppointmentChangeDTO(AppointmentChange change) {
+        AppointmentChangeDTO dto = new AppointmentChangeDTO();
+        dto.setChangeType(change.getChangeType());
+        dto.setAppointmentId(change.getAppointmentId());
+        dto.setDoctorId(change.getDoctorId());
+        dto.setPatientId(change.getPatientId());
+        dto.setBranchId(change.getBranchId());
+        dto.setStatus(change.getStatus());
+        dto.setStartTime(change.getStartTime() != null ? change.getStartTime().format(ISO_FORMATTER) : null);
+        dto.setEndTime(change.getEndTime() != null ? change.getEndTime().format(ISO_FORMATTER) : null);
+        dto.setOccurredAt(change.getOccurredAt().format(ISO_FORMATTER));
+        return dto;
+    }
+
+    public DoctorAgendaDTO toDoctorAgendaDTO(DoctorAgenda agenda) {
+        DoctorAgendaDTO dto = new DoctorAgendaDTO();
+        dto.setDoctorId(agenda.getDoctorId());
+        dto.setDoctorName(agenda.getDoctorName());
+        dto.setDate(agenda.getDate().toString());
+        dto.setEntries(agenda.getEntries().stream().map(this::toDoctorAgendaEntryDTO).toList());
+        dto.setBookedMinutes(agenda.getBookedMinutes());
+        dto.setUpdatedAt(agenda.getUpdatedAt() != null ? agenda.getUpdatedAt().format(ISO_FORMATTER) : null);
+        return dto;
+    }
+
+    private DoctorAgendaEntryDTO toDoctorAgendaEntryDTO(DoctorAgendaEntry entry) {
+        DoctorAgendaEntryDTO dto = new DoctorAgendaEntryDTO();
+        dto.setAppointmentId(entry.getAppointmentId());
+        dto.setTitle(entry.getTitle());
+        dto.setStartTime(entry.getStartTime().format(ISO_FORMATTER));
+        dto.setEndTime(entry.getEndTime().format(ISO_FORMATTER));
+        dto.setDurationMinutes(entry.getDurationMinutes());
+        dto.setStatus(entry.getStatus());
+        dto.setPatientId(entry.getPatientId());
+        dto.setPatientName(entry.getPatientName());
+        dto.setBranchId(entry.getBranchId());
+        dto.setBranchCode(entry.getBranchCode());
+        dto.setSeriesId(entry.getSeriesId());
         return dto;
     }
 
@@ -107,6 +193,8 @@ public class DTOMapper {
         dto.setStartedAt(branch.getStartedAt() != null ? branch.getStartedAt().toString() : null);
         dto.setClosedAt(branch.getClosedAt() != null ? branch.getClosedAt().toString() : null);
         dto.setIsActive(branch.getIsActive());
+        dto.setHourlyCapacity(branch.getHourlyCapacity());
+        dto.setDailyCapacity(branch.getDailyCapacity());
         return dto;
     }
 
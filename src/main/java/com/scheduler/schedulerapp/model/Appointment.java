@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
@@ -11,6 +13,15 @@ import java.time.LocalDateTime;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@CompoundIndexes({
+        @CompoundIndex(name = "doctor_status_start_end", def = "{'doctorId': 1, 'status': 1, 'startTime': 1, 'endTime': 1}", background = true),
+        @CompoundIndex(name = "patient_status_start_end", def = "{'patientId': 1, 'status': 1, 'startTime': 1, 'endTime': 1}", background = true),
+        @CompoundIndex(name = "branch_start_occupancy", def = "{'branchId': 1, 'startTime': 1, 'status': 1, 'endTime': 1}", background = true),
+        @CompoundIndex(name = "doctor_updated", def = "{'doctorId': 1, 'updatedAt': -1}", background = true),
+        @CompoundIndex(name = "branch_updated", def = "{'branchId': 1, 'updatedAt': -1}", background = true),
+        @CompoundIndex(name = "status_start", def = "{'status': 1, 'startTime': 1, '_id': 1}", background = true),
+        @CompoundIndex(name = "series_original_start", def = "{'seriesId': 1, 'originalStartTime': 1}", background = true, sparse = true)
+})
 public class Appointment {
 
     @Id
@@ -25,4 +36,7 @@ public class Appointment {
     private LocalDateTime updatedAt;
     private String status = "scheduled";
     private String branchId;
+    private String seriesId;
+    private LocalDateTime originalStartTime;
+    private String cancelledByJob;
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.scheduler.schedulerapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "appointmentSeries")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@CompoundIndexes({
+        @CompoundIndex(name = "doctor_status_range", def = "{'doctorId': 1, 'status': 1, 'seriesStart': 1, 'seriesEnd': 1}", background = true),
+        @CompoundIndex(name = "patient_status_range", def = "{'patientId': 1, 'status': 1, 'seriesStart': 1, 'seriesEnd': 1}", background = true),
+        @CompoundIndex(name = "branch_status_range", def = "{'branchId': 1, 'status': 1, 'seriesStart': 1, 'seriesEnd': 1}", background = true),
+        @CompoundIndex(name = "status_range", def = "{'status': 1, 'seriesStart': 1, 'seriesEnd': 1}", background = true)
+})
+public class AppointmentSeries {
+
+    @Id
+    private String id;
+    private String title;
+    private String description;
+    private String doctorId;
+    private String patientId;
+    private String branchId;
+    private LocalDateTime seriesStart;
+    private Integer durationMinutes;
+    private String recurrenceRule;
+    private LocalDateTime seriesEnd;
+    private String status = "active";
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String endedByJob;
+}
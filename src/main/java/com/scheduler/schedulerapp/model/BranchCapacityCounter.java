@@ -0,0 +1,41 @@
+package com.scheduler.schedulerapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Number of scheduled appointments holding one branch hour or day, keyed
+ * "branchId:period:slotStart". The holders list makes increments and decrements
+ * idempotent per appointment; series lists the series holding an occurrence here, so
+ * a series finds its counters by equality. A counter is removed once nothing holds it.
+ */
+@Document(collection = "branchCapacityCounters")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BranchCapacityCounter {
+
+    @Id
+    private String id;
+    private String branchId;
+    private String period;
+    private LocalDateTime slotStart;
+    private Integer count = 0;
+
+    @Indexed(name = "holders", background = true)
+    private List<String> holders = new ArrayList<>();
+
+    @Indexed(name = "series", background = true)
+    private List<String> series = new ArrayList<>();
+
+    @Indexed(name = "expiresAt_ttl", expireAfter = "0s", background = true)
+    private LocalDateTime expiresAt;
+}
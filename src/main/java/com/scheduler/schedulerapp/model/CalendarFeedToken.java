@@ -0,0 +1,33 @@
+package com.scheduler.schedulerapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * The current access token of one calendar feed, keyed "feedType:targetId". Only a
+ * SHA-256 hash of the token is stored; issuing a new token replaces the old one, so
+ * a leaked feed URL is revoked by issuing the feed again.
+ */
+@Document(collection = "calendarFeedTokens")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarFeedToken {
+
+    @Id
+    private String id;
+    private String feedType;
+    private String targetId;
+    private String tokenHash;
+    private String issuedBy;
+    private LocalDateTime issuedAt;
+
+    public static String key(String feedType, String targetId) {
+        return feedType + ":" + targetId;
+    }
+}
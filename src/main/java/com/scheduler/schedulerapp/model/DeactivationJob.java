@@ -0,0 +1,41 @@
+package com.scheduler.schedulerapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "deactivationJobs")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@CompoundIndexes({
+        @CompoundIndex(name = "target_status", def = "{'targetType': 1, 'targetId': 1, 'status': 1}", background = true),
+        @CompoundIndex(name = "status_lease", def = "{'status': 1, 'leaseUntil': 1}", background = true)
+})
+public class DeactivationJob {
+
+    @Id
+    private String id;
+    private String targetType;
+    private String targetId;
+    private String status = "pending";
+    private String phase = "appointments";
+    private LocalDateTime cutoff;
+    private String lastAppointmentId;
+    private Long cancelledAppointments = 0L;
+    private Long cancelledSeries = 0L;
+    private Long removedMappings = 0L;
+    private Integer batches = 0;
+    private Integer attempts = 0;
+    private LocalDateTime leaseUntil;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,43 @@
+package com.scheduler.schedulerapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read model for a doctor's day view, keyed "doctorId:yyyy-MM-dd". Names and
+ * durations are resolved when the document is written, so a read is one _id lookup.
+ */
+@Document(collection = "doctorAgendas")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@CompoundIndexes({
+        @CompoundIndex(name = "doctor_date", def = "{'doctorId': 1, 'date': 1}", background = true),
+        @CompoundIndex(name = "entry_appointment", def = "{'entries.appointmentId': 1}", background = true),
+        @CompoundIndex(name = "entry_patient", def = "{'entries.patientId': 1}", background = true)
+})
+public class DoctorAgenda {
+
+    @Id
+    private String id;
+    private String doctorId;
+    private String doctorName;
+    private LocalDate date;
+    private List<DoctorAgendaEntry> entries = new ArrayList<>();
+    private Integer bookedMinutes = 0;
+    private LocalDateTime updatedAt;
+
+    public static String key(String doctorId, LocalDate date) {
+        return doctorId + ":" + date;
+    }
+}
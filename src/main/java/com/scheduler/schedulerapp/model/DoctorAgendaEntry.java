@@ -0,0 +1,24 @@
+package com.scheduler.schedulerapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DoctorAgendaEntry {
+    private String appointmentId;
+    private String title;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Integer durationMinutes;
+    private String status;
+    private String patientId;
+    private String patientName;
+    private String branchId;
+    private String branchCode;
+    private String seriesId;
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -16,8 +17,10 @@ public class HospitalBranch {
 
     @Id
     private String id;
+    @Indexed(name = "branchCode_unique", unique = true, background = true)
     private String branchCode;
     private String address;
+    @Indexed(name = "city", background = true)
     private String city;
     private String state;
     private String zipCode;
@@ -25,5 +28,8 @@ public class HospitalBranch {
     private String phoneNumber;
     private LocalDateTime startedAt;
     private String closedAt;
+    @Indexed(name = "isActive", background = true)
     private Boolean isActive = true;
+    private Integer hourlyCapacity;
+    private Integer dailyCapacity;
 }
\ No newline at end of file
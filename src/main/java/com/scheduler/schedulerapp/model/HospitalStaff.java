@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -29,9 +30,11 @@ public class HospitalStaff implements UserDetails {
 
     @Email
     @NotBlank(message = "Email cannot be blank")
+    @Indexed(name = "email_unique", unique = true, background = true)
     private String email;
 
     @NotBlank(message = "Role cannot be blank")
+    @Indexed(name = "role", background = true)
     private String role;
 
     @NotBlank(message = "Password cannot be blank")
@@ -0,0 +1,27 @@
+package com.scheduler.schedulerapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease on a cluster-wide background job, keyed by the job name. Only the node named
+ * in {@code owner} runs the job until {@code leaseUntil}; after that any node may take
+ * the lease over.
+ */
+@Document(collection = "jobLeases")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobLease {
+
+    @Id
+    private String id;
+    private String owner;
+    private LocalDateTime acquiredAt;
+    private LocalDateTime leaseUntil;
+}
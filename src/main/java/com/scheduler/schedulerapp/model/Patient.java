@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -29,6 +30,7 @@ public class Patient implements UserDetails {
 
     @Email
     @NotBlank(message = "Email cannot be blank")
+    @Indexed(name = "email_unique", unique = true, background = true)
     private String email;
 
     @NotBlank(message = "Phone cannot be blank")
@@ -38,6 +40,7 @@ public class Patient implements UserDetails {
     private Integer age;
 
     @NotBlank(message = "Role cannot be blank")
+    @Indexed(name = "role", background = true)
     private String role;
 
     @NotBlank(message = "Password cannot be blank")
@@ -0,0 +1,38 @@
+package com.scheduler.schedulerapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Claim on one reminder, keyed "appointmentId:channel:startTime", so that of all the
+ * nodes holding the reminder only the one that claims it sends it. A rescheduled
+ * appointment gets a new key and therefore a new reminder.
+ */
+@Document(collection = "reminderClaims")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReminderClaim {
+
+    @Id
+    private String id;
+    private String appointmentId;
+    private String channel;
+    private LocalDateTime startTime;
+    private String status;
+    private LocalDateTime claimedAt;
+    private LocalDateTime sentAt;
+
+    @Indexed(name = "expiresAt_ttl", expireAfter = "0s", background = true)
+    private LocalDateTime expiresAt;
+
+    public static String key(String appointmentId, String channel, LocalDateTime startTime) {
+        return appointmentId + ":" + channel + ":" + startTime;
+    }
+}
@@ -0,0 +1,25 @@
+package com.scheduler.schedulerapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far the reminder scan has queued reminders, so a restarted node resumes from
+ * there and still sends reminders that fell due while it was down.
+ */
+@Document(collection = "reminderScanCursors")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReminderScanCursor {
+
+    @Id
+    private String id;
+    private LocalDateTime scannedUpTo;
+    private LocalDateTime updatedAt;
+}
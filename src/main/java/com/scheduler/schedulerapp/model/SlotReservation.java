@@ -0,0 +1,31 @@
+package com.scheduler.schedulerapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "slotReservations")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SlotReservation {
+
+    @Id
+    private String id;
+
+    @Indexed(name = "appointmentId", background = true)
+    private String appointmentId;
+
+    private String ownerType;
+    private String ownerId;
+    private LocalDateTime slotStart;
+    private LocalDateTime reservedAt;
+
+    @Indexed(name = "expiresAt_ttl", expireAfter = "0s", background = true)
+    private LocalDateTime expiresAt;
+}
@@ -6,17 +6,19 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 
 @Document(collection = "staffBranchMappings")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@CompoundIndex(def = "{'doctorId': 1, 'branchId': 1}", unique = true)
+@CompoundIndex(name = "doctor_branch_unique", def = "{'doctorId': 1, 'branchId': 1}", unique = true, background = true)
 public class StaffBranchMapping {
 
     @Id
     private String id;
     private String doctorId;
+    @Indexed(name = "branchId", background = true)
     private String branchId;
     private String doctorName;
     private String branchCode;
@@ -0,0 +1,39 @@
+package com.scheduler.schedulerapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "waitlistEntries")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@CompoundIndexes({
+        @CompoundIndex(name = "doctor_status_priority", def = "{'doctorId': 1, 'status': 1, 'priority': -1, 'createdAt': 1}", background = true),
+        @CompoundIndex(name = "branch_status_priority", def = "{'branchId': 1, 'status': 1, 'priority': -1, 'createdAt': 1}", background = true),
+        @CompoundIndex(name = "patient_status", def = "{'patientId': 1, 'status': 1}", background = true)
+})
+public class WaitlistEntry {
+
+    @Id
+    private String id;
+    private String patientId;
+    private String doctorId;
+    private String branchId;
+    private String title;
+    private String description;
+    private Integer durationMinutes;
+    private LocalDateTime earliestStart;
+    private LocalDateTime latestEnd;
+    private Integer priority = 0;
+    private String status = "waiting";
+    private String appointmentId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,6 +18,7 @@ public class PatientMedicalRecord {
 
     @Id
     private String id;
+    @Indexed(name = "patientId_unique", unique = true, background = true)
     private String patientId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
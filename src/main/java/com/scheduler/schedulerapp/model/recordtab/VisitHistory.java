@@ -3,12 +3,14 @@ package com.scheduler.schedulerapp.model.recordtab;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.Indexed;
 import java.time.LocalDateTime;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class VisitHistory {
+    @Indexed(name = "visitHistory_appointmentId", sparse = true, background = true)
     private String appointmentId;
     private String consultationSessionId;
     private LocalDateTime visitDate;
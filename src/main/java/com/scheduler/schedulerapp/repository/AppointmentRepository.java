@@ -1,12 +1,18 @@
 package com.scheduler.schedulerapp.repository;
 
 import com.scheduler.schedulerapp.model.Appointment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends MongoRepository<Appointment, String> {
@@ -37,7 +43,41 @@ public interface AppointmentRepository extends MongoRepository<Appointment, Stri
 
 
     List<Appointment> findByBranchId(String branchId);
+    List<Appointment> findByBranchIdInOrderByStartTimeAscIdAsc(Collection<String> branchIds);
     List<Appointment> findByBranchIdAndStartTimeBetween(String branchId, LocalDateTime start, LocalDateTime end);
 
     int countByDoctorId(String id);
+
+    List<Appointment> findBySeriesIdIn(Collection<String> seriesIds);
+
+    Optional<Appointment> findBySeriesIdAndOriginalStartTime(String seriesId, LocalDateTime originalStartTime);
+
+    Window<Appointment> findAllByOrderByStartTimeAscIdAsc(ScrollPosition position, Limit limit);
+
+    Window<Appointment> findByDoctorIdOrderByStartTimeAscIdAsc(String doctorId, ScrollPosition position, Limit limit);
+
+    Window<Appointment> findByPatientIdOrderByStartTimeAscIdAsc(String patientId, ScrollPosition position, Limit limit);
+
+    Window<Appointment> findByBranchIdOrderByStartTimeAscIdAsc(String branchId, ScrollPosition position, Limit limit);
+
+    Window<Appointment> findByBranchIdInOrderByStartTimeAscIdAsc(Collection<String> branchIds, ScrollPosition position, Limit limit);
+
+    Window<Appointment> findByStatusOrderByStartTimeAscIdAsc(String status, ScrollPosition position, Limit limit);
+
+    @Query(value = "{ 'status': ?0, 'startTime': { $gte: ?1, $lt: ?2 } }", sort = "{ 'startTime': 1 }")
+    Stream<Appointment> streamByStatusAndStartTimeRange(String status, LocalDateTime from, LocalDateTime to);
+
+    @Query(value = "{ 'doctorId': ?0, 'startTime': { $gte: ?1 } }", sort = "{ 'startTime': 1, '_id': 1 }")
+    Stream<Appointment> streamByDoctorIdFrom(String doctorId, LocalDateTime from);
+
+    @Query(value = "{ 'branchId': ?0, 'startTime': { $gte: ?1 } }", sort = "{ 'startTime': 1, '_id': 1 }")
+    Stream<Appointment> streamByBranchIdFrom(String branchId, LocalDateTime from);
+
+    Window<Appointment> findByDoctorIdAndStatusOrderByStartTimeAscIdAsc(String doctorId, String status, ScrollPosition position, Limit limit);
+
+    Window<Appointment> findByStartTimeBetweenOrderByStartTimeAscIdAsc(LocalDateTime start, LocalDateTime end, ScrollPosition position, Limit limit);
+
+    Window<Appointment> findByDoctorIdAndStartTimeBetweenOrderByStartTimeAscIdAsc(String doctorId, LocalDateTime start, LocalDateTime end, ScrollPosition position, Limit limit);
+
+    Window<Appointment> findByPatientIdAndStartTimeBetweenOrderByStartTimeAscIdAsc(String patientId, LocalDateTime start, LocalDateTime end, ScrollPosition position, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.scheduler.schedulerapp.repository;
+
+import com.scheduler.schedulerapp.model.AppointmentSeries;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AppointmentSeriesRepository extends MongoRepository<AppointmentSeries, String> {
+
+    @Query("{ 'status': 'active', 'seriesStart': { $lt: ?1 }, 'seriesEnd': { $gt: ?0 } }")
+    List<AppointmentSeries> findActiveSeries(LocalDateTime from, LocalDateTime to);
+
+    List<AppointmentSeries> findByStatusAndSeriesEndAfter(String status, LocalDateTime after);
+
+    @Query("{ 'doctorId': ?0, 'status': 'active', 'seriesStart': { $lt: ?2 }, 'seriesEnd': { $gt: ?1 } }")
+    List<AppointmentSeries> findActiveDoctorSeries(String doctorId, LocalDateTime from, LocalDateTime to);
+
+    @Query("{ 'patientId': ?0, 'status': 'active', 'seriesStart': { $lt: ?2 }, 'seriesEnd': { $gt: ?1 } }")
+    List<AppointmentSeries> findActivePatientSeries(String patientId, LocalDateTime from, LocalDateTime to);
+
+    @Query("{ 'branchId': ?0, 'status': 'active', 'seriesStart': { $lt: ?2 }, 'seriesEnd': { $gt: ?1 } }")
+    List<AppointmentSeries> findActiveBranchSeries(String branchId, LocalDateTime from, LocalDateTime to);
+}
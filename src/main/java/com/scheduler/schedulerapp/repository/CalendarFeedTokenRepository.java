@@ -0,0 +1,9 @@
+package com.scheduler.schedulerapp.repository;
+
+import com.scheduler.schedulerapp.model.CalendarFeedToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CalendarFeedTokenRepository extends MongoRepository<CalendarFeedToken, String> {
+}
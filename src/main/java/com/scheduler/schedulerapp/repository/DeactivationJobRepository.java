@@ -0,0 +1,20 @@
+package com.scheduler.schedulerapp.repository;
+
+import com.scheduler.schedulerapp.model.DeactivationJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DeactivationJobRepository extends MongoRepository<DeactivationJob, String> {
+
+    List<DeactivationJob> findByTargetIdOrderByCreatedAtDesc(String targetId);
+
+    List<DeactivationJob> findByStatusIn(Collection<String> statuses);
+
+    Optional<DeactivationJob> findFirstByTargetTypeAndTargetIdAndStatusIn(String targetType, String targetId,
+                                                                          Collection<String> statuses);
+}
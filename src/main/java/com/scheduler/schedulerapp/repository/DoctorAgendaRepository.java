@@ -0,0 +1,19 @@
+package com.scheduler.schedulerapp.repository;
+
+import com.scheduler.schedulerapp.model.DoctorAgenda;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DoctorAgendaRepository extends MongoRepository<DoctorAgenda, String> {
+
+    @Query(value = "{ 'entries.appointmentId': { $in: ?0 } }", fields = "{ 'doctorId': 1, 'date': 1 }")
+    List<DoctorAgenda> findKeysContainingAppointments(Collection<String> appointmentIds);
+
+    void deleteByDoctorIdAndDateBetween(String doctorId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,16 @@
+package com.scheduler.schedulerapp.repository;
+
+import com.scheduler.schedulerapp.model.SlotReservation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SlotReservationRepository extends MongoRepository<SlotReservation, String> {
+    List<SlotReservation> findByAppointmentId(String appointmentId);
+    void deleteByAppointmentId(String appointmentId);
+    void deleteByAppointmentIdIn(Collection<String> appointmentIds);
+    void deleteByIdInAndAppointmentId(Collection<String> ids, String appointmentId);
+}
@@ -0,0 +1,22 @@
+package com.scheduler.schedulerapp.repository;
+
+import com.scheduler.schedulerapp.model.WaitlistEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends MongoRepository<WaitlistEntry, String> {
+
+    List<WaitlistEntry> findByDoctorIdAndStatusOrderByPriorityDescCreatedAtAsc(String doctorId, String status);
+
+    List<WaitlistEntry> findByBranchIdAndStatusOrderByPriorityDescCreatedAtAsc(String branchId, String status);
+
+    List<WaitlistEntry> findByPatientIdAndStatus(String patientId, String status);
+
+    List<WaitlistEntry> findByStatusAndDoctorIdIn(String status, Collection<String> doctorIds);
+
+    List<WaitlistEntry> findByStatusAndDoctorIdIsNullAndBranchIdIn(String status, Collection<String> branchIds);
+}
@@ -0,0 +1,132 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.dto.AppointmentResponseDTO;
+import com.scheduler.schedulerapp.dto.DoctorResponseDTO;
+import com.scheduler.schedulerapp.dto.HospitalBranchResponseDTO;
+import com.scheduler.schedulerapp.dto.PatientResponseDTO;
+import com.scheduler.schedulerapp.mapper.DTOMapper;
+import com.scheduler.schedulerapp.model.HospitalBranch;
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.model.Patient;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.hospitalbranch.HospitalBranchService;
+import com.scheduler.schedulerapp.service.patient.PatientService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the related doctor, patient and branch of appointments. Each field is loaded
+ * once per request for all appointments in the result with a single id lookup, instead
+ * of one query per row.
+ */
+@Controller
+public class AppointmentFieldResolver {
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private HospitalBranchService hospitalBranchService;
+
+    @Autowired
+    private DTOMapper dtoMapper;
+
+    @BatchMapping(typeName = "Appointment")
+    public List<String> doctorName(List<AppointmentResponseDTO> appointments) {
+        Map<String, HospitalStaff> doctors = loadDoctors(appointments);
+        return appointments.stream()
+                .map(appointment -> {
+                    HospitalStaff doctor = doctors.get(appointment.getDoctorId());
+                    return doctor != null ? doctor.getName() : "Unknown doctor";
+                })
+                .collect(Collectors.toList());
+    }
+
+    @BatchMapping(typeName = "Appointment")
+    public List<String> patientName(List<AppointmentResponseDTO> appointments) {
+        Map<String, Patient> patients = loadPatients(appointments);
+        return appointments.stream()
+                .map(appointment -> {
+                    Patient patient = patients.get(appointment.getPatientId());
+                    return patient != null ? patient.getName() : "Unknown patient";
+                })
+                .collect(Collectors.toList());
+    }
+
+    @BatchMapping(typeName = "Appointment")
+    public List<DoctorResponseDTO> doctor(List<AppointmentResponseDTO> appointments) {
+        Map<String, HospitalStaff> doctors = loadDoctors(appointments);
+        return appointments.stream()
+                .map(appointment -> {
+                    HospitalStaff doctor = doctors.get(appointment.getDoctorId());
+                    return doctor != null ? dtoMapper.toDoctorResponseDTO(doctor) : null;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @BatchMapping(typeName = "Appointment")
+    public List<PatientResponseDTO> patient(List<AppointmentResponseDTO> appointments) {
+        Map<String, Patient> patients = loadPatients(appointments);
+        return appointments.stream()
+                .map(appointment -> {
+                    Patient patient = patients.get(appointment.getPatientId());
+                    return patient != null ? dtoMapper.toPatientResponseDTO(patient) : null;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @BatchMapping(typeName = "Appointment")
+    public List<HospitalBranchResponseDTO> branch(List<AppointmentResponseDTO> appointments) {
+        Set<String> branchIds = distinctIds(appointments, AppointmentResponseDTO::getBranchId);
+        Map<String, HospitalBranch> branches = branchIds.isEmpty() ? Map.of()
+                : byId(hospitalBranchService.getBranchesByIds(branchIds), HospitalBranch::getId);
+        return appointments.stream()
+                .map(appointment -> {
+                    HospitalBranch branch = appointment.getBranchId() != null
+                            ? branches.get(appointment.getBranchId()) : null;
+                    return branch != null ? dtoMapper.toHospitalBranchResponseDTO(branch) : null;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, HospitalStaff> loadDoctors(List<AppointmentResponseDTO> appointments) {
+        Set<String> doctorIds = distinctIds(appointments, AppointmentResponseDTO::getDoctorId);
+        if (doctorIds.isEmpty()) {
+            return Map.of();
+        }
+        return byId(doctorService.getDoctorsByIds(doctorIds), HospitalStaff::getId);
+    }
+
+    private Map<String, Patient> loadPatients(List<AppointmentResponseDTO> appointments) {
+        Set<String> patientIds = distinctIds(appointments, AppointmentResponseDTO::getPatientId);
+        if (patientIds.isEmpty()) {
+            return Map.of();
+        }
+        return byId(patientService.getPatientsByIds(patientIds), Patient::getId);
+    }
+
+    private static Set<String> distinctIds(List<AppointmentResponseDTO> appointments,
+                                           Function<AppointmentResponseDTO, String> idGetter) {
+        return appointments.stream()
+                .map(idGetter)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static <T> Map<String, T> byId(Collection<T> entities, Function<T, String> idGetter) {
+        return entities.stream()
+                .collect(Collectors.toMap(idGetter, Function.identity(), (first, second) -> first));
+    }
+}
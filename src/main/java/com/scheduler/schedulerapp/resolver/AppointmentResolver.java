@@ -1,28 +1,45 @@
 package com.scheduler.schedulerapp.resolver;
 
+import com.scheduler.schedulerapp.dto.AppointmentBatchResultDTO;
 import com.scheduler.schedulerapp.dto.AppointmentInputDTO;
 import com.scheduler.schedulerapp.dto.AppointmentUpdateInputDTO;
 import com.scheduler.schedulerapp.dto.AppointmentResponseDTO;
+import com.scheduler.schedulerapp.dto.AvailableSlotDTO;
+import com.scheduler.schedulerapp.dto.BranchOccupancyBucketDTO;
 import com.scheduler.schedulerapp.mapper.DTOMapper;
 import com.scheduler.schedulerapp.model.Appointment;
 import com.scheduler.schedulerapp.model.HospitalStaff;
-import com.scheduler.schedulerapp.model.StaffBranchMapping;
 import com.scheduler.schedulerapp.model.Patient;
+import com.scheduler.schedulerapp.service.access.AccessProfile;
+import com.scheduler.schedulerapp.service.access.RequesterAccessService;
+import com.scheduler.schedulerapp.service.appointment.AppointmentBatchResult;
+import com.scheduler.schedulerapp.service.appointment.AppointmentFilter;
 import com.scheduler.schedulerapp.service.appointment.AppointmentService;
+import com.scheduler.schedulerapp.service.appointment.OccupancyBucket;
+import com.scheduler.schedulerapp.service.appointment.SlotReservationManager;
 import com.scheduler.schedulerapp.service.branchmapping.DoctorBranchMappingService;
 import com.scheduler.schedulerapp.service.doctor.DoctorService;
 import com.scheduler.schedulerapp.service.patient.PatientService;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.stereotype.Controller;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -45,35 +62,37 @@ public class AppointmentResolver {
     @Autowired
     private DoctorBranchMappingService doctorBranchMappingService;
 
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private RequesterAccessService requesterAccessService;
+
     private static final Set<String> ADMIN_IDS = Set.of(
             "6887727cf3498c1806036f28");
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_AVAILABILITY_DAYS = 14;
+    private static final int MAX_OCCUPANCY_DAYS = 366;
+    private static final int MAX_BATCH_SIZE = 5000;
+
     private boolean hasFullAppointmentAccess(String userId) {
-        Optional<HospitalStaff> user = doctorService.getDoctorById(userId);
-        if (user.isPresent()) {
-            return user.get().hasFullAppointmentAccess(); // admin || customer_care
-        }
-        return false;
+        return requesterAccessService.getProfile(userId)
+                .map(AccessProfile::isFullAppointmentAccess) // admin || customer_care
+                .orElse(false);
     }
 
     @QueryMapping
     public List<AppointmentResponseDTO> appointments(@Argument String requesterId) {
-        Optional<HospitalStaff> user = doctorService.getDoctorById(requesterId);
-        if (user.isEmpty()) {
-            throw new SecurityException("User not found");
-        }
-
-        HospitalStaff doctor = user.get();
+        AccessProfile profile = requesterAccessService.getProfile(requesterId)
+                .orElseThrow(() -> new SecurityException("User not found"));
         List<Appointment> appointments;
 
-        if (doctor.hasFullAppointmentAccess()) {
+        if (profile.isFullAppointmentAccess()) {
             appointments = appointmentService.getAllAppointments();
-        } else if (doctor.isReceptionist()) {
-            List<StaffBranchMapping> branchMappings = doctorBranchMappingService.getDoctorBranches(requesterId);
-            appointments = new ArrayList<>();
-            for (StaffBranchMapping mapping : branchMappings) {
-                appointments.addAll(appointmentService.getAppointmentsByBranch(mapping.getBranchId()));
-            }
+        } else if (profile.isReceptionist()) {
+            appointments = appointmentService.getAppointmentsByBranches(profile.getBranchIds());
         } else {
             throw new SecurityException("Access denied");
         }
@@ -106,10 +125,10 @@ public class AppointmentResolver {
         if (hasFullAppointmentAccess(requesterId)) {
             appointments = appointmentService.getAppointmentsByStatus(status);
         } else {
-            appointments = appointmentService.getAppointmentsByDoctor(requesterId)
-                    .stream()
-                    .filter(apt -> status.equals(apt.getStatus()))
-                    .toList();
+            AppointmentFilter filter = new AppointmentFilter();
+            filter.setDoctorId(requesterId);
+            filter.setStatus(status);
+            appointments = appointmentService.findAppointments(filter);
         }
 
         return appointments.stream()
@@ -221,6 +240,39 @@ public class AppointmentResolver {
                 .collect(Collectors.toList());
     }
 
+    @QueryMapping
+    public List<AvailableSlotDTO> availableSlots(@Argument String doctorId, @Argument String branchId,
+            @Argument String date, @Argument Integer durationMinutes, @Argument Integer days) {
+
+        Optional<HospitalStaff> doctor = doctorService.getDoctorById(doctorId);
+        if (doctor.isEmpty()) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + doctorId);
+        }
+        if (branchId != null && !doctorBranchMappingService.isDoctorAssignedToBranch(doctorId, branchId)) {
+            throw new IllegalArgumentException("Doctor is not assigned to branch: " + branchId);
+        }
+        if (durationMinutes == null || durationMinutes <= 0 || durationMinutes > 24 * 60) {
+            throw new IllegalArgumentException("Duration must be between 1 and 1440 minutes");
+        }
+        int dayCount = days != null ? days : 1;
+        if (dayCount < 1 || dayCount > MAX_AVAILABILITY_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_AVAILABILITY_DAYS);
+        }
+
+        LocalDate from;
+        try {
+            from = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format. Use ISO format: 2024-12-15");
+        }
+
+        return appointmentService.findAvailableSlots(doctorId, from, dayCount, durationMinutes).stream()
+                .map(start -> new AvailableSlotDTO(doctorId, branchId,
+                        start.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                        start.plusMinutes(durationMinutes).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)))
+                .collect(Collectors.toList());
+    }
+
     @MutationMapping
     public AppointmentResponseDTO createAppointment(@Valid @Argument AppointmentInputDTO input) {
         Optional<HospitalStaff> doctor = doctorService.getDoctorById(input.getDoctorId());
@@ -239,7 +291,81 @@ public class AppointmentResolver {
         if (startTime.isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("Cannot create appointments in the past");
         }
+        SlotReservationManager.requireOnSlotGrid(startTime, endTime);
+
+        Appointment savedAppointment = appointmentService.createAppointment(toAppointment(input, startTime, endTime));
+        return dtoMapper.toAppointmentResponseDTO(savedAppointment);
+    }
+
+    @MutationMapping
+    public List<AppointmentBatchResultDTO> createAppointments(@Argument List<AppointmentInputDTO> inputs) {
+        if (inputs.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Cannot create more than " + MAX_BATCH_SIZE + " appointments at once");
+        }
+
+        Set<String> knownDoctorIds = doctorService.getDoctorsByIds(inputs.stream()
+                        .map(AppointmentInputDTO::getDoctorId).collect(Collectors.toSet())).stream()
+                .map(HospitalStaff::getId)
+                .collect(Collectors.toSet());
+        Set<String> knownPatientIds = patientService.getPatientsByIds(inputs.stream()
+                        .map(AppointmentInputDTO::getPatientId).collect(Collectors.toSet())).stream()
+                .map(Patient::getId)
+                .collect(Collectors.toSet());
+
+        AppointmentBatchResultDTO[] results = new AppointmentBatchResultDTO[inputs.size()];
+        List<Appointment> candidates = new ArrayList<>();
+        List<Integer> candidatePositions = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < inputs.size(); i++) {
+            AppointmentInputDTO input = inputs.get(i);
+            String error = validateBatchItem(input, knownDoctorIds, knownPatientIds, now);
+            if (error != null) {
+                results[i] = new AppointmentBatchResultDTO(i, false, null, error, null);
+                continue;
+            }
+            candidates.add(toAppointment(input, parseDateTime(input.getStartTime()), parseDateTime(input.getEndTime())));
+            candidatePositions.add(i);
+        }
 
+        List<AppointmentBatchResult> created = appointmentService.createAppointments(candidates);
+        for (int j = 0; j < created.size(); j++) {
+            AppointmentBatchResult result = created.get(j);
+            int position = candidatePositions.get(j);
+            Integer conflictsWith = result.getConflictsWithIndex() != null
+                    ? candidatePositions.get(result.getConflictsWithIndex())
+                    : null;
+            results[position] = result.isSuccess()
+                    ? new AppointmentBatchResultDTO(position, true, dtoMapper.toAppointmentResponseDTO(result.getAppointment()), null, null)
+                    : new AppointmentBatchResultDTO(position, false, null, result.getError(), conflictsWith);
+        }
+        return Arrays.asList(results);
+    }
+
+    private String validateBatchItem(AppointmentInputDTO input, Set<String> knownDoctorIds,
+                                     Set<String> knownPatientIds, LocalDateTime now) {
+        Set<ConstraintViolation<AppointmentInputDTO>> violations = validator.validate(input);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (!knownDoctorIds.contains(input.getDoctorId())) {
+            return "Doctor not found with ID: " + input.getDoctorId();
+        }
+        if (!knownPatientIds.contains(input.getPatientId())) {
+            return "Patient not found with ID: " + input.getPatientId();
+        }
+        if (parseDateTime(input.getStartTime()).isBefore(now)) {
+            return "Cannot create appointments in the past";
+        }
+        try {
+            SlotReservationManager.requireOnSlotGrid(parseDateTime(input.getStartTime()), parseDateTime(input.getEndTime()));
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    private Appointment toAppointment(AppointmentInputDTO input, LocalDateTime startTime, LocalDateTime endTime) {
         Appointment appointment = new Appointment();
         appointment.setTitle(input.getTitle());
         appointment.setDescription(input.getDescription());
@@ -249,9 +375,7 @@ public class AppointmentResolver {
         appointment.setStartTime(startTime);
         appointment.setEndTime(endTime);
         appointment.setStatus(input.getStatus() != null ? input.getStatus() : "scheduled");
-
-        Appointment savedAppointment = appointmentService.createAppointment(appointment);
-        return dtoMapper.toAppointmentResponseDTO(savedAppointment);
+        return appointment;
     }
 
     @MutationMapping
@@ -266,10 +390,8 @@ public class AppointmentResolver {
 
         Appointment appointment = existing.get();
 
-        if (!ADMIN_IDS.contains(requesterId) && !requesterId.equals(appointment.getDoctorId())
-                && !requesterId.equals(appointment.getPatientId())) {
-            throw new SecurityException("Access denied: You can only update your own appointments");
-        }
+        checkOwnAppointment(requesterId, appointment.getDoctorId(), appointment.getPatientId(),
+                "Access denied: You can only update your own appointments");
 
         if (input.getTitle() != null) {
             appointment.setTitle(input.getTitle());
@@ -282,10 +404,13 @@ public class AppointmentResolver {
             if (newStartTime.isBefore(LocalDateTime.now())) {
                 throw new IllegalArgumentException("Cannot update appointment to past time");
             }
+            SlotReservationManager.requireOnSlotGrid(newStartTime);
             appointment.setStartTime(newStartTime);
         }
         if (input.getEndTime() != null) {
-            appointment.setEndTime(parseDateTime(input.getEndTime()));
+            LocalDateTime newEndTime = parseDateTime(input.getEndTime());
+            SlotReservationManager.requireOnSlotGrid(newEndTime);
+            appointment.setEndTime(newEndTime);
         }
         if (input.getStatus() != null) {
             appointment.setStatus(input.getStatus());
@@ -307,10 +432,8 @@ public class AppointmentResolver {
             throw new IllegalArgumentException("Appointment not found with ID: " + id);
         }
 
-        if (!ADMIN_IDS.contains(requesterId) && !requesterId.equals(appointment.get().getDoctorId())
-                && !requesterId.equals(appointment.get().getPatientId())) {
-            throw new SecurityException("Access denied: You can only delete your own appointments");
-        }
+        checkOwnAppointment(requesterId, appointment.get().getDoctorId(), appointment.get().getPatientId(),
+                "Access denied: You can only delete your own appointments");
 
         appointmentService.deleteAppointment(id);
         return true;
@@ -318,35 +441,40 @@ public class AppointmentResolver {
 
     @MutationMapping
     public Boolean deleteMultipleAppointments(@Argument List<String> ids, @Argument String requesterId) {
+        Map<String, Appointment> owners = appointmentService.getAppointmentOwnership(ids).stream()
+                .collect(Collectors.toMap(Appointment::getId, appointment -> appointment));
+        boolean admin = ADMIN_IDS.contains(requesterId);
         for (String id : ids) {
-            Optional<Appointment> appointment = appointmentService.getAppointmentById(id);
-            if (appointment.isEmpty()) {
+            Appointment appointment = owners.get(id);
+            if (appointment == null) {
                 throw new IllegalArgumentException("Appointment not found with ID: " + id);
             }
 
-            if (!ADMIN_IDS.contains(requesterId) && !requesterId.equals(appointment.get().getDoctorId())
-                    && !requesterId.equals(appointment.get().getPatientId())) {
+            if (!admin && !requesterId.equals(appointment.getDoctorId())
+                    && !requesterId.equals(appointment.getPatientId())) {
                 throw new SecurityException("Access denied: You can only delete your own appointments");
             }
         }
 
-        appointmentService.deleteMultipleAppointments(ids);
+        appointmentService.deleteMultipleAppointments(ids, admin ? null : requesterId);
         return true;
     }
 
 
-    private boolean hasBranchAccess(String userId, String branchId) {
-        Optional<HospitalStaff> user = doctorService.getDoctorById(userId);
-        if (user.isPresent()) {
-            HospitalStaff doctor = user.get();
-            if (doctor.isAdmin() || doctor.isCustomerCare()) {
-                return true;
-            }
-            if (doctor.isReceptionist()) {
-                return doctorBranchMappingService.isDoctorAssignedToBranch(userId, branchId);
-            }
+    /**
+     * The check appointment mutations share: admins may change any booking, everyone
+     * else only those where they are the doctor or the patient.
+     */
+    static void checkOwnAppointment(String requesterId, String doctorId, String patientId, String denied) {
+        if (!ADMIN_IDS.contains(requesterId) && !requesterId.equals(doctorId) && !requesterId.equals(patientId)) {
+            throw new SecurityException(denied);
         }
-        return false;
+    }
+
+    private boolean hasBranchAccess(String userId, String branchId) {
+        return requesterAccessService.getProfile(userId)
+                .map(profile -> profile.canAccessBranch(branchId))
+                .orElse(false);
     }
 
     @QueryMapping
@@ -361,6 +489,149 @@ public class AppointmentResolver {
                 .collect(Collectors.toList());
     }
 
+    @QueryMapping
+    public List<BranchOccupancyBucketDTO> branchOccupancy(@Argument String branchId, @Argument String requesterId,
+            @Argument String from, @Argument String to, @Argument String bucket) {
+        if (!hasBranchAccess(requesterId, branchId)) {
+            throw new SecurityException("Access denied: You don't have access to this branch");
+        }
+
+        LocalDateTime fromTime = parseDateTime(from);
+        LocalDateTime toTime = parseDateTime(to);
+        if (!toTime.isAfter(fromTime)) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        if (fromTime.plusDays(MAX_OCCUPANCY_DAYS).isBefore(toTime)) {
+            throw new IllegalArgumentException("Occupancy range cannot exceed " + MAX_OCCUPANCY_DAYS + " days");
+        }
+
+        OccupancyBucket occupancyBucket;
+        try {
+            occupancyBucket = bucket != null ? OccupancyBucket.valueOf(bucket) : OccupancyBucket.HOUR;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Bucket must be one of HOUR, DAY, WEEKDAY_HOUR");
+        }
+
+        return appointmentService.getBranchOccupancy(branchId, fromTime, toTime, occupancyBucket).stream()
+                .map(count -> new BranchOccupancyBucketDTO(count.getDate(), count.getDayOfWeek(), count.getHour(),
+                        count.getAppointments(), count.getBookedMinutes()))
+                .collect(Collectors.toList());
+    }
+
+    @QueryMapping
+    public Window<AppointmentResponseDTO> appointmentsConnection(@Argument String requesterId, ScrollSubrange subrange) {
+        AccessProfile profile = requesterAccessService.getProfile(requesterId)
+                .orElseThrow(() -> new SecurityException("User not found"));
+        Window<Appointment> appointments;
+
+        if (profile.isFullAppointmentAccess()) {
+            appointments = appointmentService.getAllAppointments(position(subrange), pageSize(subrange));
+        } else if (profile.isReceptionist()) {
+            appointments = appointmentService.getAppointmentsByBranches(profile.getBranchIds(), position(subrange), pageSize(subrange));
+        } else {
+            throw new SecurityException("Access denied");
+        }
+
+        return appointments.map(dtoMapper::toAppointmentResponseDTO);
+    }
+
+    @QueryMapping
+    public Window<AppointmentResponseDTO> appointmentsByDateRangeConnection(@Argument String requesterId,
+            @Argument String startDate, @Argument String endDate, ScrollSubrange subrange) {
+        LocalDateTime start = parseDateTime(startDate);
+        LocalDateTime end = parseDateTime(endDate);
+
+        if (!hasFullAppointmentAccess(requesterId)) {
+            throw new SecurityException("Access denied: Only admin and customer care can view all appointments");
+        }
+
+        return appointmentService.getAppointmentsByDateRange(start, end, position(subrange), pageSize(subrange))
+                .map(dtoMapper::toAppointmentResponseDTO);
+    }
+
+    @QueryMapping
+    public Window<AppointmentResponseDTO> appointmentsByStatusConnection(@Argument String status,
+            @Argument String requesterId, ScrollSubrange subrange) {
+        Window<Appointment> appointments;
+
+        if (hasFullAppointmentAccess(requesterId)) {
+            appointments = appointmentService.getAppointmentsByStatus(status, position(subrange), pageSize(subrange));
+        } else {
+            appointments = appointmentService.getAppointmentsByDoctorAndStatus(requesterId, status,
+                    position(subrange), pageSize(subrange));
+        }
+
+        return appointments.map(dtoMapper::toAppointmentResponseDTO);
+    }
+
+    @QueryMapping
+    public Window<AppointmentResponseDTO> appointmentsByDoctorConnection(@Argument String doctorId, ScrollSubrange subrange) {
+        if (doctorService.getDoctorById(doctorId).isEmpty()) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + doctorId);
+        }
+
+        return appointmentService.getAppointmentsByDoctor(doctorId, position(subrange), pageSize(subrange))
+                .map(dtoMapper::toAppointmentResponseDTO);
+    }
+
+    @QueryMapping
+    public Window<AppointmentResponseDTO> appointmentsByPatientConnection(@Argument String patientId, ScrollSubrange subrange) {
+        if (patientService.getPatientById(patientId).isEmpty()) {
+            throw new IllegalArgumentException("Patient not found with ID: " + patientId);
+        }
+
+        return appointmentService.getAppointmentsByPatient(patientId, position(subrange), pageSize(subrange))
+                .map(dtoMapper::toAppointmentResponseDTO);
+    }
+
+    @QueryMapping
+    public Window<AppointmentResponseDTO> appointmentsByDoctorAndDateRangeConnection(@Argument String doctorId,
+            @Argument String startDate, @Argument String endDate, ScrollSubrange subrange) {
+        LocalDateTime start = parseDateTime(startDate);
+        LocalDateTime end = parseDateTime(endDate);
+
+        if (doctorService.getDoctorById(doctorId).isEmpty()) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + doctorId);
+        }
+
+        return appointmentService.getAppointmentsByDoctorAndDateRange(doctorId, start, end, position(subrange), pageSize(subrange))
+                .map(dtoMapper::toAppointmentResponseDTO);
+    }
+
+    @QueryMapping
+    public Window<AppointmentResponseDTO> appointmentsByPatientAndDateRangeConnection(@Argument String patientId,
+            @Argument String startDate, @Argument String endDate, ScrollSubrange subrange) {
+        LocalDateTime start = parseDateTime(startDate);
+        LocalDateTime end = parseDateTime(endDate);
+
+        if (patientService.getPatientById(patientId).isEmpty()) {
+            throw new IllegalArgumentException("Patient not found with ID: " + patientId);
+        }
+
+        return appointmentService.getAppointmentsByPatientAndDateRange(patientId, start, end, position(subrange), pageSize(subrange))
+                .map(dtoMapper::toAppointmentResponseDTO);
+    }
+
+    @QueryMapping
+    public Window<AppointmentResponseDTO> appointmentsByBranchConnection(@Argument String branchId,
+            @Argument String requesterId, ScrollSubrange subrange) {
+        if (!hasBranchAccess(requesterId, branchId)) {
+            throw new SecurityException("Access denied: You don't have access to this branch");
+        }
+
+        return appointmentService.getAppointmentsByBranch(branchId, position(subrange), pageSize(subrange))
+                .map(dtoMapper::toAppointmentResponseDTO);
+    }
+
+    private ScrollPosition position(ScrollSubrange subrange) {
+        // A cursor already carries the direction; "last" without "before" starts backward from the end.
+        return subrange.position().orElse(subrange.forward() ? ScrollPosition.keyset() : ScrollPosition.keyset().backward());
+    }
+
+    private int pageSize(ScrollSubrange subrange) {
+        return Math.min(subrange.count().orElse(DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE);
+    }
+
     private LocalDateTime parseDateTime(String dateTimeStr) {
         try {
             return LocalDateTime.parse(dateTimeStr);
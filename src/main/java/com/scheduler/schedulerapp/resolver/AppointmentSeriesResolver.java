@@ -0,0 +1,120 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.dto.AppointmentResponseDTO;
+import com.scheduler.schedulerapp.dto.AppointmentSeriesInputDTO;
+import com.scheduler.schedulerapp.dto.AppointmentSeriesResponseDTO;
+import com.scheduler.schedulerapp.mapper.DTOMapper;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
+import com.scheduler.schedulerapp.service.appointment.SlotReservationManager;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.patient.PatientService;
+import com.scheduler.schedulerapp.service.series.AppointmentSeriesService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+@Controller
+public class AppointmentSeriesResolver {
+
+    @Autowired
+    private AppointmentSeriesService appointmentSeriesService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DTOMapper dtoMapper;
+
+    @QueryMapping
+    public AppointmentSeriesResponseDTO appointmentSeries(@Argument String id) {
+        return appointmentSeriesService.getSeriesById(id)
+                .map(dtoMapper::toAppointmentSeriesResponseDTO)
+                .orElse(null);
+    }
+
+    @MutationMapping
+    public AppointmentSeriesResponseDTO createAppointmentSeries(@Valid @Argument AppointmentSeriesInputDTO input) {
+        if (doctorService.getDoctorById(input.getDoctorId()).isEmpty()) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + input.getDoctorId());
+        }
+        if (patientService.getPatientById(input.getPatientId()).isEmpty()) {
+            throw new IllegalArgumentException("Patient not found with ID: " + input.getPatientId());
+        }
+
+        LocalDateTime startTime = parseDateTime(input.getStartTime());
+        LocalDateTime endTime = parseDateTime(input.getEndTime());
+        if (startTime.isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Cannot create appointments in the past");
+        }
+        SlotReservationManager.requireOnSlotGrid(startTime, endTime);
+
+        AppointmentSeries series = new AppointmentSeries();
+        series.setTitle(input.getTitle());
+        series.setDescription(input.getDescription());
+        series.setDoctorId(input.getDoctorId());
+        series.setPatientId(input.getPatientId());
+        series.setBranchId(input.getBranchId());
+        series.setSeriesStart(startTime);
+        series.setDurationMinutes((int) Duration.between(startTime, endTime).toMinutes());
+        series.setRecurrenceRule(input.getRecurrenceRule());
+
+        return dtoMapper.toAppointmentSeriesResponseDTO(appointmentSeriesService.createSeries(series));
+    }
+
+    @MutationMapping
+    public Boolean cancelAppointmentSeries(@Argument String id, @Argument String requesterId) {
+        checkOwnSeries(id, requesterId, "Access denied: You can only cancel your own appointment series");
+        appointmentSeriesService.cancelSeries(id);
+        return true;
+    }
+
+    @MutationMapping
+    public AppointmentResponseDTO cancelSeriesOccurrence(@Argument String seriesId, @Argument String occurrenceStart,
+                                                         @Argument String requesterId) {
+        checkOwnSeries(seriesId, requesterId, "Access denied: You can only cancel your own appointments");
+        return dtoMapper.toAppointmentResponseDTO(
+                appointmentSeriesService.cancelOccurrence(seriesId, parseDateTime(occurrenceStart)));
+    }
+
+    @MutationMapping
+    public AppointmentResponseDTO moveSeriesOccurrence(@Argument String seriesId, @Argument String occurrenceStart,
+                                                       @Argument String startTime, @Argument String endTime,
+                                                       @Argument String requesterId) {
+        checkOwnSeries(seriesId, requesterId, "Access denied: You can only update your own appointments");
+        LocalDateTime start = parseDateTime(startTime);
+        LocalDateTime end = parseDateTime(endTime);
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        if (start.isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Cannot move appointments into the past");
+        }
+        SlotReservationManager.requireOnSlotGrid(start, end);
+        return dtoMapper.toAppointmentResponseDTO(
+                appointmentSeriesService.moveOccurrence(seriesId, parseDateTime(occurrenceStart), start, end));
+    }
+
+    private void checkOwnSeries(String seriesId, String requesterId, String denied) {
+        AppointmentSeries series = appointmentSeriesService.getSeriesById(seriesId)
+                .orElseThrow(() -> new IllegalArgumentException("Appointment series not found with ID: " + seriesId));
+        AppointmentResolver.checkOwnAppointment(requesterId, series.getDoctorId(), series.getPatientId(), denied);
+    }
+
+    private LocalDateTime parseDateTime(String dateTimeStr) {
+        try {
+            return LocalDateTime.parse(dateTimeStr);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format. Use ISO format: 2024-12-15T10:00:00");
+        }
+    }
+}
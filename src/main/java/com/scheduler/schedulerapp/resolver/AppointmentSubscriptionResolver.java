@@ -0,0 +1,53 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.dto.AppointmentChangeDTO;
+import com.scheduler.schedulerapp.mapper.DTOMapper;
+import com.scheduler.schedulerapp.service.access.AccessProfile;
+import com.scheduler.schedulerapp.service.access.RequesterAccessService;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.live.AppointmentChangeHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+@Controller
+public class AppointmentSubscriptionResolver {
+
+    @Autowired
+    private AppointmentChangeHub appointmentChangeHub;
+
+    @Autowired
+    private RequesterAccessService requesterAccessService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private DTOMapper dtoMapper;
+
+    @SubscriptionMapping
+    public Flux<AppointmentChangeDTO> appointmentChanged(@Argument String branchId, @Argument String requesterId) {
+        boolean allowed = requesterAccessService.getProfile(requesterId)
+                .map(profile -> profile.canAccessBranch(branchId))
+                .orElse(false);
+        if (!allowed) {
+            throw new SecurityException("Access denied: You don't have access to this branch");
+        }
+        return appointmentChangeHub.branchChanges(branchId).map(dtoMapper::toAppointmentChangeDTO);
+    }
+
+    @SubscriptionMapping
+    public Flux<AppointmentChangeDTO> doctorScheduleChanged(@Argument String doctorId, @Argument String requesterId) {
+        AccessProfile profile = requesterAccessService.getProfile(requesterId)
+                .orElseThrow(() -> new SecurityException("User not found"));
+        if (!profile.isFullAppointmentAccess() && !doctorId.equals(requesterId)) {
+            throw new SecurityException("Access denied: You can only follow your own schedule");
+        }
+        if (doctorService.getDoctorById(doctorId).isEmpty()) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + doctorId);
+        }
+        return appointmentChangeHub.doctorChanges(doctorId).map(dtoMapper::toAppointmentChangeDTO);
+    }
+}
@@ -0,0 +1,42 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.dto.AppointmentSweepStatusDTO;
+import com.scheduler.schedulerapp.service.sweeper.AppointmentSweepMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@Controller
+public class AppointmentSweepResolver {
+
+    @Autowired
+    private AppointmentSweepMetrics metrics;
+
+    @QueryMapping
+    public AppointmentSweepStatusDTO appointmentSweepStatus() {
+        return new AppointmentSweepStatusDTO(
+                metrics.isRunning(),
+                format(metrics.getCutoff()),
+                format(metrics.getSweptUpTo()),
+                metrics.getBacklog(),
+                metrics.getProcessed(),
+                metrics.getCompleted(),
+                metrics.getNoShow(),
+                metrics.getChunks(),
+                metrics.getThroughputPerSecond(),
+                format(metrics.getLastStartedAt()),
+                format(metrics.getLastFinishedAt()),
+                metrics.getLastDurationMillis(),
+                metrics.getLastError(),
+                metrics.getTotalRuns(),
+                metrics.getTotalCompleted(),
+                metrics.getTotalNoShow());
+    }
+
+    private String format(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.service.access.AccessProfile;
+import com.scheduler.schedulerapp.service.access.RequesterAccessService;
+import com.scheduler.schedulerapp.service.calendar.CalendarFeedService;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.hospitalbranch.HospitalBranchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Issues calendar feed URLs. Each call returns a fresh token and revokes the URL
+ * issued before, so the returned path is the only one that works from then on.
+ */
+@Controller
+public class CalendarFeedResolver {
+
+    @Autowired
+    private CalendarFeedService calendarFeedService;
+
+    @Autowired
+    private RequesterAccessService requesterAccessService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private HospitalBranchService hospitalBranchService;
+
+    @MutationMapping
+    public String issueDoctorCalendarFeed(@Argument String doctorId, @Argument String requesterId) {
+        AccessProfile profile = requesterAccessService.getProfile(requesterId)
+                .orElseThrow(() -> new SecurityException("User not found"));
+        if (!profile.isFullAppointmentAccess() && !doctorId.equals(requesterId)) {
+            throw new SecurityException("Access denied");
+        }
+        if (doctorService.getDoctorById(doctorId).isEmpty()) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + doctorId);
+        }
+
+        String token = calendarFeedService.issueDoctorFeedToken(doctorId, requesterId);
+        return "/api/calendar/doctors/" + doctorId + ".ics?token=" + token;
+    }
+
+    @MutationMapping
+    public String issueBranchCalendarFeed(@Argument String branchId, @Argument String requesterId) {
+        AccessProfile profile = requesterAccessService.getProfile(requesterId)
+                .orElseThrow(() -> new SecurityException("User not found"));
+        if (!profile.canAccessBranch(branchId)) {
+            throw new SecurityException("Access denied");
+        }
+        if (hospitalBranchService.getBranchById(branchId).isEmpty()) {
+            throw new IllegalArgumentException("Branch not found with ID: " + branchId);
+        }
+
+        String token = calendarFeedService.issueBranchFeedToken(branchId, requesterId);
+        return "/api/calendar/branches/" + branchId + ".ics?token=" + token;
+    }
+}
@@ -0,0 +1,36 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.dto.DeactivationJobResponseDTO;
+import com.scheduler.schedulerapp.mapper.DTOMapper;
+import com.scheduler.schedulerapp.service.deactivation.DeactivationJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Controller
+public class DeactivationJobResolver {
+
+    @Autowired
+    private DeactivationJobService deactivationJobService;
+
+    @Autowired
+    private DTOMapper dtoMapper;
+
+    @QueryMapping
+    public DeactivationJobResponseDTO deactivationJob(@Argument String id) {
+        return deactivationJobService.getJobById(id)
+                .map(dtoMapper::toDeactivationJobResponseDTO)
+                .orElse(null);
+    }
+
+    @QueryMapping
+    public List<DeactivationJobResponseDTO> deactivationJobs(@Argument String targetId) {
+        return deactivationJobService.getJobsForTarget(targetId).stream()
+                .map(dtoMapper::toDeactivationJobResponseDTO)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,50 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.dto.DoctorAgendaDTO;
+import com.scheduler.schedulerapp.mapper.DTOMapper;
+import com.scheduler.schedulerapp.service.access.AccessProfile;
+import com.scheduler.schedulerapp.service.access.RequesterAccessService;
+import com.scheduler.schedulerapp.service.agenda.DoctorAgendaService;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+@Controller
+public class DoctorAgendaResolver {
+
+    @Autowired
+    private DoctorAgendaService doctorAgendaService;
+
+    @Autowired
+    private RequesterAccessService requesterAccessService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private DTOMapper dtoMapper;
+
+    @QueryMapping
+    public DoctorAgendaDTO doctorAgenda(@Argument String doctorId, @Argument String date, @Argument String requesterId) {
+        AccessProfile profile = requesterAccessService.getProfile(requesterId)
+                .orElseThrow(() -> new SecurityException("User not found"));
+        if (!profile.isFullAppointmentAccess() && !doctorId.equals(requesterId)) {
+            throw new SecurityException("Access denied: You can only view your own agenda");
+        }
+        LocalDate day;
+        try {
+            day = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format. Use ISO format: 2024-12-15");
+        }
+        if (doctorService.getDoctorById(doctorId).isEmpty()) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + doctorId);
+        }
+        return dtoMapper.toDoctorAgendaDTO(doctorAgendaService.getAgenda(doctorId, day));
+    }
+}
@@ -0,0 +1,95 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.dto.AppointmentRequestInputDTO;
+import com.scheduler.schedulerapp.dto.ScheduleAssignmentDTO;
+import com.scheduler.schedulerapp.dto.ScheduleOptimizationResultDTO;
+import com.scheduler.schedulerapp.dto.UnplacedRequestDTO;
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.service.branchmapping.DoctorBranchMappingService;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.optimizer.ScheduleOptimizationResult;
+import com.scheduler.schedulerapp.service.optimizer.SchedulingOptimizerService;
+import com.scheduler.schedulerapp.service.optimizer.SchedulingRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Controller
+public class SchedulingOptimizerResolver {
+
+    @Autowired
+    private SchedulingOptimizerService schedulingOptimizerService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private DoctorBranchMappingService doctorBranchMappingService;
+
+    @QueryMapping
+    public ScheduleOptimizationResultDTO optimizeBranchSchedule(@Argument String branchId, @Argument String requesterId,
+            @Valid @Argument List<AppointmentRequestInputDTO> requests, @Argument Integer timeBudgetMs) {
+        if (!hasBranchAccess(requesterId, branchId)) {
+            throw new SecurityException("Access denied: You don't have access to this branch");
+        }
+
+        List<SchedulingRequest> schedulingRequests = requests.stream()
+                .map(input -> new SchedulingRequest(
+                        input.getRequestId(),
+                        input.getPatientId(),
+                        input.getDurationMinutes(),
+                        parseDateTime(input.getEarliestStart()),
+                        parseDateTime(input.getLatestEnd()),
+                        input.getPreferredDoctorId()))
+                .collect(Collectors.toList());
+
+        ScheduleOptimizationResult result = schedulingOptimizerService.optimizeBranchSchedule(
+                branchId, schedulingRequests, timeBudgetMs != null ? timeBudgetMs.longValue() : null);
+
+        return new ScheduleOptimizationResultDTO(
+                result.getAssignments().stream()
+                        .map(assignment -> new ScheduleAssignmentDTO(
+                                assignment.getRequestId(),
+                                assignment.getDoctorId(),
+                                assignment.getPatientId(),
+                                assignment.getStartTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                                assignment.getEndTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)))
+                        .collect(Collectors.toList()),
+                result.getUnplaced().stream()
+                        .map(unplaced -> new UnplacedRequestDTO(unplaced.getRequestId(), unplaced.getReason()))
+                        .collect(Collectors.toList()),
+                result.getElapsedMillis(),
+                result.isTimedOut());
+    }
+
+    private boolean hasBranchAccess(String userId, String branchId) {
+        Optional<HospitalStaff> user = doctorService.getDoctorById(userId);
+        if (user.isPresent()) {
+            HospitalStaff staff = user.get();
+            if (staff.isAdmin() || staff.isCustomerCare()) {
+                return true;
+            }
+            if (staff.isReceptionist()) {
+                return doctorBranchMappingService.isDoctorAssignedToBranch(userId, branchId);
+            }
+        }
+        return false;
+    }
+
+    private LocalDateTime parseDateTime(String dateTimeStr) {
+        try {
+            return LocalDateTime.parse(dateTimeStr);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format. Use ISO format: 2024-12-15T10:00:00");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.dto.StaffCacheStatsDTO;
+import com.scheduler.schedulerapp.service.doctor.StaffCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+@Controller
+public class StaffCacheResolver {
+
+    @Autowired
+    private StaffCache staffCache;
+
+    @QueryMapping
+    public StaffCacheStatsDTO staffCacheStats() {
+        long hits = staffCache.getHits();
+        long misses = staffCache.getMisses();
+        long lookups = hits + misses;
+        return new StaffCacheStatsDTO(
+                hits,
+                misses,
+                staffCache.getEvictions(),
+                lookups > 0 ? (double) hits / lookups : 0.0,
+                staffCache.getSize(),
+                staffCache.getMaxSize());
+    }
+}
@@ -0,0 +1,114 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.dto.WaitlistEntryInputDTO;
+import com.scheduler.schedulerapp.dto.WaitlistEntryResponseDTO;
+import com.scheduler.schedulerapp.mapper.DTOMapper;
+import com.scheduler.schedulerapp.model.WaitlistEntry;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.hospitalbranch.HospitalBranchService;
+import com.scheduler.schedulerapp.service.patient.PatientService;
+import com.scheduler.schedulerapp.service.waitlist.WaitlistService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Controller
+public class WaitlistResolver {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private HospitalBranchService hospitalBranchService;
+
+    @Autowired
+    private DTOMapper dtoMapper;
+
+    @QueryMapping
+    public WaitlistEntryResponseDTO waitlistEntry(@Argument String id) {
+        return waitlistService.getWaitlistEntryById(id)
+                .map(dtoMapper::toWaitlistEntryResponseDTO)
+                .orElse(null);
+    }
+
+    @QueryMapping
+    public List<WaitlistEntryResponseDTO> doctorWaitlist(@Argument String doctorId) {
+        return toResponse(waitlistService.getDoctorWaitlist(doctorId));
+    }
+
+    @QueryMapping
+    public List<WaitlistEntryResponseDTO> branchWaitlist(@Argument String branchId) {
+        return toResponse(waitlistService.getBranchWaitlist(branchId));
+    }
+
+    @QueryMapping
+    public List<WaitlistEntryResponseDTO> patientWaitlist(@Argument String patientId) {
+        return toResponse(waitlistService.getPatientWaitlist(patientId));
+    }
+
+    @MutationMapping
+    public WaitlistEntryResponseDTO joinWaitlist(@Valid @Argument WaitlistEntryInputDTO input,
+                                                 @Argument String requesterId) {
+        AppointmentResolver.checkOwnAppointment(requesterId, input.getDoctorId(), input.getPatientId(),
+                "Access denied: You can only join the waitlist for your own appointments");
+        if (patientService.getPatientById(input.getPatientId()).isEmpty()) {
+            throw new IllegalArgumentException("Patient not found with ID: " + input.getPatientId());
+        }
+        if (input.getDoctorId() != null && doctorService.getDoctorById(input.getDoctorId()).isEmpty()) {
+            throw new IllegalArgumentException("Doctor not found with ID: " + input.getDoctorId());
+        }
+        if (input.getBranchId() != null && hospitalBranchService.getBranchById(input.getBranchId()).isEmpty()) {
+            throw new IllegalArgumentException("Branch not found with ID: " + input.getBranchId());
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setPatientId(input.getPatientId());
+        entry.setDoctorId(input.getDoctorId());
+        entry.setBranchId(input.getBranchId());
+        entry.setTitle(input.getTitle());
+        entry.setDescription(input.getDescription());
+        entry.setDurationMinutes(input.getDurationMinutes());
+        entry.setEarliestStart(parseDateTime(input.getEarliestStart()));
+        entry.setLatestEnd(parseDateTime(input.getLatestEnd()));
+        entry.setPriority(input.getPriority());
+
+        return dtoMapper.toWaitlistEntryResponseDTO(waitlistService.joinWaitlist(entry));
+    }
+
+    @MutationMapping
+    public WaitlistEntryResponseDTO leaveWaitlist(@Argument String id, @Argument String requesterId) {
+        WaitlistEntry entry = waitlistService.getWaitlistEntryById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Waitlist entry not found with ID: " + id));
+        AppointmentResolver.checkOwnAppointment(requesterId, entry.getDoctorId(), entry.getPatientId(),
+                "Access denied: You can only leave your own waitlist entries");
+        return dtoMapper.toWaitlistEntryResponseDTO(waitlistService.leaveWaitlist(id));
+    }
+
+    private List<WaitlistEntryResponseDTO> toResponse(List<WaitlistEntry> entries) {
+        return entries.stream()
+                .map(dtoMapper::toWaitlistEntryResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    private LocalDateTime parseDateTime(String dateTimeStr) {
+        try {
+            return LocalDateTime.parse(dateTimeStr);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format. Use ISO format: 2024-12-15T10:00:00");
+        }
+    }
+}
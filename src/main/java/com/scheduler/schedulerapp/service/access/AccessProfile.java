@@ -0,0 +1,23 @@
+package com.scheduler.schedulerapp.service.access;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * What a requester may see: full access for admin and customer care, otherwise
+ * the branches a receptionist is mapped to.
+ */
+@Getter
+@AllArgsConstructor
+public class AccessProfile {
+    private final String staffId;
+    private final boolean fullAppointmentAccess;
+    private final boolean receptionist;
+    private final Set<String> branchIds;
+
+    public boolean canAccessBranch(String branchId) {
+        return fullAppointmentAccess || (receptionist && branchIds.contains(branchId));
+    }
+}
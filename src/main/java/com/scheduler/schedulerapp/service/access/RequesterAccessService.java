@@ -0,0 +1,8 @@
+package com.scheduler.schedulerapp.service.access;
+
+import java.util.Optional;
+
+public interface RequesterAccessService {
+
+    Optional<AccessProfile> getProfile(String requesterId);
+}
@@ -0,0 +1,50 @@
+package com.scheduler.schedulerapp.service.access;
+
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.model.StaffBranchMapping;
+import com.scheduler.schedulerapp.repository.DoctorBranchMappingRepository;
+import com.scheduler.schedulerapp.repository.DoctorRepository;
+import com.scheduler.schedulerapp.service.doctor.StaffCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves a requester's role and, for receptionists, their branch ids with one
+ * staff lookup and one mapping query. The profile is kept with the staff member's
+ * {@link StaffCache} entry, so it expires and is invalidated together with it,
+ * including when a {@link StaffAccessChangedEvent} names the staff member.
+ */
+@Service
+public class RequesterAccessServiceImpl implements RequesterAccessService {
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DoctorBranchMappingRepository doctorBranchMappingRepository;
+
+    @Autowired
+    private StaffCache staffCache;
+
+    @Override
+    public Optional<AccessProfile> getProfile(String requesterId) {
+        if (requesterId == null) {
+            return Optional.empty();
+        }
+        return staffCache.getProfile(requesterId, doctorRepository::findById, this::load);
+    }
+
+    private AccessProfile load(HospitalStaff staff) {
+        Set<String> branchIds = Set.of();
+        if (!staff.hasFullAppointmentAccess() && staff.isReceptionist()) {
+            branchIds = doctorBranchMappingRepository.findByDoctorId(staff.getId()).stream()
+                    .map(StaffBranchMapping::getBranchId)
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+        return new AccessProfile(staff.getId(), staff.hasFullAppointmentAccess(), staff.isReceptionist(), branchIds);
+    }
+}
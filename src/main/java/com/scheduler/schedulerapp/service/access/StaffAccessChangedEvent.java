@@ -0,0 +1,16 @@
+package com.scheduler.schedulerapp.service.access;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Published when a staff member's role, active state or branch mappings change,
+ * so cached access profiles for them are dropped.
+ */
+@Getter
+@AllArgsConstructor
+public class StaffAccessChangedEvent {
+    private final Collection<String> staffIds;
+}
@@ -0,0 +1,10 @@
+package com.scheduler.schedulerapp.service.agenda;
+
+import com.scheduler.schedulerapp.model.DoctorAgenda;
+
+import java.time.LocalDate;
+
+public interface DoctorAgendaService {
+    DoctorAgenda getAgenda(String doctorId, LocalDate date);
+    DoctorAgenda rebuild(String doctorId, LocalDate date);
+}
@@ -0,0 +1,263 @@
+package com.scheduler.schedulerapp.service.agenda;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.DoctorAgenda;
+import com.scheduler.schedulerapp.model.DoctorAgendaEntry;
+import com.scheduler.schedulerapp.model.HospitalBranch;
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.model.Patient;
+import com.scheduler.schedulerapp.repository.DoctorAgendaRepository;
+import com.scheduler.schedulerapp.service.appointment.AppointmentService;
+import com.scheduler.schedulerapp.service.appointment.AppointmentsDeletedEvent;
+import com.scheduler.schedulerapp.service.appointment.AppointmentsSavedEvent;
+import com.scheduler.schedulerapp.service.archive.AppointmentsArchivedEvent;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.doctor.StaffUpdatedEvent;
+import com.scheduler.schedulerapp.service.hospitalbranch.HospitalBranchService;
+import com.scheduler.schedulerapp.service.patient.PatientService;
+import com.scheduler.schedulerapp.service.patient.PatientUpdatedEvent;
+import com.scheduler.schedulerapp.service.series.AppointmentSeriesChangedEvent;
+import com.scheduler.schedulerapp.service.waitlist.AppointmentsCancelledEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the doctorAgendas projection. Appointment writes, cancellations, deletes
+ * and status sweeps rebuild every day they touch, including the day an appointment
+ * moved away from. Rebuilds run on one background thread so the writing request is
+ * not held up; days touched again while they wait are rebuilt once. Doctor and
+ * patient renames are written into the stored agendas in place; series changes and
+ * archive moves drop the affected days, which are rebuilt on their next read. A
+ * missing agenda is built on first read, so the projection never has to be backfilled.
+ */
+@Service
+public class DoctorAgendaServiceImpl implements DoctorAgendaService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    @Autowired
+    private DoctorAgendaRepository doctorAgendaRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private HospitalBranchService hospitalBranchService;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private Executor refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "agenda-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, DoctorAgenda> pendingDays = new LinkedHashMap<>();
+    private final Set<String> pendingAppointmentIds = new HashSet<>();
+    private boolean refreshScheduled;
+
+    public DoctorAgendaServiceImpl() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public DoctorAgenda getAgenda(String doctorId, LocalDate date) {
+        return doctorAgendaRepository.findById(DoctorAgenda.key(doctorId, date))
+                .orElseGet(() -> rebuild(doctorId, date));
+    }
+
+    @Override
+    public DoctorAgenda rebuild(String doctorId, LocalDate date) {
+        String key = DoctorAgenda.key(doctorId, date);
+        synchronized (locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)]) {
+            LocalDateTime dayStart = date.atStartOfDay();
+            LocalDateTime dayEnd = dayStart.plusDays(1);
+            // The range bounds are exclusive, so step back to include appointments at midnight.
+            List<Appointment> appointments = appointmentService
+                    .getAppointmentsByDoctorAndDateRange(doctorId, dayStart.minusNanos(1), dayEnd).stream()
+                    .filter(appointment -> appointment.getStartTime().isBefore(dayEnd))
+                    .sorted(Comparator.comparing(Appointment::getStartTime))
+                    .toList();
+
+            Map<String, String> patientNames = patientService.getPatientsByIds(ids(appointments, Appointment::getPatientId))
+                    .stream().collect(Collectors.toMap(Patient::getId, patient -> nameOf(patient.getName()), (a, b) -> a));
+            Map<String, String> branchCodes = hospitalBranchService.getBranchesByIds(ids(appointments, Appointment::getBranchId))
+                    .stream().collect(Collectors.toMap(HospitalBranch::getId, branch -> nameOf(branch.getBranchCode()), (a, b) -> a));
+
+            DoctorAgenda agenda = new DoctorAgenda();
+            agenda.setId(key);
+            agenda.setDoctorId(doctorId);
+            agenda.setDoctorName(doctorService.getDoctorById(doctorId).map(HospitalStaff::getName).orElse(null));
+            agenda.setDate(date);
+            int bookedMinutes = 0;
+            for (Appointment appointment : appointments) {
+                int minutes = (int) Duration.between(appointment.getStartTime(), appointment.getEndTime()).toMinutes();
+                agenda.getEntries().add(new DoctorAgendaEntry(appointment.getId(), appointment.getTitle(),
+                        appointment.getStartTime(), appointment.getEndTime(), minutes, appointment.getStatus(),
+                        appointment.getPatientId(), patientNames.get(appointment.getPatientId()),
+                        appointment.getBranchId(), branchCodes.get(appointment.getBranchId()), appointment.getSeriesId()));
+                if (!"cancelled".equals(appointment.getStatus())) {
+                    bookedMinutes += minutes;
+                }
+            }
+            agenda.setBookedMinutes(bookedMinutes);
+            agenda.setUpdatedAt(LocalDateTime.now());
+            return doctorAgendaRepository.save(agenda);
+        }
+    }
+
+    @EventListener
+    public void onAppointmentsSaved(AppointmentsSavedEvent event) {
+        refresh(event.getAppointments());
+    }
+
+    @EventListener
+    public void onAppointmentsCancelled(AppointmentsCancelledEvent event) {
+        refresh(event.getAppointments());
+    }
+
+    @EventListener
+    public void onAppointmentsDeleted(AppointmentsDeletedEvent event) {
+        refresh(event.getAppointments());
+    }
+
+    @EventListener
+    public void onAppointmentsArchived(AppointmentsArchivedEvent event) {
+        Set<String> days = new HashSet<>();
+        for (Appointment appointment : event.getAppointments()) {
+            if (appointment.getDoctorId() != null && appointment.getStartTime() != null) {
+                days.add(DoctorAgenda.key(appointment.getDoctorId(), appointment.getStartTime().toLocalDate()));
+            }
+        }
+        if (!days.isEmpty()) {
+            doctorAgendaRepository.deleteAllById(days);
+        }
+    }
+
+    @EventListener
+    public void onSeriesChanged(AppointmentSeriesChangedEvent event) {
+        doctorAgendaRepository.deleteByDoctorIdAndDateBetween(event.getDoctorId(),
+                event.getFrom().toLocalDate().minusDays(1), event.getTo().toLocalDate().plusDays(1));
+    }
+
+    @EventListener
+    public void onStaffUpdated(StaffUpdatedEvent event) {
+        mongoTemplate.updateMulti(new Query(Criteria.where("doctorId").is(event.getStaff().getId())),
+                new Update().set("doctorName", event.getStaff().getName()), DoctorAgenda.class);
+    }
+
+    @EventListener
+    public void onPatientUpdated(PatientUpdatedEvent event) {
+        String patientId = event.getPatient().getId();
+        mongoTemplate.updateMulti(new Query(Criteria.where("entries.patientId").is(patientId)),
+                new Update().set("entries.$[entry].patientName", event.getPatient().getName())
+                        .filterArray(Criteria.where("entry.patientId").is(patientId)),
+                DoctorAgenda.class);
+    }
+
+    private void refresh(List<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            return;
+        }
+        synchronized (pendingDays) {
+            for (Appointment appointment : appointments) {
+                if (appointment.getDoctorId() != null && appointment.getStartTime() != null) {
+                    LocalDate date = appointment.getStartTime().toLocalDate();
+                    pendingDays.putIfAbsent(DoctorAgenda.key(appointment.getDoctorId(), date),
+                            keyOnly(appointment.getDoctorId(), date));
+                }
+            }
+            pendingAppointmentIds.addAll(ids(appointments, Appointment::getId));
+            if (refreshScheduled) {
+                return;
+            }
+            refreshScheduled = true;
+        }
+        refresher.execute(this::refreshPending);
+    }
+
+    private void refreshPending() {
+        Map<String, DoctorAgenda> days;
+        Set<String> appointmentIds;
+        synchronized (pendingDays) {
+            days = new LinkedHashMap<>(pendingDays);
+            appointmentIds = new HashSet<>(pendingAppointmentIds);
+            pendingDays.clear();
+            pendingAppointmentIds.clear();
+            refreshScheduled = false;
+        }
+
+        try {
+            for (DoctorAgenda stale : doctorAgendaRepository.findKeysContainingAppointments(appointmentIds)) {
+                days.putIfAbsent(stale.getId(), stale);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Could not look up agendas holding changed appointments: " + e.getMessage());
+        }
+
+        for (DoctorAgenda day : days.values()) {
+            try {
+                rebuild(day.getDoctorId(), day.getDate());
+            } catch (RuntimeException e) {
+                System.err.println("Could not rebuild agenda " + day.getId() + ": " + e.getMessage());
+                doctorAgendaRepository.deleteById(day.getId());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private DoctorAgenda keyOnly(String doctorId, LocalDate date) {
+        DoctorAgenda agenda = new DoctorAgenda();
+        agenda.setId(DoctorAgenda.key(doctorId, date));
+        agenda.setDoctorId(doctorId);
+        agenda.setDate(date);
+        return agenda;
+    }
+
+    private Set<String> ids(Collection<Appointment> appointments, Function<Appointment, String> field) {
+        return appointments.stream().map(field).filter(id -> id != null).collect(Collectors.toSet());
+    }
+
+    private String nameOf(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,17 @@
+package com.scheduler.schedulerapp.service.appointment;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AppointmentBatchResult {
+    private Appointment appointment;
+    private String error;
+    private Integer conflictsWithIndex;
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
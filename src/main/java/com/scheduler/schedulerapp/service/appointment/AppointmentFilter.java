@@ -0,0 +1,60 @@
+package com.scheduler.schedulerapp.service.appointment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Resolver-level appointment filter. Every field is optional and null means
+ * "don't filter". Equality fields come first and the startTime range last, so each
+ * combination the resolvers use is served by one of the compound indexes on
+ * {@link com.scheduler.schedulerapp.model.Appointment}. Both ends of the range are
+ * exclusive, like the repository's *Between queries.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AppointmentFilter {
+    private String doctorId;
+    private String patientId;
+    private Collection<String> branchIds;
+    private String status;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    public Criteria toCriteria() {
+        Criteria criteria = new Criteria();
+        if (doctorId != null) {
+            criteria.and("doctorId").is(doctorId);
+        }
+        if (patientId != null) {
+            criteria.and("patientId").is(patientId);
+        }
+        if (branchIds != null) {
+            if (branchIds.size() == 1) {
+                criteria.and("branchId").is(branchIds.iterator().next());
+            } else {
+                criteria.and("branchId").in(branchIds);
+            }
+        }
+        if (status != null) {
+            criteria.and("status").is(status);
+        }
+        if (from != null && to != null) {
+            criteria.and("startTime").gt(from).lt(to);
+        } else if (from != null) {
+            criteria.and("startTime").gt(from);
+        } else if (to != null) {
+            criteria.and("startTime").lt(to);
+        }
+        return criteria;
+    }
+
+    public boolean matchesNothing() {
+        return branchIds != null && branchIds.isEmpty();
+    }
+}
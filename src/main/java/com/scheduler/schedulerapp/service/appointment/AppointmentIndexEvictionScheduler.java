@@ -0,0 +1,36 @@
+package com.scheduler.schedulerapp.service.appointment;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keeps the interval index bounded by dropping appointments that ended more than the
+ * retention window ago; collision checks reaching further back go to Mongo.
+ */
+@Component
+@Profile("!test")
+public class AppointmentIndexEvictionScheduler {
+
+    @Autowired
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+
+    @Value("${scheduler.index.retention-hours:24}")
+    private long retentionHours = 24;
+
+    @Scheduled(fixedDelayString = "${scheduler.index.evict-interval-ms:3600000}",
+            initialDelayString = "${scheduler.index.evict-interval-ms:3600000}")
+    public void evictEndedAppointments() {
+        if (!appointmentIntervalIndex.isReady()) {
+            return;
+        }
+        int evicted = appointmentIntervalIndex.evictEndedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (evicted > 0) {
+            System.out.println("Evicted " + evicted + " ended appointments from the interval index");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.scheduler.schedulerapp.service.appointment;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
+import com.scheduler.schedulerapp.repository.AppointmentRepository;
+import com.scheduler.schedulerapp.repository.AppointmentSeriesRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@Profile("!test")
+public class AppointmentIndexInitializer {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Autowired
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+
+    @Autowired
+    private SlotReservationManager slotReservationManager;
+
+    @Value("${scheduler.index.retention-hours:24}")
+    private long retentionHours = 24;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        try {
+            LocalDateTime horizon = LocalDateTime.now().minusHours(retentionHours);
+            List<Appointment> scheduled = appointmentRepository.findByStatus("scheduled");
+            List<AppointmentSeries> series = appointmentSeriesRepository.findByStatusAndSeriesEndAfter("active", horizon);
+            appointmentIntervalIndex.rebuild(scheduled, series);
+            appointmentIntervalIndex.evictEndedBefore(horizon);
+            System.out.println("Appointment interval index built with " + appointmentIntervalIndex.size()
+                    + " scheduled appointments and " + series.size() + " active series");
+            slotReservationManager.backfill(scheduled);
+        } catch (Exception e) {
+            System.err.println("Could not build appointment interval index, collision checks will use MongoDB: " + e.getMessage());
+        }
+    }
+}
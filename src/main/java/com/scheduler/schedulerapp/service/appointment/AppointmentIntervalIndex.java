@@ -0,0 +1,450 @@
+package com.scheduler.schedulerapp.service.appointment;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of every scheduled appointment, keyed by doctorId and by patientId and
+ * sorted by start time, so overlap checks don't need a Mongo round trip.
+ * Mongo stays the source of truth: the index is rebuilt from it on startup and callers
+ * fall back to the repository until {@link #isReady()} returns true. The index only sees
+ * this node's writes, so callers treat a hit as a candidate to confirm against Mongo.
+ * Occurrences are never indexed; the headers of active series are kept per doctor and
+ * per patient instead, and callers expand them and confirm hits the same way.
+ * Appointments and series that ended before the {@linkplain #evictEndedBefore eviction horizon} are
+ * dropped; windows starting before it are not {@linkplain #covers covered}.
+ * Each doctor also gets an {@link OccupancyBitmap} per calendar day, kept in step with
+ * every put and remove, for free-slot searches.
+ */
+@Component
+public class AppointmentIntervalIndex {
+
+    private static final String SCHEDULED = "scheduled";
+    private static final String ACTIVE = "active";
+
+    private final Map<String, IntervalBucket> doctorIndex = new HashMap<>();
+    private final Map<String, IntervalBucket> patientIndex = new HashMap<>();
+    private final Map<String, Appointment> appointmentsById = new HashMap<>();
+    private final Map<String, Map<LocalDate, BitSet>> doctorOccupancy = new HashMap<>();
+    private final Map<String, AppointmentSeries> seriesById = new HashMap<>();
+    private final Map<String, Map<String, AppointmentSeries>> doctorSeries = new HashMap<>();
+    private final Map<String, Map<String, AppointmentSeries>> patientSeries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+    private volatile LocalDateTime horizon;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean covers(LocalDateTime startTime) {
+        LocalDateTime earliest = horizon;
+        return ready && startTime != null && (earliest == null || !startTime.isBefore(earliest));
+    }
+
+    /**
+     * Drops appointments that ended at or before {@code cutoff}; lookups for windows
+     * starting before it have to go to Mongo from now on.
+     */
+    public int evictEndedBefore(LocalDateTime cutoff) {
+        lock.writeLock().lock();
+        try {
+            List<String> ended = appointmentsById.values().stream()
+                    .filter(appointment -> !appointment.getEndTime().isAfter(cutoff))
+                    .map(Appointment::getId)
+                    .toList();
+            ended.forEach(this::removeById);
+            seriesById.values().stream()
+                    .filter(series -> !series.getSeriesEnd().isAfter(cutoff))
+                    .map(AppointmentSeries::getId)
+                    .toList()
+                    .forEach(this::removeSeriesById);
+            if (horizon == null || cutoff.isAfter(horizon)) {
+                horizon = cutoff;
+            }
+            return ended.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<Appointment> appointments) {
+        rebuild(appointments, List.of());
+    }
+
+    public void rebuild(Collection<Appointment> appointments, Collection<AppointmentSeries> series) {
+        lock.writeLock().lock();
+        try {
+            doctorIndex.clear();
+            patientIndex.clear();
+            appointmentsById.clear();
+            doctorOccupancy.clear();
+            seriesById.clear();
+            doctorSeries.clear();
+            patientSeries.clear();
+            horizon = null;
+            for (Appointment appointment : appointments) {
+                add(appointment);
+            }
+            for (AppointmentSeries header : series) {
+                addSeries(header);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Appointment appointment) {
+        if (appointment == null || appointment.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeById(appointment.getId());
+            add(appointment);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Appointment remove(String id) {
+        lock.writeLock().lock();
+        try {
+            return removeById(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Appointment> removeAll(Collection<String> ids) {
+        lock.writeLock().lock();
+        try {
+            List<Appointment> removed = new ArrayList<>();
+            for (String id : ids) {
+                Appointment existing = removeById(id);
+                if (existing != null) {
+                    removed.add(existing);
+                }
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a series header; a series that is no longer active is dropped.
+     */
+    public void putSeries(AppointmentSeries series) {
+        if (series == null || series.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeSeriesById(series.getId());
+            addSeries(series);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeSeries(String id) {
+        lock.writeLock().lock();
+        try {
+            removeSeriesById(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<AppointmentSeries> findDoctorSeries(String doctorId, LocalDateTime from, LocalDateTime to) {
+        return findSeries(doctorSeries, doctorId, from, to);
+    }
+
+    public List<AppointmentSeries> findPatientSeries(String patientId, LocalDateTime from, LocalDateTime to) {
+        return findSeries(patientSeries, patientId, from, to);
+    }
+
+    public List<Appointment> findDoctorCollision(String doctorId, LocalDateTime startTime, LocalDateTime endTime) {
+        return findOverlapping(doctorIndex, doctorId, startTime, endTime);
+    }
+
+    public List<Appointment> findPatientCollision(String patientId, LocalDateTime startTime, LocalDateTime endTime) {
+        return findOverlapping(patientIndex, patientId, startTime, endTime);
+    }
+
+    public List<BitSet> getDoctorOccupancy(String doctorId, LocalDate from, int days) {
+        lock.readLock().lock();
+        try {
+            Map<LocalDate, BitSet> byDay = doctorOccupancy.getOrDefault(doctorId, Map.of());
+            List<BitSet> result = new ArrayList<>(days);
+            for (int i = 0; i < days; i++) {
+                BitSet bits = byDay.get(from.plusDays(i));
+                result.add(bits != null ? (BitSet) bits.clone() : new BitSet(OccupancyBitmap.SLOTS_PER_DAY));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return appointmentsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Appointment> findOverlapping(Map<String, IntervalBucket> index, String key,
+                                              LocalDateTime startTime, LocalDateTime endTime) {
+        lock.readLock().lock();
+        try {
+            IntervalBucket bucket = index.get(key);
+            if (bucket == null) {
+                return new ArrayList<>();
+            }
+            return bucket.overlapping(startTime, endTime).stream()
+                    .map(AppointmentIntervalIndex::copyOf)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<AppointmentSeries> findSeries(Map<String, Map<String, AppointmentSeries>> index, String key,
+                                               LocalDateTime from, LocalDateTime to) {
+        lock.readLock().lock();
+        try {
+            return index.getOrDefault(key, Map.of()).values().stream()
+                    .filter(series -> series.getSeriesStart().isBefore(to) && series.getSeriesEnd().isAfter(from))
+                    .map(AppointmentIntervalIndex::copyOf)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addSeries(AppointmentSeries series) {
+        LocalDateTime earliest = horizon;
+        if (series.getId() == null
+                || !ACTIVE.equals(series.getStatus())
+                || series.getSeriesStart() == null
+                || series.getSeriesEnd() == null
+                || (earliest != null && !series.getSeriesEnd().isAfter(earliest))) {
+            return;
+        }
+        AppointmentSeries copy = copyOf(series);
+        seriesById.put(copy.getId(), copy);
+        if (copy.getDoctorId() != null) {
+            doctorSeries.computeIfAbsent(copy.getDoctorId(), k -> new HashMap<>()).put(copy.getId(), copy);
+        }
+        if (copy.getPatientId() != null) {
+            patientSeries.computeIfAbsent(copy.getPatientId(), k -> new HashMap<>()).put(copy.getId(), copy);
+        }
+    }
+
+    private void removeSeriesById(String id) {
+        AppointmentSeries existing = seriesById.remove(id);
+        if (existing == null) {
+            return;
+        }
+        removeFromOwner(doctorSeries, existing.getDoctorId(), id);
+        removeFromOwner(patientSeries, existing.getPatientId(), id);
+    }
+
+    private void removeFromOwner(Map<String, Map<String, AppointmentSeries>> index, String key, String seriesId) {
+        Map<String, AppointmentSeries> owned = key != null ? index.get(key) : null;
+        if (owned != null) {
+            owned.remove(seriesId);
+            if (owned.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private void add(Appointment appointment) {
+        if (!isIndexable(appointment)) {
+            return;
+        }
+        Appointment copy = copyOf(appointment);
+        appointmentsById.put(copy.getId(), copy);
+        if (copy.getDoctorId() != null) {
+            doctorIndex.computeIfAbsent(copy.getDoctorId(), k -> new IntervalBucket()).add(copy);
+            Map<LocalDate, BitSet> byDay = doctorOccupancy.computeIfAbsent(copy.getDoctorId(), k -> new HashMap<>());
+            for (LocalDate day : OccupancyBitmap.daysTouched(copy.getStartTime(), copy.getEndTime())) {
+                OccupancyBitmap.mark(byDay.computeIfAbsent(day, k -> new BitSet(OccupancyBitmap.SLOTS_PER_DAY)),
+                        day, copy.getStartTime(), copy.getEndTime());
+            }
+        }
+        if (copy.getPatientId() != null) {
+            patientIndex.computeIfAbsent(copy.getPatientId(), k -> new IntervalBucket()).add(copy);
+        }
+    }
+
+    private Appointment removeById(String id) {
+        Appointment existing = appointmentsById.remove(id);
+        if (existing == null) {
+            return null;
+        }
+        removeFromBucket(doctorIndex, existing.getDoctorId(), existing);
+        removeFromBucket(patientIndex, existing.getPatientId(), existing);
+        if (existing.getDoctorId() != null) {
+            recomputeOccupancy(existing.getDoctorId(), existing);
+        }
+        return existing;
+    }
+
+    private void recomputeOccupancy(String doctorId, Appointment removed) {
+        Map<LocalDate, BitSet> byDay = doctorOccupancy.get(doctorId);
+        if (byDay == null) {
+            return;
+        }
+        IntervalBucket bucket = doctorIndex.get(doctorId);
+        for (LocalDate day : OccupancyBitmap.daysTouched(removed.getStartTime(), removed.getEndTime())) {
+            BitSet bits = new BitSet(OccupancyBitmap.SLOTS_PER_DAY);
+            if (bucket != null) {
+                LocalDateTime dayStart = day.atStartOfDay();
+                for (Appointment appointment : bucket.overlapping(dayStart, dayStart.plusDays(1))) {
+                    OccupancyBitmap.mark(bits, day, appointment.getStartTime(), appointment.getEndTime());
+                }
+            }
+            if (bits.isEmpty()) {
+                byDay.remove(day);
+            } else {
+                byDay.put(day, bits);
+            }
+        }
+        if (byDay.isEmpty()) {
+            doctorOccupancy.remove(doctorId);
+        }
+    }
+
+    private void removeFromBucket(Map<String, IntervalBucket> index, String key, Appointment appointment) {
+        if (key == null) {
+            return;
+        }
+        IntervalBucket bucket = index.get(key);
+        if (bucket != null && bucket.remove(appointment)) {
+            index.remove(key);
+        }
+    }
+
+    private static boolean isIndexable(Appointment appointment) {
+        return appointment.getId() != null
+                && SCHEDULED.equals(appointment.getStatus())
+                && appointment.getStartTime() != null
+                && appointment.getEndTime() != null
+                && appointment.getEndTime().isAfter(appointment.getStartTime());
+    }
+
+    private static Appointment copyOf(Appointment appointment) {
+        return new Appointment(
+                appointment.getId(),
+                appointment.getTitle(),
+                appointment.getDescription(),
+                appointment.getDoctorId(),
+                appointment.getPatientId(),
+                appointment.getStartTime(),
+                appointment.getEndTime(),
+                appointment.getCreatedAt(),
+                appointment.getUpdatedAt(),
+                appointment.getStatus(),
+                appointment.getBranchId(),
+                appointment.getSeriesId(),
+                appointment.getOriginalStartTime(),
+                appointment.getCancelledByJob()
+        );
+    }
+
+    private static AppointmentSeries copyOf(AppointmentSeries series) {
+        return new AppointmentSeries(
+                series.getId(),
+                series.getTitle(),
+                series.getDescription(),
+                series.getDoctorId(),
+                series.getPatientId(),
+                series.getBranchId(),
+                series.getSeriesStart(),
+                series.getDurationMinutes(),
+                series.getRecurrenceRule(),
+                series.getSeriesEnd(),
+                series.getStatus(),
+                series.getCreatedAt(),
+                series.getUpdatedAt(),
+                series.getEndedByJob()
+        );
+    }
+
+    /**
+     * Appointments of one doctor or patient ordered by start time. Only starts within
+     * the longest indexed duration before the queried window can overlap it, so a lookup
+     * is a single sub-map range scan. Durations are counted so the longest one shrinks
+     * again when long appointments leave the bucket.
+     */
+    private static class IntervalBucket {
+
+        private final NavigableMap<LocalDateTime, Map<String, Appointment>> byStartTime = new TreeMap<>();
+        private final NavigableMap<Duration, Integer> durations = new TreeMap<>();
+
+        void add(Appointment appointment) {
+            Map<String, Appointment> atStart = byStartTime.computeIfAbsent(appointment.getStartTime(), k -> new LinkedHashMap<>());
+            if (atStart.put(appointment.getId(), appointment) == null) {
+                durations.merge(durationOf(appointment), 1, Integer::sum);
+            }
+        }
+
+        boolean remove(Appointment appointment) {
+            Map<String, Appointment> atStart = byStartTime.get(appointment.getStartTime());
+            if (atStart != null) {
+                if (atStart.remove(appointment.getId()) != null) {
+                    durations.computeIfPresent(durationOf(appointment), (duration, count) -> count > 1 ? count - 1 : null);
+                }
+                if (atStart.isEmpty()) {
+                    byStartTime.remove(appointment.getStartTime());
+                }
+            }
+            return byStartTime.isEmpty();
+        }
+
+        List<Appointment> overlapping(LocalDateTime startTime, LocalDateTime endTime) {
+            List<Appointment> result = new ArrayList<>();
+            if (durations.isEmpty()) {
+                return result;
+            }
+            LocalDateTime earliestStart = startTime.minus(durations.lastKey());
+            for (Map<String, Appointment> atStart : byStartTime.subMap(earliestStart, false, endTime, false).values()) {
+                for (Appointment appointment : atStart.values()) {
+                    if (appointment.getEndTime().isAfter(startTime)) {
+                        result.add(appointment);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static Duration durationOf(Appointment appointment) {
+            return Duration.between(appointment.getStartTime(), appointment.getEndTime());
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package com.scheduler.schedulerapp.service.appointment;
 
 import com.scheduler.schedulerapp.model.Appointment;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AppointmentService {
 
     Appointment createAppointment(Appointment appointment);
+    List<AppointmentBatchResult> createAppointments(List<Appointment> appointments);
     Appointment updateAppointment(String id, Appointment appointment);
     Optional<Appointment> getAppointmentById(String id);
     void deleteAppointment(String id);
-    void deleteMultipleAppointments(List<String> ids);
+    List<Appointment> getAppointmentOwnership(Collection<String> ids);
+    long deleteMultipleAppointments(List<String> ids, String ownerId);
 
     List<Appointment> getAllAppointments();
     List<Appointment> getAppointmentsByDoctor(String doctorId);
@@ -22,7 +30,25 @@ public interface AppointmentService {
     List<Appointment> getAppointmentsByStatus(String status);
 
     List<Appointment> checkCollision(String doctorId,String patientId,LocalDateTime startTime, LocalDateTime endTime);
+    List<LocalDateTime> findAvailableSlots(String doctorId, LocalDate from, int days, int durationMinutes);
+    List<BranchOccupancyCount> getBranchOccupancy(String branchId, LocalDateTime from, LocalDateTime to, OccupancyBucket bucket);
+    List<Appointment> getScheduledAppointmentsInWindow(Collection<String> doctorIds, Collection<String> patientIds, LocalDateTime from, LocalDateTime to);
 
     List<Appointment> getAppointmentsByBranch(String branchId);
+    List<Appointment> getAppointmentsByBranches(Collection<String> branchIds);
     List<Appointment> getAppointmentsByBranchAndDateRange(String branchId, LocalDateTime start, LocalDateTime end);
+
+    Window<Appointment> getAllAppointments(ScrollPosition position, int limit);
+    Window<Appointment> getAppointmentsByDoctor(String doctorId, ScrollPosition position, int limit);
+    Window<Appointment> getAppointmentsByPatient(String patientId, ScrollPosition position, int limit);
+    Window<Appointment> getAppointmentsByBranch(String branchId, ScrollPosition position, int limit);
+    Window<Appointment> getAppointmentsByBranches(Collection<String> branchIds, ScrollPosition position, int limit);
+    Window<Appointment> getAppointmentsByStatus(String status, ScrollPosition position, int limit);
+    Window<Appointment> getAppointmentsByDoctorAndStatus(String doctorId, String status, ScrollPosition position, int limit);
+    Window<Appointment> getAppointmentsByDateRange(LocalDateTime start, LocalDateTime end, ScrollPosition position, int limit);
+    Window<Appointment> getAppointmentsByDoctorAndDateRange(String doctorId, LocalDateTime start, LocalDateTime end, ScrollPosition position, int limit);
+    Window<Appointment> getAppointmentsByPatientAndDateRange(String patientId, LocalDateTime start, LocalDateTime end, ScrollPosition position, int limit);
+
+    List<Appointment> findAppointments(AppointmentFilter filter);
+    Stream<Appointment> streamAppointments(String branchId, String doctorId, String status, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
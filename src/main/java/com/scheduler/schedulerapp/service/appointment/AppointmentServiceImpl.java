@@ -1,37 +1,247 @@
 package com.scheduler.schedulerapp.service.appointment;
 
 import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
 import com.scheduler.schedulerapp.repository.AppointmentRepository;
+import com.scheduler.schedulerapp.repository.AppointmentSeriesRepository;
+import com.scheduler.schedulerapp.service.archive.AppointmentArchiveService;
+import com.scheduler.schedulerapp.service.series.SeriesOccurrenceExpander;
+import com.scheduler.schedulerapp.service.waitlist.AppointmentsCancelledEvent;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class AppointmentServiceImpl implements AppointmentService {
 
+    private static final int EXPORT_BATCH_SIZE = 500;
+
     @Autowired
     private AppointmentRepository appointmentRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+
+    @Autowired
+    private SlotReservationManager slotReservationManager;
+
+    @Autowired
+    private AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Autowired
+    private SeriesOccurrenceExpander seriesOccurrenceExpander;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AppointmentArchiveService appointmentArchiveService;
+
+    @Value("${scheduler.availability.workday-start:08:00}")
+    private String workdayStart = "08:00";
+
+    @Value("${scheduler.availability.workday-end:20:00}")
+    private String workdayEnd = "20:00";
+
     public List<Appointment> checkCollision(String doctorId, String patientId, LocalDateTime startTime, LocalDateTime endTime) {
         List<Appointment> conflicts = new ArrayList<>();
 
-        List<Appointment> doctorConflicts = appointmentRepository.findDoctorCollision(doctorId, startTime, endTime);
-        conflicts.addAll(doctorConflicts);
-
-        List<Appointment> patientConflicts = appointmentRepository.findPatientCollision(patientId, startTime, endTime);
-        conflicts.addAll(patientConflicts);
+        if (appointmentIntervalIndex.covers(startTime)) {
+            conflicts.addAll(appointmentIntervalIndex.findDoctorCollision(doctorId, startTime, endTime));
+            conflicts.addAll(appointmentIntervalIndex.findPatientCollision(patientId, startTime, endTime));
+            conflicts = new ArrayList<>(confirmed(conflicts, doctorId, patientId, startTime, endTime));
+            conflicts.addAll(indexedOccurrences(Collections.singletonList(doctorId), Collections.singletonList(patientId),
+                    startTime, endTime));
+        } else {
+            List<Appointment> doctorConflicts = appointmentRepository.findDoctorCollision(doctorId, startTime, endTime);
+            conflicts.addAll(doctorConflicts);
+
+            List<Appointment> patientConflicts = appointmentRepository.findPatientCollision(patientId, startTime, endTime);
+            conflicts.addAll(patientConflicts);
+
+            conflicts.addAll(seriesOccurrenceExpander.expand(
+                    appointmentSeriesRepository.findActiveDoctorSeries(doctorId, startTime, endTime), startTime, endTime));
+            conflicts.addAll(seriesOccurrenceExpander.expand(
+                    appointmentSeriesRepository.findActivePatientSeries(patientId, startTime, endTime), startTime, endTime));
+        }
 
         return conflicts;
     }
 
+    /**
+     * Series headers come from the index as well. They are expanded in memory without
+     * their exceptions, and only when an occurrence overlaps the window are the series
+     * and their exceptions re-read from Mongo, like appointment hits in {@link #confirmed}.
+     */
+    private List<Appointment> indexedOccurrences(Collection<String> doctorIds, Collection<String> patientIds,
+                                                 LocalDateTime startTime, LocalDateTime endTime) {
+        Map<String, AppointmentSeries> candidates = new LinkedHashMap<>();
+        for (String doctorId : doctorIds) {
+            appointmentIntervalIndex.findDoctorSeries(doctorId, startTime, endTime)
+                    .forEach(series -> candidates.put(series.getId(), series));
+        }
+        for (String patientId : patientIds) {
+            appointmentIntervalIndex.findPatientSeries(patientId, startTime, endTime)
+                    .forEach(series -> candidates.put(series.getId(), series));
+        }
+        if (candidates.isEmpty()
+                || seriesOccurrenceExpander.expandIgnoringExceptions(candidates.values(), startTime, endTime).isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<AppointmentSeries> current = new ArrayList<>();
+        Map<String, AppointmentSeries> fresh = new HashMap<>();
+        appointmentSeriesRepository.findAllById(candidates.keySet()).forEach(series -> fresh.put(series.getId(), series));
+        for (String id : candidates.keySet()) {
+            AppointmentSeries series = fresh.get(id);
+            if (series == null) {
+                appointmentIntervalIndex.removeSeries(id);
+                continue;
+            }
+            appointmentIntervalIndex.putSeries(series);
+            boolean sameOwner = doctorIds.contains(series.getDoctorId()) || patientIds.contains(series.getPatientId());
+            if (sameOwner && "active".equals(series.getStatus())
+                    && series.getSeriesStart().isBefore(endTime) && series.getSeriesEnd().isAfter(startTime)) {
+                current.add(series);
+            }
+        }
+        return seriesOccurrenceExpander.expand(current, startTime, endTime);
+    }
+
+    /**
+     * The interval index only sees this node's writes, so a hit may be an appointment
+     * another node has since cancelled, moved or deleted. Hits are re-read from Mongo
+     * before they count, and stale index entries are corrected on the way. Misses need no
+     * check: a booking this node has not seen is still rejected by its slot reservations.
+     */
+    private List<Appointment> confirmed(List<Appointment> hits, String doctorId, String patientId,
+                                        LocalDateTime startTime, LocalDateTime endTime) {
+        if (hits.isEmpty()) {
+            return hits;
+        }
+        List<Appointment> confirmed = new ArrayList<>();
+        Set<String> candidateIds = new LinkedHashSet<>();
+        hits.forEach(hit -> candidateIds.add(hit.getId()));
+
+        Map<String, Appointment> current = new HashMap<>();
+        appointmentRepository.findAllById(candidateIds).forEach(appointment -> current.put(appointment.getId(), appointment));
+        for (String id : candidateIds) {
+            Appointment fresh = current.get(id);
+            if (fresh == null) {
+                appointmentIntervalIndex.remove(id);
+                continue;
+            }
+            appointmentIntervalIndex.put(fresh);
+            boolean sameOwner = (doctorId != null && doctorId.equals(fresh.getDoctorId()))
+                    || (patientId != null && patientId.equals(fresh.getPatientId()));
+            if (sameOwner && "scheduled".equals(fresh.getStatus())
+                    && fresh.getStartTime().isBefore(endTime) && fresh.getEndTime().isAfter(startTime)) {
+                confirmed.add(fresh);
+            }
+        }
+        return confirmed;
+    }
+
+    public List<LocalDateTime> findAvailableSlots(String doctorId, LocalDate from, int days, int durationMinutes) {
+        List<BitSet> occupancy = appointmentIntervalIndex.covers(from.atStartOfDay())
+                ? appointmentIntervalIndex.getDoctorOccupancy(doctorId, from, days)
+                : loadDoctorOccupancy(doctorId, from, days);
+        LocalDateTime rangeStart = from.atStartOfDay();
+        LocalDateTime rangeEnd = from.plusDays(days).atStartOfDay();
+        List<Appointment> occurrences = appointmentIntervalIndex.covers(rangeStart)
+                ? indexedOccurrences(Collections.singletonList(doctorId), List.of(), rangeStart, rangeEnd)
+                : seriesOccurrenceExpander.expand(
+                        appointmentSeriesRepository.findActiveDoctorSeries(doctorId, rangeStart, rangeEnd), rangeStart, rangeEnd);
+        for (Appointment occurrence : occurrences) {
+            for (int i = 0; i < days; i++) {
+                OccupancyBitmap.mark(occupancy.get(i), from.plusDays(i), occurrence.getStartTime(), occurrence.getEndTime());
+            }
+        }
+
+        LocalTime dayOpens = LocalTime.parse(workdayStart);
+        LocalTime dayCloses = LocalTime.parse(workdayEnd);
+        int slotsNeeded = OccupancyBitmap.slotsFor(durationMinutes);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<LocalDateTime> slots = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            LocalDate day = from.plusDays(i);
+            LocalDateTime dayStart = day.atStartOfDay();
+            int fromSlot = OccupancyBitmap.ceilSlot(dayStart, day.atTime(dayOpens));
+            int toSlot = OccupancyBitmap.floorSlot(dayStart, day.atTime(dayCloses));
+            if (now.isAfter(dayStart)) {
+                fromSlot = Math.max(fromSlot, OccupancyBitmap.ceilSlot(dayStart, now));
+            }
+            slots.addAll(OccupancyBitmap.freeStarts(occupancy.get(i), day, fromSlot, toSlot, slotsNeeded));
+        }
+        return slots;
+    }
+
+    private List<BitSet> loadDoctorOccupancy(String doctorId, LocalDate from, int days) {
+        List<BitSet> occupancy = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            occupancy.add(new BitSet(OccupancyBitmap.SLOTS_PER_DAY));
+        }
+        List<Appointment> scheduled = appointmentRepository.findDoctorCollision(
+                doctorId, from.atStartOfDay(), from.plusDays(days).atStartOfDay());
+        for (Appointment appointment : scheduled) {
+            for (int i = 0; i < days; i++) {
+                OccupancyBitmap.mark(occupancy.get(i), from.plusDays(i),
+                        appointment.getStartTime(), appointment.getEndTime());
+            }
+        }
+        return occupancy;
+    }
+
     public Appointment createAppointment(Appointment appointment) {
 
-        appointment.setCreatedAt(LocalDateTime.now());
-        appointment.setUpdatedAt(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        appointment.setCreatedAt(now);
+        appointment.setUpdatedAt(now);
 
         List<Appointment> conflicts = checkCollision(
                 appointment.getDoctorId(),
@@ -44,10 +254,218 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new RuntimeException("Appointment conflicts with existing appointment: " + conflicts.get(0).getTitle());
         }
 
-        return appointmentRepository.save(appointment);
+        if (appointment.getId() == null) {
+            appointment.setId(new ObjectId().toHexString());
+        }
+        slotReservationManager.reserve(appointment);
+
+        Appointment saved;
+        try {
+            saved = appointmentRepository.save(appointment);
+        } catch (RuntimeException e) {
+            slotReservationManager.release(appointment.getId());
+            throw e;
+        }
+        appointmentIntervalIndex.put(saved);
+        eventPublisher.publishEvent(new AppointmentsSavedEvent(List.of(saved)));
+        return saved;
+    }
+
+    public List<AppointmentBatchResult> createAppointments(List<Appointment> appointments) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Integer> positionsById = new HashMap<>();
+        for (int i = 0; i < appointments.size(); i++) {
+            Appointment appointment = appointments.get(i);
+            appointment.setCreatedAt(now);
+            appointment.setUpdatedAt(now);
+            if (appointment.getId() == null) {
+                appointment.setId(new ObjectId().toHexString());
+            }
+            positionsById.put(appointment.getId(), i);
+        }
+
+        LocalDateTime earliestStart = appointments.stream().map(Appointment::getStartTime)
+                .min(LocalDateTime::compareTo).orElse(null);
+        AppointmentIntervalIndex stored = appointmentIntervalIndex.covers(earliestStart)
+                ? appointmentIntervalIndex
+                : loadConflictWindow(appointments, false);
+        AppointmentIntervalIndex seriesWindow = stored == appointmentIntervalIndex
+                ? loadConflictWindow(appointments, true)
+                : null;
+        AppointmentIntervalIndex accepted = new AppointmentIntervalIndex();
+
+        String[] errors = new String[appointments.size()];
+        Integer[] conflictsWith = new Integer[appointments.size()];
+        List<Appointment> toInsert = new ArrayList<>();
+        for (int i = 0; i < appointments.size(); i++) {
+            Appointment appointment = appointments.get(i);
+            List<Appointment> conflicts = collisionsIn(stored, appointment);
+            if (seriesWindow != null) {
+                conflicts = new ArrayList<>(confirmed(conflicts, appointment.getDoctorId(), appointment.getPatientId(),
+                        appointment.getStartTime(), appointment.getEndTime()));
+                conflicts.addAll(collisionsIn(seriesWindow, appointment));
+            }
+            if (!conflicts.isEmpty()) {
+                errors[i] = "Appointment conflicts with existing appointment: " + conflicts.get(0).getTitle();
+                continue;
+            }
+            conflicts = collisionsIn(accepted, appointment);
+            if (!conflicts.isEmpty()) {
+                errors[i] = "Appointment conflicts with another appointment in this batch";
+                conflictsWith[i] = positionsById.get(conflicts.get(0).getId());
+                continue;
+            }
+            accepted.put(appointment);
+            toInsert.add(appointment);
+        }
+
+        Map<String, String> rejected = slotReservationManager.reserveAll(toInsert);
+        if (!rejected.isEmpty()) {
+            rejected.forEach((id, reason) -> errors[positionsById.get(id)] = reason);
+            toInsert.removeIf(appointment -> rejected.containsKey(appointment.getId()));
+        }
+
+        if (!toInsert.isEmpty()) {
+            try {
+                appointmentRepository.insert(toInsert).forEach(appointmentIntervalIndex::put);
+            } catch (RuntimeException e) {
+                slotReservationManager.releaseAll(toInsert.stream().map(Appointment::getId).toList());
+                throw e;
+            }
+            eventPublisher.publishEvent(new AppointmentsSavedEvent(toInsert));
+        }
+
+        List<AppointmentBatchResult> results = new ArrayList<>(appointments.size());
+        for (int i = 0; i < appointments.size(); i++) {
+            results.add(new AppointmentBatchResult(errors[i] == null ? appointments.get(i) : null, errors[i], conflictsWith[i]));
+        }
+        return results;
+    }
+
+    private AppointmentIntervalIndex loadConflictWindow(List<Appointment> appointments, boolean seriesOnly) {
+        AppointmentIntervalIndex window = new AppointmentIntervalIndex();
+        if (appointments.isEmpty()) {
+            return window;
+        }
+        LocalDateTime earliestStart = appointments.stream().map(Appointment::getStartTime).min(LocalDateTime::compareTo).get();
+        LocalDateTime latestEnd = appointments.stream().map(Appointment::getEndTime).max(LocalDateTime::compareTo).get();
+        Set<String> doctorIds = appointments.stream().map(Appointment::getDoctorId).collect(Collectors.toSet());
+        Set<String> patientIds = appointments.stream().map(Appointment::getPatientId).collect(Collectors.toSet());
+
+        window.rebuild(seriesOnly
+                ? indexedOccurrences(doctorIds, patientIds, earliestStart, latestEnd)
+                : getScheduledAppointmentsInWindow(doctorIds, patientIds, earliestStart, latestEnd));
+        return window;
+    }
+
+    public List<BranchOccupancyCount> getBranchOccupancy(String branchId, LocalDateTime from, LocalDateTime to,
+                                                         OccupancyBucket bucket) {
+        DateOperators.DateOperatorFactory start = DateOperators.dateOf("startTime")
+                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId()));
+        String[] groupFields = switch (bucket) {
+            case HOUR -> new String[]{"date", "dayOfWeek", "hour"};
+            case DAY -> new String[]{"date", "dayOfWeek"};
+            case WEEKDAY_HOUR -> new String[]{"dayOfWeek", "hour"};
+        };
+
+        List<AggregationOperation> pipeline = List.of(
+                Aggregation.match(Criteria.where("branchId").is(branchId)
+                        .and("startTime").gte(from).lt(to)
+                        .and("status").ne("cancelled")),
+                Aggregation.project()
+                        .and(start.toString("%Y-%m-%d")).as("date")
+                        .and(start.isoDayOfWeek()).as("dayOfWeek")
+                        .and(start.hour()).as("hour")
+                        .and(ArithmeticOperators.Subtract.valueOf("endTime").subtract("startTime")).as("durationMillis"),
+                Aggregation.group(groupFields)
+                        .count().as("appointments")
+                        .sum("durationMillis").as("bookedMillis"));
+        TypedAggregation<Appointment> aggregation = Aggregation.newAggregation(Appointment.class, pipeline);
+
+        List<Document> rows = new ArrayList<>(mongoTemplate.aggregate(aggregation, Document.class).getMappedResults());
+        if (appointmentArchiveService.reaches(from, null)) {
+            // Archived rows for a cell are summed into the hot ones below.
+            rows.addAll(appointmentArchiveService.aggregate(Aggregation.newAggregation(pipeline), from, to, Document.class));
+        }
+
+        Map<String, BranchOccupancyCount> cells = new HashMap<>();
+        for (Document row : rows) {
+            Document cell = row.get("_id", Document.class);
+            BranchOccupancyCount count = cells.computeIfAbsent(cellKey(cell.getString("date"),
+                            cell.getInteger("dayOfWeek"), cell.getInteger("hour")),
+                    k -> new BranchOccupancyCount(cell.getString("date"), cell.getInteger("dayOfWeek"), cell.getInteger("hour"), 0, 0));
+            count.setAppointments(count.getAppointments() + ((Number) row.get("appointments")).longValue());
+            count.setBookedMinutes(count.getBookedMinutes() + ((Number) row.get("bookedMillis")).longValue() / 60_000);
+        }
+
+        List<Appointment> occurrences = seriesOccurrenceExpander.expand(
+                appointmentSeriesRepository.findActiveBranchSeries(branchId, from, to), from, to);
+        for (Appointment occurrence : occurrences) {
+            LocalDateTime startTime = occurrence.getStartTime();
+            if (startTime.isBefore(from)) {
+                continue;
+            }
+            String date = bucket != OccupancyBucket.WEEKDAY_HOUR ? startTime.toLocalDate().toString() : null;
+            int dayOfWeek = startTime.getDayOfWeek().getValue();
+            Integer hour = bucket != OccupancyBucket.DAY ? startTime.getHour() : null;
+            BranchOccupancyCount count = cells.computeIfAbsent(cellKey(date, dayOfWeek, hour),
+                    k -> new BranchOccupancyCount(date, dayOfWeek, hour, 0, 0));
+            count.setAppointments(count.getAppointments() + 1);
+            count.setBookedMinutes(count.getBookedMinutes()
+                    + Duration.between(startTime, occurrence.getEndTime()).toMinutes());
+        }
+
+        List<BranchOccupancyCount> result = new ArrayList<>(cells.values());
+        result.sort(Comparator.comparing(BranchOccupancyCount::getDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(BranchOccupancyCount::getDayOfWeek)
+                .thenComparing(BranchOccupancyCount::getHour, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return result;
+    }
+
+    private String cellKey(String date, Integer dayOfWeek, Integer hour) {
+        return date + "|" + dayOfWeek + "|" + hour;
+    }
+
+    public List<Appointment> getScheduledAppointmentsInWindow(Collection<String> doctorIds, Collection<String> patientIds,
+                                                              LocalDateTime from, LocalDateTime to) {
+        Criteria owners = ownedBy(doctorIds, patientIds);
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("status").is("scheduled"),
+                Criteria.where("startTime").lt(to),
+                Criteria.where("endTime").gt(from),
+                owners));
+        List<Appointment> scheduled = new ArrayList<>(mongoTemplate.find(query, Appointment.class));
+        scheduled.addAll(seriesOccurrencesInWindow(owners, from, to));
+        return scheduled;
+    }
+
+    private List<Appointment> seriesOccurrencesInWindow(Criteria owners, LocalDateTime from, LocalDateTime to) {
+        Query seriesQuery = new Query(new Criteria().andOperator(
+                Criteria.where("status").is("active"),
+                Criteria.where("seriesStart").lt(to),
+                Criteria.where("seriesEnd").gt(from),
+                owners));
+        return seriesOccurrenceExpander.expand(mongoTemplate.find(seriesQuery, AppointmentSeries.class), from, to);
+    }
+
+    private Criteria ownedBy(Collection<String> doctorIds, Collection<String> patientIds) {
+        return new Criteria().orOperator(
+                Criteria.where("doctorId").in(doctorIds),
+                Criteria.where("patientId").in(patientIds));
+    }
+
+    private List<Appointment> collisionsIn(AppointmentIntervalIndex index, Appointment appointment) {
+        List<Appointment> conflicts = new ArrayList<>(
+                index.findDoctorCollision(appointment.getDoctorId(), appointment.getStartTime(), appointment.getEndTime()));
+        conflicts.addAll(index.findPatientCollision(appointment.getPatientId(), appointment.getStartTime(), appointment.getEndTime()));
+        return conflicts;
     }
 
     public Appointment updateAppointment(String id, Appointment appointment) {
+        // Saving would bring an archived appointment back into the hot collection next to its archive copy.
+        if (!appointmentRepository.existsById(id) && appointmentArchiveService.findById(id).isPresent()) {
+            throw new IllegalArgumentException("Archived appointments cannot be changed: " + id);
+        }
 
         appointment.setUpdatedAt(LocalDateTime.now());
 
@@ -65,55 +483,321 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
 
         appointment.setId(id);
-        return appointmentRepository.save(appointment);
+        slotReservationManager.reschedule(appointment);
+
+        Appointment saved = appointmentRepository.save(appointment);
+        appointmentIntervalIndex.put(saved);
+        eventPublisher.publishEvent(new AppointmentsSavedEvent(List.of(saved)));
+        if ("cancelled".equals(saved.getStatus())) {
+            eventPublisher.publishEvent(new AppointmentsCancelledEvent(List.of(saved)));
+        }
+        return saved;
     }
 
     public List<Appointment> getAppointmentsByDateRange(LocalDateTime start, LocalDateTime end) {
-        return appointmentRepository.findByStartTimeBetween(start, end);
+        return withOccurrences(withArchived(appointmentRepository.findByStartTimeBetween(start, end),
+                        Criteria.where("startTime").gt(start).lt(end), start, end, null),
+                appointmentSeriesRepository.findActiveSeries(start, end), start, end);
     }
 
     public List<Appointment> getAppointmentsByDoctorAndDateRange(String doctorId, LocalDateTime start, LocalDateTime end) {
-        return appointmentRepository.findByDoctorIdAndStartTimeBetween(doctorId, start, end);
+        return withOccurrences(withArchived(appointmentRepository.findByDoctorIdAndStartTimeBetween(doctorId, start, end),
+                        Criteria.where("doctorId").is(doctorId).and("startTime").gt(start).lt(end), start, end, null),
+                appointmentSeriesRepository.findActiveDoctorSeries(doctorId, start, end), start, end);
     }
 
     public List<Appointment> getAppointmentsByPatientAndDateRange(String patientId, LocalDateTime start, LocalDateTime end) {
-        return appointmentRepository.findByPatientIdAndStartTimeBetween(patientId, start, end);
+        return withOccurrences(withArchived(appointmentRepository.findByPatientIdAndStartTimeBetween(patientId, start, end),
+                        Criteria.where("patientId").is(patientId).and("startTime").gt(start).lt(end), start, end, null),
+                appointmentSeriesRepository.findActivePatientSeries(patientId, start, end), start, end);
+    }
+
+    private List<Appointment> withOccurrences(List<Appointment> stored, List<AppointmentSeries> series,
+                                              LocalDateTime start, LocalDateTime end) {
+        if (series.isEmpty()) {
+            return stored;
+        }
+        List<Appointment> merged = new ArrayList<>(stored);
+        for (Appointment occurrence : seriesOccurrenceExpander.expand(series, start, end)) {
+            if (occurrence.getStartTime().isAfter(start)) {
+                merged.add(occurrence);
+            }
+        }
+        merged.sort(Comparator.comparing(Appointment::getStartTime));
+        return merged;
+    }
+
+    /**
+     * Adds the archived appointments matching the same criteria when the range starts
+     * before the archive horizon. A document caught mid-move can exist in both
+     * collections; the hot copy wins.
+     */
+    private List<Appointment> withArchived(List<Appointment> hot, Criteria criteria,
+                                           LocalDateTime from, LocalDateTime to, String status) {
+        if (!appointmentArchiveService.reaches(from, status)) {
+            return hot;
+        }
+        List<Appointment> archived = appointmentArchiveService.find(criteria, from, to);
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        Map<String, Appointment> merged = new LinkedHashMap<>();
+        archived.forEach(appointment -> merged.put(appointment.getId(), appointment));
+        hot.forEach(appointment -> merged.put(appointment.getId(), appointment));
+        List<Appointment> result = new ArrayList<>(merged.values());
+        result.sort(Comparator.comparing(Appointment::getStartTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Appointment::getId));
+        return result;
     }
 
     public List<Appointment> getAllAppointments() {
-        return appointmentRepository.findAll();
+        return withArchived(appointmentRepository.findAll(), new Criteria(), null, null, null);
     }
 
     public List<Appointment> getAppointmentsByDoctor(String doctorId) {
-        return appointmentRepository.findByDoctorId(doctorId);
+        return withArchived(appointmentRepository.findByDoctorId(doctorId),
+                Criteria.where("doctorId").is(doctorId), null, null, null);
     }
 
     public List<Appointment> getAppointmentsByPatient(String patientId) {
-        return appointmentRepository.findByPatientId(patientId);
+        return withArchived(appointmentRepository.findByPatientId(patientId),
+                Criteria.where("patientId").is(patientId), null, null, null);
     }
 
     public Optional<Appointment> getAppointmentById(String id) {
-        return appointmentRepository.findById(id);
+        Optional<Appointment> hot = appointmentRepository.findById(id);
+        return hot.isPresent() ? hot : appointmentArchiveService.findById(id);
     }
 
     public void deleteAppointment(String id) {
-        appointmentRepository.deleteById(id);
+        List<Appointment> removed = new ArrayList<>();
+        Appointment hot = mongoTemplate.findAndRemove(new Query(Criteria.where("_id").is(id)), Appointment.class);
+        if (hot != null) {
+            removed.add(hot);
+        }
+        removed.addAll(appointmentArchiveService.remove(Criteria.where("_id").is(id)));
+        appointmentIntervalIndex.remove(id);
+        slotReservationManager.release(id);
+        if (!removed.isEmpty()) {
+            eventPublisher.publishEvent(new AppointmentsDeletedEvent(removed));
+        }
     }
 
-    public void deleteMultipleAppointments(List<String> ids) {
-        appointmentRepository.deleteAllById(ids);
+    public List<Appointment> getAppointmentOwnership(Collection<String> ids) {
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("doctorId", "patientId");
+        List<Appointment> owners = mongoTemplate.find(query, Appointment.class);
+        if (owners.size() >= ids.size()) {
+            return owners;
+        }
+        Set<String> hot = owners.stream().map(Appointment::getId).collect(Collectors.toSet());
+        List<String> missing = ids.stream().filter(id -> !hot.contains(id)).toList();
+        return withArchived(owners, Criteria.where("_id").in(missing), null, null, null);
+    }
+
+    public long deleteMultipleAppointments(List<String> ids, String ownerId) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<Appointment> deleted = new ArrayList<>(
+                mongoTemplate.findAllAndRemove(new Query(ownedBy(ids, ownerId)), Appointment.class));
+        deleted.addAll(appointmentArchiveService.remove(ownedBy(ids, ownerId)));
+        if (deleted.isEmpty()) {
+            return 0;
+        }
+        List<String> removed = deleted.stream().map(Appointment::getId).distinct().toList();
+        appointmentIntervalIndex.removeAll(removed);
+        slotReservationManager.releaseAll(removed);
+        eventPublisher.publishEvent(new AppointmentsDeletedEvent(deleted));
+        return removed.size();
+    }
+
+    private Criteria ownedBy(Collection<String> ids, String ownerId) {
+        Criteria criteria = Criteria.where("_id").in(ids);
+        if (ownerId != null) {
+            criteria.orOperator(Criteria.where("doctorId").is(ownerId), Criteria.where("patientId").is(ownerId));
+        }
+        return criteria;
     }
 
 
     public List<Appointment> getAppointmentsByStatus(String status) {
-        return appointmentRepository.findByStatus(status);
+        return withArchived(appointmentRepository.findByStatus(status),
+                Criteria.where("status").is(status), null, null, status);
     }
 
     public List<Appointment> getAppointmentsByBranch(String branchId) {
-        return appointmentRepository.findByBranchId(branchId);
+        return withArchived(appointmentRepository.findByBranchId(branchId),
+                Criteria.where("branchId").is(branchId), null, null, null);
+    }
+
+    public List<Appointment> getAppointmentsByBranches(Collection<String> branchIds) {
+        if (branchIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return withArchived(appointmentRepository.findByBranchIdInOrderByStartTimeAscIdAsc(branchIds),
+                Criteria.where("branchId").in(branchIds), null, null, null);
     }
 
     public List<Appointment> getAppointmentsByBranchAndDateRange(String branchId, LocalDateTime start, LocalDateTime end) {
-        return appointmentRepository.findByBranchIdAndStartTimeBetween(branchId, start, end);
+        return withOccurrences(withArchived(appointmentRepository.findByBranchIdAndStartTimeBetween(branchId, start, end),
+                        Criteria.where("branchId").is(branchId).and("startTime").gt(start).lt(end), start, end, null),
+                appointmentSeriesRepository.findActiveBranchSeries(branchId, start, end), start, end);
+    }
+
+    public Window<Appointment> getAllAppointments(ScrollPosition position, int limit) {
+        return withArchived(appointmentRepository.findAllByOrderByStartTimeAscIdAsc(position, Limit.of(limit)),
+                new Criteria(), null, null, null, position, limit);
+    }
+
+    public Window<Appointment> getAppointmentsByDoctor(String doctorId, ScrollPosition position, int limit) {
+        return withArchived(appointmentRepository.findByDoctorIdOrderByStartTimeAscIdAsc(doctorId, position, Limit.of(limit)),
+                Criteria.where("doctorId").is(doctorId), null, null, null, position, limit);
+    }
+
+    public Window<Appointment> getAppointmentsByPatient(String patientId, ScrollPosition position, int limit) {
+        return withArchived(appointmentRepository.findByPatientIdOrderByStartTimeAscIdAsc(patientId, position, Limit.of(limit)),
+                Criteria.where("patientId").is(patientId), null, null, null, position, limit);
+    }
+
+    public Window<Appointment> getAppointmentsByBranch(String branchId, ScrollPosition position, int limit) {
+        return withArchived(appointmentRepository.findByBranchIdOrderByStartTimeAscIdAsc(branchId, position, Limit.of(limit)),
+                Criteria.where("branchId").is(branchId), null, null, null, position, limit);
+    }
+
+    public Window<Appointment> getAppointmentsByBranches(Collection<String> branchIds, ScrollPosition position, int limit) {
+        if (branchIds.isEmpty()) {
+            return Window.from(new ArrayList<>(), index -> position);
+        }
+        return withArchived(appointmentRepository.findByBranchIdInOrderByStartTimeAscIdAsc(branchIds, position, Limit.of(limit)),
+                Criteria.where("branchId").in(branchIds), null, null, null, position, limit);
+    }
+
+    public Window<Appointment> getAppointmentsByStatus(String status, ScrollPosition position, int limit) {
+        return withArchived(appointmentRepository.findByStatusOrderByStartTimeAscIdAsc(status, position, Limit.of(limit)),
+                Criteria.where("status").is(status), null, null, status, position, limit);
+    }
+
+    public Window<Appointment> getAppointmentsByDoctorAndStatus(String doctorId, String status, ScrollPosition position, int limit) {
+        return withArchived(appointmentRepository.findByDoctorIdAndStatusOrderByStartTimeAscIdAsc(doctorId, status, position, Limit.of(limit)),
+                Criteria.where("doctorId").is(doctorId).and("status").is(status), null, null, status, position, limit);
+    }
+
+    public Window<Appointment> getAppointmentsByDateRange(LocalDateTime start, LocalDateTime end, ScrollPosition position, int limit) {
+        return withArchived(appointmentRepository.findByStartTimeBetweenOrderByStartTimeAscIdAsc(start, end, position, Limit.of(limit)),
+                Criteria.where("startTime").gt(start).lt(end), start, end, null, position, limit);
+    }
+
+    public Window<Appointment> getAppointmentsByDoctorAndDateRange(String doctorId, LocalDateTime start, LocalDateTime end, ScrollPosition position, int limit) {
+        return withArchived(appointmentRepository.findByDoctorIdAndStartTimeBetweenOrderByStartTimeAscIdAsc(doctorId, start, end, position, Limit.of(limit)),
+                Criteria.where("doctorId").is(doctorId).and("startTime").gt(start).lt(end), start, end, null, position, limit);
+    }
+
+    public Window<Appointment> getAppointmentsByPatientAndDateRange(String patientId, LocalDateTime start, LocalDateTime end, ScrollPosition position, int limit) {
+        return withArchived(appointmentRepository.findByPatientIdAndStartTimeBetweenOrderByStartTimeAscIdAsc(patientId, start, end, position, Limit.of(limit)),
+                Criteria.where("patientId").is(patientId).and("startTime").gt(start).lt(end), start, end, null, position, limit);
+    }
+
+    /**
+     * Window counterpart of withArchived: scrolls each archive partition from the same
+     * keyset position and keeps the {@code limit} appointments nearest to it, in
+     * (startTime, id) order. Every keyset carries startTime and id, so a cursor taken
+     * from either collection positions all of them.
+     */
+    private Window<Appointment> withArchived(Window<Appointment> hot, Criteria criteria, LocalDateTime from,
+                                             LocalDateTime to, String status, ScrollPosition position, int limit) {
+        if (!appointmentArchiveService.reaches(from, status)) {
+            return hot;
+        }
+        List<Window<Appointment>> windows = new ArrayList<>();
+        windows.add(hot);
+        windows.addAll(appointmentArchiveService.scroll(criteria, from, to, position, limit));
+
+        Map<String, ScrollPosition> positions = new HashMap<>();
+        Map<String, Appointment> merged = new LinkedHashMap<>();
+        boolean more = false;
+        // Hot first so that a document caught mid-move keeps its hot copy.
+        for (Window<Appointment> window : windows) {
+            more |= window.hasNext();
+            for (int i = 0; i < window.size(); i++) {
+                Appointment appointment = window.getContent().get(i);
+                if (merged.putIfAbsent(appointment.getId(), appointment) == null) {
+                    positions.put(appointment.getId(), window.positionAt(i));
+                }
+            }
+        }
+
+        List<Appointment> ordered = new ArrayList<>(merged.values());
+        ordered.sort(Comparator.comparing(Appointment::getStartTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Appointment::getId));
+        boolean backward = position instanceof KeysetScrollPosition keyset && keyset.scrollsBackward();
+        List<Appointment> page = ordered.size() <= limit ? ordered
+                : backward ? ordered.subList(ordered.size() - limit, ordered.size()) : ordered.subList(0, limit);
+        return Window.from(new ArrayList<>(page), i -> positions.get(page.get(i).getId()),
+                more || ordered.size() > limit);
+    }
+
+    public List<Appointment> findAppointments(AppointmentFilter filter) {
+        if (filter.matchesNothing()) {
+            return new ArrayList<>();
+        }
+        Query query = new Query(filter.toCriteria()).with(Sort.by(Sort.Direction.ASC, "startTime", "id"));
+        return withArchived(mongoTemplate.find(query, Appointment.class), filter.toCriteria(),
+                filter.getFrom(), filter.getTo(), filter.getStatus());
+    }
+
+    public Stream<Appointment> streamAppointments(String branchId, String doctorId, String status,
+                                                  LocalDateTime from, LocalDateTime to) {
+        AppointmentFilter filter = new AppointmentFilter(doctorId, null,
+                branchId != null ? List.of(branchId) : null, status, from, to);
+        Query query = new Query(filter.toCriteria())
+                .with(Sort.by(Sort.Direction.ASC, "startTime", "id"))
+                .cursorBatchSize(EXPORT_BATCH_SIZE);
+        Stream<Appointment> hot = mongoTemplate.stream(query, Appointment.class);
+        if (!appointmentArchiveService.reaches(from, status)) {
+            return hot;
+        }
+        return Stream.concat(withoutHotCopies(appointmentArchiveService.stream(filter.toCriteria(), from, to)), hot);
+    }
+
+    /**
+     * Drops archived appointments that are still in the hot collection, as they are
+     * between the archiver's insert and delete, so the export carries each id once,
+     * like withArchived. Ids are checked one export batch at a time so the archive is
+     * never held in memory.
+     */
+    private Stream<Appointment> withoutHotCopies(Stream<Appointment> archived) {
+        Iterator<Appointment> source = archived.iterator();
+        Iterator<Appointment> filtered = new Iterator<>() {
+            private Iterator<Appointment> batch = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!batch.hasNext() && source.hasNext()) {
+                    List<Appointment> next = new ArrayList<>(EXPORT_BATCH_SIZE);
+                    while (next.size() < EXPORT_BATCH_SIZE && source.hasNext()) {
+                        next.add(source.next());
+                    }
+                    Query hotQuery = new Query(Criteria.where("_id").in(next.stream().map(Appointment::getId).toList()));
+                    hotQuery.fields().include("_id");
+                    Set<String> hotIds = mongoTemplate.find(hotQuery, Appointment.class).stream()
+                            .map(Appointment::getId)
+                            .collect(Collectors.toSet());
+                    batch = next.stream().filter(appointment -> !hotIds.contains(appointment.getId())).iterator();
+                }
+                return batch.hasNext();
+            }
+
+            @Override
+            public Appointment next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return batch.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(filtered, Spliterator.ORDERED), false)
+                .onClose(archived::close);
     }
 }
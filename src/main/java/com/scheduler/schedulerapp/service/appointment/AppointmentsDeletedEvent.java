@@ -0,0 +1,18 @@
+package com.scheduler.schedulerapp.service.appointment;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published after appointments have been deleted, in any status and from either the
+ * hot collection or the archive. Carries the documents as they were removed, so
+ * listeners know the doctor and branch without a read.
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentsDeletedEvent {
+    private final List<Appointment> appointments;
+}
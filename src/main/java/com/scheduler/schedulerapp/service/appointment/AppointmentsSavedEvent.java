@@ -0,0 +1,16 @@
+package com.scheduler.schedulerapp.service.appointment;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published after appointments have been created or updated.
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentsSavedEvent {
+    private final List<Appointment> appointments;
+}
@@ -0,0 +1,304 @@
+package com.scheduler.schedulerapp.service.appointment;
+
+import com.mongodb.client.result.UpdateResult;
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.BranchCapacityCounter;
+import com.scheduler.schedulerapp.model.HospitalBranch;
+import com.scheduler.schedulerapp.repository.HospitalBranchRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Enforces {@link HospitalBranch#getHourlyCapacity()} and {@link HospitalBranch#getDailyCapacity()}
+ * with one counter document per branch hour and per branch day. A scheduled appointment
+ * holds every hour it overlaps and the day it starts on. Taking a counter is a single
+ * conditional upsert that increments it only while it is below the limit and not
+ * already held by the appointment, so concurrent bookings on any number of nodes can
+ * never push a counter past its limit. Counters are kept for every branch appointment,
+ * limited or not, so a capacity configured later starts from the real count. Series
+ * occurrences hold counters under their occurrence ids ("seriesId@start"), so a
+ * series counts once per occurrence, and each counter also records the series holding
+ * it, so a series is released as a whole through an equality lookup. Counters that
+ * drop to zero are removed rather than left behind with an empty holders list.
+ */
+@Component
+public class BranchCapacityManager {
+
+    static final String HOUR = "hour";
+    static final String DAY = "day";
+
+    private static final String SCHEDULED = "scheduled";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private HospitalBranchRepository hospitalBranchRepository;
+
+    @Value("${scheduler.capacity.limits-ttl-ms:30000}")
+    private long limitsTtlMillis = 30000;
+
+    private final Map<String, CachedLimits> limits = new ConcurrentHashMap<>();
+
+    private record CachedLimits(Integer hourly, Integer daily, long expiresAtNanos) {
+    }
+
+    private record CounterKey(String id, String branchId, String period, LocalDateTime slotStart, LocalDateTime slotEnd) {
+    }
+
+    public void reserve(Appointment appointment) {
+        acquire(appointment.getId(), buildKeys(appointment), true);
+    }
+
+    /**
+     * Reserves capacity for each appointment of a batch and returns why each rejected
+     * id did not fit, keyed by id; nothing is held for them.
+     */
+    public Map<String, String> reserveAll(List<Appointment> appointments) {
+        Map<String, String> rejected = new LinkedHashMap<>();
+        for (Appointment appointment : appointments) {
+            try {
+                reserve(appointment);
+            } catch (RuntimeException full) {
+                rejected.put(appointment.getId(), full.getMessage());
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Reserves capacity for every occurrence of a series, or for none of them: the
+     * first occurrence that does not fit releases the ones already taken.
+     */
+    public void reserveOccurrences(List<Appointment> occurrences) {
+        List<String> taken = new ArrayList<>();
+        for (Appointment occurrence : occurrences) {
+            try {
+                reserve(occurrence);
+            } catch (RuntimeException full) {
+                releaseAll(taken);
+                throw new RuntimeException("Series occurrence on " + occurrence.getStartTime() + ": " + full.getMessage());
+            }
+            taken.add(occurrence.getId());
+        }
+    }
+
+    /**
+     * Moves an existing appointment's holdings to its current branch and time, taking
+     * the new counters before letting go of the old ones. With {@code enforce} off the
+     * limits are ignored, which is how appointments booked before a limit existed are
+     * adopted.
+     */
+    public void reschedule(Appointment appointment, boolean enforce) {
+        String holderId = appointment.getId();
+        Query heldQuery = new Query(Criteria.where("holders").is(holderId));
+        heldQuery.fields().include("_id");
+        Set<String> heldIds = mongoTemplate.find(heldQuery, BranchCapacityCounter.class).stream()
+                .map(BranchCapacityCounter::getId)
+                .collect(Collectors.toSet());
+        List<CounterKey> desired = buildKeys(appointment);
+        Set<String> desiredIds = desired.stream().map(CounterKey::id).collect(Collectors.toSet());
+
+        acquire(holderId, desired.stream().filter(key -> !heldIds.contains(key.id())).toList(), enforce);
+
+        List<String> toRelease = heldIds.stream().filter(id -> !desiredIds.contains(id)).toList();
+        if (!toRelease.isEmpty()) {
+            releaseCounters(holderId, toRelease);
+        }
+    }
+
+    public void release(String appointmentId) {
+        releaseAll(List.of(appointmentId));
+    }
+
+    public void releaseAll(Collection<String> appointmentIds) {
+        if (appointmentIds.isEmpty()) {
+            return;
+        }
+        Query heldQuery = new Query(Criteria.where("holders").in(appointmentIds));
+        heldQuery.fields().include("_id");
+        List<String> counterIds = mongoTemplate.find(heldQuery, BranchCapacityCounter.class).stream()
+                .map(BranchCapacityCounter::getId)
+                .toList();
+        if (counterIds.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BranchCapacityCounter.class);
+        for (String appointmentId : appointmentIds) {
+            bulk.updateMulti(new Query(Criteria.where("_id").in(counterIds).and("holders").is(appointmentId)),
+                    releaseUpdate(appointmentId));
+        }
+        bulk.execute();
+        removeEmpty(counterIds);
+    }
+
+    /**
+     * Releases every occurrence the given series hold, in one read and one bulk write.
+     */
+    public void releaseSeries(Collection<String> seriesIds) {
+        if (seriesIds.isEmpty()) {
+            return;
+        }
+        Set<String> released = new HashSet<>(seriesIds);
+        Query held = new Query(Criteria.where("series").in(released));
+        held.fields().include("holders");
+        List<BranchCapacityCounter> counters = mongoTemplate.find(held, BranchCapacityCounter.class);
+        if (counters.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BranchCapacityCounter.class);
+        for (BranchCapacityCounter counter : counters) {
+            List<String> holders = counter.getHolders().stream()
+                    .filter(holder -> released.contains(seriesOf(holder)))
+                    .toList();
+            Update update = new Update().pullAll("series", released.toArray());
+            if (!holders.isEmpty()) {
+                update.inc("count", -holders.size()).pullAll("holders", holders.toArray());
+            }
+            bulk.updateOne(new Query(Criteria.where("_id").is(counter.getId()).and("holders").all(holders)), update);
+        }
+        bulk.execute();
+        removeEmpty(counters.stream().map(BranchCapacityCounter::getId).toList());
+    }
+
+    private void acquire(String holderId, List<CounterKey> keys, boolean enforce) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        CachedLimits branchLimits = enforce ? limitsFor(keys.get(0).branchId()) : null;
+        List<String> taken = new ArrayList<>();
+        for (CounterKey key : keys) {
+            Integer limit = branchLimits == null ? null : HOUR.equals(key.period()) ? branchLimits.hourly() : branchLimits.daily();
+            if (!increment(holderId, key, limit)) {
+                if (!taken.isEmpty()) {
+                    releaseCounters(holderId, taken);
+                }
+                throw new RuntimeException(HOUR.equals(key.period())
+                        ? "Branch is fully booked for the hour starting " + key.slotStart()
+                        : "Branch is fully booked on " + key.slotStart().toLocalDate());
+            }
+            taken.add(key.id());
+        }
+    }
+
+    private boolean increment(String holderId, CounterKey key, Integer limit) {
+        if (limit != null && limit < 1) {
+            return false;
+        }
+        Query query = new Query(Criteria.where("_id").is(key.id()).and("holders").ne(holderId));
+        if (limit != null) {
+            query.addCriteria(Criteria.where("count").lt(limit));
+        }
+        Update update = new Update()
+                .inc("count", 1)
+                .push("holders", holderId)
+                .setOnInsert("branchId", key.branchId())
+                .setOnInsert("period", key.period())
+                .setOnInsert("slotStart", key.slotStart())
+                .setOnInsert("expiresAt", key.slotEnd());
+
+        String seriesId = seriesOf(holderId);
+        if (seriesId != null) {
+            update.addToSet("series", seriesId);
+        }
+
+        // A duplicate key means the counter exists but did not match: either it is full
+        // or another booking created it first, so the second attempt decides.
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                UpdateResult result = mongoTemplate.upsert(query, update, BranchCapacityCounter.class);
+                return result.getModifiedCount() > 0 || result.getUpsertedId() != null;
+            } catch (DuplicateKeyException e) {
+                // retried below
+            }
+        }
+        return false;
+    }
+
+    private void releaseCounters(String holderId, Collection<String> counterIds) {
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(counterIds).and("holders").is(holderId)),
+                releaseUpdate(holderId), BranchCapacityCounter.class);
+        removeEmpty(counterIds);
+    }
+
+    /**
+     * Deletes the given counters that nothing holds any more. A booking racing the
+     * delete either keeps the counter above zero or recreates it with its upsert.
+     */
+    private void removeEmpty(Collection<String> counterIds) {
+        mongoTemplate.remove(new Query(Criteria.where("_id").in(counterIds).and("count").lte(0)),
+                BranchCapacityCounter.class);
+    }
+
+    /**
+     * Series occurrences hold counters as "seriesId@start"; appointments have no series.
+     */
+    private static String seriesOf(String holderId) {
+        int at = holderId.indexOf('@');
+        return at > 0 ? holderId.substring(0, at) : null;
+    }
+
+    private Update releaseUpdate(String holderId) {
+        return new Update().inc("count", -1).pull("holders", holderId);
+    }
+
+    private CachedLimits limitsFor(String branchId) {
+        long now = System.nanoTime();
+        CachedLimits cached = limits.get(branchId);
+        if (cached != null && cached.expiresAtNanos() - now > 0) {
+            return cached;
+        }
+        HospitalBranch branch = hospitalBranchRepository.findById(branchId).orElse(null);
+        CachedLimits loaded = new CachedLimits(
+                branch != null ? branch.getHourlyCapacity() : null,
+                branch != null ? branch.getDailyCapacity() : null,
+                now + limitsTtlMillis * 1_000_000L);
+        limits.put(branchId, loaded);
+        return loaded;
+    }
+
+    private List<CounterKey> buildKeys(Appointment appointment) {
+        Map<String, CounterKey> keys = new LinkedHashMap<>();
+        if (!SCHEDULED.equals(appointment.getStatus())
+                || appointment.getBranchId() == null
+                || appointment.getStartTime() == null
+                || appointment.getEndTime() == null) {
+            return new ArrayList<>();
+        }
+
+        String branchId = appointment.getBranchId();
+        LocalDateTime hour = appointment.getStartTime().truncatedTo(ChronoUnit.HOURS);
+        while (hour.isBefore(appointment.getEndTime())) {
+            CounterKey key = counterKey(branchId, HOUR, hour, hour.plusHours(1));
+            keys.put(key.id(), key);
+            hour = hour.plusHours(1);
+        }
+        LocalDateTime day = appointment.getStartTime().toLocalDate().atStartOfDay();
+        CounterKey dayKey = counterKey(branchId, DAY, day, day.plusDays(1));
+        keys.put(dayKey.id(), dayKey);
+        return new ArrayList<>(keys.values());
+    }
+
+    private CounterKey counterKey(String branchId, String period, LocalDateTime slotStart, LocalDateTime slotEnd) {
+        return new CounterKey(branchId + ":" + period + ":" + slotStart, branchId, period, slotStart, slotEnd);
+    }
+}
@@ -0,0 +1,20 @@
+package com.scheduler.schedulerapp.service.appointment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Appointments starting in one heatmap cell. Fields that aren't part of the
+ * requested bucket are null: date for WEEKDAY_HOUR, hour for DAY.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BranchOccupancyCount {
+    private String date;
+    private Integer dayOfWeek;
+    private Integer hour;
+    private long appointments;
+    private long bookedMinutes;
+}
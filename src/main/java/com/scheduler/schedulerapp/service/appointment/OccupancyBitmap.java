@@ -0,0 +1,81 @@
+package com.scheduler.schedulerapp.service.appointment;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * One day of a doctor's calendar as a bitmap with one bit per
+ * {@value SlotReservationManager#SLOT_MINUTES}-minute slot, set when any scheduled
+ * appointment touches the slot. 288 bits fit in five longs, so a free-slot search is
+ * a handful of word scans.
+ */
+public final class OccupancyBitmap {
+
+    public static final int SLOT_MINUTES = SlotReservationManager.SLOT_MINUTES;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private static final long SLOT_SECONDS = SLOT_MINUTES * 60L;
+
+    private OccupancyBitmap() {
+    }
+
+    public static void mark(BitSet bits, LocalDate day, LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        if (!startTime.isBefore(dayEnd) || !endTime.isAfter(dayStart)) {
+            return;
+        }
+        int fromSlot = startTime.isAfter(dayStart) ? floorSlot(dayStart, startTime) : 0;
+        int toSlot = endTime.isBefore(dayEnd) ? ceilSlot(dayStart, endTime) : SLOTS_PER_DAY;
+        bits.set(fromSlot, toSlot);
+    }
+
+    public static List<LocalDate> daysTouched(LocalDateTime startTime, LocalDateTime endTime) {
+        List<LocalDate> days = new ArrayList<>();
+        LocalDate last = endTime.minusNanos(1).toLocalDate();
+        for (LocalDate day = startTime.toLocalDate(); !day.isAfter(last); day = day.plusDays(1)) {
+            days.add(day);
+        }
+        return days;
+    }
+
+    /**
+     * Start times of every free run of {@code slotsNeeded} slots between
+     * {@code fromSlot} (inclusive) and {@code toSlot} (exclusive).
+     */
+    public static List<LocalDateTime> freeStarts(BitSet bits, LocalDate day, int fromSlot, int toSlot, int slotsNeeded) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        LocalDateTime dayStart = day.atStartOfDay();
+        int slot = bits.nextClearBit(fromSlot);
+        while (slot + slotsNeeded <= toSlot) {
+            int nextBusy = bits.nextSetBit(slot);
+            int runEnd = nextBusy < 0 || nextBusy > toSlot ? toSlot : nextBusy;
+            for (int start = slot; start + slotsNeeded <= runEnd; start++) {
+                starts.add(dayStart.plusMinutes((long) start * SLOT_MINUTES));
+            }
+            if (runEnd >= toSlot) {
+                break;
+            }
+            slot = bits.nextClearBit(runEnd);
+        }
+        return starts;
+    }
+
+    public static int slotsFor(int minutes) {
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    public static int floorSlot(LocalDateTime dayStart, LocalDateTime time) {
+        return (int) (Duration.between(dayStart, time).getSeconds() / SLOT_SECONDS);
+    }
+
+    public static int ceilSlot(LocalDateTime dayStart, LocalDateTime time) {
+        Duration sinceDayStart = Duration.between(dayStart, time);
+        long seconds = sinceDayStart.getSeconds() + (sinceDayStart.getNano() > 0 ? 1 : 0);
+        return (int) ((seconds + SLOT_SECONDS - 1) / SLOT_SECONDS);
+    }
+}
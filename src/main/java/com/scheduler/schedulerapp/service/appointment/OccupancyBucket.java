@@ -0,0 +1,7 @@
+package com.scheduler.schedulerapp.service.appointment;
+
+public enum OccupancyBucket {
+    HOUR,
+    DAY,
+    WEEKDAY_HOUR
+}
@@ -0,0 +1,341 @@
+package com.scheduler.schedulerapp.service.appointment;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
+import com.scheduler.schedulerapp.model.SlotReservation;
+import com.scheduler.schedulerapp.repository.SlotReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Makes booking atomic across app instances. Every scheduled appointment owns one
+ * reservation document per {@value #SLOT_MINUTES}-minute slot for its doctor and its
+ * patient, and the reservation _id is derived from (owner, slot), so MongoDB's unique
+ * _id rejects the second of two concurrent bookings without any application lock.
+ * Reservations expire through a TTL index once their slot is over, and reservations
+ * whose appointment was never saved are dropped by {@link #releaseOrphans()}. Branch capacity
+ * is taken and released alongside through {@link BranchCapacityManager}.
+ *
+ * <p>Bookings must start and end on the slot grid ({@link #requireOnSlotGrid}), so
+ * back-to-back appointments never share a slot. Appointments stored before that rule
+ * are rounded outward to whole slots.
+ */
+@Component
+public class SlotReservationManager {
+
+    public static final int SLOT_MINUTES = 5;
+
+    private static final String SCHEDULED = "scheduled";
+    private static final String DOCTOR = "doctor";
+    private static final String PATIENT = "patient";
+
+    @Autowired
+    private SlotReservationRepository slotReservationRepository;
+
+    @Autowired
+    private BranchCapacityManager branchCapacityManager;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${scheduler.reservations.orphan-grace-ms:300000}")
+    private long orphanGraceMillis = 300000;
+
+    public void reserve(Appointment appointment) {
+        branchCapacityManager.reserve(appointment);
+        try {
+            reserveSlots(appointment);
+        } catch (RuntimeException e) {
+            branchCapacityManager.release(appointment.getId());
+            throw e;
+        }
+    }
+
+    private void reserveSlots(Appointment appointment) {
+        List<SlotReservation> reservations = buildReservations(appointment);
+        if (reservations.isEmpty()) {
+            return;
+        }
+
+        try {
+            slotReservationRepository.insert(reservations);
+        } catch (DuplicateKeyException e) {
+            slotReservationRepository.deleteByAppointmentId(appointment.getId());
+            throw new RuntimeException("Appointment conflicts with an appointment booked for the same time slot");
+        }
+    }
+
+    /**
+     * Reserves slots for a whole batch with one insertMany. If another booking got there
+     * first, the batch falls back to reserving one appointment at a time to find out
+     * which ones lost. Rejected ids are returned with the reason, capacity or slot
+     * conflict, and nothing is held for them.
+     */
+    public Map<String, String> reserveAll(List<Appointment> appointments) {
+        Map<String, String> rejected = new LinkedHashMap<>(branchCapacityManager.reserveAll(appointments));
+        List<Appointment> admitted = appointments.stream()
+                .filter(appointment -> !rejected.containsKey(appointment.getId()))
+                .toList();
+        List<SlotReservation> reservations = admitted.stream()
+                .flatMap(appointment -> buildReservations(appointment).stream())
+                .toList();
+        if (reservations.isEmpty()) {
+            return rejected;
+        }
+
+        try {
+            slotReservationRepository.insert(reservations);
+        } catch (DuplicateKeyException e) {
+            slotReservationRepository.deleteByAppointmentIdIn(admitted.stream().map(Appointment::getId).toList());
+            List<String> conflicting = new ArrayList<>();
+            for (Appointment appointment : admitted) {
+                try {
+                    reserveSlots(appointment);
+                } catch (RuntimeException conflict) {
+                    conflicting.add(appointment.getId());
+                    rejected.put(appointment.getId(), conflict.getMessage());
+                }
+            }
+            branchCapacityManager.releaseAll(conflicting);
+        }
+        return rejected;
+    }
+
+    public void reschedule(Appointment appointment) {
+        reschedule(appointment, true);
+    }
+
+    private void reschedule(Appointment appointment, boolean enforceCapacity) {
+        String appointmentId = appointment.getId();
+        Set<String> heldIds = slotReservationRepository.findByAppointmentId(appointmentId).stream()
+                .map(SlotReservation::getId)
+                .collect(Collectors.toSet());
+        List<SlotReservation> desired = buildReservations(appointment);
+        Set<String> desiredIds = desired.stream()
+                .map(SlotReservation::getId)
+                .collect(Collectors.toSet());
+
+        List<SlotReservation> toInsert = desired.stream()
+                .filter(reservation -> !heldIds.contains(reservation.getId()))
+                .toList();
+        if (!toInsert.isEmpty()) {
+            try {
+                slotReservationRepository.insert(toInsert);
+            } catch (DuplicateKeyException e) {
+                slotReservationRepository.deleteByIdInAndAppointmentId(
+                        toInsert.stream().map(SlotReservation::getId).toList(), appointmentId);
+                throw new RuntimeException("Appointment conflicts with an appointment booked for the same time slot");
+            }
+        }
+
+        try {
+            branchCapacityManager.reschedule(appointment, enforceCapacity);
+        } catch (RuntimeException e) {
+            if (!toInsert.isEmpty()) {
+                slotReservationRepository.deleteByIdInAndAppointmentId(
+                        toInsert.stream().map(SlotReservation::getId).toList(), appointmentId);
+            }
+            throw e;
+        }
+
+        List<String> toRelease = heldIds.stream()
+                .filter(id -> !desiredIds.contains(id))
+                .toList();
+        if (!toRelease.isEmpty()) {
+            slotReservationRepository.deleteByIdInAndAppointmentId(toRelease, appointmentId);
+        }
+    }
+
+    /**
+     * Reserves the slots of every occurrence of a series under the series id, and
+     * branch capacity under each occurrence id, so the series is booked or rejected
+     * as a whole.
+     */
+    public void reserveSeries(String seriesId, List<Appointment> occurrences) {
+        List<SlotReservation> reservations = occurrences.stream()
+                .flatMap(occurrence -> buildReservations(occurrence, seriesId).stream())
+                .toList();
+        branchCapacityManager.reserveOccurrences(occurrences);
+        if (reservations.isEmpty()) {
+            return;
+        }
+
+        try {
+            slotReservationRepository.insert(reservations);
+        } catch (DuplicateKeyException e) {
+            slotReservationRepository.deleteByAppointmentId(seriesId);
+            branchCapacityManager.releaseAll(occurrences.stream().map(Appointment::getId).toList());
+            throw new RuntimeException("Appointment series conflicts with an appointment booked for the same time slot");
+        }
+    }
+
+    public void releaseOccurrence(String seriesId, Appointment occurrence) {
+        List<String> ids = buildReservations(occurrence, seriesId).stream()
+                .map(SlotReservation::getId)
+                .toList();
+        if (!ids.isEmpty()) {
+            slotReservationRepository.deleteByIdInAndAppointmentId(ids, seriesId);
+        }
+        branchCapacityManager.release(occurrence.getId());
+    }
+
+    /**
+     * Releases the slots and capacity of the given occurrences of a series, which must be
+     * its last ones: every series slot from the first of them on is dropped, and the
+     * occurrences before them keep theirs.
+     */
+    public void releaseOccurrencesFrom(String seriesId, List<Appointment> occurrences) {
+        Optional<LocalDateTime> firstSlot = occurrences.stream()
+                .flatMap(occurrence -> buildReservations(occurrence, seriesId).stream())
+                .map(SlotReservation::getSlotStart)
+                .min(LocalDateTime::compareTo);
+        if (firstSlot.isPresent()) {
+            mongoTemplate.remove(new Query(Criteria.where("appointmentId").is(seriesId)
+                    .and("slotStart").gte(firstSlot.get())), SlotReservation.class);
+        }
+        branchCapacityManager.releaseAll(occurrences.stream().map(Appointment::getId).toList());
+    }
+
+    public void releaseSeries(Collection<String> seriesIds) {
+        if (!seriesIds.isEmpty()) {
+            slotReservationRepository.deleteByAppointmentIdIn(seriesIds);
+            branchCapacityManager.releaseSeries(seriesIds);
+        }
+    }
+
+    public void release(String appointmentId) {
+        slotReservationRepository.deleteByAppointmentId(appointmentId);
+        branchCapacityManager.release(appointmentId);
+    }
+
+    public void releaseAll(Collection<String> appointmentIds) {
+        if (!appointmentIds.isEmpty()) {
+            slotReservationRepository.deleteByAppointmentIdIn(appointmentIds);
+            branchCapacityManager.releaseAll(appointmentIds);
+        }
+    }
+
+    public void backfill(Collection<Appointment> appointments) {
+        LocalDateTime now = LocalDateTime.now();
+        int reserved = 0;
+        for (Appointment appointment : appointments) {
+            if (appointment.getEndTime() == null || !appointment.getEndTime().isAfter(now)) {
+                continue;
+            }
+            try {
+                reschedule(appointment, false);
+                reserved++;
+            } catch (RuntimeException e) {
+                System.err.println("Could not reserve slots for appointment " + appointment.getId() + ": " + e.getMessage());
+            }
+        }
+        System.out.println("Slot reservations verified for " + reserved + " upcoming appointments");
+    }
+
+    /**
+     * Releases reservations and branch capacity held for appointments or series that do
+     * not exist, as left behind when a node dies between reserving and saving. Only
+     * reservations older than the grace period are considered, so bookings still in
+     * flight are not touched.
+     */
+    public int releaseOrphans() {
+        Query old = new Query(Criteria.where("reservedAt").not().gte(LocalDateTime.now().minus(orphanGraceMillis, ChronoUnit.MILLIS)));
+        List<String> holderIds = mongoTemplate.findDistinct(old, "appointmentId", SlotReservation.class, String.class);
+        if (holderIds.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> existing = new HashSet<>();
+        Query byId = new Query(Criteria.where("_id").in(holderIds));
+        byId.fields().include("_id");
+        mongoTemplate.find(byId, Appointment.class).forEach(appointment -> existing.add(appointment.getId()));
+        mongoTemplate.find(byId, AppointmentSeries.class).forEach(series -> existing.add(series.getId()));
+
+        List<String> orphans = holderIds.stream().filter(id -> !existing.contains(id)).toList();
+        if (!orphans.isEmpty()) {
+            slotReservationRepository.deleteByAppointmentIdIn(orphans);
+            branchCapacityManager.releaseAll(orphans);
+            branchCapacityManager.releaseSeries(orphans);
+            System.out.println("Released slot reservations of " + orphans.size() + " appointments that were never saved");
+        }
+        return orphans.size();
+    }
+
+    /**
+     * Rejects times off the {@value #SLOT_MINUTES}-minute grid. A booking ending at 10:32
+     * would hold the 10:30 slot and turn away one starting at 10:32.
+     */
+    public static void requireOnSlotGrid(LocalDateTime... times) {
+        for (LocalDateTime time : times) {
+            if (!time.equals(floorToSlot(time))) {
+                throw new IllegalArgumentException("Appointment times must fall on " + SLOT_MINUTES
+                        + "-minute boundaries, e.g. 10:00 or 10:35; got " + time);
+            }
+        }
+    }
+
+    public static LocalDateTime ceilToSlot(LocalDateTime time) {
+        LocalDateTime floor = floorToSlot(time);
+        return floor.equals(time) ? time : floor.plusMinutes(SLOT_MINUTES);
+    }
+
+    public static List<LocalDateTime> slotsCovering(LocalDateTime startTime, LocalDateTime endTime) {
+        List<LocalDateTime> slots = new ArrayList<>();
+        LocalDateTime slot = floorToSlot(startTime);
+        while (slot.isBefore(endTime)) {
+            slots.add(slot);
+            slot = slot.plusMinutes(SLOT_MINUTES);
+        }
+        return slots;
+    }
+
+    private static LocalDateTime floorToSlot(LocalDateTime time) {
+        LocalDateTime minute = time.truncatedTo(ChronoUnit.MINUTES);
+        return minute.minusMinutes(minute.getMinute() % SLOT_MINUTES);
+    }
+
+    private List<SlotReservation> buildReservations(Appointment appointment) {
+        return buildReservations(appointment, appointment.getId());
+    }
+
+    private List<SlotReservation> buildReservations(Appointment appointment, String holderId) {
+        List<SlotReservation> reservations = new ArrayList<>();
+        if (!SCHEDULED.equals(appointment.getStatus())
+                || appointment.getStartTime() == null
+                || appointment.getEndTime() == null) {
+            return reservations;
+        }
+
+        for (LocalDateTime slot : slotsCovering(appointment.getStartTime(), appointment.getEndTime())) {
+            if (appointment.getDoctorId() != null) {
+                reservations.add(reservationFor(holderId, DOCTOR, appointment.getDoctorId(), slot));
+            }
+            if (appointment.getPatientId() != null) {
+                reservations.add(reservationFor(holderId, PATIENT, appointment.getPatientId(), slot));
+            }
+        }
+        return reservations;
+    }
+
+    private SlotReservation reservationFor(String appointmentId, String ownerType, String ownerId, LocalDateTime slot) {
+        String id = ownerType + ":" + ownerId + ":" + slot;
+        return new SlotReservation(id, appointmentId, ownerType, ownerId, slot, LocalDateTime.now(), slot.plusMinutes(SLOT_MINUTES));
+    }
+}
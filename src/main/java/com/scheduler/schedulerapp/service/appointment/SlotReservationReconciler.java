@@ -0,0 +1,35 @@
+package com.scheduler.schedulerapp.service.appointment;
+
+import com.scheduler.schedulerapp.service.lease.JobLeaseManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("!test")
+public class SlotReservationReconciler {
+
+    private static final String LEASE = "slot-reservation-reconcile";
+
+    @Autowired
+    private SlotReservationManager slotReservationManager;
+
+    @Autowired
+    private JobLeaseManager jobLeaseManager;
+
+    @Scheduled(fixedDelayString = "${scheduler.reservations.reconcile-interval-ms:600000}",
+            initialDelayString = "${scheduler.reservations.reconcile-interval-ms:600000}")
+    public void releaseOrphanedReservations() {
+        if (!jobLeaseManager.tryAcquire(LEASE)) {
+            return;
+        }
+        try {
+            slotReservationManager.releaseOrphans();
+        } catch (RuntimeException e) {
+            System.err.println("Could not reconcile slot reservations: " + e.getMessage());
+        } finally {
+            jobLeaseManager.release(LEASE);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.scheduler.schedulerapp.service.archive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("!test")
+public class AppointmentArchiveScheduler {
+
+    @Autowired
+    private AppointmentArchiveService appointmentArchiveService;
+
+    @Scheduled(fixedDelayString = "${scheduler.archive.interval-ms:600000}",
+            initialDelayString = "${scheduler.archive.initial-delay-ms:120000}")
+    public void archiveExpiredAppointments() {
+        appointmentArchiveService.archiveExpired();
+    }
+}
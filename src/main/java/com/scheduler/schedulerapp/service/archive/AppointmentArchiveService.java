@@ -0,0 +1,24 @@
+package com.scheduler.schedulerapp.service.archive;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface AppointmentArchiveService {
+    boolean reaches(LocalDateTime from, String status);
+    List<Appointment> find(Criteria criteria, LocalDateTime from, LocalDateTime to);
+    Stream<Appointment> stream(Criteria criteria, LocalDateTime from, LocalDateTime to);
+    List<Window<Appointment>> scroll(Criteria criteria, LocalDateTime from, LocalDateTime to, ScrollPosition position, int limit);
+    <T> List<T> aggregate(Aggregation aggregation, LocalDateTime from, LocalDateTime to, Class<T> outputType);
+    List<Appointment> remove(Criteria criteria);
+    Optional<Appointment> findById(String id);
+    int archiveBatch();
+    long archiveExpired();
+}
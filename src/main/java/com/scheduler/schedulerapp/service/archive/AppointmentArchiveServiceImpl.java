@@ -0,0 +1,318 @@
+package com.scheduler.schedulerapp.service.archive;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.service.lease.JobLeaseManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the appointments collection small by moving finished history into one
+ * archive collection per start year ("appointments_archive_2024", ...). Completed,
+ * cancelled and no-show appointments whose end is older than the configured age
+ * are copied to their partition and then deleted from the hot collection; the copy
+ * replaces any earlier copy, so a batch interrupted between the two steps is simply
+ * moved again. The hot delete only matches documents still at the version that was
+ * copied, so an appointment edited mid-move stays hot and its copy is dropped again.
+ * Series exceptions stay hot because occurrence expansion reads them. Runs are
+ * coordinated across nodes through a {@link JobLeaseManager} lease.
+ *
+ * <p>Reads only touch the archive when their lower bound falls before the horizon,
+ * the later of the age cutoff and the newest archived start, and then only the
+ * partitions whose years overlap the requested range.
+ */
+@Service
+public class AppointmentArchiveServiceImpl implements AppointmentArchiveService {
+
+    static final String PARTITION_PREFIX = "appointments_archive_";
+    static final Set<String> ARCHIVABLE = Set.of("completed", "cancelled", "no_show");
+
+    private static final String LEASE = "appointment-archive";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private JobLeaseManager jobLeaseManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${scheduler.archive.age-days:365}")
+    private long ageDays = 365;
+
+    @Value("${scheduler.archive.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${scheduler.archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun = 100;
+
+    @Value("${scheduler.archive.refresh-ms:60000}")
+    private long refreshMillis = 60000;
+
+    private volatile NavigableSet<Integer> partitions;
+    private volatile LocalDateTime newestArchivedStart;
+    private volatile long refreshedAt;
+
+    @Override
+    public boolean reaches(LocalDateTime from, String status) {
+        if (status != null && !ARCHIVABLE.contains(status)) {
+            return false;
+        }
+        if (partitions().isEmpty()) {
+            return false;
+        }
+        return from == null || from.isBefore(horizon());
+    }
+
+    @Override
+    public List<Appointment> find(Criteria criteria, LocalDateTime from, LocalDateTime to) {
+        List<Appointment> archived = new ArrayList<>();
+        for (String collection : partitionsFor(from, to)) {
+            archived.addAll(mongoTemplate.find(new Query(criteria), Appointment.class, collection));
+        }
+        return archived;
+    }
+
+    @Override
+    public Stream<Appointment> stream(Criteria criteria, LocalDateTime from, LocalDateTime to) {
+        Stream<Appointment> archived = Stream.empty();
+        for (String collection : partitionsFor(from, to)) {
+            Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "startTime", "id"));
+            archived = Stream.concat(archived, mongoTemplate.stream(query, Appointment.class, collection));
+        }
+        return archived;
+    }
+
+    @Override
+    public List<Window<Appointment>> scroll(Criteria criteria, LocalDateTime from, LocalDateTime to,
+                                            ScrollPosition position, int limit) {
+        List<Window<Appointment>> windows = new ArrayList<>();
+        for (String collection : partitionsFor(from, to)) {
+            Query query = new Query(criteria)
+                    .with(Sort.by(Sort.Direction.ASC, "startTime", "id"))
+                    .with(position)
+                    .limit(limit);
+            windows.add(mongoTemplate.scroll(query, Appointment.class, collection));
+        }
+        return windows;
+    }
+
+    @Override
+    public <T> List<T> aggregate(Aggregation aggregation, LocalDateTime from, LocalDateTime to, Class<T> outputType) {
+        List<T> results = new ArrayList<>();
+        for (String collection : partitionsFor(from, to)) {
+            results.addAll(mongoTemplate.aggregate(aggregation, collection, outputType).getMappedResults());
+        }
+        return results;
+    }
+
+    @Override
+    public List<Appointment> remove(Criteria criteria) {
+        List<Appointment> removed = new ArrayList<>();
+        for (Integer year : partitions()) {
+            removed.addAll(mongoTemplate.findAllAndRemove(new Query(criteria), Appointment.class, PARTITION_PREFIX + year));
+        }
+        return removed;
+    }
+
+    @Override
+    public Optional<Appointment> findById(String id) {
+        for (Integer year : partitions().descendingSet()) {
+            Appointment appointment = mongoTemplate.findById(id, Appointment.class, PARTITION_PREFIX + year);
+            if (appointment != null) {
+                return Optional.of(appointment);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public long archiveExpired() {
+        if (!jobLeaseManager.tryAcquire(LEASE)) {
+            return 0;
+        }
+        long moved = 0;
+        try {
+            refresh();
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int count = archiveBatch();
+                moved += count;
+                if (count < batchSize || !jobLeaseManager.renew(LEASE)) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Appointment archiving stopped: " + e.getMessage());
+        } finally {
+            jobLeaseManager.release(LEASE);
+        }
+        if (moved > 0) {
+            System.out.println("Archived " + moved + " appointments ending before " + cutoff());
+        }
+        return moved;
+    }
+
+    @Override
+    public int archiveBatch() {
+        LocalDateTime cutoff = cutoff();
+        Query expired = new Query(Criteria.where("status").in(ARCHIVABLE)
+                .and("startTime").lt(cutoff)
+                .and("endTime").lt(cutoff)
+                .and("seriesId").is(null))
+                .with(Sort.by(Sort.Direction.ASC, "endTime"))
+                .limit(batchSize);
+        List<Appointment> batch = mongoTemplate.find(expired, Appointment.class);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, List<Appointment>> byYear = new TreeMap<>();
+        for (Appointment appointment : batch) {
+            byYear.computeIfAbsent(appointment.getStartTime().getYear(), k -> new ArrayList<>()).add(appointment);
+        }
+        for (Map.Entry<Integer, List<Appointment>> partition : byYear.entrySet()) {
+            String collection = ensurePartition(partition.getKey());
+            List<String> ids = partition.getValue().stream().map(Appointment::getId).toList();
+            mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), collection);
+            mongoTemplate.insert(partition.getValue(), collection);
+        }
+
+        // Only delete the version that was copied; one updated since the read stays hot.
+        List<Criteria> copied = batch.stream()
+                .map(appointment -> Criteria.where("_id").is(appointment.getId()).and("updatedAt").is(appointment.getUpdatedAt()))
+                .toList();
+        long removed = mongoTemplate.remove(new Query(new Criteria().orOperator(copied).and("status").in(ARCHIVABLE)),
+                Appointment.class).getDeletedCount();
+        Set<String> stillHot = removed < batch.size() ? dropStaleCopies(byYear) : Set.of();
+        List<Appointment> archived = batch.stream().filter(appointment -> !stillHot.contains(appointment.getId())).toList();
+
+        LocalDateTime newest = batch.stream().map(Appointment::getStartTime).max(Comparator.naturalOrder()).get();
+        if (newestArchivedStart == null || newest.isAfter(newestArchivedStart)) {
+            newestArchivedStart = newest;
+        }
+        if (!archived.isEmpty()) {
+            eventPublisher.publishEvent(new AppointmentsArchivedEvent(archived));
+        }
+        return batch.size();
+    }
+
+    /**
+     * Removes the archive copies of appointments that were changed before their hot
+     * delete, so the archive never holds an outdated version of a live appointment.
+     */
+    private Set<String> dropStaleCopies(Map<Integer, List<Appointment>> byYear) {
+        Set<String> stillHot = new HashSet<>();
+        for (Map.Entry<Integer, List<Appointment>> partition : byYear.entrySet()) {
+            Query hot = new Query(Criteria.where("_id").in(partition.getValue().stream().map(Appointment::getId).toList()));
+            hot.fields().include("_id");
+            List<String> ids = mongoTemplate.find(hot, Appointment.class).stream().map(Appointment::getId).toList();
+            if (!ids.isEmpty()) {
+                mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), PARTITION_PREFIX + partition.getKey());
+                stillHot.addAll(ids);
+            }
+        }
+        return stillHot;
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minusDays(ageDays);
+    }
+
+    private LocalDateTime horizon() {
+        LocalDateTime cutoff = cutoff();
+        LocalDateTime newest = newestArchivedStart;
+        return newest != null && !newest.isBefore(cutoff) ? newest.plusNanos(1) : cutoff;
+    }
+
+    private List<String> partitionsFor(LocalDateTime from, LocalDateTime to) {
+        NavigableSet<Integer> known = partitions();
+        if (known.isEmpty()) {
+            return List.of();
+        }
+        int firstYear = from != null ? from.getYear() : known.first();
+        int lastYear = to != null ? to.getYear() : known.last();
+        if (firstYear > lastYear) {
+            return List.of();
+        }
+        return known.subSet(firstYear, true, lastYear, true).stream()
+                .map(year -> PARTITION_PREFIX + year)
+                .toList();
+    }
+
+    private NavigableSet<Integer> partitions() {
+        if (partitions == null || System.currentTimeMillis() - refreshedAt > refreshMillis) {
+            refresh();
+        }
+        return partitions;
+    }
+
+    private synchronized void refresh() {
+        NavigableSet<Integer> years = new TreeSet<>();
+        for (String name : mongoTemplate.getCollectionNames()) {
+            if (name.startsWith(PARTITION_PREFIX)) {
+                try {
+                    years.add(Integer.parseInt(name.substring(PARTITION_PREFIX.length())));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+
+        LocalDateTime newest = null;
+        if (!years.isEmpty()) {
+            Query latest = new Query().with(Sort.by(Sort.Direction.DESC, "startTime")).limit(1);
+            latest.fields().include("startTime");
+            Appointment appointment = mongoTemplate.findOne(latest, Appointment.class, PARTITION_PREFIX + years.last());
+            newest = appointment != null ? appointment.getStartTime() : null;
+        }
+
+        partitions = years;
+        if (newest != null && (newestArchivedStart == null || newest.isAfter(newestArchivedStart))) {
+            newestArchivedStart = newest;
+        }
+        refreshedAt = System.currentTimeMillis();
+    }
+
+    private synchronized String ensurePartition(int year) {
+        String collection = PARTITION_PREFIX + year;
+        if (partitions != null && partitions.contains(year)) {
+            return collection;
+        }
+        if (!mongoTemplate.collectionExists(collection)) {
+            mongoTemplate.createCollection(collection);
+        }
+        IndexOperations indexes = mongoTemplate.indexOps(collection);
+        indexes.createIndex(new Index().on("startTime", Sort.Direction.ASC).on("_id", Sort.Direction.ASC).named("start"));
+        indexes.createIndex(new Index().on("doctorId", Sort.Direction.ASC).on("startTime", Sort.Direction.ASC).named("doctor_start"));
+        indexes.createIndex(new Index().on("patientId", Sort.Direction.ASC).on("startTime", Sort.Direction.ASC).named("patient_start"));
+        indexes.createIndex(new Index().on("branchId", Sort.Direction.ASC).on("startTime", Sort.Direction.ASC).named("branch_start"));
+
+        NavigableSet<Integer> years = new TreeSet<>(partitions != null ? partitions : Set.of());
+        years.add(year);
+        partitions = years;
+        return collection;
+    }
+}
@@ -0,0 +1,17 @@
+package com.scheduler.schedulerapp.service.archive;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published after appointments have been moved from the hot collection into their
+ * archive partition. Carries the archived copies.
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentsArchivedEvent {
+    private final List<Appointment> appointments;
+}
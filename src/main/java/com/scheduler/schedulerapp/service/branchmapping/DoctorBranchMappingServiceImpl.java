@@ -5,9 +5,11 @@ import com.scheduler.schedulerapp.model.StaffBranchMapping;
 import com.scheduler.schedulerapp.repository.DoctorBranchMappingRepository;
 import com.scheduler.schedulerapp.repository.DoctorRepository;
 import com.scheduler.schedulerapp.repository.HospitalBranchRepository;
+import com.scheduler.schedulerapp.service.access.StaffAccessChangedEvent;
 import com.scheduler.schedulerapp.service.activitylogservice.ActivityLogService;
 import com.scheduler.schedulerapp.service.auth.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -31,6 +33,9 @@ public class DoctorBranchMappingServiceImpl implements DoctorBranchMappingServic
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public StaffBranchMapping assignDoctorToBranch(DoctorBranchMappingInputDTO input) {
 
@@ -65,7 +70,9 @@ public class DoctorBranchMappingServiceImpl implements DoctorBranchMappingServic
                 authService.getCurrentUserName()
         );
 
-        return mappingRepository.save(mapping);
+        StaffBranchMapping saved = mappingRepository.save(mapping);
+        eventPublisher.publishEvent(new StaffAccessChangedEvent(List.of(saved.getDoctorId())));
+        return saved;
     }
 
     @Override
@@ -109,6 +116,7 @@ public class DoctorBranchMappingServiceImpl implements DoctorBranchMappingServic
         );
 
         mappingRepository.deleteByDoctorIdAndBranchId(doctorId, branchId);
+        eventPublisher.publishEvent(new StaffAccessChangedEvent(List.of(doctorId)));
     }
 
     @Override
@@ -0,0 +1,16 @@
+package com.scheduler.schedulerapp.service.calendar;
+
+import com.scheduler.schedulerapp.model.Appointment;
+
+import java.util.stream.Stream;
+
+public interface CalendarFeedService {
+    CalendarFeedVersion getDoctorFeedVersion(String doctorId);
+    CalendarFeedVersion getBranchFeedVersion(String branchId);
+    Stream<Appointment> streamDoctorFeed(String doctorId);
+    Stream<Appointment> streamBranchFeed(String branchId);
+    String issueDoctorFeedToken(String doctorId, String issuedBy);
+    String issueBranchFeedToken(String branchId, String issuedBy);
+    boolean isDoctorFeedToken(String doctorId, String token);
+    boolean isBranchFeedToken(String branchId, String token);
+}
@@ -0,0 +1,138 @@
+package com.scheduler.schedulerapp.service.calendar;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.CalendarFeedToken;
+import com.scheduler.schedulerapp.repository.AppointmentRepository;
+import com.scheduler.schedulerapp.repository.CalendarFeedTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+/**
+ * Versions are read from the doctor_updated and branch_updated indexes only (a
+ * count and a single updatedAt projection), so a poll of an unchanged feed never
+ * loads appointment documents.
+ *
+ * <p>Each feed is reached with a random 256-bit token carried in its URL. Only the
+ * token's hash is stored, one per feed, so issuing a feed again revokes the previous
+ * URL.
+ */
+@Service
+public class CalendarFeedServiceImpl implements CalendarFeedService {
+
+    private static final String DOCTOR_FEED = "doctor";
+    private static final String BRANCH_FEED = "branch";
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CalendarFeedTokenRepository calendarFeedTokenRepository;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${scheduler.calendar.past-days:30}")
+    private int pastDays = 30;
+
+    @Override
+    public CalendarFeedVersion getDoctorFeedVersion(String doctorId) {
+        return version("doctorId", doctorId);
+    }
+
+    @Override
+    public CalendarFeedVersion getBranchFeedVersion(String branchId) {
+        return version("branchId", branchId);
+    }
+
+    @Override
+    public Stream<Appointment> streamDoctorFeed(String doctorId) {
+        return appointmentRepository.streamByDoctorIdFrom(doctorId, feedStart());
+    }
+
+    @Override
+    public Stream<Appointment> streamBranchFeed(String branchId) {
+        return appointmentRepository.streamByBranchIdFrom(branchId, feedStart());
+    }
+
+    @Override
+    public String issueDoctorFeedToken(String doctorId, String issuedBy) {
+        return issue(DOCTOR_FEED, doctorId, issuedBy);
+    }
+
+    @Override
+    public String issueBranchFeedToken(String branchId, String issuedBy) {
+        return issue(BRANCH_FEED, branchId, issuedBy);
+    }
+
+    @Override
+    public boolean isDoctorFeedToken(String doctorId, String token) {
+        return matches(DOCTOR_FEED, doctorId, token);
+    }
+
+    @Override
+    public boolean isBranchFeedToken(String branchId, String token) {
+        return matches(BRANCH_FEED, branchId, token);
+    }
+
+    private String issue(String feedType, String targetId, String issuedBy) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        calendarFeedTokenRepository.save(new CalendarFeedToken(CalendarFeedToken.key(feedType, targetId),
+                feedType, targetId, hash(token), issuedBy, LocalDateTime.now()));
+        return token;
+    }
+
+    private boolean matches(String feedType, String targetId, String token) {
+        if (token == null || token.isEmpty() || targetId == null) {
+            return false;
+        }
+        return calendarFeedTokenRepository.findById(CalendarFeedToken.key(feedType, targetId))
+                .map(stored -> MessageDigest.isEqual(
+                        stored.getTokenHash().getBytes(StandardCharsets.US_ASCII),
+                        hash(token).getBytes(StandardCharsets.US_ASCII)))
+                .orElse(false);
+    }
+
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private CalendarFeedVersion version(String field, String value) {
+        Criteria criteria = Criteria.where(field).is(value);
+        long count = mongoTemplate.count(new Query(criteria), Appointment.class);
+        if (count == 0) {
+            return new CalendarFeedVersion(0, null);
+        }
+
+        Query latest = new Query(criteria).with(Sort.by(Sort.Direction.DESC, "updatedAt")).limit(1);
+        latest.fields().include("updatedAt").exclude("_id");
+        Appointment newest = mongoTemplate.findOne(latest, Appointment.class);
+        return new CalendarFeedVersion(count, newest != null ? newest.getUpdatedAt() : null);
+    }
+
+    private LocalDateTime feedStart() {
+        return LocalDateTime.now().minusDays(pastDays);
+    }
+}
@@ -0,0 +1,28 @@
+package com.scheduler.schedulerapp.service.calendar;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Identifies the state of one feed without reading its appointments: the newest
+ * updatedAt catches inserts, edits and cancellations, and the count catches deletes.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarFeedVersion {
+    private long appointments;
+    private LocalDateTime lastModified;
+
+    public String etag() {
+        return "\"" + appointments + "-" + lastModifiedMillis() + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+    }
+}
@@ -53,27 +53,27 @@ public class DataSeedingService {
                                         new HospitalBranch(null, "CHN001", "123 Anna Salai, T. Nagar", "Chennai",
                                                         "Tamil Nadu",
                                                         "600017", "chennai@hospital.com", "044-12345678",
-                                                        LocalDateTime.now(), "", true),
+                                                        LocalDateTime.now(), "", true, null, null),
 
                                         new HospitalBranch(null, "BLR001", "456 MG Road, Brigade Road", "Bangalore",
                                                         "Karnataka",
                                                         "560001", "bangalore@hospital.com", "080-87654321",
-                                                        LocalDateTime.now(), "", true),
+                                                        LocalDateTime.now(), "", true, null, null),
 
                                         new HospitalBranch(null, "HYD001", "789 Banjara Hills, Road No 12", "Hyderabad",
                                                         "Telangana",
                                                         "500034", "hyderabad@hospital.com", "040-11223344",
-                                                        LocalDateTime.now(), "", true),
+                                                        LocalDateTime.now(), "", true, null, null),
 
                                         new HospitalBranch(null, "MUM001", "321 Marine Drive, Nariman Point", "Mumbai",
                                                         "Maharashtra",
                                                         "400021", "mumbai@hospital.com", "022-55667788",
-                                                        LocalDateTime.now(), "", true),
+                                                        LocalDateTime.now(), "", true, null, null),
 
                                         new HospitalBranch(null, "DEL001", "654 Connaught Place, Central Delhi",
                                                         "New Delhi", "Delhi",
                                                         "110001", "delhi@hospital.com", "011-99887766",
-                                                        LocalDateTime.now(), "", true));
+                                                        LocalDateTime.now(), "", true, null, null));
 
                         hospitalBranchRepository.saveAll(branches);
                         System.out.println(branches.size() + " hospital branches added successfully");
@@ -0,0 +1,20 @@
+package com.scheduler.schedulerapp.service.deactivation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("!test")
+public class DeactivationJobScheduler {
+
+    @Autowired
+    private DeactivationJobService deactivationJobService;
+
+    @Scheduled(fixedDelayString = "${scheduler.deactivation.poll-interval-ms:30000}",
+            initialDelayString = "${scheduler.deactivation.initial-delay-ms:10000}")
+    public void resumePendingJobs() {
+        deactivationJobService.resumePendingJobs();
+    }
+}
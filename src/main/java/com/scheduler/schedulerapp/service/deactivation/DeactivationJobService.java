@@ -0,0 +1,25 @@
+package com.scheduler.schedulerapp.service.deactivation;
+
+import com.scheduler.schedulerapp.model.DeactivationJob;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface DeactivationJobService {
+
+    DeactivationJob enqueueBranchDeactivation(String branchId);
+
+    DeactivationJob enqueueDoctorDeactivation(String doctorId);
+
+    void start(DeactivationJob job);
+
+    long cancelJobsForTarget(String targetId);
+
+    Optional<DeactivationJob> getJobById(String id);
+
+    List<DeactivationJob> getJobsForTarget(String targetId);
+
+    void resumePendingJobs();
+
+    void run(String jobId);
+}
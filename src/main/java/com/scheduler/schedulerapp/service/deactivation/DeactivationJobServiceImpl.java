@@ -0,0 +1,419 @@
+package com.scheduler.schedulerapp.service.deactivation;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
+import com.scheduler.schedulerapp.model.DeactivationJob;
+import com.scheduler.schedulerapp.model.HospitalBranch;
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.model.StaffBranchMapping;
+import com.scheduler.schedulerapp.repository.DeactivationJobRepository;
+import com.scheduler.schedulerapp.service.access.StaffAccessChangedEvent;
+import com.scheduler.schedulerapp.service.appointment.AppointmentIntervalIndex;
+import com.scheduler.schedulerapp.service.appointment.SlotReservationManager;
+import com.scheduler.schedulerapp.service.series.AppointmentSeriesChangedEvent;
+import com.scheduler.schedulerapp.service.series.SeriesOccurrenceExpander;
+import com.scheduler.schedulerapp.service.waitlist.AppointmentsCancelledEvent;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Runs branch and staff deactivation cascades outside the request. A job cancels the
+ * target's future scheduled appointments in batches ordered by id, then ends its active
+ * series at the cutoff, then removes its staff-branch mappings, saving a checkpoint
+ * after every batch.
+ * Whoever runs a job holds a lease on it; if the process dies the lease runs out and
+ * the next poll picks the job up again from its last checkpoint.
+ *
+ * <p>A job is stored before its target is saved as inactive and only started once
+ * that save went through. Every batch first checks that the target is still
+ * inactive, and only appointments and mappings that existed at the job's cutoff are
+ * touched, so a reactivated target keeps what was booked or mapped since. Every row a
+ * job cancels or ends is stamped with the job id, so only those are released, and a
+ * rerun after a crash finds them again. Reactivation
+ * also cancels the job; checkpoints are written only while the job is still running,
+ * so a cancelled job stops at its next batch.
+ */
+@Service
+public class DeactivationJobServiceImpl implements DeactivationJobService {
+
+    static final String BRANCH = "branch";
+    static final String DOCTOR = "doctor";
+
+    static final String PENDING = "pending";
+    static final String RUNNING = "running";
+    static final String COMPLETED = "completed";
+    static final String FAILED = "failed";
+    static final String CANCELLED = "cancelled";
+
+    static final String APPOINTMENTS = "appointments";
+    static final String SERIES = "series";
+    static final String MAPPINGS = "mappings";
+    static final String DONE = "done";
+
+    @Autowired
+    private DeactivationJobRepository deactivationJobRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+
+    @Autowired
+    private SlotReservationManager slotReservationManager;
+
+    @Autowired
+    private SeriesOccurrenceExpander seriesOccurrenceExpander;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${scheduler.deactivation.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${scheduler.deactivation.lease-ms:60000}")
+    private long leaseMillis = 60000;
+
+    @Value("${scheduler.deactivation.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "deactivation-jobs");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public DeactivationJob enqueueBranchDeactivation(String branchId) {
+        return enqueue(BRANCH, branchId);
+    }
+
+    @Override
+    public DeactivationJob enqueueDoctorDeactivation(String doctorId) {
+        return enqueue(DOCTOR, doctorId);
+    }
+
+    @Override
+    public Optional<DeactivationJob> getJobById(String id) {
+        return deactivationJobRepository.findById(id);
+    }
+
+    @Override
+    public List<DeactivationJob> getJobsForTarget(String targetId) {
+        return deactivationJobRepository.findByTargetIdOrderByCreatedAtDesc(targetId);
+    }
+
+    @Override
+    public void start(DeactivationJob job) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(job.getId()).and("status").is(PENDING)
+                        .and("attempts").is(0)),
+                new Update().unset("leaseUntil"), DeactivationJob.class);
+        submit(job.getId());
+    }
+
+    @Override
+    public long cancelJobsForTarget(String targetId) {
+        LocalDateTime now = LocalDateTime.now();
+        return mongoTemplate.updateMulti(
+                new Query(Criteria.where("targetId").is(targetId).and("status").in(PENDING, RUNNING)),
+                new Update().set("status", CANCELLED).unset("leaseUntil").set("completedAt", now).set("updatedAt", now),
+                DeactivationJob.class).getModifiedCount();
+    }
+
+    @Override
+    public void resumePendingJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        for (DeactivationJob job : deactivationJobRepository.findByStatusIn(List.of(PENDING, RUNNING))) {
+            if (job.getLeaseUntil() == null || job.getLeaseUntil().isBefore(now)) {
+                submit(job.getId());
+            }
+        }
+    }
+
+    @Override
+    public void run(String jobId) {
+        DeactivationJob job = claim(jobId);
+        if (job == null) {
+            return;
+        }
+
+        try {
+            while (!DONE.equals(job.getPhase())) {
+                if (!targetInactive(job)) {
+                    job.setStatus(CANCELLED);
+                    break;
+                }
+                switch (job.getPhase()) {
+                    case APPOINTMENTS -> cancelAppointmentBatch(job);
+                    case SERIES -> endSeries(job);
+                    case MAPPINGS -> removeMappingBatch(job);
+                    default -> throw new IllegalStateException("Unknown deactivation phase: " + job.getPhase());
+                }
+                job.setBatches(job.getBatches() + 1);
+                job.setUpdatedAt(LocalDateTime.now());
+                job.setLeaseUntil(LocalDateTime.now().plus(Duration.ofMillis(leaseMillis)));
+                if (!checkpoint(job)) {
+                    System.out.println("Deactivation job " + job.getId() + " was cancelled at phase " + job.getPhase());
+                    return;
+                }
+            }
+
+            if (CANCELLED.equals(job.getStatus())) {
+                job.setLeaseUntil(null);
+                job.setCompletedAt(LocalDateTime.now());
+                job.setUpdatedAt(job.getCompletedAt());
+                checkpoint(job);
+                System.out.println("Deactivation job " + job.getId() + " stopped at phase " + job.getPhase() + ": "
+                        + job.getTargetType() + " " + job.getTargetId() + " is active again");
+                return;
+            }
+
+            job.setStatus(COMPLETED);
+            job.setError(null);
+            job.setLeaseUntil(null);
+            job.setCompletedAt(LocalDateTime.now());
+            job.setUpdatedAt(job.getCompletedAt());
+            checkpoint(job);
+            System.out.println("Deactivation job " + job.getId() + " for " + job.getTargetType() + " " + job.getTargetId()
+                    + " completed - Cancelled: " + job.getCancelledAppointments() + " appointments, "
+                    + job.getCancelledSeries() + " series ended; removed " + job.getRemovedMappings() + " mappings");
+        } catch (RuntimeException e) {
+            System.err.println("Deactivation job " + job.getId() + " stopped at phase " + job.getPhase() + ": " + e.getMessage());
+            job.setStatus(job.getAttempts() >= maxAttempts ? FAILED : PENDING);
+            job.setError(e.getMessage());
+            job.setLeaseUntil(null);
+            job.setUpdatedAt(LocalDateTime.now());
+            checkpoint(job);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private DeactivationJob enqueue(String targetType, String targetId) {
+        Optional<DeactivationJob> active = deactivationJobRepository
+                .findFirstByTargetTypeAndTargetIdAndStatusIn(targetType, targetId, List.of(PENDING, RUNNING));
+        if (active.isPresent()) {
+            return active.get();
+        }
+
+        // The lease keeps the poll away until the caller has saved the target and calls start.
+        LocalDateTime now = LocalDateTime.now();
+        DeactivationJob job = new DeactivationJob();
+        job.setTargetType(targetType);
+        job.setTargetId(targetId);
+        job.setCutoff(now);
+        job.setLeaseUntil(now.plus(Duration.ofMillis(leaseMillis)));
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        return deactivationJobRepository.save(job);
+    }
+
+    private void submit(String jobId) {
+        executor.execute(() -> {
+            try {
+                run(jobId);
+            } catch (Exception e) {
+                System.err.println("Deactivation job " + jobId + " could not be run: " + e.getMessage());
+            }
+        });
+    }
+
+    private DeactivationJob claim(String jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = new Query(Criteria.where("_id").is(jobId).and("status").in(PENDING, RUNNING)
+                .orOperator(Criteria.where("leaseUntil").is(null), Criteria.where("leaseUntil").lt(now)));
+        Update update = new Update()
+                .set("status", RUNNING)
+                .set("leaseUntil", now.plus(Duration.ofMillis(leaseMillis)))
+                .set("updatedAt", now)
+                .inc("attempts", 1);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), DeactivationJob.class);
+    }
+
+    /**
+     * Writes the job's progress unless it has stopped running in the meantime, which
+     * is how a cancellation from reactivation reaches the worker.
+     */
+    private boolean checkpoint(DeactivationJob job) {
+        Update update = new Update()
+                .set("status", job.getStatus())
+                .set("phase", job.getPhase())
+                .set("lastAppointmentId", job.getLastAppointmentId())
+                .set("cancelledAppointments", job.getCancelledAppointments())
+                .set("cancelledSeries", job.getCancelledSeries())
+                .set("removedMappings", job.getRemovedMappings())
+                .set("batches", job.getBatches())
+                .set("leaseUntil", job.getLeaseUntil())
+                .set("error", job.getError())
+                .set("updatedAt", job.getUpdatedAt())
+                .set("completedAt", job.getCompletedAt());
+        return mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(job.getId()).and("status").is(RUNNING)),
+                update, DeactivationJob.class).getMatchedCount() > 0;
+    }
+
+    private boolean targetInactive(DeactivationJob job) {
+        Query inactive = new Query(Criteria.where("_id").is(job.getTargetId()).and("isActive").is(false));
+        return mongoTemplate.exists(inactive, BRANCH.equals(job.getTargetType()) ? HospitalBranch.class : HospitalStaff.class);
+    }
+
+    private void cancelAppointmentBatch(DeactivationJob job) {
+        Criteria criteria = new Criteria().orOperator(cancellableAppointments(job), cancelledBy(job));
+        if (job.getLastAppointmentId() != null) {
+            criteria.and("_id").gt(job.getLastAppointmentId());
+        }
+        List<Appointment> batch = mongoTemplate.find(
+                new Query(criteria).with(Sort.by("_id")).limit(batchSize), Appointment.class);
+        if (batch.isEmpty()) {
+            job.setPhase(SERIES);
+            return;
+        }
+
+        // The update repeats the read's filter, so an appointment moved or cancelled in
+        // between is left alone. Only what carries this job's stamp afterwards is released,
+        // which includes what a crashed run cancelled but never released.
+        LocalDateTime now = LocalDateTime.now();
+        List<String> ids = batch.stream().map(Appointment::getId).toList();
+        long cancelled = mongoTemplate.updateMulti(
+                new Query(cancellableAppointments(job).and("_id").in(ids)),
+                new Update().set("status", "cancelled").set("updatedAt", now).set("cancelledByJob", job.getId()),
+                Appointment.class).getModifiedCount();
+        Query stamped = new Query(cancelledBy(job).and("_id").in(ids));
+        stamped.fields().include("_id");
+        Set<String> cancelledIds = mongoTemplate.find(stamped, Appointment.class).stream()
+                .map(Appointment::getId)
+                .collect(Collectors.toSet());
+        List<Appointment> cancelledBatch = batch.stream()
+                .filter(appointment -> cancelledIds.contains(appointment.getId()))
+                .toList();
+        for (Appointment appointment : cancelledBatch) {
+            appointment.setStatus("cancelled");
+            appointment.setUpdatedAt(now);
+            appointment.setCancelledByJob(job.getId());
+        }
+
+        if (!cancelledBatch.isEmpty()) {
+            List<String> released = cancelledBatch.stream().map(Appointment::getId).toList();
+            appointmentIntervalIndex.removeAll(released);
+            slotReservationManager.releaseAll(released);
+            eventPublisher.publishEvent(new AppointmentsCancelledEvent(cancelledBatch));
+        }
+
+        job.setCancelledAppointments(job.getCancelledAppointments() + cancelled);
+        job.setLastAppointmentId(ids.get(ids.size() - 1));
+    }
+
+    /**
+     * Ends each active series at the cutoff, the same line the appointment phase draws:
+     * occurrences that started by then stay in the history, later ones are released. A
+     * series that had not started by the cutoff is cancelled.
+     */
+    private void endSeries(DeactivationJob job) {
+        Query query = new Query(new Criteria().orOperator(endableSeries(job), endedBy(job)));
+        for (AppointmentSeries series : mongoTemplate.find(query, AppointmentSeries.class)) {
+            LocalDateTime previousEnd = series.getSeriesEnd();
+            if (!job.getId().equals(series.getEndedByJob())) {
+                if (!endAtCutoff(job, series)) {
+                    continue;
+                }
+                job.setCancelledSeries(job.getCancelledSeries() + 1);
+            }
+            appointmentIntervalIndex.putSeries(series);
+            slotReservationManager.releaseOccurrencesFrom(series.getId(),
+                    seriesOccurrenceExpander.expandFrom(series, job.getCutoff()));
+            eventPublisher.publishEvent(new AppointmentSeriesChangedEvent(series.getDoctorId(), job.getCutoff(), previousEnd));
+        }
+        job.setPhase(MAPPINGS);
+    }
+
+    /**
+     * Cuts one series at the job's cutoff unless it was ended or cancelled since it was
+     * read; the series is updated to match when this job's write went through.
+     */
+    private boolean endAtCutoff(DeactivationJob job, AppointmentSeries series) {
+        Update update = new Update().set("updatedAt", LocalDateTime.now()).set("endedByJob", job.getId());
+        Query unchanged = new Query(Criteria.where("_id").is(series.getId())
+                .and("status").is("active")
+                .and("seriesEnd").is(series.getSeriesEnd()));
+        if (series.getSeriesStart().isAfter(job.getCutoff())) {
+            series.setStatus("cancelled");
+            update.set("status", "cancelled");
+        } else {
+            series.setSeriesEnd(seriesOccurrenceExpander.endAt(series, job.getCutoff()));
+            update.set("seriesEnd", series.getSeriesEnd());
+        }
+        series.setEndedByJob(job.getId());
+        return mongoTemplate.updateFirst(unchanged, update, AppointmentSeries.class).getModifiedCount() > 0;
+    }
+
+    private Criteria cancellableAppointments(DeactivationJob job) {
+        return Criteria.where(targetField(job)).is(job.getTargetId())
+                .and("status").is("scheduled")
+                .and("startTime").gt(job.getCutoff())
+                .orOperator(Criteria.where("createdAt").lte(job.getCutoff()), Criteria.where("createdAt").is(null));
+    }
+
+    private Criteria cancelledBy(DeactivationJob job) {
+        return Criteria.where(targetField(job)).is(job.getTargetId()).and("cancelledByJob").is(job.getId());
+    }
+
+    private Criteria endableSeries(DeactivationJob job) {
+        return Criteria.where(targetField(job)).is(job.getTargetId())
+                .and("status").is("active")
+                .and("seriesEnd").gt(job.getCutoff())
+                .orOperator(Criteria.where("createdAt").lte(job.getCutoff()), Criteria.where("createdAt").is(null));
+    }
+
+    private Criteria endedBy(DeactivationJob job) {
+        return Criteria.where(targetField(job)).is(job.getTargetId()).and("endedByJob").is(job.getId());
+    }
+
+    private void removeMappingBatch(DeactivationJob job) {
+        // Mappings carry no timestamp, but their ObjectId does: anything created after
+        // the cutoff second belongs to a reactivation and is kept.
+        ObjectId createdAfterCutoff = ObjectId.getSmallestWithDate(
+                Date.from(job.getCutoff().plusSeconds(1).atZone(ZoneId.systemDefault()).toInstant()));
+        Query mappings = new Query(Criteria.where(targetField(job)).is(job.getTargetId())
+                .and("_id").lt(createdAfterCutoff)).limit(batchSize);
+        mappings.fields().include("_id", "doctorId");
+        List<StaffBranchMapping> batch = mongoTemplate.find(mappings, StaffBranchMapping.class);
+        if (batch.isEmpty()) {
+            job.setPhase(DONE);
+            return;
+        }
+
+        List<String> ids = batch.stream().map(StaffBranchMapping::getId).toList();
+        long removed = mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), StaffBranchMapping.class)
+                .getDeletedCount();
+        eventPublisher.publishEvent(new StaffAccessChangedEvent(
+                batch.stream().map(StaffBranchMapping::getDoctorId).collect(Collectors.toSet())));
+        job.setRemovedMappings(job.getRemovedMappings() + removed);
+    }
+
+    private String targetField(DeactivationJob job) {
+        return BRANCH.equals(job.getTargetType()) ? "branchId" : "doctorId";
+    }
+}
@@ -2,12 +2,14 @@ package com.scheduler.schedulerapp.service.doctor;
 
 import com.scheduler.schedulerapp.model.ActivityLog;
 import com.scheduler.schedulerapp.model.HospitalStaff;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface DoctorService {
     List<HospitalStaff> getAllDoctors();
     Optional<HospitalStaff> getDoctorById(String id);
+    List<HospitalStaff> getDoctorsByIds(Collection<String> ids);
     List<HospitalStaff> getDoctorsByRole(String role);
     HospitalStaff createDoctor(HospitalStaff doctor);
     HospitalStaff updateDoctor(String id, HospitalStaff doctor);
@@ -1,19 +1,22 @@
 package com.scheduler.schedulerapp.service.doctor;
 
 import com.scheduler.schedulerapp.model.HospitalStaff;
-import com.scheduler.schedulerapp.model.StaffBranchMapping;
-import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.DeactivationJob;
 import com.scheduler.schedulerapp.repository.DoctorRepository;
 import com.scheduler.schedulerapp.repository.DoctorBranchMappingRepository;
 import com.scheduler.schedulerapp.repository.AppointmentRepository;
+import com.scheduler.schedulerapp.service.access.StaffAccessChangedEvent;
 import com.scheduler.schedulerapp.service.activitylogservice.ActivityLogService;
 import com.scheduler.schedulerapp.service.auth.AuthService;
+import com.scheduler.schedulerapp.service.deactivation.DeactivationJobService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -36,6 +39,15 @@ public class DoctorServiceImpl implements DoctorService {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private DeactivationJobService deactivationJobService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StaffCache staffCache;
+
     @Override
     public List<HospitalStaff> getAllDoctors() {
         return doctorRepository.findAll();
@@ -43,7 +55,12 @@ public class DoctorServiceImpl implements DoctorService {
 
     @Override
     public Optional<HospitalStaff> getDoctorById(String id) {
-        return doctorRepository.findById(id);
+        return staffCache.get(id, doctorRepository::findById);
+    }
+
+    @Override
+    public List<HospitalStaff> getDoctorsByIds(Collection<String> ids) {
+        return doctorRepository.findAllById(ids);
     }
 
     @Override
@@ -60,7 +77,11 @@ public class DoctorServiceImpl implements DoctorService {
         doctor.setStartDate(LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd yyyy '-' h:mm a")));
         doctor.setEndDate("");
         doctor.setIsActive(true);
-        return doctorRepository.save(doctor);
+        HospitalStaff saved = doctorRepository.save(doctor);
+        if (saved != null) {
+            staffCache.invalidate(saved.getId());
+        }
+        return saved;
     }
 
     @Override
@@ -75,6 +96,8 @@ public class DoctorServiceImpl implements DoctorService {
         }
 
         HospitalStaff existingDoctor = existingDoctorOpt.get();
+        DeactivationJob job = null;
+        boolean reactivated = false;
 
         if (doctor.getIsActive() != null && !doctor.getIsActive().equals(existingDoctor.getIsActive())) {
             if (!doctor.getIsActive()) {
@@ -94,7 +117,7 @@ public class DoctorServiceImpl implements DoctorService {
                 );
 
                 doctor.setEndDate(LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd yyyy '-' h:mm a")));
-                removeDoctorMappingsAndAppointments(id);
+                job = deactivationJobService.enqueueDoctorDeactivation(id);
                 System.out.println("Doctor " + doctor.getName() + " deactivated at: " + doctor.getEndDate());
             } else {
 
@@ -107,12 +130,23 @@ public class DoctorServiceImpl implements DoctorService {
 
                 doctor.setStartDate(LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd yyyy '-' h:mm a")));
                 doctor.setEndDate("");
+                reactivated = true;
                 System.out.println("Doctor " + doctor.getName() + " reactivated. Previous end date preserved: " + existingDoctor.getEndDate());
             }
         }
 
         doctor.setId(id);
-        return doctorRepository.save(doctor);
+        HospitalStaff saved = doctorRepository.save(doctor);
+        staffCache.invalidate(id);
+        eventPublisher.publishEvent(new StaffAccessChangedEvent(List.of(id)));
+        eventPublisher.publishEvent(new StaffUpdatedEvent(saved));
+        if (job != null) {
+            deactivationJobService.start(job);
+        }
+        if (reactivated) {
+            deactivationJobService.cancelJobsForTarget(id);
+        }
+        return saved;
     }
 
     @Override
@@ -138,73 +172,18 @@ public class DoctorServiceImpl implements DoctorService {
                     impactSummary
             );
 
-            removeDoctorMappingsAndAppointments(id);
-
+            DeactivationJob job = deactivationJobService.enqueueDoctorDeactivation(id);
             doctorRepository.save(doctor);
+            staffCache.invalidate(id);
+            eventPublisher.publishEvent(new StaffAccessChangedEvent(List.of(id)));
+            deactivationJobService.start(job);
 
-            System.out.println("Doctor " + doctor.getName() + " has been deactivated and all mappings/appointments handled");
+            System.out.println("Doctor " + doctor.getName() + " has been deactivated, mappings/appointments are handled by job " + job.getId());
         } else {
             throw new IllegalArgumentException("Doctor not found with ID: " + id);
         }
     }
 
-    @Transactional
-    private void removeDoctorMappingsAndAppointments(String doctorId) {
-        try {
-            removeDoctorBranchMappings(doctorId);
-
-            handleDoctorAppointments(doctorId);
-
-        } catch (Exception e) {
-            System.err.println("Error handling doctor deactivation for doctor " + doctorId + ": " + e.getMessage());
-            throw new RuntimeException("Failed to handle doctor deactivation: " + e.getMessage());
-        }
-    }
-
-    private void removeDoctorBranchMappings(String doctorId) {
-        try {
-            List<StaffBranchMapping> mappings = doctorBranchMappingRepository.findByDoctorId(doctorId);
-
-            if (!mappings.isEmpty()) {
-                doctorBranchMappingRepository.deleteAll(mappings);
-                System.out.println("Removed " + mappings.size() + " branch mappings for doctor ID: " + doctorId);
-            }
-        } catch (Exception e) {
-            System.err.println("Error removing doctor mappings for doctor " + doctorId + ": " + e.getMessage());
-            throw new RuntimeException("Failed to remove doctor mappings: " + e.getMessage());
-        }
-    }
-
- void handleDoctorAppointments(String doctorId) {
-        try {
-            List<Appointment> appointments = appointmentRepository.findByDoctorId(doctorId);
-
-            if (!appointments.isEmpty()) {
-                LocalDateTime now = LocalDateTime.now();
-                int cancelledCount = 0;
-                int preservedCount = 0;
-
-                for (Appointment appointment : appointments) {
-                    if (appointment.getStartTime().isAfter(now) &&
-                            "scheduled".equals(appointment.getStatus())) {
-                        appointment.setStatus("cancelled");
-                        appointment.setUpdatedAt(LocalDateTime.now());
-                        appointmentRepository.save(appointment);
-                        cancelledCount++;
-                    } else {
-                        preservedCount++;
-                    }
-                }
-
-                System.out.println("Doctor appointments handled - Cancelled: " + cancelledCount +
-                        ", Preserved: " + preservedCount + " for doctor ID: " + doctorId);
-            }
-        } catch (Exception e) {
-            System.err.println("Error handling appointments for doctor " + doctorId + ": " + e.getMessage());
-            throw new RuntimeException("Failed to handle doctor appointments: " + e.getMessage());
-        }
-    }
-
     @Transactional
     public HospitalStaff reactivateDoctor(String id) {
         HospitalStaff doctor = doctorRepository.findById(id)
@@ -214,6 +193,10 @@ public class DoctorServiceImpl implements DoctorService {
 
         System.out.println("Doctor " + doctor.getName() + " reactivated. Previous end date preserved: " + doctor.getEndDate());
 
-        return doctorRepository.save(doctor);
+        HospitalStaff saved = doctorRepository.save(doctor);
+        staffCache.invalidate(id);
+        eventPublisher.publishEvent(new StaffAccessChangedEvent(List.of(id)));
+        deactivationJobService.cancelJobsForTarget(id);
+        return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.scheduler.schedulerapp.service.doctor;
+
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.service.access.AccessProfile;
+import com.scheduler.schedulerapp.service.access.StaffAccessChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Size- and TTL-bounded cache of staff members by id, in front of
+ * {@link DoctorServiceImpl#getDoctorById}, which also keeps each member's
+ * {@link AccessProfile} once it has been resolved. The least recently used entry is
+ * evicted once the cache is full, and entries older than the TTL are reloaded. Writes
+ * through DoctorService and {@link StaffAccessChangedEvent}s invalidate the entry on
+ * this node; other nodes see the change once their entry expires. Callers get their
+ * own copy of the staff member, so changing it never leaks into the cache. Missing
+ * ids are not cached.
+ */
+@Component
+public class StaffCache {
+
+    @Value("${scheduler.staff-cache.max-size:1000}")
+    private int maxSize = 1000;
+
+    @Value("${scheduler.staff-cache.ttl-ms:60000}")
+    private long ttlMillis = 60000;
+
+    private final LinkedHashMap<String, CachedStaff> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private record CachedStaff(HospitalStaff staff, AccessProfile profile, long expiresAtNanos) {
+    }
+
+    public Optional<HospitalStaff> get(String id, Function<String, Optional<HospitalStaff>> loader) {
+        return lookup(id, loader).map(cached -> copyOf(cached.staff()));
+    }
+
+    /**
+     * Returns the staff member's access profile, resolving it with {@code resolver} the
+     * first time and keeping it with the cached staff entry.
+     */
+    public Optional<AccessProfile> getProfile(String id, Function<String, Optional<HospitalStaff>> loader,
+                                              Function<HospitalStaff, AccessProfile> resolver) {
+        Optional<CachedStaff> found = lookup(id, loader);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        CachedStaff cached = found.get();
+        if (cached.profile() != null) {
+            return Optional.of(cached.profile());
+        }
+
+        long generation = invalidations.get();
+        AccessProfile profile = resolver.apply(copyOf(cached.staff()));
+        synchronized (entries) {
+            // Access that changed while resolving may not be reflected in this profile.
+            if (invalidations.get() == generation && entries.get(id) == cached) {
+                entries.put(id, new CachedStaff(cached.staff(), profile, cached.expiresAtNanos()));
+            }
+        }
+        return Optional.of(profile);
+    }
+
+    public void invalidate(String id) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(id);
+        }
+    }
+
+    @EventListener
+    public void onStaffAccessChanged(StaffAccessChangedEvent event) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            event.getStaffIds().forEach(entries::remove);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private Optional<CachedStaff> lookup(String id, Function<String, Optional<HospitalStaff>> loader) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            CachedStaff cached = entries.get(id);
+            if (cached != null) {
+                if (cached.expiresAtNanos() - now > 0) {
+                    hits.incrementAndGet();
+                    return Optional.of(cached);
+                }
+                entries.remove(id);
+                evictions.incrementAndGet();
+            }
+        }
+
+        misses.incrementAndGet();
+        long generation = invalidations.get();
+        return loader.apply(id).map(staff -> put(id, staff, generation, now));
+    }
+
+    private CachedStaff put(String id, HospitalStaff staff, long generation, long loadedAtNanos) {
+        CachedStaff loaded = new CachedStaff(copyOf(staff), null, loadedAtNanos + ttlMillis * 1_000_000L);
+        synchronized (entries) {
+            // An invalidation while loading may have raced a write, so the loaded copy could be stale.
+            if (invalidations.get() != generation || maxSize <= 0) {
+                return loaded;
+            }
+            entries.put(id, loaded);
+            Iterator<Map.Entry<String, CachedStaff>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        return loaded;
+    }
+
+    private static HospitalStaff copyOf(HospitalStaff staff) {
+        return new HospitalStaff(staff.getId(), staff.getName(), staff.getEmail(), staff.getRole(),
+                staff.getPassword(), staff.getStartDate(), staff.getEndDate(), staff.getIsActive());
+    }
+}
@@ -0,0 +1,14 @@
+package com.scheduler.schedulerapp.service.doctor;
+
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a staff member's profile has been saved.
+ */
+@Getter
+@AllArgsConstructor
+public class StaffUpdatedEvent {
+    private final HospitalStaff staff;
+}
@@ -4,6 +4,7 @@ import com.scheduler.schedulerapp.dto.HospitalBranchInputDTO;
 import com.scheduler.schedulerapp.dto.HospitalBranchUpdateInputDTO;
 import com.scheduler.schedulerapp.model.HospitalBranch;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +13,7 @@ public interface HospitalBranchService {
     List<HospitalBranch> getAllBranches();
     List<HospitalBranch> getActiveBranches();
     Optional<HospitalBranch> getBranchById(String id);
+    List<HospitalBranch> getBranchesByIds(Collection<String> ids);
     HospitalBranch updateBranch(String id, HospitalBranchUpdateInputDTO input);
     void deleteBranch(String id);
 }
\ No newline at end of file
@@ -2,19 +2,19 @@ package com.scheduler.schedulerapp.service.hospitalbranch;
 
 import com.scheduler.schedulerapp.dto.HospitalBranchInputDTO;
 import com.scheduler.schedulerapp.dto.HospitalBranchUpdateInputDTO;
-import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.DeactivationJob;
 import com.scheduler.schedulerapp.model.HospitalBranch;
-import com.scheduler.schedulerapp.model.StaffBranchMapping;
-import com.scheduler.schedulerapp.repository.AppointmentRepository;
 import com.scheduler.schedulerapp.repository.HospitalBranchRepository;
 import com.scheduler.schedulerapp.repository.DoctorBranchMappingRepository;
 import com.scheduler.schedulerapp.service.activitylogservice.ActivityLogService;
 import com.scheduler.schedulerapp.service.auth.AuthService;
+import com.scheduler.schedulerapp.service.deactivation.DeactivationJobService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,7 +34,7 @@ public class HospitalBranchServiceImpl implements HospitalBranchService {
     private AuthService authService;
 
     @Autowired
-    private AppointmentRepository appointmentRepository;
+    private DeactivationJobService deactivationJobService;
 
     @Override
     public HospitalBranch createBranch(HospitalBranchInputDTO input) {
@@ -50,6 +50,8 @@ public class HospitalBranchServiceImpl implements HospitalBranchService {
         branch.setZipCode(input.getZipCode());
         branch.setEmail(input.getEmail());
         branch.setPhoneNumber(input.getPhoneNumber());
+        branch.setHourlyCapacity(requireCapacity(input.getHourlyCapacity(), "Hourly"));
+        branch.setDailyCapacity(requireCapacity(input.getDailyCapacity(), "Daily"));
         branch.setStartedAt(LocalDateTime.now());
         branch.setIsActive(true);
 
@@ -71,10 +73,17 @@ public class HospitalBranchServiceImpl implements HospitalBranchService {
         return hospitalBranchRepository.findById(id);
     }
 
+    @Override
+    public List<HospitalBranch> getBranchesByIds(Collection<String> ids) {
+        return hospitalBranchRepository.findAllById(ids);
+    }
+
     @Override
     public HospitalBranch updateBranch(String id, HospitalBranchUpdateInputDTO input) {
         HospitalBranch existingBranch = hospitalBranchRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Branch not found with ID: " + id));
+        DeactivationJob job = null;
+        boolean reactivated = false;
 
         if (input.getBranchCode() != null) {
             if (!input.getBranchCode().equals(existingBranch.getBranchCode()) &&
@@ -101,6 +110,10 @@ public class HospitalBranchServiceImpl implements HospitalBranchService {
         if (input.getPhoneNumber() != null) {
             existingBranch.setPhoneNumber(input.getPhoneNumber());
         }
+        existingBranch.setHourlyCapacity(updatedCapacity(existingBranch.getHourlyCapacity(),
+                input.getHourlyCapacity(), input.getClearHourlyCapacity(), "Hourly"));
+        existingBranch.setDailyCapacity(updatedCapacity(existingBranch.getDailyCapacity(),
+                input.getDailyCapacity(), input.getClearDailyCapacity(), "Daily"));
 
         if (input.getIsActive() != null && !input.getIsActive().equals(existingBranch.getIsActive())) {
             existingBranch.setIsActive(input.getIsActive());
@@ -119,8 +132,7 @@ public class HospitalBranchServiceImpl implements HospitalBranchService {
                         impactSummary
                 );
 
-                cancelAppointmentsInBranch(id);
-                removeDoctorMappingsForBranch(id);
+                job = deactivationJobService.enqueueBranchDeactivation(id);
             } else {
                 activityLogService.logBranchReactivation(
                         id,
@@ -129,10 +141,42 @@ public class HospitalBranchServiceImpl implements HospitalBranchService {
                         authService.getCurrentUserName()
                 );
                 existingBranch.setClosedAt("");
+                reactivated = true;
             }
         }
 
-        return hospitalBranchRepository.save(existingBranch);
+        HospitalBranch saved = hospitalBranchRepository.save(existingBranch);
+        if (job != null) {
+            deactivationJobService.start(job);
+        }
+        if (reactivated) {
+            deactivationJobService.cancelJobsForTarget(id);
+        }
+        return saved;
+    }
+
+    /**
+     * A capacity is either absent (no limit) or at least 1.
+     */
+    private static Integer requireCapacity(Integer capacity, String label) {
+        if (capacity != null && capacity < 1) {
+            throw new IllegalArgumentException(label + " capacity must be at least 1");
+        }
+        return capacity;
+    }
+
+    /**
+     * An update leaves the capacity unchanged when no value is given, and removes the
+     * limit when asked to clear it.
+     */
+    private static Integer updatedCapacity(Integer current, Integer requested, Boolean clear, String label) {
+        if (Boolean.TRUE.equals(clear)) {
+            if (requested != null) {
+                throw new IllegalArgumentException(label + " capacity cannot be set and cleared at once");
+            }
+            return null;
+        }
+        return requested != null ? requireCapacity(requested, label) : current;
     }
 
     @Override
@@ -160,38 +204,11 @@ public class HospitalBranchServiceImpl implements HospitalBranchService {
                     impactSummary
             );
 
-            cancelAppointmentsInBranch(id);
-            removeDoctorMappingsForBranch(id);
+            DeactivationJob job = deactivationJobService.enqueueBranchDeactivation(id);
             hospitalBranchRepository.save(branch);
+            deactivationJobService.start(job);
 
-            System.out.println("Branch " + branch.getBranchCode() + " has been deactivated and all doctor mappings removed");
-        }
-    }
-
-    private void removeDoctorMappingsForBranch(String branchId) {
-        try {
-            List<StaffBranchMapping> mappings = doctorBranchMappingRepository.findByBranchId(branchId);
-
-            if (!mappings.isEmpty()) {
-                doctorBranchMappingRepository.deleteAll(mappings);
-                System.out.println("Removed " + mappings.size() + " doctor mappings for branch ID: " + branchId);
-            }
-        } catch (Exception e) {
-            System.err.println("Error removing doctor mappings for branch " + branchId + ": " + e.getMessage());
-            throw new RuntimeException("Failed to remove doctor mappings for branch: " + e.getMessage());
-        }
-    }
-
-    private void cancelAppointmentsInBranch(String branchId) {
-        List < Appointment> appointments = appointmentRepository.findByBranchId(branchId);
-        if (!appointments.isEmpty()) {
-            for(Appointment appointment:appointments){
-                appointment.setStatus("cancelled");
-                appointmentRepository.save(appointment);
-            }
-            System.out.println("Removed " + appointments.size() + " appointments for branch ID: " + branchId);
-        } else {
-            System.out.println("No appointments found for branch ID: " + branchId);
+            System.out.println("Branch " + branch.getBranchCode() + " has been deactivated, appointments/mappings are handled by job " + job.getId());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,190 @@
+package com.scheduler.schedulerapp.service.indexmanagement;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver.IndexDefinitionHolder;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates and verifies the indexes declared with @Indexed / @CompoundIndex on every
+ * @Document class. Missing indexes are built with the background option so the
+ * collections stay writable, and differences between the declared and the live
+ * indexes (keys, uniqueness, sparseness, TTL and partial filter) are reported instead
+ * of being silently dropped or rebuilt. Live indexes no longer declared anywhere are
+ * only dropped when scheduler.mongo.indexes.drop-undeclared is set.
+ */
+@Service
+@Profile("!test")
+public class MongoIndexManager {
+
+    private static final String ID_INDEX = "_id_";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mongoMappingContext;
+
+    @Value("${scheduler.mongo.indexes.create-missing:true}")
+    private boolean createMissing;
+
+    @Value("${scheduler.mongo.indexes.drop-undeclared:false}")
+    private boolean dropUndeclared;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            List<String> drift = verifyIndexes(createMissing);
+            if (drift.isEmpty()) {
+                System.out.println("MongoDB indexes match the declared index definitions");
+            } else {
+                drift.forEach(line -> System.out.println("Index drift: " + line));
+            }
+        } catch (Exception e) {
+            System.err.println("Could not verify MongoDB indexes: " + e.getMessage());
+        }
+    }
+
+    public List<String> verifyIndexes(boolean createMissingIndexes) {
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoMappingContext);
+        List<String> drift = new ArrayList<>();
+
+        for (MongoPersistentEntity<?> entity : mongoMappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(org.springframework.data.mongodb.core.mapping.Document.class)) {
+                continue;
+            }
+
+            IndexOperations indexOperations = mongoTemplate.indexOps(entity.getType());
+            Map<String, IndexInfo> existing = indexOperations.getIndexInfo().stream()
+                    .collect(Collectors.toMap(IndexInfo::getName, info -> info, (a, b) -> a, LinkedHashMap::new));
+            Set<String> declaredNames = new HashSet<>();
+
+            for (IndexDefinitionHolder declared : resolver.resolveIndexForEntity(entity)) {
+                String name = declared.getIndexOptions().getString("name");
+                declaredNames.add(name);
+                String collection = declared.getCollection();
+                IndexInfo live = existing.get(name);
+
+                if (live != null) {
+                    List<String> differences = differences(declared, live);
+                    if (!differences.isEmpty()) {
+                        drift.add(collection + "." + name + " differs: " + String.join(", ", differences));
+                    }
+                    continue;
+                }
+
+                IndexInfo sameKeysOtherName = existing.values().stream()
+                        .filter(info -> sameKeys(declared.getIndexKeys(), info))
+                        .findFirst()
+                        .orElse(null);
+                if (sameKeysOtherName != null) {
+                    drift.add(collection + "." + name + " exists under the name " + sameKeysOtherName.getName());
+                    declaredNames.add(sameKeysOtherName.getName());
+                    continue;
+                }
+
+                if (!createMissingIndexes) {
+                    drift.add(collection + "." + name + " is missing");
+                    continue;
+                }
+
+                try {
+                    indexOperations.createIndex(declared);
+                    System.out.println("Created index " + collection + "." + name);
+                } catch (Exception e) {
+                    drift.add(collection + "." + name + " could not be created: " + e.getMessage());
+                }
+            }
+
+            for (String liveName : existing.keySet()) {
+                if (ID_INDEX.equals(liveName) || declaredNames.contains(liveName)) {
+                    continue;
+                }
+                if (!dropUndeclared) {
+                    drift.add(entity.getCollection() + "." + liveName + " is not declared on " + entity.getType().getSimpleName());
+                    continue;
+                }
+                try {
+                    indexOperations.dropIndex(liveName);
+                    System.out.println("Dropped undeclared index " + entity.getCollection() + "." + liveName);
+                } catch (Exception e) {
+                    drift.add(entity.getCollection() + "." + liveName + " could not be dropped: " + e.getMessage());
+                }
+            }
+        }
+
+        return drift;
+    }
+
+    private List<String> differences(IndexDefinitionHolder declared, IndexInfo live) {
+        Document options = declared.getIndexOptions();
+        List<String> differences = new ArrayList<>();
+        if (!sameKeys(declared.getIndexKeys(), live)) {
+            differences.add("keys declared " + declared.getIndexKeys().toJson() + ", found " + live.getIndexFields());
+        }
+        boolean unique = Boolean.TRUE.equals(options.getBoolean("unique"));
+        if (unique != live.isUnique()) {
+            differences.add("unique declared " + unique + ", found " + live.isUnique());
+        }
+        boolean sparse = Boolean.TRUE.equals(options.getBoolean("sparse"));
+        if (sparse != live.isSparse()) {
+            differences.add("sparse declared " + sparse + ", found " + live.isSparse());
+        }
+        Long declaredTtl = options.get("expireAfterSeconds") instanceof Number seconds ? seconds.longValue() : null;
+        Long liveTtl = live.getExpireAfter().map(Duration::getSeconds).orElse(null);
+        if (!Objects.equals(declaredTtl, liveTtl)) {
+            differences.add("expireAfterSeconds declared " + declaredTtl + ", found " + liveTtl);
+        }
+        String declaredFilter = options.get("partialFilterExpression") instanceof Document filter ? filter.toJson() : null;
+        String liveFilter = live.getPartialFilterExpression() != null
+                ? Document.parse(live.getPartialFilterExpression()).toJson()
+                : null;
+        if (!Objects.equals(declaredFilter, liveFilter)) {
+            differences.add("partialFilterExpression declared " + declaredFilter + ", found " + liveFilter);
+        }
+        return differences;
+    }
+
+    private boolean sameKeys(Document declaredKeys, IndexInfo live) {
+        List<IndexField> fields = live.getIndexFields();
+        if (fields.size() != declaredKeys.size()) {
+            return false;
+        }
+        int position = 0;
+        for (Map.Entry<String, Object> key : declaredKeys.entrySet()) {
+            IndexField field = fields.get(position++);
+            if (!field.getKey().equals(key.getKey())) {
+                return false;
+            }
+            Sort.Direction declaredDirection = key.getValue() instanceof Number number && number.intValue() < 0
+                    ? Sort.Direction.DESC
+                    : Sort.Direction.ASC;
+            if (field.getDirection() != null && field.getDirection() != declaredDirection) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,69 @@
+package com.scheduler.schedulerapp.service.lease;
+
+import com.scheduler.schedulerapp.model.JobLease;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Makes a background job run on one node at a time across the cluster. Taking a lease
+ * is a single conditional upsert that only matches an expired lease, so two nodes (or
+ * two threads on one node) can never both hold it; the loser's upsert hits the
+ * existing id and fails with a duplicate key. Long runs renew the lease between
+ * batches and stop once a renewal fails. A node that dies holding a lease blocks the
+ * job for at most one lease duration.
+ */
+@Component
+public class JobLeaseManager {
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${scheduler.leases.duration-ms:300000}")
+    private long durationMillis = 300000;
+
+    public boolean tryAcquire(String job) {
+        LocalDateTime now = LocalDateTime.now();
+        Query expired = new Query(Criteria.where("_id").is(job).and("leaseUntil").lt(now));
+        Update take = new Update()
+                .set("owner", nodeId)
+                .set("acquiredAt", now)
+                .set("leaseUntil", now.plus(durationMillis, ChronoUnit.MILLIS));
+        try {
+            mongoTemplate.upsert(expired, take, JobLease.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Extends a lease this node holds; false means it expired and may already be held
+     * elsewhere, so the caller should stop.
+     */
+    public boolean renew(String job) {
+        Query held = new Query(Criteria.where("_id").is(job).and("owner").is(nodeId));
+        Update extend = new Update().set("leaseUntil", LocalDateTime.now().plus(durationMillis, ChronoUnit.MILLIS));
+        return mongoTemplate.updateFirst(held, extend, JobLease.class).getMatchedCount() > 0;
+    }
+
+    public void release(String job) {
+        Query held = new Query(Criteria.where("_id").is(job).and("owner").is(nodeId));
+        mongoTemplate.updateFirst(held, new Update().set("leaseUntil", LocalDateTime.now()), JobLease.class);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
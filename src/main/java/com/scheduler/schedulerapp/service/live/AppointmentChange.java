@@ -0,0 +1,33 @@
+package com.scheduler.schedulerapp.service.live;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One appointment write as it travels through the broker. It only carries what
+ * dashboards need to route and refresh, so it stays small on the wire.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AppointmentChange {
+    private String changeType;
+    private String appointmentId;
+    private String doctorId;
+    private String patientId;
+    private String branchId;
+    private String status;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private LocalDateTime occurredAt;
+
+    public static AppointmentChange of(String changeType, Appointment appointment) {
+        return new AppointmentChange(changeType, appointment.getId(), appointment.getDoctorId(),
+                appointment.getPatientId(), appointment.getBranchId(), appointment.getStatus(),
+                appointment.getStartTime(), appointment.getEndTime(), LocalDateTime.now());
+    }
+}
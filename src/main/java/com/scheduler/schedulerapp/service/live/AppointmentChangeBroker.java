@@ -0,0 +1,13 @@
+package com.scheduler.schedulerapp.service.live;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries appointment changes to every node. Each node's hub registers one
+ * receiver, so the broker sees one subscription per node however many clients
+ * are connected to it.
+ */
+public interface AppointmentChangeBroker {
+    void publish(AppointmentChange change);
+    void subscribe(Consumer<AppointmentChange> receiver);
+}
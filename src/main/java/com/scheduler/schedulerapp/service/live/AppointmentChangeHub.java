@@ -0,0 +1,92 @@
+package com.scheduler.schedulerapp.service.live;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes changes from the broker to subscribed clients on this node. There is one
+ * sink per branch or doctor that someone watches, so a change costs two map
+ * lookups and is emitted only to that topic's subscribers, never filtered per
+ * client. Sinks are best effort: a client that stops requesting misses changes
+ * instead of holding up the others. A topic is dropped when its last subscriber
+ * leaves.
+ */
+@Component
+public class AppointmentChangeHub {
+
+    private static final String BRANCH = "branch:";
+    private static final String DOCTOR = "doctor:";
+
+    @Autowired
+    private AppointmentChangeBroker appointmentChangeBroker;
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void connect() {
+        appointmentChangeBroker.subscribe(this::dispatch);
+    }
+
+    public Flux<AppointmentChange> branchChanges(String branchId) {
+        return changes(BRANCH + branchId);
+    }
+
+    public Flux<AppointmentChange> doctorChanges(String doctorId) {
+        return changes(DOCTOR + doctorId);
+    }
+
+    public int getTopicCount() {
+        return topics.size();
+    }
+
+    public void dispatch(AppointmentChange change) {
+        if (change.getBranchId() != null) {
+            emit(BRANCH + change.getBranchId(), change);
+        }
+        if (change.getDoctorId() != null) {
+            emit(DOCTOR + change.getDoctorId(), change);
+        }
+    }
+
+    private Flux<AppointmentChange> changes(String key) {
+        return Flux.defer(() -> {
+            Topic topic = topics.compute(key, (k, existing) -> {
+                Topic current = existing != null ? existing : new Topic();
+                current.subscribers++;
+                return current;
+            });
+            return topic.sink.asFlux().doFinally(signal -> release(key, topic));
+        });
+    }
+
+    private void release(String key, Topic topic) {
+        topics.computeIfPresent(key, (k, current) -> {
+            if (current != topic) {
+                return current;
+            }
+            current.subscribers--;
+            return current.subscribers > 0 ? current : null;
+        });
+    }
+
+    private void emit(String key, AppointmentChange change) {
+        Topic topic = topics.get(key);
+        if (topic == null) {
+            return;
+        }
+        synchronized (topic) {
+            topic.sink.tryEmitNext(change);
+        }
+    }
+
+    private static class Topic {
+        private final Sinks.Many<AppointmentChange> sink = Sinks.many().multicast().directBestEffort();
+        private int subscribers;
+    }
+}
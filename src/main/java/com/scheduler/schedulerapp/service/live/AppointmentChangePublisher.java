@@ -0,0 +1,48 @@
+package com.scheduler.schedulerapp.service.live;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.service.appointment.AppointmentsDeletedEvent;
+import com.scheduler.schedulerapp.service.appointment.AppointmentsSavedEvent;
+import com.scheduler.schedulerapp.service.waitlist.AppointmentsCancelledEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns appointment write events into broker messages. A save that cancels is left
+ * to the cancellation event that follows it, so each write is published once.
+ */
+@Component
+public class AppointmentChangePublisher {
+
+    static final String CREATED = "created";
+    static final String UPDATED = "updated";
+    static final String CANCELLED = "cancelled";
+    static final String DELETED = "deleted";
+
+    @Autowired
+    private AppointmentChangeBroker appointmentChangeBroker;
+
+    @EventListener
+    public void onAppointmentsSaved(AppointmentsSavedEvent event) {
+        for (Appointment appointment : event.getAppointments()) {
+            if (CANCELLED.equals(appointment.getStatus())) {
+                continue;
+            }
+            boolean created = appointment.getCreatedAt() != null && appointment.getCreatedAt().equals(appointment.getUpdatedAt());
+            appointmentChangeBroker.publish(AppointmentChange.of(created ? CREATED : UPDATED, appointment));
+        }
+    }
+
+    @EventListener
+    public void onAppointmentsCancelled(AppointmentsCancelledEvent event) {
+        event.getAppointments().forEach(appointment ->
+                appointmentChangeBroker.publish(AppointmentChange.of(CANCELLED, appointment)));
+    }
+
+    @EventListener
+    public void onAppointmentsDeleted(AppointmentsDeletedEvent event) {
+        event.getAppointments().forEach(appointment ->
+                appointmentChangeBroker.publish(AppointmentChange.of(DELETED, appointment)));
+    }
+}
@@ -0,0 +1,34 @@
+package com.scheduler.schedulerapp.service.live;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Single-node broker: a published change goes straight to the receivers in this JVM.
+ */
+@Component
+@ConditionalOnProperty(prefix = "scheduler.live", name = "broker", havingValue = "local", matchIfMissing = true)
+public class LocalAppointmentChangeBroker implements AppointmentChangeBroker {
+
+    private final List<Consumer<AppointmentChange>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(AppointmentChange change) {
+        for (Consumer<AppointmentChange> receiver : receivers) {
+            try {
+                receiver.accept(change);
+            } catch (RuntimeException e) {
+                System.err.println("Could not deliver appointment change " + change.getAppointmentId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<AppointmentChange> receiver) {
+        receivers.add(receiver);
+    }
+}
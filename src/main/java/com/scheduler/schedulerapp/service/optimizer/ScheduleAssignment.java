@@ -0,0 +1,18 @@
+package com.scheduler.schedulerapp.service.optimizer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScheduleAssignment {
+    private String requestId;
+    private String doctorId;
+    private String patientId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
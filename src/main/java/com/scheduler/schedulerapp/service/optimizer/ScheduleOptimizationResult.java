@@ -0,0 +1,17 @@
+package com.scheduler.schedulerapp.service.optimizer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScheduleOptimizationResult {
+    private List<ScheduleAssignment> assignments;
+    private List<UnplacedRequest> unplaced;
+    private long elapsedMillis;
+    private boolean timedOut;
+}
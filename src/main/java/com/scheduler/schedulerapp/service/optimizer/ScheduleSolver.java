@@ -0,0 +1,329 @@
+package com.scheduler.schedulerapp.service.optimizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Assigns requests to doctors on a {@link com.scheduler.schedulerapp.service.appointment.OccupancyBitmap}
+ * slot grid. Every doctor and patient is a bitset of busy slots over the planning
+ * horizon, so a placement test is two {@code nextSetBit} calls.
+ *
+ * <p>Each worker builds a greedy assignment (least slack first, earliest feasible start)
+ * and then improves it by ejection: an unplaced request may take the place of one
+ * placed request if that request can be moved somewhere else. Workers start from
+ * differently perturbed orders and run in parallel on a fork-join pool until they
+ * converge or the deadline passes; the assignment placing the most requests wins.
+ */
+public class ScheduleSolver {
+
+    public static class Item {
+        final String patientId;
+        final int earliestSlot;
+        final int latestEndSlot;
+        final int slots;
+        final int preferredDoctor;
+
+        public Item(String patientId, int earliestSlot, int latestEndSlot, int slots, int preferredDoctor) {
+            this.patientId = patientId;
+            this.earliestSlot = earliestSlot;
+            this.latestEndSlot = latestEndSlot;
+            this.slots = slots;
+            this.preferredDoctor = preferredDoctor;
+        }
+
+        int slack() {
+            return latestEndSlot - earliestSlot - slots;
+        }
+    }
+
+    public static class Solution {
+        final int[] doctorOf;
+        final int[] startOf;
+        final boolean[] attempted;
+        final boolean timedOut;
+
+        Solution(int[] doctorOf, int[] startOf, boolean[] attempted, boolean timedOut) {
+            this.doctorOf = doctorOf;
+            this.startOf = startOf;
+            this.attempted = attempted;
+            this.timedOut = timedOut;
+        }
+
+        public int doctorOf(int item) {
+            return doctorOf[item];
+        }
+
+        public int startOf(int item) {
+            return startOf[item];
+        }
+
+        public boolean isPlaced(int item) {
+            return doctorOf[item] >= 0;
+        }
+
+        public boolean wasAttempted(int item) {
+            return attempted[item];
+        }
+
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+
+        int placedCount() {
+            int placed = 0;
+            for (int doctor : doctorOf) {
+                if (doctor >= 0) {
+                    placed++;
+                }
+            }
+            return placed;
+        }
+
+        long totalStart() {
+            long total = 0;
+            for (int i = 0; i < startOf.length; i++) {
+                if (doctorOf[i] >= 0) {
+                    total += startOf[i];
+                }
+            }
+            return total;
+        }
+    }
+
+    private static final Comparator<Solution> QUALITY = Comparator
+            .comparingInt(Solution::placedCount)
+            .thenComparing(Comparator.comparingLong(Solution::totalStart).reversed());
+
+    private final BitSet[] doctorBusy;
+    private final Map<String, BitSet> patientBusy;
+    private final List<Item> items;
+
+    public ScheduleSolver(BitSet[] doctorBusy, Map<String, BitSet> patientBusy, List<Item> items) {
+        this.doctorBusy = doctorBusy;
+        this.patientBusy = patientBusy;
+        this.items = items;
+    }
+
+    public Solution solve(ForkJoinPool pool, int workers, long deadlineNanos) {
+        return pool.invoke(new RecursiveTask<>() {
+            @Override
+            protected Solution compute() {
+                List<Worker> tasks = new ArrayList<>();
+                for (int seed = 0; seed < Math.max(1, workers); seed++) {
+                    tasks.add(new Worker(seed, deadlineNanos));
+                }
+                invokeAll(tasks);
+                return tasks.stream().map(Worker::join).max(QUALITY).orElseThrow();
+            }
+        });
+    }
+
+    private class Worker extends RecursiveTask<Solution> {
+
+        private final int seed;
+        private final long deadlineNanos;
+        private final Random random;
+
+        private BitSet[] doctors;
+        private Map<String, BitSet> patients;
+        private int[] doctorOf;
+        private int[] startOf;
+        private int[] load;
+        private boolean[] attempted;
+        private boolean timedOut;
+
+        Worker(int seed, long deadlineNanos) {
+            this.seed = seed;
+            this.deadlineNanos = deadlineNanos;
+            this.random = new Random(seed);
+        }
+
+        @Override
+        protected Solution compute() {
+            doctors = new BitSet[doctorBusy.length];
+            for (int d = 0; d < doctorBusy.length; d++) {
+                doctors[d] = (BitSet) doctorBusy[d].clone();
+            }
+            patients = new HashMap<>();
+            for (Item item : items) {
+                patients.computeIfAbsent(item.patientId, id -> {
+                    BitSet busy = patientBusy.get(id);
+                    return busy != null ? (BitSet) busy.clone() : new BitSet();
+                });
+            }
+            doctorOf = new int[items.size()];
+            startOf = new int[items.size()];
+            Arrays.fill(doctorOf, -1);
+            Arrays.fill(startOf, -1);
+            load = new int[doctors.length];
+            attempted = new boolean[items.size()];
+
+            List<Integer> order = order();
+            for (int i : order) {
+                if (pastDeadline()) {
+                    break;
+                }
+                attempted[i] = true;
+                placeAnywhere(i, -1, -1);
+            }
+            improveByEjection(order);
+            return new Solution(doctorOf, startOf, attempted, timedOut);
+        }
+
+        private List<Integer> order() {
+            List<Integer> order = new ArrayList<>();
+            int[] key = new int[items.size()];
+            for (int i = 0; i < items.size(); i++) {
+                order.add(i);
+                int slack = items.get(i).slack();
+                key[i] = seed == 0 ? slack : slack + random.nextInt(Math.max(1, slack / 2 + 1));
+            }
+            order.sort(Comparator.<Integer>comparingInt(i -> key[i])
+                    .thenComparing(Comparator.<Integer>comparingInt(i -> items.get(i).slots).reversed()));
+            return order;
+        }
+
+        private boolean pastDeadline() {
+            if (!timedOut && System.nanoTime() >= deadlineNanos) {
+                timedOut = true;
+            }
+            return timedOut;
+        }
+
+        private void improveByEjection(List<Integer> order) {
+            boolean improved = true;
+            while (improved && !pastDeadline()) {
+                improved = false;
+                for (int i : order) {
+                    if (pastDeadline()) {
+                        return;
+                    }
+                    if (doctorOf[i] < 0 && attempted[i] && ejectAndInsert(i)) {
+                        improved = true;
+                    }
+                }
+            }
+        }
+
+        private boolean ejectAndInsert(int unplaced) {
+            Item item = items.get(unplaced);
+            for (int blocker = 0; blocker < items.size(); blocker++) {
+                if (doctorOf[blocker] < 0 || !blocks(item, blocker)) {
+                    continue;
+                }
+                int blockerDoctor = doctorOf[blocker];
+                int blockerStart = startOf[blocker];
+                release(blocker);
+
+                if (placeAnywhere(unplaced, -1, -1)) {
+                    if (placeAnywhere(blocker, blockerDoctor, blockerStart)) {
+                        return true;
+                    }
+                    release(unplaced);
+                }
+                occupy(blocker, blockerDoctor, blockerStart);
+            }
+            return false;
+        }
+
+        private boolean blocks(Item item, int other) {
+            int start = startOf[other];
+            return start < item.latestEndSlot && start + items.get(other).slots > item.earliestSlot;
+        }
+
+        private boolean placeAnywhere(int i, int excludedDoctor, int excludedStart) {
+            Item item = items.get(i);
+            BitSet patient = patients.get(item.patientId);
+
+            if (item.preferredDoctor >= 0) {
+                int start = firstFit(doctors[item.preferredDoctor], patient, item, item.preferredDoctor, excludedDoctor, excludedStart);
+                if (start >= 0) {
+                    occupy(i, item.preferredDoctor, start);
+                    return true;
+                }
+            }
+
+            int bestDoctor = -1;
+            int bestStart = Integer.MAX_VALUE;
+            for (int d : doctorOrder()) {
+                int start = firstFit(doctors[d], patient, item, d, excludedDoctor, excludedStart);
+                if (start >= 0 && (start < bestStart || (start == bestStart && load[d] < load[bestDoctor]))) {
+                    bestDoctor = d;
+                    bestStart = start;
+                }
+            }
+            if (bestDoctor < 0) {
+                return false;
+            }
+            occupy(i, bestDoctor, bestStart);
+            return true;
+        }
+
+        private int[] doctorOrder() {
+            int[] order = new int[doctors.length];
+            for (int d = 0; d < order.length; d++) {
+                order[d] = d;
+            }
+            if (seed != 0) {
+                for (int d = order.length - 1; d > 0; d--) {
+                    int swap = random.nextInt(d + 1);
+                    int tmp = order[d];
+                    order[d] = order[swap];
+                    order[swap] = tmp;
+                }
+            }
+            return order;
+        }
+
+        private int firstFit(BitSet doctor, BitSet patient, Item item, int d, int excludedDoctor, int excludedStart) {
+            int start = item.earliestSlot;
+            while (start + item.slots <= item.latestEndSlot) {
+                int blocked = firstSetIn(doctor, start, start + item.slots);
+                if (blocked < 0) {
+                    blocked = firstSetIn(patient, start, start + item.slots);
+                }
+                if (blocked < 0) {
+                    if (d != excludedDoctor || start != excludedStart) {
+                        return start;
+                    }
+                    blocked = start;
+                }
+                start = blocked + 1;
+            }
+            return -1;
+        }
+
+        private int firstSetIn(BitSet bits, int from, int to) {
+            int set = bits.nextSetBit(from);
+            return set >= 0 && set < to ? set : -1;
+        }
+
+        private void occupy(int i, int doctor, int start) {
+            Item item = items.get(i);
+            doctors[doctor].set(start, start + item.slots);
+            patients.get(item.patientId).set(start, start + item.slots);
+            doctorOf[i] = doctor;
+            startOf[i] = start;
+            load[doctor] += item.slots;
+        }
+
+        private void release(int i) {
+            Item item = items.get(i);
+            int doctor = doctorOf[i];
+            int start = startOf[i];
+            doctors[doctor].clear(start, start + item.slots);
+            patients.get(item.patientId).clear(start, start + item.slots);
+            load[doctor] -= item.slots;
+            doctorOf[i] = -1;
+            startOf[i] = -1;
+        }
+    }
+}
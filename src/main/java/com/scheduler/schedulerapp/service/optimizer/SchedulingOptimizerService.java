@@ -0,0 +1,7 @@
+package com.scheduler.schedulerapp.service.optimizer;
+
+import java.util.List;
+
+public interface SchedulingOptimizerService {
+    ScheduleOptimizationResult optimizeBranchSchedule(String branchId, List<SchedulingRequest> requests, Long timeBudgetMillis);
+}
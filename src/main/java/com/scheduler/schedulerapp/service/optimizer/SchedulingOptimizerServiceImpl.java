@@ -0,0 +1,232 @@
+package com.scheduler.schedulerapp.service.optimizer;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.model.Patient;
+import com.scheduler.schedulerapp.model.StaffBranchMapping;
+import com.scheduler.schedulerapp.service.appointment.AppointmentService;
+import com.scheduler.schedulerapp.service.appointment.OccupancyBitmap;
+import com.scheduler.schedulerapp.service.branchmapping.DoctorBranchMappingService;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.patient.PatientService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+@Service
+public class SchedulingOptimizerServiceImpl implements SchedulingOptimizerService {
+
+    static final int MAX_REQUESTS = 5000;
+    static final int MAX_HORIZON_DAYS = 31;
+
+    @Autowired
+    private DoctorBranchMappingService doctorBranchMappingService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Value("${scheduler.optimizer.time-budget-ms:2000}")
+    private long defaultTimeBudgetMillis = 2000;
+
+    @Value("${scheduler.optimizer.max-time-budget-ms:30000}")
+    private long maxTimeBudgetMillis = 30000;
+
+    @Value("${scheduler.optimizer.parallelism:0}")
+    private int parallelism = 0;
+
+    @Value("${scheduler.availability.workday-start:08:00}")
+    private String workdayStart = "08:00";
+
+    @Value("${scheduler.availability.workday-end:20:00}")
+    private String workdayEnd = "20:00";
+
+    private ForkJoinPool pool;
+
+    @Override
+    public ScheduleOptimizationResult optimizeBranchSchedule(String branchId, List<SchedulingRequest> requests,
+                                                             Long timeBudgetMillis) {
+        long startedAt = System.nanoTime();
+        validate(requests);
+        long budget = Math.min(timeBudgetMillis != null ? timeBudgetMillis : defaultTimeBudgetMillis, maxTimeBudgetMillis);
+
+        List<String> doctorIds = activeBranchDoctors(branchId);
+        Set<String> knownPatientIds = patientService.getPatientsByIds(requests.stream()
+                        .map(SchedulingRequest::getPatientId).collect(Collectors.toSet())).stream()
+                .map(Patient::getId)
+                .collect(Collectors.toSet());
+
+        List<UnplacedRequest> unplaced = new ArrayList<>();
+        List<SchedulingRequest> plannable = new ArrayList<>();
+        for (SchedulingRequest request : requests) {
+            if (!knownPatientIds.contains(request.getPatientId())) {
+                unplaced.add(new UnplacedRequest(request.getRequestId(), "Patient not found with ID: " + request.getPatientId()));
+            } else if (doctorIds.isEmpty()) {
+                unplaced.add(new UnplacedRequest(request.getRequestId(), "Branch has no active doctors"));
+            } else {
+                plannable.add(request);
+            }
+        }
+        if (plannable.isEmpty()) {
+            return new ScheduleOptimizationResult(new ArrayList<>(), unplaced, elapsedMillis(startedAt), false);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizonStart = plannable.stream()
+                .map(request -> request.getEarliestStart().isBefore(now) ? now : request.getEarliestStart())
+                .min(LocalDateTime::compareTo).get()
+                .truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime horizonEnd = plannable.stream()
+                .map(SchedulingRequest::getLatestEnd)
+                .max(LocalDateTime::compareTo).get();
+        if (Duration.between(horizonStart, horizonEnd).toDays() > MAX_HORIZON_DAYS) {
+            throw new IllegalArgumentException("Requests must fall within " + MAX_HORIZON_DAYS + " days of each other");
+        }
+        int slotCount = Math.max(0, OccupancyBitmap.ceilSlot(horizonStart, horizonEnd));
+
+        Set<String> patientIds = plannable.stream().map(SchedulingRequest::getPatientId).collect(Collectors.toSet());
+        List<Appointment> scheduled = appointmentService.getScheduledAppointmentsInWindow(
+                doctorIds, patientIds, horizonStart, horizonEnd);
+
+        BitSet[] doctorBusy = new BitSet[doctorIds.size()];
+        Map<String, Integer> doctorIndex = new HashMap<>();
+        for (int d = 0; d < doctorIds.size(); d++) {
+            doctorBusy[d] = closedHours(horizonStart, horizonEnd, slotCount);
+            doctorIndex.put(doctorIds.get(d), d);
+        }
+        Map<String, BitSet> patientBusy = new HashMap<>();
+        for (Appointment appointment : scheduled) {
+            Integer d = doctorIndex.get(appointment.getDoctorId());
+            if (d != null) {
+                mark(doctorBusy[d], horizonStart, slotCount, appointment.getStartTime(), appointment.getEndTime());
+            }
+            if (patientIds.contains(appointment.getPatientId())) {
+                mark(patientBusy.computeIfAbsent(appointment.getPatientId(), k -> new BitSet(slotCount)),
+                        horizonStart, slotCount, appointment.getStartTime(), appointment.getEndTime());
+            }
+        }
+
+        List<ScheduleSolver.Item> items = new ArrayList<>();
+        for (SchedulingRequest request : plannable) {
+            LocalDateTime earliest = request.getEarliestStart().isBefore(now) ? now : request.getEarliestStart();
+            items.add(new ScheduleSolver.Item(
+                    request.getPatientId(),
+                    OccupancyBitmap.ceilSlot(horizonStart, earliest),
+                    Math.min(slotCount, OccupancyBitmap.floorSlot(horizonStart, request.getLatestEnd())),
+                    OccupancyBitmap.slotsFor(request.getDurationMinutes()),
+                    doctorIndex.getOrDefault(request.getPreferredDoctorId(), -1)));
+        }
+
+        long deadline = startedAt + budget * 1_000_000L;
+        ScheduleSolver.Solution solution = new ScheduleSolver(doctorBusy, patientBusy, items)
+                .solve(pool(), workers(), deadline);
+
+        List<ScheduleAssignment> assignments = new ArrayList<>();
+        for (int i = 0; i < plannable.size(); i++) {
+            SchedulingRequest request = plannable.get(i);
+            if (solution.isPlaced(i)) {
+                LocalDateTime start = horizonStart.plusMinutes((long) solution.startOf(i) * OccupancyBitmap.SLOT_MINUTES);
+                assignments.add(new ScheduleAssignment(request.getRequestId(), doctorIds.get(solution.doctorOf(i)),
+                        request.getPatientId(), start, start.plusMinutes(request.getDurationMinutes())));
+            } else {
+                unplaced.add(new UnplacedRequest(request.getRequestId(), solution.wasAttempted(i)
+                        ? "No branch doctor and patient time is free within the requested window"
+                        : "Time budget exhausted before this request was considered"));
+            }
+        }
+        return new ScheduleOptimizationResult(assignments, unplaced, elapsedMillis(startedAt), solution.isTimedOut());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(workers());
+        }
+        return pool;
+    }
+
+    private int workers() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    private void validate(List<SchedulingRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one request is required");
+        }
+        if (requests.size() > MAX_REQUESTS) {
+            throw new IllegalArgumentException("Cannot optimize more than " + MAX_REQUESTS + " requests at once");
+        }
+        for (SchedulingRequest request : requests) {
+            if (request.getDurationMinutes() <= 0) {
+                throw new IllegalArgumentException("Duration must be positive for request " + request.getRequestId());
+            }
+            if (!request.getLatestEnd().isAfter(request.getEarliestStart())) {
+                throw new IllegalArgumentException("Latest end must be after earliest start for request " + request.getRequestId());
+            }
+        }
+    }
+
+    private List<String> activeBranchDoctors(String branchId) {
+        List<String> mappedIds = doctorBranchMappingService.getBranchDoctors(branchId).stream()
+                .map(StaffBranchMapping::getDoctorId)
+                .distinct()
+                .toList();
+        if (mappedIds.isEmpty()) {
+            return mappedIds;
+        }
+        return doctorService.getDoctorsByIds(mappedIds).stream()
+                .filter(staff -> staff.isDoctor() && Boolean.TRUE.equals(staff.getIsActive()))
+                .map(HospitalStaff::getId)
+                .sorted()
+                .toList();
+    }
+
+    private BitSet closedHours(LocalDateTime horizonStart, LocalDateTime horizonEnd, int slotCount) {
+        BitSet closed = new BitSet(slotCount);
+        LocalTime opens = LocalTime.parse(workdayStart);
+        LocalTime closes = LocalTime.parse(workdayEnd);
+        for (LocalDate day = horizonStart.toLocalDate(); !day.isAfter(horizonEnd.toLocalDate()); day = day.plusDays(1)) {
+            mark(closed, horizonStart, slotCount, day.atStartOfDay(), day.atTime(opens));
+            mark(closed, horizonStart, slotCount, day.atTime(closes), day.plusDays(1).atStartOfDay());
+        }
+        return closed;
+    }
+
+    private void mark(BitSet bits, LocalDateTime horizonStart, int slotCount, LocalDateTime start, LocalDateTime end) {
+        int from = start.isAfter(horizonStart) ? OccupancyBitmap.floorSlot(horizonStart, start) : 0;
+        int to = Math.min(slotCount, OccupancyBitmap.ceilSlot(horizonStart, end));
+        if (from < to) {
+            bits.set(from, to);
+        }
+    }
+
+    private long elapsedMillis(long startedAt) {
+        return (System.nanoTime() - startedAt) / 1_000_000L;
+    }
+}
@@ -0,0 +1,19 @@
+package com.scheduler.schedulerapp.service.optimizer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SchedulingRequest {
+    private String requestId;
+    private String patientId;
+    private int durationMinutes;
+    private LocalDateTime earliestStart;
+    private LocalDateTime latestEnd;
+    private String preferredDoctorId;
+}
@@ -0,0 +1,13 @@
+package com.scheduler.schedulerapp.service.optimizer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UnplacedRequest {
+    private String requestId;
+    private String reason;
+}
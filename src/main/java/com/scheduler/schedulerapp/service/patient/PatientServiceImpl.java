@@ -3,8 +3,10 @@ package com.scheduler.schedulerapp.service.patient;
 import com.scheduler.schedulerapp.model.Patient;
 import com.scheduler.schedulerapp.repository.PatientRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +16,9 @@ public class PatientServiceImpl implements PatientService {
     @Autowired
     private PatientRepository patientRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public List<Patient> getAllPatients() {
         return patientRepository.findAll();
@@ -24,6 +29,11 @@ public class PatientServiceImpl implements PatientService {
         return patientRepository.findById(id);
     }
 
+    @Override
+    public List<Patient> getPatientsByIds(Collection<String> ids) {
+        return patientRepository.findAllById(ids);
+    }
+
     @Override
     public List<Patient> getPatientsByRole(String role) {
         return patientRepository.findByRole(role);
@@ -43,7 +53,9 @@ public class PatientServiceImpl implements PatientService {
             throw new IllegalArgumentException("Patient cannot be null");
         }
         patient.setId(id);
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        eventPublisher.publishEvent(new PatientUpdatedEvent(saved));
+        return saved;
     }
 
     @Override
@@ -0,0 +1,14 @@
+package com.scheduler.schedulerapp.service.patient;
+
+import com.scheduler.schedulerapp.model.Patient;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a patient's profile has been saved.
+ */
+@Getter
+@AllArgsConstructor
+public class PatientUpdatedEvent {
+    private final Patient patient;
+}
@@ -0,0 +1,34 @@
+package com.scheduler.schedulerapp.service.reminder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "spring.mail", name = "host")
+public class EmailReminderSender implements ReminderSender {
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${scheduler.reminders.email.from:no-reply@scheduler.local}")
+    private String from = "no-reply@scheduler.local";
+
+    @Override
+    public String getChannel() {
+        return "email";
+    }
+
+    @Override
+    public void send(ReminderMessage message) {
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setFrom(from);
+        mail.setTo(message.getRecipient());
+        mail.setSubject(message.getSubject());
+        mail.setText(message.getBody());
+        mailSender.send(mail);
+    }
+}
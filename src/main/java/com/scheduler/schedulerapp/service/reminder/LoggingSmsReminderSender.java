@@ -0,0 +1,23 @@
+package com.scheduler.schedulerapp.service.reminder;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stand-in SMS channel that writes reminders to the console. Replace it with a
+ * sender for the SMS provider in use.
+ */
+@Component
+@ConditionalOnProperty(prefix = "scheduler.reminders.sms", name = "log-only", havingValue = "true")
+public class LoggingSmsReminderSender implements ReminderSender {
+
+    @Override
+    public String getChannel() {
+        return "sms";
+    }
+
+    @Override
+    public void send(ReminderMessage message) {
+        System.out.println("SMS to " + message.getRecipient() + ": " + message.getBody());
+    }
+}
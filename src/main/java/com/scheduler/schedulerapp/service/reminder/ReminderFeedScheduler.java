@@ -0,0 +1,27 @@
+package com.scheduler.schedulerapp.service.reminder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("!test")
+public class ReminderFeedScheduler {
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Scheduled(fixedDelayString = "${scheduler.reminders.scan-interval-ms:60000}")
+    public void queueUpcomingReminders() {
+        try {
+            int queued = reminderService.queueUpcomingReminders();
+            if (queued > 0) {
+                System.out.println("Queued " + queued + " reminders (" + reminderService.getQueuedCount() + " waiting, "
+                        + reminderService.getSentCount() + " sent, " + reminderService.getFailedCount() + " failed)");
+            }
+        } catch (Exception e) {
+            System.err.println("Could not queue upcoming reminders: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.scheduler.schedulerapp.service.reminder;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReminderMessage {
+    private String appointmentId;
+    private String channel;
+    private String recipient;
+    private String subject;
+    private String body;
+}
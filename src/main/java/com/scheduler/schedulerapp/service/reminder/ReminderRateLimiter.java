@@ -0,0 +1,34 @@
+package com.scheduler.schedulerapp.service.reminder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces sends on one channel evenly at the configured rate. Callers block in
+ * {@link #acquire()}, which is cheap on virtual threads.
+ */
+public class ReminderRateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeNanos = System.nanoTime();
+
+    public ReminderRateLimiter(double permitsPerSecond) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        if (nextFreeNanos < now) {
+            nextFreeNanos = now;
+        }
+        long waitNanos = nextFreeNanos - now;
+        nextFreeNanos += intervalNanos;
+        return waitNanos;
+    }
+}
@@ -0,0 +1,11 @@
+package com.scheduler.schedulerapp.service.reminder;
+
+/**
+ * Delivers reminders over one channel. Every sender bean is picked up by the
+ * reminder dispatcher and used for the channel it reports; a failed send should
+ * throw so the reminder is retried.
+ */
+public interface ReminderSender {
+    String getChannel();
+    void send(ReminderMessage message);
+}
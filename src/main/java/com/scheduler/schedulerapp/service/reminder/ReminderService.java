@@ -0,0 +1,8 @@
+package com.scheduler.schedulerapp.service.reminder;
+
+public interface ReminderService {
+    int queueUpcomingReminders();
+    int getQueuedCount();
+    long getSentCount();
+    long getFailedCount();
+}
@@ -0,0 +1,345 @@
+package com.scheduler.schedulerapp.service.reminder;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.Patient;
+import com.scheduler.schedulerapp.model.ReminderClaim;
+import com.scheduler.schedulerapp.model.ReminderScanCursor;
+import com.scheduler.schedulerapp.repository.AppointmentRepository;
+import com.scheduler.schedulerapp.service.appointment.AppointmentsSavedEvent;
+import com.scheduler.schedulerapp.service.patient.PatientService;
+import com.scheduler.schedulerapp.service.waitlist.AppointmentsCancelledEvent;
+import com.mongodb.client.result.UpdateResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sends a reminder on every configured channel a fixed lead time before each
+ * scheduled appointment.
+ *
+ * <p>A periodic range scan over startTime moves reminders that fall due within the
+ * look-ahead window into a {@link ReminderTimeWheel}; appointments created, moved or
+ * cancelled inside the already scanned window are queued, re-queued or dropped from
+ * the save and cancel events. Due reminders are sent on virtual threads behind a
+ * per-channel rate limiter. Each send re-reads the appointment first, so a change
+ * that slipped past the events is still honoured, and failed sends go back on the
+ * wheel with exponential backoff.
+ *
+ * <p>Every node scans and queues the same reminders; before sending, a node claims the
+ * reminder with a conditional upsert on {@link ReminderClaim}, so it goes out once.
+ * A claim is released when the send fails and can be taken over when its node died
+ * mid-send. The scan position is stored in a {@link ReminderScanCursor}, so after a
+ * restart the scan resumes where it stopped and reminders that fell due during the
+ * downtime are still sent while their appointment is ahead.
+ */
+@Service
+public class ReminderServiceImpl implements ReminderService {
+
+    private static final String SCHEDULED = "scheduled";
+    private static final String SENDING = "sending";
+    private static final String SENT = "sent";
+    private static final String FAILED = "failed";
+    private static final String CURSOR_ID = "reminders";
+    private static final DateTimeFormatter READABLE = DateTimeFormatter.ofPattern("MMMM d, yyyy 'at' h:mm a");
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired(required = false)
+    private List<ReminderSender> senders = new ArrayList<>();
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${scheduler.reminders.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${scheduler.reminders.channels:email}")
+    private List<String> channels = List.of("email");
+
+    @Value("${scheduler.reminders.lead-minutes:1440}")
+    private long leadMinutes = 1440;
+
+    @Value("${scheduler.reminders.lookahead-minutes:10}")
+    private long lookaheadMinutes = 10;
+
+    @Value("${scheduler.reminders.tick-ms:1000}")
+    private long tickMillis = 1000;
+
+    @Value("${scheduler.reminders.wheel-size:1024}")
+    private int wheelSize = 1024;
+
+    @Value("${scheduler.reminders.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${scheduler.reminders.retry-backoff-ms:30000}")
+    private long retryBackoffMillis = 30000;
+
+    @Value("${scheduler.reminders.claim-timeout-ms:300000}")
+    private long claimTimeoutMillis = 300000;
+
+    private final Map<String, ReminderSender> sendersByChannel = new HashMap<>();
+    private final Map<String, ReminderRateLimiter> rateLimiters = new HashMap<>();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private ReminderTimeWheel wheel;
+    private ExecutorService dispatcher;
+    private volatile LocalDateTime scannedUpTo;
+
+    @PostConstruct
+    public void start() {
+        for (ReminderSender sender : senders) {
+            sendersByChannel.put(sender.getChannel(), sender);
+            double ratePerSecond = environment.getProperty(
+                    "scheduler.reminders." + sender.getChannel() + ".rate-per-second", Double.class, 10.0);
+            rateLimiters.put(sender.getChannel(), new ReminderRateLimiter(ratePerSecond));
+        }
+        wheel = new ReminderTimeWheel(tickMillis, wheelSize);
+        dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+        if (enabled) {
+            wheel.start(task -> dispatcher.execute(() -> dispatch(task)));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.stop();
+        dispatcher.shutdownNow();
+    }
+
+    @Override
+    public int queueUpcomingReminders() {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime resumeFrom = scannedUpTo != null ? scannedUpTo : loadScanCursor();
+        // Reminders due before now - lead belong to appointments that have already started.
+        LocalDateTime earliest = now.minusMinutes(leadMinutes);
+        LocalDateTime from = resumeFrom == null ? now : resumeFrom.isAfter(earliest) ? resumeFrom : earliest;
+        LocalDateTime to = now.plusMinutes(lookaheadMinutes);
+        if (!to.isAfter(from)) {
+            return 0;
+        }
+
+        int queued = 0;
+        try (Stream<Appointment> upcoming = appointmentRepository.streamByStatusAndStartTimeRange(
+                SCHEDULED, from.plusMinutes(leadMinutes), to.plusMinutes(leadMinutes))) {
+            List<Appointment> batch = new ArrayList<>();
+            for (Appointment appointment : (Iterable<Appointment>) upcoming::iterator) {
+                batch.add(appointment);
+                if (batch.size() == 500) {
+                    queued += queue(batch);
+                    batch.clear();
+                }
+            }
+            queued += queue(batch);
+        }
+        scannedUpTo = to;
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(CURSOR_ID)),
+                new Update().max("scannedUpTo", to).set("updatedAt", now), ReminderScanCursor.class);
+        return queued;
+    }
+
+    private LocalDateTime loadScanCursor() {
+        ReminderScanCursor cursor = mongoTemplate.findById(CURSOR_ID, ReminderScanCursor.class);
+        return cursor != null ? cursor.getScannedUpTo() : null;
+    }
+
+    @Override
+    public int getQueuedCount() {
+        return wheel.size();
+    }
+
+    @Override
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    @Override
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    @EventListener
+    public void onAppointmentsSaved(AppointmentsSavedEvent event) {
+        LocalDateTime horizon = scannedUpTo;
+        if (!enabled || horizon == null) {
+            return;
+        }
+        List<Appointment> inScannedWindow = new ArrayList<>();
+        for (Appointment appointment : event.getAppointments()) {
+            cancelReminders(appointment.getId());
+            if (SCHEDULED.equals(appointment.getStatus())
+                    && appointment.getStartTime().minusMinutes(leadMinutes).isBefore(horizon)) {
+                inScannedWindow.add(appointment);
+            }
+        }
+        if (!inScannedWindow.isEmpty()) {
+            dispatcher.execute(() -> queue(inScannedWindow));
+        }
+    }
+
+    @EventListener
+    public void onAppointmentsCancelled(AppointmentsCancelledEvent event) {
+        event.getAppointments().forEach(appointment -> cancelReminders(appointment.getId()));
+    }
+
+    private void cancelReminders(String appointmentId) {
+        for (String channel : channels) {
+            wheel.cancel(ReminderTask.key(appointmentId, channel));
+        }
+    }
+
+    private int queue(List<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            return 0;
+        }
+        Set<String> patientIds = appointments.stream().map(Appointment::getPatientId).collect(Collectors.toSet());
+        Map<String, Patient> patients = patientService.getPatientsByIds(patientIds).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+
+        long nowMillis = System.currentTimeMillis();
+        int queued = 0;
+        for (Appointment appointment : appointments) {
+            Patient patient = patients.get(appointment.getPatientId());
+            if (patient == null) {
+                continue;
+            }
+            long fireAt = Math.max(nowMillis, toMillis(appointment.getStartTime().minusMinutes(leadMinutes)));
+            for (String channel : channels) {
+                String recipient = recipientFor(patient, channel);
+                if (recipient == null || !sendersByChannel.containsKey(channel)) {
+                    continue;
+                }
+                wheel.schedule(new ReminderTask(appointment.getId(), channel, recipient, appointment.getTitle(),
+                        appointment.getStartTime(), fireAt, 1));
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    private void dispatch(ReminderTask task) {
+        Optional<Appointment> current = appointmentRepository.findById(task.appointmentId);
+        if (current.isEmpty() || !SCHEDULED.equals(current.get().getStatus())) {
+            return;
+        }
+        LocalDateTime startTime = current.get().getStartTime();
+        if (!startTime.isAfter(LocalDateTime.now())) {
+            return;
+        }
+        if (!startTime.equals(task.startTime)) {
+            long fireAt = toMillis(startTime.minusMinutes(leadMinutes));
+            if (fireAt > System.currentTimeMillis()) {
+                wheel.schedule(task.movedTo(startTime, fireAt));
+                return;
+            }
+        }
+
+        String claimId = ReminderClaim.key(task.appointmentId, task.channel, startTime);
+        if (!claim(claimId, task, startTime)) {
+            return;
+        }
+        try {
+            rateLimiters.get(task.channel).acquire();
+            sendersByChannel.get(task.channel).send(new ReminderMessage(
+                    task.appointmentId,
+                    task.channel,
+                    task.recipient,
+                    "Appointment reminder: " + task.title,
+                    "This is a reminder that your appointment \"" + task.title + "\" is scheduled for "
+                            + startTime.format(READABLE) + "."));
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(claimId)),
+                    new Update().set("status", SENT).set("sentAt", LocalDateTime.now()), ReminderClaim.class);
+            sent.incrementAndGet();
+        } catch (InterruptedException e) {
+            release(claimId);
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            release(claimId);
+            if (task.attempt < maxAttempts) {
+                long backoff = retryBackoffMillis << (task.attempt - 1);
+                wheel.schedule(task.retry(System.currentTimeMillis() + backoff));
+            } else {
+                failed.incrementAndGet();
+                System.err.println("Giving up on " + task.channel + " reminder for appointment " + task.appointmentId
+                        + " after " + task.attempt + " attempts: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Takes the reminder for this node unless another node has sent it or is sending
+     * it. A failed claim, or one older than the claim timeout, can be taken over.
+     */
+    private boolean claim(String claimId, ReminderTask task, LocalDateTime startTime) {
+        LocalDateTime now = LocalDateTime.now();
+        Query claimable = new Query(Criteria.where("_id").is(claimId).orOperator(
+                Criteria.where("status").is(FAILED),
+                Criteria.where("status").is(SENDING).and("claimedAt").lt(now.minus(claimTimeoutMillis, ChronoUnit.MILLIS))));
+        Update update = new Update()
+                .set("status", SENDING)
+                .set("claimedAt", now)
+                .setOnInsert("appointmentId", task.appointmentId)
+                .setOnInsert("channel", task.channel)
+                .setOnInsert("startTime", startTime)
+                .setOnInsert("expiresAt", startTime.plusDays(1));
+        try {
+            UpdateResult result = mongoTemplate.upsert(claimable, update, ReminderClaim.class);
+            return result.getModifiedCount() > 0 || result.getUpsertedId() != null;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void release(String claimId) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(claimId).and("status").is(SENDING)),
+                new Update().set("status", FAILED), ReminderClaim.class);
+    }
+
+    private String recipientFor(Patient patient, String channel) {
+        String recipient = switch (channel) {
+            case "email" -> patient.getEmail();
+            case "sms" -> patient.getPhoneNumber();
+            default -> null;
+        };
+        return recipient != null && !recipient.isBlank() ? recipient : null;
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,65 @@
+package com.scheduler.schedulerapp.service.reminder;
+
+import java.time.LocalDateTime;
+
+/**
+ * One reminder waiting in the {@link ReminderTimeWheel}: a single channel for a
+ * single appointment, remembered with the start time it was queued for so a
+ * reschedule can be noticed at dispatch.
+ */
+public class ReminderTask {
+
+    final String appointmentId;
+    final String channel;
+    final String recipient;
+    final String title;
+    final LocalDateTime startTime;
+    final long fireAtMillis;
+    final int attempt;
+
+    long deadlineTick;
+    volatile boolean cancelled;
+
+    public ReminderTask(String appointmentId, String channel, String recipient, String title,
+                        LocalDateTime startTime, long fireAtMillis, int attempt) {
+        this.appointmentId = appointmentId;
+        this.channel = channel;
+        this.recipient = recipient;
+        this.title = title;
+        this.startTime = startTime;
+        this.fireAtMillis = fireAtMillis;
+        this.attempt = attempt;
+    }
+
+    public String getKey() {
+        return key(appointmentId, channel);
+    }
+
+    public String getAppointmentId() {
+        return appointmentId;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public int getAttempt() {
+        return attempt;
+    }
+
+    ReminderTask retry(long fireAtMillis) {
+        return new ReminderTask(appointmentId, channel, recipient, title, startTime, fireAtMillis, attempt + 1);
+    }
+
+    ReminderTask movedTo(LocalDateTime newStartTime, long fireAtMillis) {
+        return new ReminderTask(appointmentId, channel, recipient, title, newStartTime, fireAtMillis, attempt);
+    }
+
+    static String key(String appointmentId, String channel) {
+        return appointmentId + ":" + channel;
+    }
+}
@@ -0,0 +1,126 @@
+package com.scheduler.schedulerapp.service.reminder;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel holding queued reminders. Scheduling and cancelling are O(1)
+ * regardless of how many reminders are queued; one platform thread advances the
+ * wheel every tick and hands due tasks to the consumer, which must not block.
+ * Tasks further out than one revolution stay in their bucket until the tick they
+ * are due on comes round. Scheduling a task under a key that is already queued
+ * replaces the earlier task.
+ */
+public class ReminderTimeWheel {
+
+    private final long tickMillis;
+    private final List<ReminderTask>[] buckets;
+    private final Map<String, ReminderTask> queued = new ConcurrentHashMap<>();
+
+    private volatile long currentTick;
+    private final long startedAtMillis = System.currentTimeMillis();
+    private volatile boolean running;
+    private Thread worker;
+
+    @SuppressWarnings("unchecked")
+    public ReminderTimeWheel(long tickMillis, int wheelSize) {
+        this.tickMillis = tickMillis;
+        this.buckets = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+    }
+
+    public synchronized void start(Consumer<ReminderTask> onDue) {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(() -> run(onDue), "reminder-time-wheel");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    public void schedule(ReminderTask task) {
+        ReminderTask previous = queued.put(task.getKey(), task);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        long dueTick = Math.max(0, Math.floorDiv(task.fireAtMillis - startedAtMillis + tickMillis - 1, tickMillis));
+        while (true) {
+            long target = Math.max(dueTick, currentTick + 1);
+            List<ReminderTask> bucket = buckets[(int) (target % buckets.length)];
+            synchronized (bucket) {
+                if (currentTick < target) {
+                    task.deadlineTick = target;
+                    bucket.add(task);
+                    return;
+                }
+            }
+        }
+    }
+
+    public void cancel(String key) {
+        ReminderTask task = queued.remove(key);
+        if (task != null) {
+            task.cancelled = true;
+        }
+    }
+
+    public boolean isQueued(String key) {
+        return queued.containsKey(key);
+    }
+
+    public int size() {
+        return queued.size();
+    }
+
+    private void run(Consumer<ReminderTask> onDue) {
+        while (running) {
+            long next = currentTick + 1;
+            long sleepMillis = startedAtMillis + next * tickMillis - System.currentTimeMillis();
+            if (sleepMillis > 0) {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            List<ReminderTask> due = new ArrayList<>();
+            List<ReminderTask> bucket = buckets[(int) (next % buckets.length)];
+            synchronized (bucket) {
+                currentTick = next;
+                Iterator<ReminderTask> tasks = bucket.iterator();
+                while (tasks.hasNext()) {
+                    ReminderTask task = tasks.next();
+                    if (task.cancelled) {
+                        tasks.remove();
+                    } else if (task.deadlineTick <= next) {
+                        tasks.remove();
+                        due.add(task);
+                    }
+                }
+            }
+            for (ReminderTask task : due) {
+                if (queued.remove(task.getKey(), task)) {
+                    try {
+                        onDue.accept(task);
+                    } catch (RuntimeException e) {
+                        System.err.println("Could not dispatch reminder for appointment " + task.appointmentId + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+}
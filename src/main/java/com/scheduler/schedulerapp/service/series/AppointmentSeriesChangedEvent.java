@@ -0,0 +1,18 @@
+package com.scheduler.schedulerapp.service.series;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published after a series or one of its occurrences changed; from and to cover
+ * every occurrence the change can have added, moved or removed.
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentSeriesChangedEvent {
+    private final String doctorId;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+}
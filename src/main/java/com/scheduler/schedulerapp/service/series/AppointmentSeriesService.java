@@ -0,0 +1,15 @@
+package com.scheduler.schedulerapp.service.series;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface AppointmentSeriesService {
+    AppointmentSeries createSeries(AppointmentSeries series);
+    Optional<AppointmentSeries> getSeriesById(String id);
+    void cancelSeries(String id);
+    Appointment cancelOccurrence(String seriesId, LocalDateTime occurrenceStart);
+    Appointment moveOccurrence(String seriesId, LocalDateTime occurrenceStart, LocalDateTime startTime, LocalDateTime endTime);
+}
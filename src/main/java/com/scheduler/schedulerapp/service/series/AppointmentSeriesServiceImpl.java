@@ -0,0 +1,232 @@
+package com.scheduler.schedulerapp.service.series;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
+import com.scheduler.schedulerapp.repository.AppointmentRepository;
+import com.scheduler.schedulerapp.repository.AppointmentSeriesRepository;
+import com.scheduler.schedulerapp.service.appointment.AppointmentIntervalIndex;
+import com.scheduler.schedulerapp.service.appointment.AppointmentService;
+import com.scheduler.schedulerapp.service.appointment.SlotReservationManager;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class AppointmentSeriesServiceImpl implements AppointmentSeriesService {
+
+    static final int MAX_OCCURRENCES = 500;
+
+    private static final String ACTIVE = "active";
+    private static final String CANCELLED = "cancelled";
+
+    @Autowired
+    private AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private SeriesOccurrenceExpander seriesOccurrenceExpander;
+
+    @Autowired
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+
+    @Autowired
+    private SlotReservationManager slotReservationManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public AppointmentSeries createSeries(AppointmentSeries series) {
+        RecurrenceRule rule = RecurrenceRule.parse(series.getRecurrenceRule());
+        if (!rule.isBounded()) {
+            throw new IllegalArgumentException("Recurrence rule must define COUNT or UNTIL");
+        }
+        if (series.getDurationMinutes() == null || series.getDurationMinutes() <= 0) {
+            throw new IllegalArgumentException("Series duration must be positive");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        series.setId(new ObjectId().toHexString());
+        series.setStatus(ACTIVE);
+        series.setCreatedAt(now);
+        series.setUpdatedAt(now);
+
+        List<Appointment> occurrences = new ArrayList<>();
+        Iterator<LocalDateTime> starts = rule.occurrences(series.getSeriesStart());
+        while (starts.hasNext()) {
+            if (occurrences.size() == MAX_OCCURRENCES) {
+                throw new IllegalArgumentException("A series cannot have more than " + MAX_OCCURRENCES + " occurrences");
+            }
+            occurrences.add(seriesOccurrenceExpander.toOccurrence(series, starts.next()));
+        }
+        if (occurrences.isEmpty()) {
+            throw new IllegalArgumentException("Recurrence rule produces no occurrences");
+        }
+        series.setSeriesEnd(occurrences.get(occurrences.size() - 1).getEndTime());
+
+        // One range read for the doctor's and patient's bookings over the whole series, then
+        // each occurrence is checked in memory.
+        AppointmentIntervalIndex booked = new AppointmentIntervalIndex();
+        booked.rebuild(appointmentService.getScheduledAppointmentsInWindow(
+                Collections.singletonList(series.getDoctorId()), Collections.singletonList(series.getPatientId()),
+                series.getSeriesStart(), series.getSeriesEnd()));
+        for (Appointment occurrence : occurrences) {
+            List<Appointment> conflicts = new ArrayList<>(booked.findDoctorCollision(
+                    series.getDoctorId(), occurrence.getStartTime(), occurrence.getEndTime()));
+            conflicts.addAll(booked.findPatientCollision(series.getPatientId(), occurrence.getStartTime(), occurrence.getEndTime()));
+            if (!conflicts.isEmpty()) {
+                throw new RuntimeException("Series occurrence on " + occurrence.getStartTime()
+                        + " conflicts with existing appointment: " + conflicts.get(0).getTitle());
+            }
+        }
+
+        slotReservationManager.reserveSeries(series.getId(), occurrences);
+        AppointmentSeries saved;
+        try {
+            saved = appointmentSeriesRepository.save(series);
+        } catch (RuntimeException e) {
+            slotReservationManager.releaseSeries(List.of(series.getId()));
+            throw e;
+        }
+        appointmentIntervalIndex.putSeries(saved);
+        eventPublisher.publishEvent(new AppointmentSeriesChangedEvent(saved.getDoctorId(), saved.getSeriesStart(), saved.getSeriesEnd()));
+        return saved;
+    }
+
+    @Override
+    public Optional<AppointmentSeries> getSeriesById(String id) {
+        return appointmentSeriesRepository.findById(id);
+    }
+
+    /**
+     * Ends the series now rather than cancelling it outright, so occurrences that already
+     * started stay in the doctor's and patient's history. Only later occurrences lose
+     * their slots and capacity; a series that has not started yet is cancelled.
+     */
+    @Override
+    public void cancelSeries(String id) {
+        AppointmentSeries series = getActiveSeries(id);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime previousEnd = series.getSeriesEnd();
+        if (!now.isBefore(previousEnd)) {
+            throw new IllegalArgumentException("Appointment series has already ended: " + id);
+        }
+
+        List<Appointment> released = seriesOccurrenceExpander.expandFrom(series, now);
+        if (series.getSeriesStart().isBefore(now)) {
+            series.setSeriesEnd(seriesOccurrenceExpander.endAt(series, now));
+        } else {
+            series.setStatus(CANCELLED);
+        }
+        series.setUpdatedAt(now);
+        appointmentSeriesRepository.save(series);
+        appointmentIntervalIndex.putSeries(series);
+
+        slotReservationManager.releaseOccurrencesFrom(id, released);
+        eventPublisher.publishEvent(new AppointmentSeriesChangedEvent(series.getDoctorId(), now, previousEnd));
+    }
+
+    @Override
+    public Appointment cancelOccurrence(String seriesId, LocalDateTime occurrenceStart) {
+        AppointmentSeries series = getActiveSeries(seriesId);
+        Appointment occurrence = findOccurrence(series, occurrenceStart);
+
+        Appointment exception = toException(occurrence);
+        exception.setStatus(CANCELLED);
+        Appointment saved = appointmentRepository.save(exception);
+
+        slotReservationManager.releaseOccurrence(seriesId, occurrence);
+        eventPublisher.publishEvent(new AppointmentSeriesChangedEvent(series.getDoctorId(), occurrence.getStartTime(), occurrence.getEndTime()));
+        return saved;
+    }
+
+    @Override
+    public Appointment moveOccurrence(String seriesId, LocalDateTime occurrenceStart,
+                                      LocalDateTime startTime, LocalDateTime endTime) {
+        AppointmentSeries series = getActiveSeries(seriesId);
+        Appointment occurrence = findOccurrence(series, occurrenceStart);
+
+        List<Appointment> conflicts = appointmentService.checkCollision(
+                series.getDoctorId(), series.getPatientId(), startTime, endTime);
+        conflicts.removeIf(conflict -> conflict.getId().equals(occurrence.getId()));
+        if (!conflicts.isEmpty()) {
+            throw new RuntimeException("Appointment conflicts with existing appointment: " + conflicts.get(0).getTitle());
+        }
+
+        Appointment exception = toException(occurrence);
+        exception.setStartTime(startTime);
+        exception.setEndTime(endTime);
+
+        slotReservationManager.releaseOccurrence(seriesId, occurrence);
+        try {
+            slotReservationManager.reserve(exception);
+        } catch (RuntimeException e) {
+            slotReservationManager.reserveSeries(seriesId, List.of(occurrence));
+            throw e;
+        }
+
+        Appointment saved;
+        try {
+            saved = appointmentRepository.save(exception);
+        } catch (RuntimeException e) {
+            slotReservationManager.release(exception.getId());
+            slotReservationManager.reserveSeries(seriesId, List.of(occurrence));
+            throw e;
+        }
+        appointmentIntervalIndex.put(saved);
+        eventPublisher.publishEvent(new AppointmentSeriesChangedEvent(series.getDoctorId(), occurrence.getStartTime(), occurrence.getEndTime()));
+        eventPublisher.publishEvent(new AppointmentSeriesChangedEvent(series.getDoctorId(), saved.getStartTime(), saved.getEndTime()));
+        return saved;
+    }
+
+    private AppointmentSeries getActiveSeries(String id) {
+        AppointmentSeries series = appointmentSeriesRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Appointment series not found with ID: " + id));
+        if (!ACTIVE.equals(series.getStatus())) {
+            throw new IllegalArgumentException("Appointment series is not active: " + id);
+        }
+        return series;
+    }
+
+    private Appointment findOccurrence(AppointmentSeries series, LocalDateTime occurrenceStart) {
+        List<Appointment> matching = seriesOccurrenceExpander.expand(List.of(series), occurrenceStart,
+                occurrenceStart.plus(Duration.ofMinutes(1)));
+        return matching.stream()
+                .filter(occurrence -> occurrence.getStartTime().equals(occurrenceStart))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Series " + series.getId() + " has no open occurrence starting at " + occurrenceStart));
+    }
+
+    private Appointment toException(Appointment occurrence) {
+        Appointment exception = new Appointment();
+        exception.setId(new ObjectId().toHexString());
+        exception.setTitle(occurrence.getTitle());
+        exception.setDescription(occurrence.getDescription());
+        exception.setDoctorId(occurrence.getDoctorId());
+        exception.setPatientId(occurrence.getPatientId());
+        exception.setBranchId(occurrence.getBranchId());
+        exception.setStartTime(occurrence.getStartTime());
+        exception.setEndTime(occurrence.getEndTime());
+        exception.setStatus("scheduled");
+        exception.setSeriesId(occurrence.getSeriesId());
+        exception.setOriginalStartTime(occurrence.getOriginalStartTime());
+        exception.setCreatedAt(LocalDateTime.now());
+        exception.setUpdatedAt(LocalDateTime.now());
+        return exception;
+    }
+}
@@ -0,0 +1,216 @@
+package com.scheduler.schedulerapp.service.series;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+/**
+ * The subset of RFC 5545 RRULE that appointment series use: FREQ=DAILY|WEEKLY|MONTHLY,
+ * INTERVAL, BYDAY (weekly only) and COUNT or UNTIL, e.g.
+ * {@code FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TH;COUNT=24}. Occurrences are generated in
+ * order and only as far as the caller reads, so expanding a date range never builds
+ * the whole series.
+ */
+public class RecurrenceRule {
+
+    public enum Frequency { DAILY, WEEKLY, MONTHLY }
+
+    private static final Map<String, DayOfWeek> DAYS = Map.of(
+            "MO", DayOfWeek.MONDAY,
+            "TU", DayOfWeek.TUESDAY,
+            "WE", DayOfWeek.WEDNESDAY,
+            "TH", DayOfWeek.THURSDAY,
+            "FR", DayOfWeek.FRIDAY,
+            "SA", DayOfWeek.SATURDAY,
+            "SU", DayOfWeek.SUNDAY);
+
+    private static final DateTimeFormatter UNTIL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UNTIL_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final Frequency frequency;
+    private final int interval;
+    private final List<DayOfWeek> byDay;
+    private final Integer count;
+    private final LocalDateTime until;
+
+    private RecurrenceRule(Frequency frequency, int interval, List<DayOfWeek> byDay, Integer count, LocalDateTime until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.count = count;
+        this.until = until;
+    }
+
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule is required");
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        TreeSet<DayOfWeek> byDay = new TreeSet<>();
+        Integer count = null;
+        LocalDateTime until = null;
+
+        String body = rule.trim();
+        if (body.toUpperCase().startsWith("RRULE:")) {
+            body = body.substring("RRULE:".length());
+        }
+        for (String part : body.split(";")) {
+            String[] keyValue = part.split("=", 2);
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Invalid recurrence rule part: " + part);
+            }
+            String value = keyValue[1].trim().toUpperCase();
+            switch (keyValue[0].trim().toUpperCase()) {
+                case "FREQ" -> {
+                    try {
+                        frequency = Frequency.valueOf(value);
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Unsupported recurrence frequency: " + value);
+                    }
+                }
+                case "INTERVAL" -> interval = positiveInt("INTERVAL", value);
+                case "COUNT" -> count = positiveInt("COUNT", value);
+                case "UNTIL" -> until = parseUntil(value);
+                case "BYDAY" -> {
+                    for (String day : value.split(",")) {
+                        DayOfWeek dayOfWeek = DAYS.get(day.trim());
+                        if (dayOfWeek == null) {
+                            throw new IllegalArgumentException("Unsupported BYDAY value: " + day);
+                        }
+                        byDay.add(dayOfWeek);
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + keyValue[0]);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule must define FREQ");
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("Recurrence rule cannot define both COUNT and UNTIL");
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported for weekly recurrence");
+        }
+        return new RecurrenceRule(frequency, interval, new ArrayList<>(byDay), count, until);
+    }
+
+    public boolean isBounded() {
+        return count != null || until != null;
+    }
+
+    public Iterator<LocalDateTime> occurrences(LocalDateTime seriesStart) {
+        return new OccurrenceIterator(seriesStart);
+    }
+
+    private static int positiveInt(String name, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(name + " must be a positive number");
+    }
+
+    private static LocalDateTime parseUntil(String value) {
+        String until = value.endsWith("Z") ? value.substring(0, value.length() - 1) : value;
+        try {
+            if (until.contains("T")) {
+                return LocalDateTime.parse(until, UNTIL_DATE_TIME);
+            }
+            return LocalDate.parse(until, UNTIL_DATE).atTime(23, 59, 59);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid UNTIL value, use 20250630 or 20250630T235959");
+        }
+    }
+
+    private class OccurrenceIterator implements Iterator<LocalDateTime> {
+
+        private final LocalDateTime seriesStart;
+        private final Deque<LocalDateTime> pending = new ArrayDeque<>();
+        private long period = 0;
+        private int emitted = 0;
+        private LocalDateTime next;
+
+        OccurrenceIterator(LocalDateTime seriesStart) {
+            this.seriesStart = seriesStart;
+            this.next = advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public LocalDateTime next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            LocalDateTime current = next;
+            emitted++;
+            next = advance();
+            return current;
+        }
+
+        private LocalDateTime advance() {
+            if (count != null && emitted >= count) {
+                return null;
+            }
+            while (pending.isEmpty()) {
+                fillPeriod(period++);
+            }
+            LocalDateTime candidate = pending.poll();
+            if (until != null && candidate.isAfter(until)) {
+                return null;
+            }
+            return candidate;
+        }
+
+        private void fillPeriod(long index) {
+            long step = index * interval;
+            switch (frequency) {
+                case DAILY -> pending.add(seriesStart.plusDays(step));
+                case WEEKLY -> {
+                    if (byDay.isEmpty()) {
+                        pending.add(seriesStart.plusWeeks(step));
+                        return;
+                    }
+                    LocalDate weekStart = seriesStart.toLocalDate()
+                            .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                            .plusWeeks(step);
+                    for (DayOfWeek day : byDay) {
+                        LocalDateTime candidate = weekStart.with(TemporalAdjusters.nextOrSame(day))
+                                .atTime(seriesStart.toLocalTime());
+                        if (!candidate.isBefore(seriesStart)) {
+                            pending.add(candidate);
+                        }
+                    }
+                }
+                case MONTHLY -> {
+                    YearMonth month = YearMonth.from(seriesStart).plusMonths(step);
+                    if (month.isValidDay(seriesStart.getDayOfMonth())) {
+                        pending.add(month.atDay(seriesStart.getDayOfMonth()).atTime(seriesStart.toLocalTime()));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.scheduler.schedulerapp.service.series;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
+import com.scheduler.schedulerapp.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns series documents into the occurrences that fall inside a time window.
+ * Occurrences are transient appointments with a derived id and are never stored;
+ * an occurrence that was moved or cancelled is skipped because its exception is
+ * already a real appointment carrying the series id and original start time. A series
+ * that was ended early has no occurrences starting at or after its seriesEnd.
+ */
+@Component
+public class SeriesOccurrenceExpander {
+
+    private static final String SCHEDULED = "scheduled";
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    public static String occurrenceId(String seriesId, LocalDateTime originalStartTime) {
+        return seriesId + "@" + originalStartTime;
+    }
+
+    public List<Appointment> expand(Collection<AppointmentSeries> series, LocalDateTime from, LocalDateTime to) {
+        if (series.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return expand(series, from, to, loadExceptions(series));
+    }
+
+    /**
+     * Expands without reading exceptions, so moved and cancelled occurrences are still
+     * returned. Only good for finding candidates, which {@link #expand} then confirms.
+     */
+    public List<Appointment> expandIgnoringExceptions(Collection<AppointmentSeries> series,
+                                                      LocalDateTime from, LocalDateTime to) {
+        return expand(series, from, to, Map.of());
+    }
+
+    private List<Appointment> expand(Collection<AppointmentSeries> series, LocalDateTime from, LocalDateTime to,
+                                     Map<String, Set<LocalDateTime>> exceptions) {
+        List<Appointment> occurrences = new ArrayList<>();
+        for (AppointmentSeries current : series) {
+            Set<LocalDateTime> skipped = exceptions.getOrDefault(current.getId(), Set.of());
+            Iterator<LocalDateTime> starts = RecurrenceRule.parse(current.getRecurrenceRule())
+                    .occurrences(current.getSeriesStart());
+            while (starts.hasNext()) {
+                LocalDateTime start = starts.next();
+                if (!start.isBefore(to) || (current.getSeriesEnd() != null && !start.isBefore(current.getSeriesEnd()))) {
+                    break;
+                }
+                LocalDateTime end = start.plusMinutes(current.getDurationMinutes());
+                if (end.isAfter(from) && !skipped.contains(start)) {
+                    occurrences.add(toOccurrence(current, start));
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * Every occurrence the recurrence rule gives one series from {@code from} on, skipping
+     * those already turned into exceptions. The series end is ignored, so this also
+     * returns what a series that was ended early used to hold.
+     */
+    public List<Appointment> expandFrom(AppointmentSeries series, LocalDateTime from) {
+        Set<LocalDateTime> skipped = loadExceptions(List.of(series)).getOrDefault(series.getId(), Set.of());
+        List<Appointment> occurrences = new ArrayList<>();
+        Iterator<LocalDateTime> starts = RecurrenceRule.parse(series.getRecurrenceRule()).occurrences(series.getSeriesStart());
+        while (starts.hasNext()) {
+            LocalDateTime start = starts.next();
+            if (!start.isBefore(from) && !skipped.contains(start)) {
+                occurrences.add(toOccurrence(series, start));
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * The series end for cutting a series at {@code at}: an occurrence under way by then
+     * keeps running, so the series ends with it.
+     */
+    public LocalDateTime endAt(AppointmentSeries series, LocalDateTime at) {
+        return expand(List.of(series), at, at, Map.of()).stream()
+                .map(Appointment::getEndTime)
+                .max(LocalDateTime::compareTo)
+                .orElse(at);
+    }
+
+    public Appointment toOccurrence(AppointmentSeries series, LocalDateTime start) {
+        Appointment occurrence = new Appointment();
+        occurrence.setId(occurrenceId(series.getId(), start));
+        occurrence.setTitle(series.getTitle());
+        occurrence.setDescription(series.getDescription());
+        occurrence.setDoctorId(series.getDoctorId());
+        occurrence.setPatientId(series.getPatientId());
+        occurrence.setBranchId(series.getBranchId());
+        occurrence.setStartTime(start);
+        occurrence.setEndTime(start.plusMinutes(series.getDurationMinutes()));
+        occurrence.setCreatedAt(series.getCreatedAt());
+        occurrence.setUpdatedAt(series.getUpdatedAt());
+        occurrence.setStatus(SCHEDULED);
+        occurrence.setSeriesId(series.getId());
+        occurrence.setOriginalStartTime(start);
+        return occurrence;
+    }
+
+    private Map<String, Set<LocalDateTime>> loadExceptions(Collection<AppointmentSeries> series) {
+        Set<String> seriesIds = new HashSet<>();
+        series.forEach(current -> seriesIds.add(current.getId()));
+
+        Map<String, Set<LocalDateTime>> exceptions = new HashMap<>();
+        for (Appointment exception : appointmentRepository.findBySeriesIdIn(seriesIds)) {
+            exceptions.computeIfAbsent(exception.getSeriesId(), k -> new HashSet<>())
+                    .add(exception.getOriginalStartTime());
+        }
+        return exceptions;
+    }
+}
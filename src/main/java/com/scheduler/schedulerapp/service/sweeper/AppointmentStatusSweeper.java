@@ -0,0 +1,167 @@
+package com.scheduler.schedulerapp.service.sweeper;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.recordtab.PatientMedicalRecord;
+import com.scheduler.schedulerapp.model.recordtab.VisitHistory;
+import com.scheduler.schedulerapp.service.appointment.AppointmentIntervalIndex;
+import com.scheduler.schedulerapp.service.appointment.AppointmentsSavedEvent;
+import com.scheduler.schedulerapp.service.lease.JobLeaseManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves appointments that ended more than the grace period ago out of "scheduled".
+ * An appointment with a visit recorded against it becomes "completed", anything
+ * else "no_show". Work is done one end-time window at a time, oldest first, with
+ * two updateMany calls per window so no single write touches a large part of the
+ * collection. Only the node holding the sweep lease runs, renewing it per window.
+ * The swept appointments are re-read and published as saved so projections and live
+ * subscribers see the new status.
+ */
+@Service
+public class AppointmentStatusSweeper {
+
+    private static final String SCHEDULED = "scheduled";
+    private static final String COMPLETED = "completed";
+    private static final String NO_SHOW = "no_show";
+    private static final String LEASE = "appointment-status-sweep";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+
+    @Autowired
+    private AppointmentSweepMetrics metrics;
+
+    @Autowired
+    private JobLeaseManager jobLeaseManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${scheduler.sweeper.grace-minutes:30}")
+    private long graceMinutes = 30;
+
+    @Value("${scheduler.sweeper.chunk-minutes:60}")
+    private long chunkMinutes = 60;
+
+    public boolean sweep() {
+        if (!jobLeaseManager.tryAcquire(LEASE)) {
+            return false;
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusMinutes(graceMinutes);
+            metrics.runStarted(cutoff, mongoTemplate.count(new Query(pastScheduled(cutoff)), Appointment.class));
+            String error = null;
+            try {
+                LocalDateTime chunkStart = oldestEnd(cutoff);
+                while (chunkStart != null && chunkStart.isBefore(cutoff)) {
+                    if (!jobLeaseManager.renew(LEASE)) {
+                        throw new IllegalStateException("Sweep lease lost");
+                    }
+                    LocalDateTime chunkEnd = chunkStart.plusMinutes(chunkMinutes);
+                    if (chunkEnd.isAfter(cutoff)) {
+                        chunkEnd = cutoff;
+                    }
+                    sweepChunk(chunkStart, chunkEnd);
+
+                    LocalDateTime next = oldestEnd(cutoff);
+                    chunkStart = next == null ? null : next.isBefore(chunkEnd) ? chunkEnd : next;
+                }
+            } catch (RuntimeException e) {
+                error = e.getMessage();
+                System.err.println("Appointment status sweep stopped: " + e.getMessage());
+            }
+            metrics.runFinished(error);
+            if (metrics.getProcessed() > 0) {
+                System.out.println("Appointment status sweep: " + metrics.getCompleted() + " completed, "
+                        + metrics.getNoShow() + " no-show in " + metrics.getLastDurationMillis() + " ms");
+            }
+            return true;
+        } finally {
+            jobLeaseManager.release(LEASE);
+        }
+    }
+
+    private void sweepChunk(LocalDateTime from, LocalDateTime to) {
+        // An appointment ending before the chunk end also started before it, which bounds
+        // the status_start index scan.
+        Query query = new Query(Criteria.where("status").is(SCHEDULED).and("startTime").lt(to)
+                .and("endTime").gte(from).lt(to));
+        query.fields().include("_id");
+        List<String> ids = mongoTemplate.find(query, Appointment.class).stream()
+                .map(Appointment::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            metrics.chunkSwept(to, 0, 0);
+            return;
+        }
+
+        Set<String> attended = attendedAppointmentIds(ids);
+        List<String> missed = ids.stream().filter(id -> !attended.contains(id)).toList();
+
+        long completed = setStatus(attended, COMPLETED);
+        long noShow = setStatus(missed, NO_SHOW);
+        appointmentIntervalIndex.removeAll(ids);
+        metrics.chunkSwept(to, completed, noShow);
+
+        List<Appointment> swept = mongoTemplate.find(new Query(Criteria.where("_id").in(ids)
+                .and("status").in(COMPLETED, NO_SHOW)), Appointment.class);
+        if (!swept.isEmpty()) {
+            eventPublisher.publishEvent(new AppointmentsSavedEvent(swept));
+        }
+    }
+
+    private Set<String> attendedAppointmentIds(List<String> ids) {
+        Query query = new Query(Criteria.where("visitHistory.appointmentId").in(ids));
+        query.fields().include("visitHistory.appointmentId");
+
+        Set<String> requested = new HashSet<>(ids);
+        Set<String> attended = new HashSet<>();
+        for (PatientMedicalRecord record : mongoTemplate.find(query, PatientMedicalRecord.class)) {
+            for (VisitHistory visit : record.getVisitHistory()) {
+                if (visit.getAppointmentId() != null && requested.contains(visit.getAppointmentId())) {
+                    attended.add(visit.getAppointmentId());
+                }
+            }
+        }
+        return attended;
+    }
+
+    private long setStatus(Collection<String> ids, String status) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Query query = new Query(Criteria.where("_id").in(ids).and("status").is(SCHEDULED));
+        Update update = new Update().set("status", status).set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.updateMulti(query, update, Appointment.class).getModifiedCount();
+    }
+
+    private LocalDateTime oldestEnd(LocalDateTime cutoff) {
+        Query query = new Query(pastScheduled(cutoff))
+                .with(Sort.by(Sort.Direction.ASC, "endTime"))
+                .limit(1);
+        query.fields().include("endTime");
+        Appointment oldest = mongoTemplate.findOne(query, Appointment.class);
+        return oldest != null ? oldest.getEndTime() : null;
+    }
+
+    private Criteria pastScheduled(LocalDateTime cutoff) {
+        return Criteria.where("status").is(SCHEDULED).and("startTime").lt(cutoff).and("endTime").lt(cutoff);
+    }
+}
@@ -0,0 +1,72 @@
+package com.scheduler.schedulerapp.service.sweeper;
+
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the current sweep and counters across sweeps since startup.
+ */
+@Component
+@Getter
+public class AppointmentSweepMetrics {
+
+    private volatile boolean running;
+    private volatile LocalDateTime cutoff;
+    private volatile LocalDateTime sweptUpTo;
+    private volatile long backlog;
+    private volatile long processed;
+    private volatile long completed;
+    private volatile long noShow;
+    private volatile long chunks;
+    private volatile LocalDateTime lastStartedAt;
+    private volatile LocalDateTime lastFinishedAt;
+    private volatile long lastDurationMillis;
+    private volatile long totalRuns;
+    private volatile long totalCompleted;
+    private volatile long totalNoShow;
+    private volatile String lastError;
+
+    synchronized void runStarted(LocalDateTime cutoff, long backlog) {
+        this.running = true;
+        this.cutoff = cutoff;
+        this.sweptUpTo = null;
+        this.backlog = backlog;
+        this.processed = 0;
+        this.completed = 0;
+        this.noShow = 0;
+        this.chunks = 0;
+        this.lastStartedAt = LocalDateTime.now();
+        this.lastFinishedAt = null;
+        this.lastError = null;
+    }
+
+    synchronized void chunkSwept(LocalDateTime chunkEnd, long completed, long noShow) {
+        this.sweptUpTo = chunkEnd;
+        this.completed += completed;
+        this.noShow += noShow;
+        this.processed += completed + noShow;
+        this.chunks++;
+        this.totalCompleted += completed;
+        this.totalNoShow += noShow;
+    }
+
+    synchronized void runFinished(String error) {
+        this.running = false;
+        this.lastFinishedAt = LocalDateTime.now();
+        this.lastDurationMillis = Duration.between(lastStartedAt, lastFinishedAt).toMillis();
+        this.lastError = error;
+        this.totalRuns++;
+    }
+
+    public double getThroughputPerSecond() {
+        if (lastStartedAt == null) {
+            return 0;
+        }
+        LocalDateTime end = running || lastFinishedAt == null ? LocalDateTime.now() : lastFinishedAt;
+        long millis = Math.max(1, Duration.between(lastStartedAt, end).toMillis());
+        return processed * 1000.0 / millis;
+    }
+}
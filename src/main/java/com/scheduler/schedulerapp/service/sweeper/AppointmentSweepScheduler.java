@@ -0,0 +1,20 @@
+package com.scheduler.schedulerapp.service.sweeper;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("!test")
+public class AppointmentSweepScheduler {
+
+    @Autowired
+    private AppointmentStatusSweeper appointmentStatusSweeper;
+
+    @Scheduled(fixedDelayString = "${scheduler.sweeper.interval-ms:300000}",
+            initialDelayString = "${scheduler.sweeper.initial-delay-ms:60000}")
+    public void sweepPastAppointments() {
+        appointmentStatusSweeper.sweep();
+    }
+}
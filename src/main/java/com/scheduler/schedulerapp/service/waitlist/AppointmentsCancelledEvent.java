@@ -0,0 +1,17 @@
+package com.scheduler.schedulerapp.service.waitlist;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published after appointments have been cancelled and saved, so their time can be
+ * offered to the waitlist.
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentsCancelledEvent {
+    private final List<Appointment> appointments;
+}
@@ -0,0 +1,51 @@
+package com.scheduler.schedulerapp.service.waitlist;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hands cancellations to the waitlist as they happen. Matching runs on a single
+ * background thread so the cancelling request isn't held up and two backfills
+ * never race for the same waiting entry.
+ */
+@Component
+public class WaitlistBackfillListener {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener
+    public void onAppointmentsCancelled(AppointmentsCancelledEvent event) {
+        if (event.getAppointments().isEmpty()) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                List<Appointment> booked = waitlistService.backfill(event.getAppointments());
+                if (!booked.isEmpty()) {
+                    System.out.println("Waitlist backfill booked " + booked.size() + " appointments into cancelled slots");
+                }
+            } catch (Exception e) {
+                System.err.println("Waitlist backfill failed: " + e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
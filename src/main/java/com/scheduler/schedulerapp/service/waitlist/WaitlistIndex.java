@@ -0,0 +1,92 @@
+package com.scheduler.schedulerapp.service.waitlist;
+
+import com.scheduler.schedulerapp.model.WaitlistEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Waiting entries kept in priority order (highest priority first, then first come),
+ * one queue per doctor for entries that named a doctor and one per branch for entries
+ * that accept any doctor of the branch. Built per backfill from the entries read from
+ * Mongo, so it never outlives the request or drifts from other nodes' writes.
+ */
+public class WaitlistIndex {
+
+    static final Comparator<WaitlistEntry> PRIORITY_ORDER = Comparator
+            .comparing(WaitlistEntry::getPriority, Comparator.reverseOrder())
+            .thenComparing(WaitlistEntry::getCreatedAt)
+            .thenComparing(WaitlistEntry::getId);
+
+    private final Map<String, NavigableSet<WaitlistEntry>> doctorQueues = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<WaitlistEntry>> branchQueues = new ConcurrentHashMap<>();
+
+    public synchronized void rebuild(Collection<WaitlistEntry> entries) {
+        doctorQueues.clear();
+        branchQueues.clear();
+        entries.forEach(this::add);
+    }
+
+    public void add(WaitlistEntry entry) {
+        if (entry.getDoctorId() != null) {
+            doctorQueues.computeIfAbsent(entry.getDoctorId(), k -> new ConcurrentSkipListSet<>(PRIORITY_ORDER)).add(entry);
+        } else if (entry.getBranchId() != null) {
+            branchQueues.computeIfAbsent(entry.getBranchId(), k -> new ConcurrentSkipListSet<>(PRIORITY_ORDER)).add(entry);
+        }
+    }
+
+    public void remove(WaitlistEntry entry) {
+        NavigableSet<WaitlistEntry> queue = entry.getDoctorId() != null
+                ? doctorQueues.get(entry.getDoctorId())
+                : entry.getBranchId() != null ? branchQueues.get(entry.getBranchId()) : null;
+        if (queue != null) {
+            queue.remove(entry);
+        }
+    }
+
+    /**
+     * Entries that could take time freed on the given doctor, in priority order: the
+     * doctor's own queue merged with the queue of the branch the time belongs to.
+     * Pass a null branch when the branch can't take new bookings.
+     */
+    public List<WaitlistEntry> candidates(String doctorId, String branchId) {
+        NavigableSet<WaitlistEntry> doctorQueue = doctorQueues.getOrDefault(doctorId, Collections.emptyNavigableSet());
+        NavigableSet<WaitlistEntry> branchQueue = branchId != null
+                ? branchQueues.getOrDefault(branchId, Collections.emptyNavigableSet())
+                : Collections.emptyNavigableSet();
+
+        List<WaitlistEntry> merged = new ArrayList<>();
+        Iterator<WaitlistEntry> fromDoctor = doctorQueue.iterator();
+        Iterator<WaitlistEntry> fromBranch = branchQueue.iterator();
+        WaitlistEntry nextDoctor = nextEligible(fromDoctor, branchId);
+        WaitlistEntry nextBranch = fromBranch.hasNext() ? fromBranch.next() : null;
+        while (nextDoctor != null || nextBranch != null) {
+            if (nextBranch == null || (nextDoctor != null && PRIORITY_ORDER.compare(nextDoctor, nextBranch) <= 0)) {
+                merged.add(nextDoctor);
+                nextDoctor = nextEligible(fromDoctor, branchId);
+            } else {
+                merged.add(nextBranch);
+                nextBranch = fromBranch.hasNext() ? fromBranch.next() : null;
+            }
+        }
+        return merged;
+    }
+
+    private WaitlistEntry nextEligible(Iterator<WaitlistEntry> entries, String branchId) {
+        while (entries.hasNext()) {
+            WaitlistEntry entry = entries.next();
+            if (entry.getBranchId() == null || entry.getBranchId().equals(branchId)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.scheduler.schedulerapp.service.waitlist;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.WaitlistEntry;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistService {
+    WaitlistEntry joinWaitlist(WaitlistEntry entry);
+    WaitlistEntry leaveWaitlist(String id);
+    Optional<WaitlistEntry> getWaitlistEntryById(String id);
+    List<WaitlistEntry> getDoctorWaitlist(String doctorId);
+    List<WaitlistEntry> getBranchWaitlist(String branchId);
+    List<WaitlistEntry> getPatientWaitlist(String patientId);
+    List<Appointment> backfill(List<Appointment> cancelled);
+}
@@ -0,0 +1,264 @@
+package com.scheduler.schedulerapp.service.waitlist;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.HospitalBranch;
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.model.WaitlistEntry;
+import com.scheduler.schedulerapp.repository.WaitlistEntryRepository;
+import com.scheduler.schedulerapp.service.appointment.AppointmentService;
+import com.scheduler.schedulerapp.service.appointment.SlotReservationManager;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.hospitalbranch.HospitalBranchService;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private static final String WAITING = "waiting";
+    private static final String BOOKING = "booking";
+    private static final String BOOKED = "booked";
+    private static final String CANCELLED = "cancelled";
+    private static final String EXPIRED = "expired";
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private HospitalBranchService hospitalBranchService;
+
+    @Value("${scheduler.waitlist.claim-timeout-ms:300000}")
+    private long claimTimeoutMillis = 300000;
+
+    @Override
+    public WaitlistEntry joinWaitlist(WaitlistEntry entry) {
+        if (entry.getDoctorId() == null && entry.getBranchId() == null) {
+            throw new IllegalArgumentException("A waitlist entry needs a doctor or a branch");
+        }
+        if (entry.getDurationMinutes() == null || entry.getDurationMinutes() <= 0) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        if (entry.getDurationMinutes() % SlotReservationManager.SLOT_MINUTES != 0) {
+            throw new IllegalArgumentException("Duration must be a multiple of " + SlotReservationManager.SLOT_MINUTES + " minutes");
+        }
+        if (entry.getEarliestStart().plusMinutes(entry.getDurationMinutes()).isAfter(entry.getLatestEnd())) {
+            throw new IllegalArgumentException("The requested window is shorter than the appointment duration");
+        }
+        if (!entry.getLatestEnd().isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("The requested window has already passed");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        entry.setId(new ObjectId().toHexString());
+        entry.setPriority(entry.getPriority() != null ? entry.getPriority() : 0);
+        entry.setStatus(WAITING);
+        entry.setAppointmentId(null);
+        entry.setCreatedAt(now);
+        entry.setUpdatedAt(now);
+
+        return waitlistEntryRepository.save(entry);
+    }
+
+    @Override
+    public WaitlistEntry leaveWaitlist(String id) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Waitlist entry not found with ID: " + id));
+        WaitlistEntry cancelled = transition(entry, WAITING, CANCELLED, null);
+        if (cancelled == null) {
+            throw new IllegalArgumentException("Waitlist entry is no longer waiting: " + id);
+        }
+        return cancelled;
+    }
+
+    @Override
+    public Optional<WaitlistEntry> getWaitlistEntryById(String id) {
+        return waitlistEntryRepository.findById(id);
+    }
+
+    @Override
+    public List<WaitlistEntry> getDoctorWaitlist(String doctorId) {
+        return waitlistEntryRepository.findByDoctorIdAndStatusOrderByPriorityDescCreatedAtAsc(doctorId, WAITING);
+    }
+
+    @Override
+    public List<WaitlistEntry> getBranchWaitlist(String branchId) {
+        return waitlistEntryRepository.findByBranchIdAndStatusOrderByPriorityDescCreatedAtAsc(branchId, WAITING);
+    }
+
+    @Override
+    public List<WaitlistEntry> getPatientWaitlist(String patientId) {
+        return waitlistEntryRepository.findByPatientIdAndStatus(patientId, WAITING);
+    }
+
+    /**
+     * Books waiting entries into the time freed by the given cancellations. Each freed
+     * interval is offered to the candidates in priority order; a booking splits the
+     * interval and the remainder stays on offer to the rest of the queue. Candidates
+     * are read from Mongo, and an entry is claimed with a conditional update from
+     * waiting to booking before it is booked, so two nodes backfilling at once can
+     * never book the same entry twice. A claim left behind by a crash is taken over
+     * once it is older than the claim timeout.
+     */
+    @Override
+    public List<Appointment> backfill(List<Appointment> cancelled) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Appointment> freed = cancelled.stream()
+                .filter(appointment -> appointment.getDoctorId() != null
+                        && appointment.getStartTime() != null
+                        && appointment.getEndTime() != null
+                        && appointment.getEndTime().isAfter(now))
+                .toList();
+        List<Appointment> booked = new ArrayList<>();
+        if (freed.isEmpty()) {
+            return booked;
+        }
+
+        Set<String> activeDoctorIds = doctorService.getDoctorsByIds(freed.stream()
+                        .map(Appointment::getDoctorId).collect(Collectors.toSet())).stream()
+                .filter(doctor -> Boolean.TRUE.equals(doctor.getIsActive()))
+                .map(HospitalStaff::getId)
+                .collect(Collectors.toSet());
+        Set<String> openBranchIds = hospitalBranchService.getBranchesByIds(freed.stream()
+                        .map(Appointment::getBranchId).filter(id -> id != null).collect(Collectors.toSet())).stream()
+                .filter(branch -> Boolean.TRUE.equals(branch.getIsActive()))
+                .map(HospitalBranch::getId)
+                .collect(Collectors.toSet());
+
+        if (activeDoctorIds.isEmpty()) {
+            return booked;
+        }
+        WaitlistIndex queues = loadQueues(activeDoctorIds, openBranchIds);
+        for (Appointment slot : freed) {
+            if (!activeDoctorIds.contains(slot.getDoctorId())) {
+                continue;
+            }
+            String branchId = openBranchIds.contains(slot.getBranchId()) ? slot.getBranchId() : null;
+            LocalDateTime from = slot.getStartTime().isBefore(now) ? now : slot.getStartTime();
+            fill(queues, slot.getDoctorId(), branchId, from, slot.getEndTime(), now, booked);
+        }
+        return booked;
+    }
+
+    private void fill(WaitlistIndex queues, String doctorId, String branchId,
+                      LocalDateTime from, LocalDateTime to, LocalDateTime now, List<Appointment> booked) {
+        List<LocalDateTime[]> gaps = new ArrayList<>();
+        gaps.add(new LocalDateTime[]{from, to});
+
+        for (WaitlistEntry entry : queues.candidates(doctorId, branchId)) {
+            if (gaps.isEmpty()) {
+                return;
+            }
+            if (!entry.getLatestEnd().isAfter(now)) {
+                queues.remove(entry);
+                transition(entry, WAITING, EXPIRED, null);
+                continue;
+            }
+            for (int g = 0; g < gaps.size(); g++) {
+                LocalDateTime[] gap = gaps.get(g);
+                LocalDateTime start = entry.getEarliestStart().isAfter(gap[0])
+                        ? SlotReservationManager.ceilToSlot(entry.getEarliestStart())
+                        : gap[0];
+                LocalDateTime end = start.plusMinutes(entry.getDurationMinutes());
+                if (end.isAfter(gap[1]) || end.isAfter(entry.getLatestEnd())) {
+                    continue;
+                }
+
+                if (claim(entry) == null) {
+                    // Taken or closed elsewhere since the queues were read.
+                    queues.remove(entry);
+                    break;
+                }
+                Appointment appointment = book(entry, doctorId, branchId, start, end);
+                if (appointment == null) {
+                    transition(entry, BOOKING, WAITING, null);
+                    break;
+                }
+                queues.remove(entry);
+                transition(entry, BOOKING, BOOKED, appointment.getId());
+                booked.add(appointment);
+
+                gaps.remove(g);
+                if (start.isAfter(gap[0])) {
+                    gaps.add(g, new LocalDateTime[]{gap[0], start});
+                }
+                if (gap[1].isAfter(end)) {
+                    gaps.add(new LocalDateTime[]{end, gap[1]});
+                }
+                break;
+            }
+        }
+    }
+
+    private Appointment book(WaitlistEntry entry, String doctorId, String branchId,
+                             LocalDateTime start, LocalDateTime end) {
+        Appointment appointment = new Appointment();
+        appointment.setTitle(entry.getTitle() != null ? entry.getTitle() : "Waitlist appointment");
+        appointment.setDescription(entry.getDescription());
+        appointment.setDoctorId(doctorId);
+        appointment.setPatientId(entry.getPatientId());
+        appointment.setBranchId(entry.getBranchId() != null ? entry.getBranchId() : branchId);
+        appointment.setStartTime(start);
+        appointment.setEndTime(end);
+        appointment.setStatus("scheduled");
+        try {
+            return appointmentService.createAppointment(appointment);
+        } catch (RuntimeException e) {
+            System.out.println("Waitlist entry " + entry.getId() + " could not take the freed slot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private WaitlistEntry claim(WaitlistEntry entry) {
+        LocalDateTime now = LocalDateTime.now();
+        Criteria claimable = new Criteria().orOperator(
+                Criteria.where("status").is(WAITING),
+                Criteria.where("status").is(BOOKING).and("updatedAt").lt(now.minus(claimTimeoutMillis, ChronoUnit.MILLIS)));
+        return mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(entry.getId())).addCriteria(claimable),
+                new Update().set("status", BOOKING).set("updatedAt", now),
+                FindAndModifyOptions.options().returnNew(true),
+                WaitlistEntry.class);
+    }
+
+    private WaitlistEntry transition(WaitlistEntry entry, String from, String to, String appointmentId) {
+        return mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(entry.getId()).and("status").is(from)),
+                new Update().set("status", to).set("appointmentId", appointmentId).set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                WaitlistEntry.class);
+    }
+
+    private WaitlistIndex loadQueues(Set<String> doctorIds, Set<String> branchIds) {
+        WaitlistIndex queues = new WaitlistIndex();
+        List<WaitlistEntry> waiting = new ArrayList<>(waitlistEntryRepository.findByStatusAndDoctorIdIn(WAITING, doctorIds));
+        if (!branchIds.isEmpty()) {
+            waiting.addAll(waitlistEntryRepository.findByStatusAndDoctorIdIsNullAndBranchIdIn(WAITING, branchIds));
+        }
+        queues.rebuild(waiting);
+        return queues;
+    }
+}
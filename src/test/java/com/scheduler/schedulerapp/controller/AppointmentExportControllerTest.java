@@ -0,0 +1,118 @@
+package com.scheduler.schedulerapp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.service.appointment.AppointmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentExportControllerTest {
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private AppointmentExportController appointmentExportController;
+
+    private Appointment testAppointment;
+
+    @BeforeEach
+    void setUp() {
+        testAppointment = new Appointment();
+        testAppointment.setId("appointment123");
+        testAppointment.setTitle("Checkup, follow \"up\"");
+        testAppointment.setDoctorId("doctor123");
+        testAppointment.setPatientId("patient123");
+        testAppointment.setBranchId("branch1");
+        testAppointment.setStartTime(LocalDateTime.of(2025, 1, 15, 10, 0));
+        testAppointment.setEndTime(LocalDateTime.of(2025, 1, 15, 11, 0));
+        testAppointment.setStatus("scheduled");
+    }
+
+    private String export(String format) throws Exception {
+        ResponseEntity<StreamingResponseBody> response = appointmentExportController.exportAppointments(
+                format, "branch1", null, "scheduled", "2025-01-01T00:00:00", null);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void exportAppointments_Ndjson_WritesOneJsonObjectPerLine() throws Exception {
+        when(appointmentService.streamAppointments("branch1", null, "scheduled", LocalDateTime.of(2025, 1, 1, 0, 0), null))
+                .thenReturn(Stream.of(testAppointment, testAppointment));
+
+        String[] lines = export("ndjson").split("\n");
+
+        assertEquals(2, lines.length);
+        assertEquals("appointment123", objectMapper.readTree(lines[0]).get("id").asText());
+        assertEquals("2025-01-15T10:00:00", objectMapper.readTree(lines[0]).get("startTime").asText());
+    }
+
+    @Test
+    void exportAppointments_Csv_WritesHeaderAndEscapesValues() throws Exception {
+        when(appointmentService.streamAppointments("branch1", null, "scheduled", LocalDateTime.of(2025, 1, 1, 0, 0), null))
+                .thenReturn(Stream.of(testAppointment));
+
+        String[] lines = export("csv").split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,title,description"));
+        assertTrue(lines[1].startsWith("appointment123,\"Checkup, follow \"\"up\"\"\",,doctor123"));
+    }
+
+    @Test
+    void exportAppointments_ClosesMongoStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean(false);
+        when(appointmentService.streamAppointments(any(), any(), any(), any(), any()))
+                .thenReturn(Stream.of(testAppointment).onClose(() -> closed.set(true)));
+
+        export("ndjson");
+
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportAppointments_UnsupportedFormat_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> appointmentExportController.exportAppointments(
+                "xml", null, null, null, null, null));
+        verifyNoInteractions(appointmentService);
+    }
+
+    @Test
+    void exportAppointments_InvalidDate_RespondsBadRequest() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(appointmentExportController).build();
+
+        mockMvc.perform(get("/api/appointments/export").param("from", "yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Invalid date format")));
+        verifyNoInteractions(appointmentService);
+    }
+}
@@ -0,0 +1,130 @@
+package com.scheduler.schedulerapp.controller;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.service.calendar.CalendarFeedService;
+import com.scheduler.schedulerapp.service.calendar.CalendarFeedVersion;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.hospitalbranch.HospitalBranchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarFeedControllerTest {
+
+    @Mock
+    private CalendarFeedService calendarFeedService;
+
+    @Mock
+    private DoctorService doctorService;
+
+    @Mock
+    private HospitalBranchService hospitalBranchService;
+
+    @InjectMocks
+    private CalendarFeedController calendarFeedController;
+
+    private CalendarFeedVersion version;
+
+    @BeforeEach
+    void setUp() {
+        version = new CalendarFeedVersion(3, LocalDateTime.of(2025, 1, 10, 9, 0));
+    }
+
+    private void stubDoctorFeed() {
+        HospitalStaff doctor = new HospitalStaff();
+        doctor.setId("doctor123");
+        doctor.setName("Dr. Smith");
+        when(calendarFeedService.isDoctorFeedToken("doctor123", "secret")).thenReturn(true);
+        when(doctorService.getDoctorById("doctor123")).thenReturn(Optional.of(doctor));
+        when(calendarFeedService.getDoctorFeedVersion("doctor123")).thenReturn(version);
+    }
+
+    @Test
+    void doctorFeed_MatchingEtag_ReturnsNotModifiedWithoutReadingAppointments() {
+        stubDoctorFeed();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/calendar/doctors/doctor123.ics");
+        request.addHeader("If-None-Match", version.etag());
+
+        ResponseEntity<StreamingResponseBody> response = calendarFeedController.doctorFeed("doctor123", "secret",
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(calendarFeedService, never()).streamDoctorFeed(any());
+    }
+
+    @Test
+    void doctorFeed_ChangedFeed_StreamsEscapedEvents() throws Exception {
+        stubDoctorFeed();
+        Appointment appointment = new Appointment();
+        appointment.setId("appointment123");
+        appointment.setTitle("Checkup, follow-up; room 2");
+        appointment.setStartTime(LocalDateTime.of(2025, 1, 15, 10, 0));
+        appointment.setEndTime(LocalDateTime.of(2025, 1, 15, 11, 0));
+        appointment.setUpdatedAt(LocalDateTime.of(2025, 1, 10, 9, 0));
+        appointment.setStatus("cancelled");
+        when(calendarFeedService.streamDoctorFeed("doctor123")).thenReturn(Stream.of(appointment));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/calendar/doctors/doctor123.ics");
+        request.addHeader("If-None-Match", "\"2-0\"");
+
+        ResponseEntity<StreamingResponseBody> response = calendarFeedController.doctorFeed("doctor123", "secret",
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+        String ics = output.toString(StandardCharsets.UTF_8);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(version.etag(), response.getHeaders().getETag());
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(ics.contains("UID:appointment123@scheduler\r\n"));
+        assertTrue(ics.contains("SUMMARY:Checkup\\, follow-up\\; room 2\r\n"));
+        assertTrue(ics.contains("STATUS:CANCELLED\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+    }
+
+    @Test
+    void doctorFeed_WrongToken_RespondsNotFoundWithoutReadingTheFeed() {
+        when(calendarFeedService.isDoctorFeedToken("doctor123", "guess")).thenReturn(false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/calendar/doctors/doctor123.ics");
+
+        ResponseEntity<StreamingResponseBody> response = calendarFeedController.doctorFeed("doctor123", "guess",
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verifyNoInteractions(doctorService);
+        verify(calendarFeedService, never()).getDoctorFeedVersion(any());
+    }
+
+    @Test
+    void branchFeed_UnknownBranch_RespondsNotFound() {
+        when(calendarFeedService.isBranchFeedToken("missing", "secret")).thenReturn(true);
+        when(hospitalBranchService.getBranchById("missing")).thenReturn(Optional.empty());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/calendar/branches/missing.ics");
+
+        ResponseEntity<StreamingResponseBody> response = calendarFeedController.branchFeed("missing", "secret",
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verify(calendarFeedService, never()).streamBranchFeed(any());
+    }
+}
@@ -0,0 +1,91 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.dto.AppointmentResponseDTO;
+import com.scheduler.schedulerapp.mapper.DTOMapper;
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.model.Patient;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.hospitalbranch.HospitalBranchService;
+import com.scheduler.schedulerapp.service.patient.PatientService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentFieldResolverTest {
+
+    @Mock
+    private DoctorService doctorService;
+
+    @Mock
+    private PatientService patientService;
+
+    @Mock
+    private HospitalBranchService hospitalBranchService;
+
+    @Mock
+    private DTOMapper dtoMapper;
+
+    @InjectMocks
+    private AppointmentFieldResolver appointmentFieldResolver;
+
+    private AppointmentResponseDTO appointmentFor(String doctorId, String patientId) {
+        AppointmentResponseDTO dto = new AppointmentResponseDTO();
+        dto.setDoctorId(doctorId);
+        dto.setPatientId(patientId);
+        return dto;
+    }
+
+    @Test
+    void doctorName_ManyAppointments_LoadsDoctorsInOneQuery() {
+        HospitalStaff doctor1 = new HospitalStaff("d1", "Dr. John Smith", "john@hospital.com", "doctor", "pw",
+                "July 22 2025 5:51 PM", "", true);
+        HospitalStaff doctor2 = new HospitalStaff("d2", "Dr. Jane Doe", "jane@hospital.com", "doctor", "pw",
+                "July 22 2025 5:51 PM", "", true);
+        List<AppointmentResponseDTO> appointments = Arrays.asList(
+                appointmentFor("d1", "p1"),
+                appointmentFor("d2", "p1"),
+                appointmentFor("d1", "p2"),
+                appointmentFor("missing", "p2"));
+        when(doctorService.getDoctorsByIds(Set.of("d1", "d2", "missing")))
+                .thenReturn(Arrays.asList(doctor1, doctor2));
+
+        List<String> result = appointmentFieldResolver.doctorName(appointments);
+
+        assertEquals(Arrays.asList("Dr. John Smith", "Dr. Jane Doe", "Dr. John Smith", "Unknown doctor"), result);
+        verify(doctorService, times(1)).getDoctorsByIds(any());
+        verify(doctorService, never()).getDoctorById(any());
+    }
+
+    @Test
+    void patientName_UnknownPatient_ReturnsPlaceholder() {
+        Patient patient = new Patient();
+        patient.setId("p1");
+        patient.setName("Alice");
+        when(patientService.getPatientsByIds(Set.of("p1", "p2"))).thenReturn(List.of(patient));
+
+        List<String> result = appointmentFieldResolver.patientName(
+                Arrays.asList(appointmentFor("d1", "p1"), appointmentFor("d1", "p2")));
+
+        assertEquals(Arrays.asList("Alice", "Unknown patient"), result);
+        verify(patientService, times(1)).getPatientsByIds(any());
+    }
+
+    @Test
+    void branch_NoBranchIds_SkipsQuery() {
+        List<AppointmentResponseDTO> appointments = List.of(appointmentFor("d1", "p1"));
+
+        assertEquals(Arrays.asList((Object) null), appointmentFieldResolver.branch(appointments));
+        verifyNoInteractions(hospitalBranchService);
+    }
+}
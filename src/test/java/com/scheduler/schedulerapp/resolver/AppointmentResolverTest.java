@@ -7,6 +7,9 @@ import com.scheduler.schedulerapp.mapper.DTOMapper;
 import com.scheduler.schedulerapp.model.Appointment;
 import com.scheduler.schedulerapp.model.HospitalStaff;
 import com.scheduler.schedulerapp.model.Patient;
+import com.scheduler.schedulerapp.service.access.AccessProfile;
+import com.scheduler.schedulerapp.service.access.RequesterAccessService;
+import com.scheduler.schedulerapp.service.appointment.AppointmentFilter;
 import com.scheduler.schedulerapp.service.appointment.AppointmentService;
 import com.scheduler.schedulerapp.service.doctor.DoctorService;
 import com.scheduler.schedulerapp.service.patient.PatientService;
@@ -24,6 +27,9 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.test.context.support.WithMockUser;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +48,9 @@ class AppointmentResolverTest {
     @Mock
     private DTOMapper dtoMapper;
 
+    @Mock
+    private RequesterAccessService requesterAccessService;
+
     @InjectMocks
     private AppointmentResolver appointmentResolver;
 
@@ -112,13 +121,17 @@ class AppointmentResolverTest {
         return input;
     }
 
+    private AccessProfile profileOf(HospitalStaff staff) {
+        return new AccessProfile(staff.getId(), staff.hasFullAppointmentAccess(), staff.isReceptionist(), Set.of());
+    }
+
     // appointments Tests
 
     @Test
     void appointments_AdminAccessWithValidAdminId_ReturnsAllAppointments() {
         HospitalStaff adminDoctor = new HospitalStaff();
         adminDoctor.setRole("admin");
-        when(doctorService.getDoctorById(adminId)).thenReturn(Optional.of(adminDoctor));
+        when(requesterAccessService.getProfile(adminId)).thenReturn(Optional.of(profileOf(adminDoctor)));
 
         List<Appointment> appointments = List.of(testAppointment);
         List<AppointmentResponseDTO> expectedDTOs = List.of(testResponseDTO);
@@ -132,12 +145,103 @@ class AppointmentResolverTest {
         verify(appointmentService).getAllAppointments();
     }
 
+    @Test
+    void appointmentsConnection_AdminAccess_ReturnsFirstPageWithRequestedSize() {
+        HospitalStaff adminDoctor = new HospitalStaff();
+        adminDoctor.setRole("admin");
+        when(requesterAccessService.getProfile(adminId)).thenReturn(Optional.of(profileOf(adminDoctor)));
+
+        Window<Appointment> page = Window.from(List.of(testAppointment), ScrollPosition::offset, true);
+        when(appointmentService.getAllAppointments(ScrollPosition.keyset(), 10)).thenReturn(page);
+        when(dtoMapper.toAppointmentResponseDTO(testAppointment)).thenReturn(testResponseDTO);
+
+        Window<AppointmentResponseDTO> result = appointmentResolver.appointmentsConnection(adminId,
+                ScrollSubrange.create(null, 10, true));
+
+        assertEquals(1, result.size());
+        assertEquals(testResponseDTO, result.getContent().get(0));
+        assertTrue(result.hasNext());
+        verify(appointmentService, never()).getAllAppointments();
+    }
+
+    @Test
+    void appointmentsConnection_LastWithoutCursor_ScrollsBackwardFromTheEnd() {
+        HospitalStaff adminDoctor = new HospitalStaff();
+        adminDoctor.setRole("admin");
+        when(requesterAccessService.getProfile(adminId)).thenReturn(Optional.of(profileOf(adminDoctor)));
+        when(appointmentService.getAllAppointments(ScrollPosition.keyset().backward(), 10))
+                .thenReturn(Window.from(List.of(testAppointment), ScrollPosition::offset));
+        when(dtoMapper.toAppointmentResponseDTO(testAppointment)).thenReturn(testResponseDTO);
+
+        Window<AppointmentResponseDTO> result = appointmentResolver.appointmentsConnection(adminId,
+                ScrollSubrange.create(null, 10, false));
+
+        assertEquals(1, result.size());
+        verify(appointmentService, never()).getAllAppointments(ScrollPosition.keyset(), 10);
+    }
+
+    @Test
+    void appointmentsByStatusConnection_NonAdmin_QueriesDoctorAndStatusInDatabase() {
+        when(requesterAccessService.getProfile(doctorId)).thenReturn(Optional.of(profileOf(testDoctor)));
+        when(appointmentService.getAppointmentsByDoctorAndStatus(doctorId, "scheduled", ScrollPosition.keyset(), 500))
+                .thenReturn(Window.from(List.of(testAppointment), ScrollPosition::offset));
+        when(dtoMapper.toAppointmentResponseDTO(testAppointment)).thenReturn(testResponseDTO);
+
+        Window<AppointmentResponseDTO> result = appointmentResolver.appointmentsByStatusConnection("scheduled", doctorId,
+                ScrollSubrange.create(null, 5000, true));
+
+        assertEquals(1, result.size());
+        assertFalse(result.hasNext());
+        verify(appointmentService, never()).getAppointmentsByDoctor(doctorId);
+    }
+
+    @Test
+    void appointments_Receptionist_QueriesAllMappedBranchesAtOnce() {
+        Set<String> branchIds = Set.of("branch1", "branch2");
+        when(requesterAccessService.getProfile("receptionist1"))
+                .thenReturn(Optional.of(new AccessProfile("receptionist1", false, true, branchIds)));
+        when(appointmentService.getAppointmentsByBranches(branchIds)).thenReturn(List.of(testAppointment));
+        when(dtoMapper.toAppointmentResponseDTO(testAppointment)).thenReturn(testResponseDTO);
+
+        List<AppointmentResponseDTO> result = appointmentResolver.appointments("receptionist1");
+
+        assertEquals(List.of(testResponseDTO), result);
+        verify(appointmentService, never()).getAppointmentsByBranch(anyString());
+    }
+
+    @Test
+    void appointmentsConnection_Receptionist_ScrollsOnlyMappedBranches() {
+        Set<String> branchIds = Set.of("branch1", "branch2");
+        when(requesterAccessService.getProfile("receptionist1"))
+                .thenReturn(Optional.of(new AccessProfile("receptionist1", false, true, branchIds)));
+        when(appointmentService.getAppointmentsByBranches(branchIds, ScrollPosition.keyset(), 20))
+                .thenReturn(Window.from(List.of(testAppointment), ScrollPosition::offset));
+        when(dtoMapper.toAppointmentResponseDTO(testAppointment)).thenReturn(testResponseDTO);
+
+        Window<AppointmentResponseDTO> result = appointmentResolver.appointmentsConnection("receptionist1",
+                ScrollSubrange.create(null, 20, true));
+
+        assertEquals(List.of(testResponseDTO), result.getContent());
+        verify(appointmentService, never()).getAllAppointments(any(ScrollPosition.class), anyInt());
+    }
+
+    @Test
+    void appointmentsConnection_WithoutFullOrBranchAccess_ThrowsSecurityException() {
+        when(requesterAccessService.getProfile(doctorId)).thenReturn(Optional.of(profileOf(testDoctor)));
+
+        SecurityException exception = assertThrows(SecurityException.class,
+                () -> appointmentResolver.appointmentsConnection(doctorId, ScrollSubrange.create(null, 20, true)));
+
+        assertEquals("Access denied", exception.getMessage());
+        verify(appointmentService, never()).getAllAppointments(any(ScrollPosition.class), anyInt());
+    }
+
     @Test
     void appointments_NonAdminAccess_ThrowsSecurityException() {
         String nonAdminId = "nonAdmin123";
         HospitalStaff nonAdminDoctor = new HospitalStaff();
         nonAdminDoctor.setRole("doctor");
-        when(doctorService.getDoctorById(nonAdminId)).thenReturn(Optional.of(nonAdminDoctor));
+        when(requesterAccessService.getProfile(nonAdminId)).thenReturn(Optional.of(profileOf(nonAdminDoctor)));
 
         SecurityException exception = assertThrows(SecurityException.class,
                 () -> appointmentResolver.appointments(nonAdminId));
@@ -149,7 +253,7 @@ class AppointmentResolverTest {
     @Test
     void appointments_InvalidAdminId_ThrowsSecurityException() {
         String invalidAdminId = "invalid123";
-        when(doctorService.getDoctorById(invalidAdminId)).thenReturn(Optional.empty());
+        when(requesterAccessService.getProfile(invalidAdminId)).thenReturn(Optional.empty());
 
         SecurityException exception = assertThrows(SecurityException.class,
                 () -> appointmentResolver.appointments(invalidAdminId));
@@ -291,7 +395,7 @@ class AppointmentResolverTest {
     void appointmentsByDateRange_AdminAccessWithValidDateRange_ReturnsAppointmentsInRange() {
         HospitalStaff adminDoctor = new HospitalStaff();
         adminDoctor.setRole("admin");
-        when(doctorService.getDoctorById(adminId)).thenReturn(Optional.of(adminDoctor));
+        when(requesterAccessService.getProfile(adminId)).thenReturn(Optional.of(profileOf(adminDoctor)));
 
         List<Appointment> appointments = List.of(testAppointment);
         when(appointmentService.getAppointmentsByDateRange(startTime, endTime)).thenReturn(appointments);
@@ -310,7 +414,7 @@ class AppointmentResolverTest {
         String nonAdminId = "nonAdmin123";
         HospitalStaff nonAdminDoctor = new HospitalStaff();
         nonAdminDoctor.setRole("doctor");
-        when(doctorService.getDoctorById(nonAdminId)).thenReturn(Optional.of(nonAdminDoctor));
+        when(requesterAccessService.getProfile(nonAdminId)).thenReturn(Optional.of(profileOf(nonAdminDoctor)));
 
         SecurityException exception = assertThrows(SecurityException.class,
                 () -> appointmentResolver.appointmentsByDateRange(nonAdminId, "2024-01-01T00:00:00",
@@ -418,7 +522,7 @@ class AppointmentResolverTest {
     void appointmentsByStatus_AdminAccessToAppointmentsByStatus_ReturnsAllMatchingAppointments() {
         HospitalStaff adminDoctor = new HospitalStaff();
         adminDoctor.setRole("admin");
-        when(doctorService.getDoctorById(adminId)).thenReturn(Optional.of(adminDoctor));
+        when(requesterAccessService.getProfile(adminId)).thenReturn(Optional.of(profileOf(adminDoctor)));
 
         List<Appointment> appointments = List.of(testAppointment);
         when(appointmentService.getAppointmentsByStatus("scheduled")).thenReturn(appointments);
@@ -434,40 +538,40 @@ class AppointmentResolverTest {
     @Test
     void appointmentsByStatus_DoctorAccessToOwnAppointmentsByStatus_ReturnsFilteredAppointments() {
         List<Appointment> doctorAppointments = List.of(testAppointment);
-        when(appointmentService.getAppointmentsByDoctor(doctorId)).thenReturn(doctorAppointments);
+        when(appointmentService.findAppointments(new AppointmentFilter(doctorId, null, null, "scheduled", null, null))).thenReturn(doctorAppointments);
         when(dtoMapper.toAppointmentResponseDTO(testAppointment)).thenReturn(testResponseDTO);
 
         List<AppointmentResponseDTO> result = appointmentResolver.appointmentsByStatus("scheduled", doctorId);
 
         assertEquals(1, result.size());
         assertEquals(testResponseDTO, result.get(0));
-        verify(appointmentService).getAppointmentsByDoctor(doctorId);
+        verify(appointmentService).findAppointments(new AppointmentFilter(doctorId, null, null, "scheduled", null, null));
     }
 
     @Test
     void appointmentsByStatus_PatientAccessToOwnAppointmentsByStatus_ReturnsFilteredAppointments() {
         List<Appointment> patientAppointments = List.of(testAppointment);
-        when(appointmentService.getAppointmentsByDoctor(patientId)).thenReturn(patientAppointments);
+        when(appointmentService.findAppointments(new AppointmentFilter(patientId, null, null, "scheduled", null, null))).thenReturn(patientAppointments);
         when(dtoMapper.toAppointmentResponseDTO(testAppointment)).thenReturn(testResponseDTO);
 
         List<AppointmentResponseDTO> result = appointmentResolver.appointmentsByStatus("scheduled", patientId);
 
         assertEquals(1, result.size());
         assertEquals(testResponseDTO, result.get(0));
-        verify(appointmentService).getAppointmentsByDoctor(patientId);
+        verify(appointmentService).findAppointments(new AppointmentFilter(patientId, null, null, "scheduled", null, null));
     }
 
     @Test
     void appointmentsByStatus_InvalidRequesterId_ReturnsOnlyRequesterAppointments() {
         String invalidRequesterId = "invalid123";
         List<Appointment> userAppointments = List.of(testAppointment);
-        when(appointmentService.getAppointmentsByDoctor(invalidRequesterId)).thenReturn(userAppointments);
+        when(appointmentService.findAppointments(new AppointmentFilter(invalidRequesterId, null, null, "scheduled", null, null))).thenReturn(userAppointments);
         when(dtoMapper.toAppointmentResponseDTO(testAppointment)).thenReturn(testResponseDTO);
 
         List<AppointmentResponseDTO> result = appointmentResolver.appointmentsByStatus("scheduled", invalidRequesterId);
 
         assertEquals(1, result.size());
-        verify(appointmentService).getAppointmentsByDoctor(invalidRequesterId);
+        verify(appointmentService).findAppointments(new AppointmentFilter(invalidRequesterId, null, null, "scheduled", null, null));
     }
 
     // checkCollision Tests
@@ -932,14 +1036,12 @@ class AppointmentResolverTest {
         appointment2.setId("appointment2");
         appointment2.setDoctorId(doctorId);
 
-        when(appointmentService.getAppointmentById("appointment1")).thenReturn(Optional.of(appointment1));
-        when(appointmentService.getAppointmentById("appointment2")).thenReturn(Optional.of(appointment2));
-        doNothing().when(appointmentService).deleteMultipleAppointments(appointmentIds);
+        when(appointmentService.getAppointmentOwnership(appointmentIds)).thenReturn(List.of(appointment1, appointment2));
 
         Boolean result = appointmentResolver.deleteMultipleAppointments(appointmentIds, adminId);
 
         assertTrue(result);
-        verify(appointmentService).deleteMultipleAppointments(appointmentIds);
+        verify(appointmentService).deleteMultipleAppointments(appointmentIds, null);
     }
 
     @Test
@@ -952,14 +1054,12 @@ class AppointmentResolverTest {
         appointment2.setId("appointment2");
         appointment2.setDoctorId(doctorId);
 
-        when(appointmentService.getAppointmentById("appointment1")).thenReturn(Optional.of(appointment1));
-        when(appointmentService.getAppointmentById("appointment2")).thenReturn(Optional.of(appointment2));
-        doNothing().when(appointmentService).deleteMultipleAppointments(appointmentIds);
+        when(appointmentService.getAppointmentOwnership(appointmentIds)).thenReturn(List.of(appointment1, appointment2));
 
         Boolean result = appointmentResolver.deleteMultipleAppointments(appointmentIds, doctorId);
 
         assertTrue(result);
-        verify(appointmentService).deleteMultipleAppointments(appointmentIds);
+        verify(appointmentService).deleteMultipleAppointments(appointmentIds, doctorId);
     }
 
     @Test
@@ -974,14 +1074,12 @@ class AppointmentResolverTest {
         appointment2.setDoctorId("someDoctor");
         appointment2.setPatientId(patientId);
 
-        when(appointmentService.getAppointmentById("appointment1")).thenReturn(Optional.of(appointment1));
-        when(appointmentService.getAppointmentById("appointment2")).thenReturn(Optional.of(appointment2));
-        doNothing().when(appointmentService).deleteMultipleAppointments(appointmentIds);
+        when(appointmentService.getAppointmentOwnership(appointmentIds)).thenReturn(List.of(appointment1, appointment2));
 
         Boolean result = appointmentResolver.deleteMultipleAppointments(appointmentIds, patientId);
 
         assertTrue(result);
-        verify(appointmentService).deleteMultipleAppointments(appointmentIds);
+        verify(appointmentService).deleteMultipleAppointments(appointmentIds, patientId);
     }
 
     @Test
@@ -992,25 +1090,25 @@ class AppointmentResolverTest {
         otherAppointment.setDoctorId("otherDoctor123");
         otherAppointment.setPatientId("otherPatient123");
 
-        when(appointmentService.getAppointmentById("appointment1")).thenReturn(Optional.of(otherAppointment));
+        when(appointmentService.getAppointmentOwnership(appointmentIds)).thenReturn(List.of(otherAppointment));
 
         SecurityException exception = assertThrows(SecurityException.class,
                 () -> appointmentResolver.deleteMultipleAppointments(appointmentIds, doctorId));
 
         assertEquals("Access denied: You can only delete your own appointments", exception.getMessage());
-        verify(appointmentService, never()).deleteMultipleAppointments(any());
+        verify(appointmentService, never()).deleteMultipleAppointments(any(), any());
     }
 
     @Test
     void deleteMultipleAppointments_SomeNonExistentIds_ThrowsIllegalArgumentException() {
         List<String> appointmentIds = List.of("appointment1", "nonexistent");
-        when(appointmentService.getAppointmentById("appointment1")).thenReturn(Optional.of(testAppointment));
-        when(appointmentService.getAppointmentById("nonexistent")).thenReturn(Optional.empty());
+        testAppointment.setId("appointment1");
+        when(appointmentService.getAppointmentOwnership(appointmentIds)).thenReturn(List.of(testAppointment));
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> appointmentResolver.deleteMultipleAppointments(appointmentIds, adminId));
 
         assertEquals("Appointment not found with ID: nonexistent", exception.getMessage());
-        verify(appointmentService, never()).deleteMultipleAppointments(any());
+        verify(appointmentService, never()).deleteMultipleAppointments(any(), any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.mapper.DTOMapper;
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
+import com.scheduler.schedulerapp.service.series.AppointmentSeriesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentSeriesResolverTest {
+
+    @Mock
+    private AppointmentSeriesService appointmentSeriesService;
+
+    @Mock
+    private DTOMapper dtoMapper;
+
+    @InjectMocks
+    private AppointmentSeriesResolver appointmentSeriesResolver;
+
+    private AppointmentSeries series;
+
+    @BeforeEach
+    void setUp() {
+        series = new AppointmentSeries();
+        series.setId("series1");
+        series.setDoctorId("doctor123");
+        series.setPatientId("patient123");
+    }
+
+    @Test
+    void cancelAppointmentSeries_ByItsPatient_CancelsSeries() {
+        when(appointmentSeriesService.getSeriesById("series1")).thenReturn(Optional.of(series));
+
+        assertTrue(appointmentSeriesResolver.cancelAppointmentSeries("series1", "patient123"));
+
+        verify(appointmentSeriesService).cancelSeries("series1");
+    }
+
+    @Test
+    void cancelAppointmentSeries_ByAnotherUser_ThrowsSecurityException() {
+        when(appointmentSeriesService.getSeriesById("series1")).thenReturn(Optional.of(series));
+
+        SecurityException exception = assertThrows(SecurityException.class,
+                () -> appointmentSeriesResolver.cancelAppointmentSeries("series1", "someoneElse"));
+
+        assertEquals("Access denied: You can only cancel your own appointment series", exception.getMessage());
+        verify(appointmentSeriesService, never()).cancelSeries(anyString());
+    }
+
+    @Test
+    void cancelSeriesOccurrence_ByAdmin_CancelsOccurrence() {
+        LocalDateTime occurrenceStart = LocalDateTime.of(2025, 8, 15, 10, 0);
+        when(appointmentSeriesService.getSeriesById("series1")).thenReturn(Optional.of(series));
+        when(appointmentSeriesService.cancelOccurrence("series1", occurrenceStart)).thenReturn(new Appointment());
+
+        appointmentSeriesResolver.cancelSeriesOccurrence("series1", occurrenceStart.toString(), "6887727cf3498c1806036f28");
+
+        verify(appointmentSeriesService).cancelOccurrence("series1", occurrenceStart);
+    }
+
+    @Test
+    void moveSeriesOccurrence_ByAnotherUser_ThrowsSecurityException() {
+        when(appointmentSeriesService.getSeriesById("series1")).thenReturn(Optional.of(series));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(SecurityException.class, () -> appointmentSeriesResolver.moveSeriesOccurrence("series1",
+                start.toString(), start.toString(), start.plusHours(1).toString(), "someoneElse"));
+
+        verify(appointmentSeriesService, never()).moveOccurrence(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void cancelSeriesOccurrence_UnknownSeries_ThrowsIllegalArgumentException() {
+        when(appointmentSeriesService.getSeriesById("missing")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> appointmentSeriesResolver.cancelSeriesOccurrence("missing", "2025-08-15T10:00", "patient123"));
+    }
+}
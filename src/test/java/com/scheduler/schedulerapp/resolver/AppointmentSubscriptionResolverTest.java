@@ -0,0 +1,68 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.mapper.DTOMapper;
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.service.access.AccessProfile;
+import com.scheduler.schedulerapp.service.access.RequesterAccessService;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.live.AppointmentChangeHub;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentSubscriptionResolverTest {
+
+    @Mock
+    private AppointmentChangeHub appointmentChangeHub;
+
+    @Mock
+    private RequesterAccessService requesterAccessService;
+
+    @Mock
+    private DoctorService doctorService;
+
+    @Mock
+    private DTOMapper dtoMapper;
+
+    @InjectMocks
+    private AppointmentSubscriptionResolver appointmentSubscriptionResolver;
+
+    @Test
+    void doctorScheduleChanged_DoctorFollowsOwnSchedule_Subscribes() {
+        when(requesterAccessService.getProfile("doctor1"))
+                .thenReturn(Optional.of(new AccessProfile("doctor1", false, false, Set.of())));
+        when(doctorService.getDoctorById("doctor1")).thenReturn(Optional.of(new HospitalStaff()));
+        when(appointmentChangeHub.doctorChanges("doctor1")).thenReturn(Flux.empty());
+
+        assertNotNull(appointmentSubscriptionResolver.doctorScheduleChanged("doctor1", "doctor1"));
+    }
+
+    @Test
+    void doctorScheduleChanged_OtherDoctorsSchedule_ThrowsSecurityException() {
+        when(requesterAccessService.getProfile("doctor2"))
+                .thenReturn(Optional.of(new AccessProfile("doctor2", false, false, Set.of())));
+
+        assertThrows(SecurityException.class,
+                () -> appointmentSubscriptionResolver.doctorScheduleChanged("doctor1", "doctor2"));
+
+        verifyNoInteractions(appointmentChangeHub);
+    }
+
+    @Test
+    void doctorScheduleChanged_UnknownRequester_ThrowsSecurityException() {
+        when(requesterAccessService.getProfile("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(SecurityException.class,
+                () -> appointmentSubscriptionResolver.doctorScheduleChanged("doctor1", "ghost"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.dto.DoctorAgendaDTO;
+import com.scheduler.schedulerapp.mapper.DTOMapper;
+import com.scheduler.schedulerapp.model.DoctorAgenda;
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.service.access.AccessProfile;
+import com.scheduler.schedulerapp.service.access.RequesterAccessService;
+import com.scheduler.schedulerapp.service.agenda.DoctorAgendaService;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorAgendaResolverTest {
+
+    @Mock
+    private DoctorAgendaService doctorAgendaService;
+
+    @Mock
+    private RequesterAccessService requesterAccessService;
+
+    @Mock
+    private DoctorService doctorService;
+
+    @Mock
+    private DTOMapper dtoMapper;
+
+    @InjectMocks
+    private DoctorAgendaResolver doctorAgendaResolver;
+
+    @Test
+    void doctorAgenda_DoctorViewsOwnAgenda_ReturnsAgenda() {
+        DoctorAgenda agenda = new DoctorAgenda();
+        DoctorAgendaDTO dto = new DoctorAgendaDTO();
+        when(requesterAccessService.getProfile("doctor1"))
+                .thenReturn(Optional.of(new AccessProfile("doctor1", false, false, Set.of())));
+        when(doctorService.getDoctorById("doctor1")).thenReturn(Optional.of(new HospitalStaff()));
+        when(doctorAgendaService.getAgenda("doctor1", LocalDate.of(2025, 1, 15))).thenReturn(agenda);
+        when(dtoMapper.toDoctorAgendaDTO(agenda)).thenReturn(dto);
+
+        assertSame(dto, doctorAgendaResolver.doctorAgenda("doctor1", "2025-01-15", "doctor1"));
+    }
+
+    @Test
+    void doctorAgenda_OtherDoctorsAgenda_ThrowsSecurityException() {
+        when(requesterAccessService.getProfile("doctor2"))
+                .thenReturn(Optional.of(new AccessProfile("doctor2", false, false, Set.of())));
+
+        assertThrows(SecurityException.class,
+                () -> doctorAgendaResolver.doctorAgenda("doctor1", "2025-01-15", "doctor2"));
+
+        verifyNoInteractions(doctorAgendaService);
+    }
+
+    @Test
+    void doctorAgenda_UnknownRequester_ThrowsSecurityException() {
+        when(requesterAccessService.getProfile("ghost")).thenReturn(Optional.empty());
+
+        SecurityException exception = assertThrows(SecurityException.class,
+                () -> doctorAgendaResolver.doctorAgenda("doctor1", "2025-01-15", "ghost"));
+
+        assertEquals("User not found", exception.getMessage());
+        verifyNoInteractions(doctorAgendaService);
+    }
+}
@@ -0,0 +1,72 @@
+package com.scheduler.schedulerapp.resolver;
+
+import com.scheduler.schedulerapp.dto.WaitlistEntryInputDTO;
+import com.scheduler.schedulerapp.mapper.DTOMapper;
+import com.scheduler.schedulerapp.model.WaitlistEntry;
+import com.scheduler.schedulerapp.service.patient.PatientService;
+import com.scheduler.schedulerapp.service.waitlist.WaitlistService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistResolverTest {
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @Mock
+    private PatientService patientService;
+
+    @Mock
+    private DTOMapper dtoMapper;
+
+    @InjectMocks
+    private WaitlistResolver waitlistResolver;
+
+    @Test
+    void joinWaitlist_ForAnotherPatient_ThrowsSecurityException() {
+        WaitlistEntryInputDTO input = new WaitlistEntryInputDTO();
+        input.setPatientId("patient123");
+
+        assertThrows(SecurityException.class, () -> waitlistResolver.joinWaitlist(input, "someoneElse"));
+
+        verify(patientService, never()).getPatientById(anyString());
+        verify(waitlistService, never()).joinWaitlist(any());
+    }
+
+    @Test
+    void leaveWaitlist_ByItsPatient_LeavesWaitlist() {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId("entry1");
+        entry.setPatientId("patient123");
+        when(waitlistService.getWaitlistEntryById("entry1")).thenReturn(Optional.of(entry));
+
+        waitlistResolver.leaveWaitlist("entry1", "patient123");
+
+        verify(waitlistService).leaveWaitlist("entry1");
+    }
+
+    @Test
+    void leaveWaitlist_ByAnotherUser_ThrowsSecurityException() {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId("entry1");
+        entry.setPatientId("patient123");
+        when(waitlistService.getWaitlistEntryById("entry1")).thenReturn(Optional.of(entry));
+
+        SecurityException exception = assertThrows(SecurityException.class,
+                () -> waitlistResolver.leaveWaitlist("entry1", "someoneElse"));
+
+        assertEquals("Access denied: You can only leave your own waitlist entries", exception.getMessage());
+        verify(waitlistService, never()).leaveWaitlist(anyString());
+    }
+}
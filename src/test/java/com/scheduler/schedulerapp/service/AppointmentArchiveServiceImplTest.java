@@ -0,0 +1,129 @@
+package com.scheduler.schedulerapp.service;
+
+import com.mongodb.client.result.DeleteResult;
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.service.archive.AppointmentArchiveServiceImpl;
+import com.scheduler.schedulerapp.service.archive.AppointmentsArchivedEvent;
+import com.scheduler.schedulerapp.service.lease.JobLeaseManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentArchiveServiceImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private JobLeaseManager jobLeaseManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private AppointmentArchiveServiceImpl appointmentArchiveService;
+
+    private Appointment appointment(String id, LocalDateTime start, String status) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setStartTime(start);
+        appointment.setEndTime(start.plusHours(1));
+        appointment.setStatus(status);
+        return appointment;
+    }
+
+    @Test
+    void archiveBatch_ExpiredAppointments_CopiesToYearPartitionsThenDeletesFromHot() {
+        Appointment older = appointment("a1", LocalDateTime.of(2022, 12, 30, 9, 0), "completed");
+        Appointment newer = appointment("a2", LocalDateTime.of(2023, 3, 1, 9, 0), "cancelled");
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class))).thenReturn(List.of(older, newer));
+        when(mongoTemplate.collectionExists(anyString())).thenReturn(false);
+        when(mongoTemplate.indexOps(anyString())).thenReturn(mock(IndexOperations.class));
+        lenient().when(mongoTemplate.remove(any(Query.class), eq(Appointment.class))).thenReturn(DeleteResult.acknowledged(2));
+
+        int moved = appointmentArchiveService.archiveBatch();
+
+        assertEquals(2, moved);
+        verify(mongoTemplate).insert(List.of(older), "appointments_archive_2022");
+        verify(mongoTemplate).insert(List.of(newer), "appointments_archive_2023");
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(Appointment.class));
+        assertTrue(removed.getValue().getQueryObject().toJson().contains("\"a1\""));
+        assertTrue(removed.getValue().getQueryObject().toJson().contains("\"a2\""));
+        assertTrue(removed.getValue().getQueryObject().toJson().contains("updatedAt"));
+        ArgumentCaptor<AppointmentsArchivedEvent> event = ArgumentCaptor.forClass(AppointmentsArchivedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(older, newer), event.getValue().getAppointments());
+    }
+
+    @Test
+    void archiveBatch_AppointmentUpdatedDuringMove_StaysHotAndArchiveCopyIsDropped() {
+        Appointment edited = appointment("a1", LocalDateTime.of(2022, 12, 30, 9, 0), "completed");
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class)))
+                .thenReturn(List.of(edited))
+                .thenReturn(List.of(edited));
+        when(mongoTemplate.collectionExists(anyString())).thenReturn(true);
+        when(mongoTemplate.indexOps(anyString())).thenReturn(mock(IndexOperations.class));
+        lenient().when(mongoTemplate.remove(any(Query.class), eq(Appointment.class))).thenReturn(DeleteResult.acknowledged(0));
+
+        appointmentArchiveService.archiveBatch();
+
+        ArgumentCaptor<Query> archiveRemovals = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).remove(archiveRemovals.capture(), eq("appointments_archive_2022"));
+        assertTrue(archiveRemovals.getAllValues().get(1).getQueryObject().toJson().contains("\"a1\""));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void archiveExpired_LeaseHeldByAnotherNode_DoesNotArchive() {
+        when(jobLeaseManager.tryAcquire("appointment-archive")).thenReturn(false);
+
+        assertEquals(0, appointmentArchiveService.archiveExpired());
+
+        verifyNoInteractions(mongoTemplate);
+        verify(jobLeaseManager, never()).release(anyString());
+    }
+
+    @Test
+    void remove_DeletesFromEveryPartition() {
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of("appointments_archive_2022", "appointments_archive_2023"));
+        Appointment archived = appointment("a1", LocalDateTime.of(2022, 5, 1, 9, 0), "completed");
+        when(mongoTemplate.findAllAndRemove(any(Query.class), eq(Appointment.class), eq("appointments_archive_2022")))
+                .thenReturn(List.of(archived));
+
+        List<Appointment> removed = appointmentArchiveService.remove(Criteria.where("_id").is("a1"));
+
+        assertEquals(List.of(archived), removed);
+        verify(mongoTemplate).findAllAndRemove(any(Query.class), eq(Appointment.class), eq("appointments_archive_2023"));
+    }
+
+    @Test
+    void reaches_OnlyForFinishedStatusesStartingBeforeTheHorizon() {
+        when(mongoTemplate.getCollectionNames()).thenReturn(Set.of("appointments", "appointments_archive_2023"));
+        when(mongoTemplate.findOne(any(Query.class), eq(Appointment.class), eq("appointments_archive_2023")))
+                .thenReturn(appointment("a1", LocalDateTime.of(2023, 12, 1, 9, 0), "completed"));
+        LocalDateTime now = LocalDateTime.now();
+
+        assertTrue(appointmentArchiveService.reaches(null, null));
+        assertTrue(appointmentArchiveService.reaches(now.minusYears(3), "completed"));
+        assertFalse(appointmentArchiveService.reaches(now.minusYears(3), "scheduled"));
+        assertFalse(appointmentArchiveService.reaches(now.minusDays(7), null));
+    }
+}
@@ -0,0 +1,127 @@
+package com.scheduler.schedulerapp.service;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.SlotReservation;
+import com.scheduler.schedulerapp.repository.AppointmentRepository;
+import com.scheduler.schedulerapp.repository.AppointmentSeriesRepository;
+import com.scheduler.schedulerapp.repository.SlotReservationRepository;
+import com.scheduler.schedulerapp.service.appointment.AppointmentIntervalIndex;
+import com.scheduler.schedulerapp.service.appointment.AppointmentServiceImpl;
+import com.scheduler.schedulerapp.service.appointment.BranchCapacityManager;
+import com.scheduler.schedulerapp.service.appointment.SlotReservationManager;
+import com.scheduler.schedulerapp.service.series.SeriesOccurrenceExpander;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Exercises the booking path's handling of duplicate reservation ids against an
+ * in-memory model of the collection, so it runs in every build. It does not prove that
+ * MongoDB rejects them; {@link AppointmentBookingMongoConcurrencyTest} runs the race
+ * across two nodes against a real MongoDB in the mongo-it profile.
+ */
+class AppointmentBookingConcurrencyTest {
+
+    private static final int REQUESTS = 4000;
+    private static final String DOCTOR_ID = "doctor123";
+
+    private final Map<String, SlotReservation> reservations = new ConcurrentHashMap<>();
+    private AppointmentServiceImpl appointmentService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.findDoctorCollision(any(), any(), any())).thenReturn(new ArrayList<>());
+        when(appointmentRepository.findPatientCollision(any(), any(), any())).thenReturn(new ArrayList<>());
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        SlotReservationRepository slotReservationRepository = mock(SlotReservationRepository.class);
+        when(slotReservationRepository.insert(anyIterable())).thenAnswer(invocation -> {
+            for (SlotReservation reservation : (Iterable<SlotReservation>) invocation.getArgument(0)) {
+                if (reservations.putIfAbsent(reservation.getId(), reservation) != null) {
+                    throw new DuplicateKeyException("E11000 duplicate key error: " + reservation.getId());
+                }
+            }
+            return invocation.getArgument(0);
+        });
+        doAnswer(invocation -> {
+            String appointmentId = invocation.getArgument(0);
+            reservations.values().removeIf(reservation -> appointmentId.equals(reservation.getAppointmentId()));
+            return null;
+        }).when(slotReservationRepository).deleteByAppointmentId(anyString());
+
+        SlotReservationManager slotReservationManager = new SlotReservationManager();
+        ReflectionTestUtils.setField(slotReservationManager, "slotReservationRepository", slotReservationRepository);
+        ReflectionTestUtils.setField(slotReservationManager, "branchCapacityManager", mock(BranchCapacityManager.class));
+
+        appointmentService = new AppointmentServiceImpl();
+        ReflectionTestUtils.setField(appointmentService, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(appointmentService, "appointmentIntervalIndex", new AppointmentIntervalIndex());
+        ReflectionTestUtils.setField(appointmentService, "slotReservationManager", slotReservationManager);
+        ReflectionTestUtils.setField(appointmentService, "appointmentSeriesRepository", mock(AppointmentSeriesRepository.class));
+        ReflectionTestUtils.setField(appointmentService, "seriesOccurrenceExpander", new SeriesOccurrenceExpander());
+        ReflectionTestUtils.setField(appointmentService, "eventPublisher", mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void createAppointment_ThousandsOfParallelRequestsForOneDoctor_NeverDoubleBooks() throws InterruptedException {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        Collection<Appointment> booked = new ConcurrentLinkedQueue<>();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            int request = i;
+            executor.submit(() -> {
+                Appointment appointment = new Appointment();
+                appointment.setTitle("Booking " + request);
+                appointment.setDoctorId(DOCTOR_ID);
+                appointment.setPatientId("patient" + request);
+                appointment.setStartTime(base.plusMinutes(15L * (request % 40)));
+                appointment.setEndTime(base.plusMinutes(15L * (request % 40) + 30));
+                appointment.setStatus("scheduled");
+                try {
+                    start.await();
+                    booked.add(appointmentService.createAppointment(appointment));
+                } catch (RuntimeException | InterruptedException ignored) {
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        List<Appointment> sorted = booked.stream()
+                .sorted(Comparator.comparing(Appointment::getStartTime))
+                .toList();
+        assertFalse(sorted.isEmpty());
+        for (int i = 1; i < sorted.size(); i++) {
+            assertFalse(sorted.get(i).getStartTime().isBefore(sorted.get(i - 1).getEndTime()),
+                    "Doctor double-booked: " + sorted.get(i - 1).getTitle() + " and " + sorted.get(i).getTitle());
+        }
+        long doctorSlots = reservations.values().stream()
+                .filter(reservation -> "doctor".equals(reservation.getOwnerType()))
+                .count();
+        assertEquals(sorted.size() * 30L / SlotReservationManager.SLOT_MINUTES, doctorSlots);
+    }
+}
@@ -0,0 +1,143 @@
+package com.scheduler.schedulerapp.service;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.BranchCapacityCounter;
+import com.scheduler.schedulerapp.model.SlotReservation;
+import com.scheduler.schedulerapp.repository.AppointmentRepository;
+import com.scheduler.schedulerapp.repository.AppointmentSeriesRepository;
+import com.scheduler.schedulerapp.repository.HospitalBranchRepository;
+import com.scheduler.schedulerapp.repository.SlotReservationRepository;
+import com.scheduler.schedulerapp.service.appointment.AppointmentIntervalIndex;
+import com.scheduler.schedulerapp.service.appointment.AppointmentServiceImpl;
+import com.scheduler.schedulerapp.service.appointment.BranchCapacityManager;
+import com.scheduler.schedulerapp.service.appointment.SlotReservationManager;
+import com.scheduler.schedulerapp.service.archive.AppointmentArchiveService;
+import com.scheduler.schedulerapp.service.series.SeriesOccurrenceExpander;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Tag;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Books through two independent service stacks, standing in for two app nodes with
+ * their own in-memory state, against a real MongoDB. Only the unique reservation _ids
+ * in Mongo stand between them, so this is what backs the no-double-booking claim.
+ * Runs in the mongo-it Maven profile against the disposable database at mongodb.uri.
+ */
+@Tag("mongo")
+class AppointmentBookingMongoConcurrencyTest {
+
+    private static final int REQUESTS = 400;
+    private static final String DOCTOR_ID = "doctor-concurrency";
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionString connection = new ConnectionString(System.getProperty("mongodb.uri"));
+        client = MongoClients.create(connection);
+        mongoTemplate = new MongoTemplate(client,
+                connection.getDatabase() != null ? connection.getDatabase() : "schedulerapp-test");
+        dropCollections();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dropCollections();
+        client.close();
+    }
+
+    private void dropCollections() {
+        mongoTemplate.dropCollection(Appointment.class);
+        mongoTemplate.dropCollection(SlotReservation.class);
+        mongoTemplate.dropCollection(BranchCapacityCounter.class);
+    }
+
+    private AppointmentServiceImpl node() {
+        MongoRepositoryFactory repositories = new MongoRepositoryFactory(mongoTemplate);
+
+        BranchCapacityManager branchCapacityManager = new BranchCapacityManager();
+        ReflectionTestUtils.setField(branchCapacityManager, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(branchCapacityManager, "hospitalBranchRepository",
+                repositories.getRepository(HospitalBranchRepository.class));
+
+        SlotReservationManager slotReservationManager = new SlotReservationManager();
+        ReflectionTestUtils.setField(slotReservationManager, "slotReservationRepository",
+                repositories.getRepository(SlotReservationRepository.class));
+        ReflectionTestUtils.setField(slotReservationManager, "branchCapacityManager", branchCapacityManager);
+        ReflectionTestUtils.setField(slotReservationManager, "mongoTemplate", mongoTemplate);
+
+        AppointmentServiceImpl appointmentService = new AppointmentServiceImpl();
+        ReflectionTestUtils.setField(appointmentService, "appointmentRepository", repositories.getRepository(AppointmentRepository.class));
+        ReflectionTestUtils.setField(appointmentService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(appointmentService, "appointmentIntervalIndex", new AppointmentIntervalIndex());
+        ReflectionTestUtils.setField(appointmentService, "slotReservationManager", slotReservationManager);
+        ReflectionTestUtils.setField(appointmentService, "appointmentSeriesRepository",
+                repositories.getRepository(AppointmentSeriesRepository.class));
+        ReflectionTestUtils.setField(appointmentService, "seriesOccurrenceExpander", new SeriesOccurrenceExpander());
+        ReflectionTestUtils.setField(appointmentService, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(appointmentService, "appointmentArchiveService", mock(AppointmentArchiveService.class));
+        return appointmentService;
+    }
+
+    @Test
+    void createAppointment_ParallelRequestsOnTwoNodes_NeverDoubleBooksInMongo() throws InterruptedException {
+        List<AppointmentServiceImpl> nodes = List.of(node(), node());
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            int request = i;
+            executor.submit(() -> {
+                Appointment appointment = new Appointment();
+                appointment.setTitle("Booking " + request);
+                appointment.setDoctorId(DOCTOR_ID);
+                appointment.setPatientId("patient" + request);
+                appointment.setStartTime(base.plusMinutes(15L * (request % 20)));
+                appointment.setEndTime(base.plusMinutes(15L * (request % 20) + 30));
+                appointment.setStatus("scheduled");
+                try {
+                    start.await();
+                    nodes.get(request % 2).createAppointment(appointment);
+                } catch (RuntimeException | InterruptedException ignored) {
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+        List<Appointment> stored = mongoTemplate.findAll(Appointment.class).stream()
+                .sorted(Comparator.comparing(Appointment::getStartTime))
+                .toList();
+        assertFalse(stored.isEmpty());
+        for (int i = 1; i < stored.size(); i++) {
+            assertFalse(stored.get(i).getStartTime().isBefore(stored.get(i - 1).getEndTime()),
+                    "Doctor double-booked: " + stored.get(i - 1).getTitle() + " and " + stored.get(i).getTitle());
+        }
+        long doctorSlots = mongoTemplate.findAll(SlotReservation.class).stream()
+                .filter(reservation -> "doctor".equals(reservation.getOwnerType()))
+                .count();
+        assertEquals(stored.size() * 30L / SlotReservationManager.SLOT_MINUTES, doctorSlots);
+    }
+}
@@ -0,0 +1,64 @@
+package com.scheduler.schedulerapp.service;
+
+import com.scheduler.schedulerapp.service.live.AppointmentChange;
+import com.scheduler.schedulerapp.service.live.AppointmentChangeBroker;
+import com.scheduler.schedulerapp.service.live.AppointmentChangeHub;
+import com.scheduler.schedulerapp.service.live.LocalAppointmentChangeBroker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppointmentChangeHubTest {
+
+    private AppointmentChangeBroker broker;
+    private AppointmentChangeHub hub;
+
+    @BeforeEach
+    void setUp() {
+        broker = new LocalAppointmentChangeBroker();
+        hub = new AppointmentChangeHub();
+        ReflectionTestUtils.setField(hub, "appointmentChangeBroker", broker);
+        hub.connect();
+    }
+
+    private AppointmentChange change(String id, String branchId, String doctorId) {
+        return new AppointmentChange("created", id, doctorId, "patient1", branchId, "scheduled",
+                LocalDateTime.of(2025, 1, 15, 10, 0), LocalDateTime.of(2025, 1, 15, 11, 0), LocalDateTime.now());
+    }
+
+    @Test
+    void dispatch_DeliversOnlyToMatchingBranchAndDoctorTopics() {
+        List<String> branch1 = new CopyOnWriteArrayList<>();
+        List<String> doctor2 = new CopyOnWriteArrayList<>();
+        Disposable branchSubscription = hub.branchChanges("branch1").subscribe(change -> branch1.add(change.getAppointmentId()));
+        Disposable doctorSubscription = hub.doctorChanges("doctor2").subscribe(change -> doctor2.add(change.getAppointmentId()));
+
+        broker.publish(change("a1", "branch1", "doctor1"));
+        broker.publish(change("a2", "branch2", "doctor2"));
+        broker.publish(change("a3", "branch1", "doctor2"));
+
+        assertEquals(List.of("a1", "a3"), branch1);
+        assertEquals(List.of("a2", "a3"), doctor2);
+        branchSubscription.dispose();
+        doctorSubscription.dispose();
+    }
+
+    @Test
+    void branchChanges_LastSubscriberLeaves_DropsTopic() {
+        Disposable first = hub.branchChanges("branch1").subscribe();
+        Disposable second = hub.branchChanges("branch1").subscribe();
+        assertEquals(1, hub.getTopicCount());
+
+        first.dispose();
+        assertEquals(1, hub.getTopicCount());
+        second.dispose();
+        assertEquals(0, hub.getTopicCount());
+    }
+}
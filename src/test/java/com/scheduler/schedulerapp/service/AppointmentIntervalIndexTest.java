@@ -0,0 +1,194 @@
+package com.scheduler.schedulerapp.service;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
+import com.scheduler.schedulerapp.service.appointment.AppointmentIntervalIndex;
+import com.scheduler.schedulerapp.service.appointment.OccupancyBitmap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppointmentIntervalIndexTest {
+
+    private AppointmentIntervalIndex index;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        index = new AppointmentIntervalIndex();
+        base = LocalDateTime.of(2025, 1, 15, 9, 0);
+    }
+
+    private Appointment appointment(String id, String doctorId, String patientId, int startHour, int endHour) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setTitle("Appointment " + id);
+        appointment.setDoctorId(doctorId);
+        appointment.setPatientId(patientId);
+        appointment.setStartTime(base.withHour(startHour));
+        appointment.setEndTime(base.withHour(endHour));
+        appointment.setStatus("scheduled");
+        return appointment;
+    }
+
+    @Test
+    void isReady_BeforeRebuild_ReturnsFalse() {
+        assertFalse(index.isReady());
+    }
+
+    @Test
+    void findDoctorCollision_OverlappingAppointment_ReturnsIt() {
+        index.rebuild(List.of(appointment("a1", "doctor1", "patient1", 10, 11)));
+
+        List<Appointment> conflicts = index.findDoctorCollision("doctor1", base.withHour(10).withMinute(30), base.withHour(12));
+
+        assertTrue(index.isReady());
+        assertEquals(1, conflicts.size());
+        assertEquals("a1", conflicts.getFirst().getId());
+    }
+
+    @Test
+    void findDoctorCollision_AdjacentAppointment_ReturnsEmptyList() {
+        index.rebuild(List.of(appointment("a1", "doctor1", "patient1", 10, 11)));
+
+        assertTrue(index.findDoctorCollision("doctor1", base.withHour(11), base.withHour(12)).isEmpty());
+        assertTrue(index.findDoctorCollision("doctor1", base.withHour(9), base.withHour(10)).isEmpty());
+    }
+
+    @Test
+    void findDoctorCollision_LongAppointmentStartingEarlier_ReturnsIt() {
+        index.rebuild(List.of(
+                appointment("long", "doctor1", "patient1", 8, 14),
+                appointment("short", "doctor1", "patient2", 15, 16)));
+
+        List<Appointment> conflicts = index.findDoctorCollision("doctor1", base.withHour(12), base.withHour(13));
+
+        assertEquals(1, conflicts.size());
+        assertEquals("long", conflicts.getFirst().getId());
+    }
+
+    @Test
+    void findPatientCollision_OtherDoctor_ReturnsPatientConflict() {
+        index.rebuild(List.of(appointment("a1", "doctor1", "patient1", 10, 11)));
+
+        assertTrue(index.findDoctorCollision("doctor2", base.withHour(10), base.withHour(11)).isEmpty());
+        assertEquals(1, index.findPatientCollision("patient1", base.withHour(10), base.withHour(11)).size());
+    }
+
+    @Test
+    void put_StatusChangedToCancelled_RemovesFromIndex() {
+        Appointment appointment = appointment("a1", "doctor1", "patient1", 10, 11);
+        index.rebuild(List.of(appointment));
+
+        appointment.setStatus("cancelled");
+        index.put(appointment);
+
+        assertTrue(index.findDoctorCollision("doctor1", base.withHour(10), base.withHour(11)).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void put_RescheduledAppointment_MovesInterval() {
+        Appointment appointment = appointment("a1", "doctor1", "patient1", 10, 11);
+        index.rebuild(List.of(appointment));
+
+        index.put(appointment("a1", "doctor1", "patient1", 14, 15));
+
+        assertTrue(index.findDoctorCollision("doctor1", base.withHour(10), base.withHour(11)).isEmpty());
+        assertEquals(1, index.findDoctorCollision("doctor1", base.withHour(14), base.withHour(15)).size());
+    }
+
+    @Test
+    void removeAll_RemovesEveryGivenId() {
+        index.rebuild(List.of(
+                appointment("a1", "doctor1", "patient1", 10, 11),
+                appointment("a2", "doctor1", "patient2", 12, 13)));
+
+        index.removeAll(List.of("a1", "a2"));
+
+        assertEquals(0, index.size());
+        assertTrue(index.findDoctorCollision("doctor1", base.withHour(0), base.withHour(23)).isEmpty());
+    }
+
+    @Test
+    void findDoctorCollision_ReturnsCopies_NotIndexedInstances() {
+        index.rebuild(List.of(appointment("a1", "doctor1", "patient1", 10, 11)));
+
+        index.findDoctorCollision("doctor1", base.withHour(10), base.withHour(11)).getFirst().setStatus("cancelled");
+
+        assertEquals(1, index.findDoctorCollision("doctor1", base.withHour(10), base.withHour(11)).size());
+    }
+
+    @Test
+    void getDoctorOccupancy_OverlappingAppointmentRemoved_KeepsRemainingSlots() {
+        index.rebuild(List.of(
+                appointment("a1", "doctor1", "patient1", 10, 12),
+                appointment("a2", "doctor1", "patient2", 11, 13)));
+
+        index.remove("a1");
+
+        BitSet occupancy = index.getDoctorOccupancy("doctor1", base.toLocalDate(), 1).getFirst();
+        assertEquals(24, occupancy.cardinality());
+        assertEquals(11 * 60 / OccupancyBitmap.SLOT_MINUTES, occupancy.nextSetBit(0));
+    }
+
+    @Test
+    void freeStarts_BusyMorning_ReturnsStartsAfterAppointment() {
+        index.rebuild(List.of(appointment("a1", "doctor1", "patient1", 9, 11)));
+        BitSet occupancy = index.getDoctorOccupancy("doctor1", base.toLocalDate(), 1).getFirst();
+        int nineAm = 9 * 60 / OccupancyBitmap.SLOT_MINUTES;
+        int noon = 12 * 60 / OccupancyBitmap.SLOT_MINUTES;
+
+        List<LocalDateTime> starts = OccupancyBitmap.freeStarts(occupancy, base.toLocalDate(), nineAm, noon,
+                OccupancyBitmap.slotsFor(30));
+
+        assertEquals(base.withHour(11), starts.getFirst());
+        assertEquals(base.withHour(11).withMinute(30), starts.getLast());
+        assertEquals(7, starts.size());
+    }
+
+    @Test
+    void evictEndedBefore_DropsEndedAppointmentsAndStopsCoveringEarlierWindows() {
+        index.rebuild(List.of(
+                appointment("a1", "doctor1", "patient1", 8, 11),
+                appointment("a2", "doctor1", "patient2", 12, 13)));
+
+        int evicted = index.evictEndedBefore(base.withHour(11));
+
+        assertEquals(1, evicted);
+        assertEquals(1, index.size());
+        assertFalse(index.covers(base.withHour(10)));
+        assertTrue(index.covers(base.withHour(11)));
+        assertTrue(index.findDoctorCollision("doctor1", base.withHour(11), base.withHour(12).withMinute(30)).stream()
+                .allMatch(appointment -> appointment.getId().equals("a2")));
+    }
+
+    @Test
+    void findDoctorSeries_ActiveSeriesKeptUntilCancelledOrEnded() {
+        AppointmentSeries series = new AppointmentSeries();
+        series.setId("s1");
+        series.setDoctorId("doctor1");
+        series.setPatientId("patient1");
+        series.setSeriesStart(base);
+        series.setSeriesEnd(base.plusWeeks(4));
+        index.rebuild(List.of(), List.of(series));
+
+        assertEquals(1, index.findDoctorSeries("doctor1", base.plusWeeks(1), base.plusWeeks(2)).size());
+        assertEquals(1, index.findPatientSeries("patient1", base.plusWeeks(1), base.plusWeeks(2)).size());
+        assertTrue(index.findDoctorSeries("doctor1", base.plusWeeks(4), base.plusWeeks(5)).isEmpty());
+
+        series.setStatus("cancelled");
+        index.putSeries(series);
+        assertTrue(index.findDoctorSeries("doctor1", base, base.plusWeeks(1)).isEmpty());
+
+        series.setStatus("active");
+        index.putSeries(series);
+        index.evictEndedBefore(base.plusWeeks(4));
+        assertTrue(index.findPatientSeries("patient1", base.plusWeeks(4), base.plusWeeks(5)).isEmpty());
+    }
+}
@@ -0,0 +1,163 @@
+package com.scheduler.schedulerapp.service;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
+import com.scheduler.schedulerapp.repository.AppointmentRepository;
+import com.scheduler.schedulerapp.repository.AppointmentSeriesRepository;
+import com.scheduler.schedulerapp.service.appointment.AppointmentIntervalIndex;
+import com.scheduler.schedulerapp.service.appointment.AppointmentService;
+import com.scheduler.schedulerapp.service.appointment.SlotReservationManager;
+import com.scheduler.schedulerapp.service.series.AppointmentSeriesServiceImpl;
+import com.scheduler.schedulerapp.service.series.SeriesOccurrenceExpander;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentSeriesServiceImplTest {
+
+    @Mock
+    private AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Spy
+    private SeriesOccurrenceExpander seriesOccurrenceExpander;
+
+    @Mock
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+
+    @Mock
+    private SlotReservationManager slotReservationManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private AppointmentSeriesServiceImpl appointmentSeriesService;
+
+    private AppointmentSeries series;
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 6, 9, 0);
+
+    @BeforeEach
+    void setUp() {
+        series = new AppointmentSeries();
+        series.setTitle("Physio");
+        series.setDoctorId("doctor123");
+        series.setPatientId("patient123");
+        series.setSeriesStart(START);
+        series.setDurationMinutes(30);
+        series.setRecurrenceRule("FREQ=WEEKLY;COUNT=52");
+    }
+
+    @Test
+    void createSeries_FreeYear_ReadsBookingsOnceAndKeepsOccurrencesOutOfTheIndex() {
+        when(appointmentService.getScheduledAppointmentsInWindow(any(), any(), any(), any())).thenReturn(List.of());
+        when(appointmentSeriesRepository.save(any(AppointmentSeries.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AppointmentSeries saved = appointmentSeriesService.createSeries(series);
+
+        assertEquals(START.plusWeeks(51).plusMinutes(30), saved.getSeriesEnd());
+        verify(appointmentService).getScheduledAppointmentsInWindow(List.of("doctor123"), List.of("patient123"),
+                START, saved.getSeriesEnd());
+        verify(appointmentService, never()).checkCollision(any(), any(), any(), any());
+        verify(appointmentIntervalIndex, never()).put(any());
+    }
+
+    @Test
+    void createSeries_OccurrenceOverlapsPatientBooking_ThrowsWithoutReserving() {
+        Appointment booked = new Appointment();
+        booked.setId("appointment123");
+        booked.setTitle("Dentist");
+        booked.setDoctorId("doctor456");
+        booked.setPatientId("patient123");
+        booked.setStatus("scheduled");
+        booked.setStartTime(START.plusWeeks(10).plusMinutes(15));
+        booked.setEndTime(START.plusWeeks(10).plusMinutes(45));
+        when(appointmentService.getScheduledAppointmentsInWindow(any(), any(), any(), any())).thenReturn(List.of(booked));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> appointmentSeriesService.createSeries(series));
+
+        assertTrue(exception.getMessage().contains(START.plusWeeks(10).toString()));
+        assertTrue(exception.getMessage().contains("Dentist"));
+        verify(slotReservationManager, never()).reserveSeries(any(), any());
+        verify(appointmentSeriesRepository, never()).save(any());
+    }
+
+    @Test
+    void createSeries_SaveFails_ReleasesSlotsAndCapacityOfEveryOccurrence() {
+        when(appointmentService.getScheduledAppointmentsInWindow(any(), any(), any(), any())).thenReturn(List.of());
+        when(appointmentSeriesRepository.save(any(AppointmentSeries.class))).thenThrow(new RuntimeException("write failed"));
+
+        assertThrows(RuntimeException.class, () -> appointmentSeriesService.createSeries(series));
+
+        verify(slotReservationManager).reserveSeries(eq(series.getId()), argThat(occurrences -> occurrences.size() == 52));
+        verify(slotReservationManager).releaseSeries(List.of(series.getId()));
+    }
+
+    @Test
+    void cancelSeries_SeriesUnderWay_EndsItAndReleasesOnlyLaterOccurrences() {
+        LocalDateTime before = LocalDateTime.now();
+        series.setId("series123");
+        series.setStatus("active");
+        series.setSeriesStart(before.minusWeeks(3));
+        series.setSeriesEnd(before.plusWeeks(48));
+        Appointment later = seriesOccurrenceExpander.toOccurrence(series, before.plusWeeks(1));
+        doReturn(List.of(later)).when(seriesOccurrenceExpander).expandFrom(eq(series), any());
+        when(appointmentSeriesRepository.findById("series123")).thenReturn(Optional.of(series));
+
+        appointmentSeriesService.cancelSeries("series123");
+
+        assertEquals("active", series.getStatus());
+        assertFalse(series.getSeriesEnd().isBefore(before));
+        assertTrue(series.getSeriesEnd().isBefore(before.plusWeeks(1)));
+        verify(slotReservationManager).releaseOccurrencesFrom("series123", List.of(later));
+        verify(slotReservationManager, never()).releaseSeries(any());
+        verify(appointmentIntervalIndex).putSeries(series);
+    }
+
+    @Test
+    void cancelSeries_NotStartedYet_CancelsWholeSeries() {
+        series.setId("series123");
+        series.setStatus("active");
+        series.setSeriesStart(LocalDateTime.now().plusDays(1));
+        series.setSeriesEnd(LocalDateTime.now().plusWeeks(52));
+        doReturn(List.of()).when(seriesOccurrenceExpander).expandFrom(eq(series), any());
+        when(appointmentSeriesRepository.findById("series123")).thenReturn(Optional.of(series));
+
+        appointmentSeriesService.cancelSeries("series123");
+
+        assertEquals("cancelled", series.getStatus());
+        verify(slotReservationManager).releaseOccurrencesFrom("series123", List.of());
+    }
+
+    @Test
+    void cancelSeries_AlreadyEnded_Throws() {
+        series.setId("series123");
+        series.setStatus("active");
+        series.setSeriesStart(LocalDateTime.now().minusWeeks(4));
+        series.setSeriesEnd(LocalDateTime.now().minusDays(1));
+        when(appointmentSeriesRepository.findById("series123")).thenReturn(Optional.of(series));
+
+        assertThrows(IllegalArgumentException.class, () -> appointmentSeriesService.cancelSeries("series123"));
+        verify(appointmentSeriesRepository, never()).save(any());
+    }
+}
@@ -1,19 +1,42 @@
 package com.scheduler.schedulerapp.service;
 
 import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
 import com.scheduler.schedulerapp.repository.AppointmentRepository;
+import com.scheduler.schedulerapp.repository.AppointmentSeriesRepository;
+import com.scheduler.schedulerapp.service.appointment.AppointmentBatchResult;
+import com.scheduler.schedulerapp.service.appointment.AppointmentFilter;
+import com.scheduler.schedulerapp.service.appointment.AppointmentIntervalIndex;
 import com.scheduler.schedulerapp.service.appointment.AppointmentServiceImpl;
+import com.scheduler.schedulerapp.service.appointment.AppointmentsDeletedEvent;
+import com.scheduler.schedulerapp.service.appointment.BranchOccupancyCount;
+import com.scheduler.schedulerapp.service.appointment.OccupancyBucket;
+import com.scheduler.schedulerapp.service.appointment.SlotReservationManager;
+import com.scheduler.schedulerapp.service.archive.AppointmentArchiveService;
+import com.scheduler.schedulerapp.service.series.SeriesOccurrenceExpander;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -25,6 +48,27 @@ class AppointmentServiceImplTest {
     @Mock
     private AppointmentRepository appointmentRepository;
 
+    @Mock
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+
+    @Mock
+    private SlotReservationManager slotReservationManager;
+
+    @Mock
+    private AppointmentSeriesRepository appointmentSeriesRepository;
+
+    @Mock
+    private SeriesOccurrenceExpander seriesOccurrenceExpander;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private AppointmentArchiveService appointmentArchiveService;
+
     @InjectMocks
     private AppointmentServiceImpl appointmentService;
 
@@ -160,6 +204,96 @@ class AppointmentServiceImplTest {
         verify(appointmentRepository).findPatientCollision(wrongPatientId, startTime, endTime);
     }
 
+    @Test
+    void checkCollision_IndexCoversWindow_ConfirmsIndexHitsAgainstMongo() {
+        Appointment doctorConflict = createConflictAppointment("doctorConflict");
+        when(appointmentIntervalIndex.covers(startTime)).thenReturn(true);
+        when(appointmentIntervalIndex.findDoctorCollision(doctorId, startTime, endTime))
+                .thenReturn(List.of(doctorConflict));
+        when(appointmentIntervalIndex.findPatientCollision(patientId, startTime, endTime))
+                .thenReturn(List.of(doctorConflict));
+        when(appointmentRepository.findAllById(any())).thenReturn(List.of(doctorConflict));
+
+        List<Appointment> conflicts = appointmentService.checkCollision(doctorId, patientId, startTime, endTime);
+
+        assertEquals(1, conflicts.size());
+        assertEquals("doctorConflict", conflicts.getFirst().getId());
+        verify(appointmentRepository, never()).findDoctorCollision(any(), any(), any());
+        verify(appointmentRepository, never()).findPatientCollision(any(), any(), any());
+    }
+
+    @Test
+    void checkCollision_IndexCoversWindow_ConfirmsIndexedSeriesHitAgainstMongo() {
+        AppointmentSeries series = new AppointmentSeries();
+        series.setId("series1");
+        series.setDoctorId(doctorId);
+        series.setSeriesStart(startTime.minusWeeks(1));
+        series.setSeriesEnd(endTime.plusWeeks(1));
+        Appointment occurrence = createConflictAppointment("series1@" + startTime);
+        occurrence.setSeriesId("series1");
+        when(appointmentIntervalIndex.covers(startTime)).thenReturn(true);
+        when(appointmentIntervalIndex.findDoctorSeries(doctorId, startTime, endTime)).thenReturn(List.of(series));
+        when(seriesOccurrenceExpander.expandIgnoringExceptions(any(), eq(startTime), eq(endTime))).thenReturn(List.of(occurrence));
+        when(appointmentSeriesRepository.findAllById(any())).thenReturn(List.of(series));
+        when(seriesOccurrenceExpander.expand(List.of(series), startTime, endTime)).thenReturn(List.of(occurrence));
+
+        List<Appointment> conflicts = appointmentService.checkCollision(doctorId, patientId, startTime, endTime);
+
+        assertEquals(List.of(occurrence), conflicts);
+        verify(appointmentIntervalIndex).putSeries(series);
+        verify(appointmentSeriesRepository, never()).findActiveDoctorSeries(any(), any(), any());
+        verify(appointmentSeriesRepository, never()).findActivePatientSeries(any(), any(), any());
+    }
+
+    @Test
+    void checkCollision_IndexCoversWindowWithoutSeries_DoesNotReadSeries() {
+        when(appointmentIntervalIndex.covers(startTime)).thenReturn(true);
+
+        List<Appointment> conflicts = appointmentService.checkCollision(doctorId, patientId, startTime, endTime);
+
+        assertTrue(conflicts.isEmpty());
+        verifyNoInteractions(appointmentSeriesRepository, seriesOccurrenceExpander);
+        verify(appointmentRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void checkCollision_IndexedSeriesCancelledOnAnotherNode_DropsItWithoutConflict() {
+        AppointmentSeries indexed = new AppointmentSeries();
+        indexed.setId("series1");
+        indexed.setPatientId(patientId);
+        AppointmentSeries cancelled = new AppointmentSeries();
+        cancelled.setId("series1");
+        cancelled.setPatientId(patientId);
+        cancelled.setStatus("cancelled");
+        when(appointmentIntervalIndex.covers(startTime)).thenReturn(true);
+        when(appointmentIntervalIndex.findPatientSeries(patientId, startTime, endTime)).thenReturn(List.of(indexed));
+        when(seriesOccurrenceExpander.expandIgnoringExceptions(any(), eq(startTime), eq(endTime)))
+                .thenReturn(List.of(createConflictAppointment("series1@" + startTime)));
+        when(appointmentSeriesRepository.findAllById(any())).thenReturn(List.of(cancelled));
+
+        List<Appointment> conflicts = appointmentService.checkCollision(doctorId, patientId, startTime, endTime);
+
+        assertTrue(conflicts.isEmpty());
+        verify(appointmentIntervalIndex).putSeries(cancelled);
+        verify(seriesOccurrenceExpander).expand(List.of(), startTime, endTime);
+    }
+
+    @Test
+    void checkCollision_IndexHitCancelledOnAnotherNode_DropsPhantomConflict() {
+        Appointment stale = createConflictAppointment("stale");
+        Appointment cancelled = createConflictAppointment("stale");
+        cancelled.setStatus("cancelled");
+        when(appointmentIntervalIndex.covers(startTime)).thenReturn(true);
+        when(appointmentIntervalIndex.findDoctorCollision(doctorId, startTime, endTime)).thenReturn(List.of(stale));
+        when(appointmentIntervalIndex.findPatientCollision(patientId, startTime, endTime)).thenReturn(Collections.emptyList());
+        when(appointmentRepository.findAllById(any())).thenReturn(List.of(cancelled));
+
+        List<Appointment> conflicts = appointmentService.checkCollision(doctorId, patientId, startTime, endTime);
+
+        assertTrue(conflicts.isEmpty());
+        verify(appointmentIntervalIndex).put(cancelled);
+    }
+
     // createAppointment Tests
 
     @Test
@@ -178,6 +312,7 @@ class AppointmentServiceImplTest {
         assertNotNull(result.getCreatedAt());
         assertNotNull(result.getUpdatedAt());
         verify(appointmentRepository).save(testAppointment);
+        verify(appointmentIntervalIndex).put(testAppointment);
     }
 
     @Test
@@ -206,6 +341,22 @@ class AppointmentServiceImplTest {
 
         assertThrows(DataIntegrityViolationException.class, () ->
                 appointmentService.createAppointment(testAppointment));
+        verify(slotReservationManager).reserve(testAppointment);
+        verify(slotReservationManager).release("appointment123");
+    }
+
+    @Test
+    void createAppointment_SlotAlreadyReserved_ThrowsRuntimeExceptionWithoutSaving() {
+        when(appointmentRepository.findDoctorCollision(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(appointmentRepository.findPatientCollision(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        doThrow(new RuntimeException("Appointment conflicts with an appointment booked for the same time slot"))
+                .when(slotReservationManager).reserve(testAppointment);
+
+        assertThrows(RuntimeException.class, () -> appointmentService.createAppointment(testAppointment));
+
+        verify(appointmentRepository, never()).save(any(Appointment.class));
     }
 
     // updateAppointment Tests
@@ -228,6 +379,18 @@ class AppointmentServiceImplTest {
         verify(appointmentRepository).save(testAppointment);
     }
 
+    @Test
+    void updateAppointment_ArchivedAppointment_ThrowsWithoutSaving() {
+        when(appointmentRepository.existsById("archived123")).thenReturn(false);
+        when(appointmentArchiveService.findById("archived123")).thenReturn(Optional.of(testAppointment));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> appointmentService.updateAppointment("archived123", testAppointment));
+
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+        verify(slotReservationManager, never()).reschedule(any());
+    }
+
     @Test
     void updateAppointment_ConflictWithOtherAppointment_ThrowsRuntimeException() {
         String appointmentId = "appointment123";
@@ -318,61 +481,156 @@ class AppointmentServiceImplTest {
         verify(appointmentRepository).findById(appointmentId);
     }
 
+    @Test
+    void getAppointmentById_ArchivedAppointment_FallsBackToArchive() {
+        when(appointmentRepository.findById("archived123")).thenReturn(Optional.empty());
+        when(appointmentArchiveService.findById("archived123")).thenReturn(Optional.of(testAppointment));
+
+        Optional<Appointment> result = appointmentService.getAppointmentById("archived123");
+
+        assertEquals(Optional.of(testAppointment), result);
+    }
+
     // deleteAppointment Tests
 
     @Test
-    void deleteAppointment_SuccessfulDeletion_CallsRepositoryDelete() {
+    void deleteAppointment_SuccessfulDeletion_RemovesDocumentAndReleasesHoldings() {
         String appointmentId = "appointment123";
-        doNothing().when(appointmentRepository).deleteById(appointmentId);
 
         appointmentService.deleteAppointment(appointmentId);
 
-        verify(appointmentRepository).deleteById(appointmentId);
+        verify(mongoTemplate).findAndRemove(any(Query.class), eq(Appointment.class));
+        verify(appointmentIntervalIndex).remove(appointmentId);
+        verify(slotReservationManager).release(appointmentId);
     }
 
     @Test
-    void deleteAppointment_DeleteNonExistentAppointment_CallsRepositoryDelete() {
-        String appointmentId = "nonexistent123";
-        doNothing().when(appointmentRepository).deleteById(appointmentId);
+    void deleteAppointment_CancelledAppointmentOutsideIndex_PublishesDeletedDocument() {
+        testAppointment.setStatus("cancelled");
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Appointment.class))).thenReturn(testAppointment);
 
-        appointmentService.deleteAppointment(appointmentId);
+        appointmentService.deleteAppointment("appointment123");
 
-        verify(appointmentRepository).deleteById(appointmentId);
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(testAppointment), ((AppointmentsDeletedEvent) event.getValue()).getAppointments());
     }
 
-    // deleteMultipleAppointments Tests
+    @Test
+    void deleteAppointment_ArchivedAppointment_RemovesArchiveCopy() {
+        Appointment archived = createConflictAppointment("archived123");
+        when(appointmentArchiveService.remove(any(Criteria.class))).thenReturn(List.of(archived));
+
+        appointmentService.deleteAppointment("archived123");
+
+        ArgumentCaptor<Criteria> removed = ArgumentCaptor.forClass(Criteria.class);
+        verify(appointmentArchiveService).remove(removed.capture());
+        assertEquals("archived123", removed.getValue().getCriteriaObject().get("_id"));
+        verify(eventPublisher).publishEvent(any(AppointmentsDeletedEvent.class));
+    }
 
     @Test
-    void deleteMultipleAppointments_SuccessfulBulkDeletion_CallsRepositoryDeleteAll() {
-        List<String> appointmentIds = List.of("appointment1", "appointment2", "appointment3");
-        doNothing().when(appointmentRepository).deleteAllById(appointmentIds);
+    void deleteAppointment_DeleteNonExistentAppointment_PublishesNothing() {
+        appointmentService.deleteAppointment("nonexistent123");
+
+        verify(mongoTemplate).findAndRemove(any(Query.class), eq(Appointment.class));
+        verifyNoInteractions(eventPublisher);
+    }
 
-        appointmentService.deleteMultipleAppointments(appointmentIds);
+    // deleteMultipleAppointments Tests
 
-        verify(appointmentRepository).deleteAllById(appointmentIds);
+    @Test
+    void deleteMultipleAppointments_WithOwner_PushesOwnerFilterIntoSingleDelete() {
+        List<String> appointmentIds = List.of("appointment1", "appointment2");
+        when(mongoTemplate.findAllAndRemove(any(Query.class), eq(Appointment.class)))
+                .thenReturn(List.of(createConflictAppointment("appointment1"), createConflictAppointment("appointment2")));
+
+        long deleted = appointmentService.deleteMultipleAppointments(appointmentIds, doctorId);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAllAndRemove(query.capture(), eq(Appointment.class));
+        assertEquals(List.of(new Document("doctorId", doctorId), new Document("patientId", doctorId)),
+                query.getValue().getQueryObject().get("$or"));
+        assertEquals(2, deleted);
+        verify(appointmentIntervalIndex).removeAll(appointmentIds);
+        verify(slotReservationManager).releaseAll(appointmentIds);
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Appointment.class));
     }
 
     @Test
-    void deleteMultipleAppointments_DeleteWithSomeNonExistentIds_CallsRepositoryDeleteAll() {
-        List<String> appointmentIds = List.of("appointment1", "nonexistent", "appointment3");
-        doNothing().when(appointmentRepository).deleteAllById(appointmentIds);
+    void deleteMultipleAppointments_WhenSomeNotDeleted_KeepsSurvivorsInIndex() {
+        List<String> appointmentIds = List.of("appointment1", "appointment2");
+        when(mongoTemplate.findAllAndRemove(any(Query.class), eq(Appointment.class)))
+                .thenReturn(List.of(createConflictAppointment("appointment1")));
 
-        appointmentService.deleteMultipleAppointments(appointmentIds);
+        appointmentService.deleteMultipleAppointments(appointmentIds, null);
 
-        verify(appointmentRepository).deleteAllById(appointmentIds);
+        verify(appointmentIntervalIndex).removeAll(List.of("appointment1"));
+        verify(slotReservationManager).releaseAll(List.of("appointment1"));
     }
 
     @Test
-    void deleteMultipleAppointments_DeleteWithEmptyList_CallsRepositoryDeleteAll() {
-        List<String> appointmentIds = Collections.emptyList();
-        doNothing().when(appointmentRepository).deleteAllById(appointmentIds);
+    void deleteMultipleAppointments_CompletedAndArchived_PublishesEveryDeletedDocument() {
+        Appointment completed = createConflictAppointment("appointment1");
+        completed.setStatus("completed");
+        Appointment archived = createConflictAppointment("archived1");
+        archived.setStatus("cancelled");
+        when(mongoTemplate.findAllAndRemove(any(Query.class), eq(Appointment.class))).thenReturn(List.of(completed));
+        when(appointmentArchiveService.remove(any(Criteria.class))).thenReturn(List.of(archived));
+
+        long deleted = appointmentService.deleteMultipleAppointments(List.of("appointment1", "archived1"), doctorId);
+
+        assertEquals(2, deleted);
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(completed, archived), ((AppointmentsDeletedEvent) event.getValue()).getAppointments());
+    }
 
-        appointmentService.deleteMultipleAppointments(appointmentIds);
+    @Test
+    void getAppointmentOwnership_IdOnlyInArchive_ReadsOwnerFromArchive() {
+        Appointment archived = new Appointment();
+        archived.setId("archived1");
+        archived.setDoctorId(doctorId);
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class))).thenReturn(List.of(testAppointment));
+        when(appointmentArchiveService.reaches(null, null)).thenReturn(true);
+        when(appointmentArchiveService.find(any(), isNull(), isNull())).thenReturn(List.of(archived));
+
+        List<Appointment> owners = appointmentService.getAppointmentOwnership(List.of("appointment123", "archived1"));
+
+        assertEquals(Set.of("appointment123", "archived1"),
+                owners.stream().map(Appointment::getId).collect(Collectors.toSet()));
+    }
 
-        verify(appointmentRepository).deleteAllById(appointmentIds);
+    @Test
+    void getAppointmentsByDoctor_WindowReachesArchive_KeepsNearestAppointmentsAcrossCollections() {
+        Appointment older = new Appointment();
+        older.setId("archived1");
+        older.setStartTime(LocalDateTime.of(2023, 6, 1, 9, 0));
+        Appointment old = new Appointment();
+        old.setId("archived2");
+        old.setStartTime(LocalDateTime.of(2023, 7, 1, 9, 0));
+        ScrollPosition position = ScrollPosition.keyset();
+        when(appointmentRepository.findByDoctorIdOrderByStartTimeAscIdAsc(eq(doctorId), eq(position), any()))
+                .thenReturn(Window.from(List.of(testAppointment), i -> ScrollPosition.of(Map.of("startTime", startTime, "_id", "appointment123"), ScrollPosition.Direction.FORWARD), false));
+        when(appointmentArchiveService.reaches(null, null)).thenReturn(true);
+        when(appointmentArchiveService.scroll(any(), isNull(), isNull(), eq(position), eq(2)))
+                .thenReturn(List.of(Window.from(List.of(older, old),
+                        i -> ScrollPosition.of(Map.of("startTime", LocalDateTime.of(2023, 6 + i, 1, 9, 0), "_id", "archived" + (i + 1)), ScrollPosition.Direction.FORWARD), false)));
+
+        Window<Appointment> window = appointmentService.getAppointmentsByDoctor(doctorId, position, 2);
+
+        assertEquals(List.of(older, old), window.getContent());
+        assertTrue(window.hasNext());
+        assertEquals(ScrollPosition.of(Map.of("startTime", LocalDateTime.of(2023, 7, 1, 9, 0), "_id", "archived2"), ScrollPosition.Direction.FORWARD),
+                window.positionAt(1));
     }
 
-    // getAllAppointments Tests
+    @Test
+    void deleteMultipleAppointments_DeleteWithEmptyList_SkipsDatabase() {
+        assertEquals(0, appointmentService.deleteMultipleAppointments(Collections.emptyList(), null));
+
+        verifyNoInteractions(mongoTemplate);
+    }
 
     @Test
     void getAllAppointments_ReturnsAllAppointments_ReturnsFullList() {
@@ -507,6 +765,41 @@ class AppointmentServiceImplTest {
         verify(appointmentRepository).findByDoctorIdAndStartTimeBetween(doctorId, start, end);
     }
 
+    @Test
+    void getAppointmentsByDoctorAndDateRange_RangeReachesArchive_MergesArchivedAppointments() {
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 2, 1, 0, 0);
+        Appointment archived = new Appointment();
+        archived.setId("archived123");
+        archived.setDoctorId(doctorId);
+        archived.setStartTime(LocalDateTime.of(2023, 6, 1, 9, 0));
+        archived.setStatus("completed");
+        when(appointmentRepository.findByDoctorIdAndStartTimeBetween(doctorId, start, end)).thenReturn(List.of(testAppointment));
+        when(appointmentArchiveService.reaches(start, null)).thenReturn(true);
+        when(appointmentArchiveService.find(any(), eq(start), eq(end))).thenReturn(List.of(archived));
+
+        List<Appointment> result = appointmentService.getAppointmentsByDoctorAndDateRange(doctorId, start, end);
+
+        assertEquals(List.of(archived, testAppointment), result);
+    }
+
+    @Test
+    void streamAppointments_ArchivedCopyStillInHotCollection_ExportsIdOnce() {
+        LocalDateTime from = LocalDateTime.of(2023, 1, 1, 0, 0);
+        Appointment archived = new Appointment();
+        archived.setId("archived1");
+        Appointment moving = new Appointment();
+        moving.setId(testAppointment.getId());
+        when(appointmentArchiveService.reaches(from, null)).thenReturn(true);
+        when(appointmentArchiveService.stream(any(), eq(from), isNull())).thenReturn(Stream.of(archived, moving));
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class))).thenReturn(List.of(moving));
+        when(mongoTemplate.stream(any(Query.class), eq(Appointment.class))).thenReturn(Stream.of(testAppointment));
+
+        try (Stream<Appointment> exported = appointmentService.streamAppointments(null, doctorId, null, from, null)) {
+            assertEquals(List.of(archived, testAppointment), exported.toList());
+        }
+    }
+
     @Test
     void getAppointmentsByDoctorAndDateRange_NonExistentDoctor_ReturnsEmptyList() {
         String nonExistentDoctorId = "nonexistent123";
@@ -601,4 +894,153 @@ class AppointmentServiceImplTest {
         assertTrue(result.isEmpty());
         verify(appointmentRepository).findByStatus(invalidStatus);
     }
-}
\ No newline at end of file
+
+    // createAppointments Tests
+
+    @Test
+    void createAppointments_BranchFull_ReportsCapacityReason() {
+        Appointment appointment = createConflictAppointment(null);
+        when(appointmentIntervalIndex.covers(any())).thenReturn(true);
+        when(slotReservationManager.reserveAll(anyList())).thenAnswer(invocation -> Map.of(
+                invocation.<List<Appointment>>getArgument(0).get(0).getId(), "Branch is fully booked on 2025-01-15"));
+
+        List<AppointmentBatchResult> results = appointmentService.createAppointments(List.of(appointment));
+
+        assertFalse(results.get(0).isSuccess());
+        assertEquals("Branch is fully booked on 2025-01-15", results.get(0).getError());
+        verify(appointmentRepository, never()).insert(anyList());
+    }
+
+    @Test
+    void createAppointments_ConflictsInBatchAndStored_ReportsPerItemAndInsertsRest() {
+        Appointment first = createConflictAppointment(null);
+        first.setPatientId("patientA");
+        Appointment overlapsFirst = createConflictAppointment(null);
+        overlapsFirst.setPatientId("patientB");
+        overlapsFirst.setStartTime(startTime.plusMinutes(30));
+        overlapsFirst.setEndTime(endTime.plusMinutes(30));
+        Appointment afterFirst = createConflictAppointment(null);
+        afterFirst.setPatientId("patientC");
+        afterFirst.setStartTime(endTime);
+        afterFirst.setEndTime(endTime.plusHours(1));
+        Appointment storedConflict = createConflictAppointment(null);
+        storedConflict.setDoctorId("doctor456");
+        storedConflict.setPatientId("patientD");
+
+        testAppointment.setPatientId("patientD");
+        when(appointmentIntervalIndex.covers(any())).thenReturn(true);
+        when(appointmentIntervalIndex.findPatientCollision(anyString(), any(), any()))
+                .thenAnswer(invocation -> "patientD".equals(invocation.getArgument(0))
+                        ? List.of(testAppointment)
+                        : List.of());
+        when(appointmentRepository.findAllById(any())).thenReturn(List.of(testAppointment));
+        when(appointmentRepository.insert(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<AppointmentBatchResult> results = appointmentService.createAppointments(
+                List.of(first, overlapsFirst, afterFirst, storedConflict));
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(0, results.get(1).getConflictsWithIndex());
+        assertTrue(results.get(2).isSuccess());
+        assertFalse(results.get(3).isSuccess());
+        assertTrue(results.get(3).getError().contains("Test Appointment"));
+        verify(slotReservationManager).reserveAll(List.of(first, afterFirst));
+        verify(appointmentRepository, times(1)).insert(List.of(first, afterFirst));
+        verify(appointmentRepository, never()).save(any());
+    }
+
+    @Test
+    void getAppointmentsByDoctorAndDateRange_ActiveSeries_MergesOccurrencesByStartTime() {
+        LocalDateTime rangeStart = startTime.minusDays(1);
+        LocalDateTime rangeEnd = startTime.plusDays(7);
+        AppointmentSeries series = new AppointmentSeries();
+        series.setId("series1");
+        Appointment occurrence = createConflictAppointment("series1@" + startTime.minusHours(2));
+        occurrence.setStartTime(startTime.minusHours(2));
+        occurrence.setEndTime(startTime.minusHours(1));
+        occurrence.setSeriesId("series1");
+
+        when(appointmentRepository.findByDoctorIdAndStartTimeBetween(doctorId, rangeStart, rangeEnd))
+                .thenReturn(List.of(testAppointment));
+        when(appointmentSeriesRepository.findActiveDoctorSeries(doctorId, rangeStart, rangeEnd))
+                .thenReturn(List.of(series));
+        when(seriesOccurrenceExpander.expand(List.of(series), rangeStart, rangeEnd)).thenReturn(List.of(occurrence));
+
+        List<Appointment> result = appointmentService.getAppointmentsByDoctorAndDateRange(doctorId, rangeStart, rangeEnd);
+
+        assertEquals(List.of(occurrence, testAppointment), result);
+    }
+
+    @Test
+    void getBranchOccupancy_MergesAggregatedCellsWithSeriesOccurrences() {
+        LocalDateTime rangeStart = LocalDateTime.of(2025, 1, 13, 0, 0);
+        LocalDateTime rangeEnd = LocalDateTime.of(2025, 1, 20, 0, 0);
+        Document row = new Document("_id", new Document("date", "2025-01-15").append("dayOfWeek", 3).append("hour", 10))
+                .append("appointments", 2)
+                .append("bookedMillis", 90L * 60_000);
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(row), new Document()));
+
+        AppointmentSeries series = new AppointmentSeries();
+        Appointment sameCell = new Appointment();
+        sameCell.setStartTime(LocalDateTime.of(2025, 1, 15, 10, 30));
+        sameCell.setEndTime(LocalDateTime.of(2025, 1, 15, 11, 0));
+        Appointment laterCell = new Appointment();
+        laterCell.setStartTime(LocalDateTime.of(2025, 1, 16, 9, 0));
+        laterCell.setEndTime(LocalDateTime.of(2025, 1, 16, 9, 45));
+        when(appointmentSeriesRepository.findActiveBranchSeries("branch1", rangeStart, rangeEnd)).thenReturn(List.of(series));
+        when(seriesOccurrenceExpander.expand(List.of(series), rangeStart, rangeEnd)).thenReturn(List.of(laterCell, sameCell));
+
+        List<BranchOccupancyCount> result = appointmentService.getBranchOccupancy(
+                "branch1", rangeStart, rangeEnd, OccupancyBucket.HOUR);
+
+        assertEquals(List.of(
+                new BranchOccupancyCount("2025-01-15", 3, 10, 3, 120),
+                new BranchOccupancyCount("2025-01-16", 4, 9, 1, 45)), result);
+    }
+
+    @Test
+    void findAppointments_DoctorAndStatus_RunsSingleCompiledQuery() {
+        AppointmentFilter filter = new AppointmentFilter();
+        filter.setDoctorId(doctorId);
+        filter.setStatus("scheduled");
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class))).thenReturn(List.of(testAppointment));
+
+        List<Appointment> result = appointmentService.findAppointments(filter);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Appointment.class));
+        assertEquals(new Document("doctorId", doctorId).append("status", "scheduled"), query.getValue().getQueryObject());
+        assertEquals(List.of(testAppointment), result);
+        verify(appointmentRepository, never()).findByDoctorId(any());
+    }
+
+    @Test
+    void findAppointments_DateRange_ExcludesBothBoundsLikeBetween() {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 15, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 1, 16, 0, 0);
+        AppointmentFilter filter = new AppointmentFilter();
+        filter.setPatientId("patient123");
+        filter.setFrom(from);
+        filter.setTo(to);
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class))).thenReturn(List.of());
+
+        appointmentService.findAppointments(filter);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Appointment.class));
+        assertEquals(new Document("patientId", "patient123")
+                        .append("startTime", new Document("$gt", from).append("$lt", to)),
+                query.getValue().getQueryObject());
+    }
+
+    @Test
+    void findAppointments_EmptyBranchList_SkipsQuery() {
+        AppointmentFilter filter = new AppointmentFilter();
+        filter.setBranchIds(List.of());
+
+        assertTrue(appointmentService.findAppointments(filter).isEmpty());
+        verifyNoInteractions(mongoTemplate);
+    }
+}
@@ -0,0 +1,105 @@
+package com.scheduler.schedulerapp.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.recordtab.PatientMedicalRecord;
+import com.scheduler.schedulerapp.model.recordtab.VisitHistory;
+import com.scheduler.schedulerapp.service.appointment.AppointmentIntervalIndex;
+import com.scheduler.schedulerapp.service.appointment.AppointmentsSavedEvent;
+import com.scheduler.schedulerapp.service.lease.JobLeaseManager;
+import com.scheduler.schedulerapp.service.sweeper.AppointmentStatusSweeper;
+import com.scheduler.schedulerapp.service.sweeper.AppointmentSweepMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentStatusSweeperTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+
+    @Mock
+    private JobLeaseManager jobLeaseManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private AppointmentSweepMetrics metrics = new AppointmentSweepMetrics();
+
+    @InjectMocks
+    private AppointmentStatusSweeper sweeper;
+
+    private Appointment appointment(String id, LocalDateTime endTime) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setEndTime(endTime);
+        return appointment;
+    }
+
+    @Test
+    void sweep_PastScheduledAppointments_SplitsIntoCompletedAndNoShow() {
+        LocalDateTime oldestEnd = LocalDateTime.now().minusHours(2);
+        VisitHistory visit = new VisitHistory();
+        visit.setAppointmentId("a2");
+        PatientMedicalRecord record = new PatientMedicalRecord();
+        record.setVisitHistory(List.of(visit));
+
+        when(jobLeaseManager.tryAcquire("appointment-status-sweep")).thenReturn(true);
+        when(jobLeaseManager.renew("appointment-status-sweep")).thenReturn(true);
+        when(mongoTemplate.count(any(Query.class), eq(Appointment.class))).thenReturn(3L);
+        when(mongoTemplate.findOne(any(Query.class), eq(Appointment.class)))
+                .thenReturn(appointment("a1", oldestEnd), (Appointment) null);
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class))).thenReturn(List.of(
+                appointment("a1", oldestEnd), appointment("a2", oldestEnd), appointment("a3", oldestEnd.plusMinutes(30))));
+        when(mongoTemplate.find(any(Query.class), eq(PatientMedicalRecord.class))).thenReturn(List.of(record));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Appointment.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null), UpdateResult.acknowledged(2, 2L, null));
+
+        assertTrue(sweeper.sweep());
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateMulti(any(Query.class), updates.capture(), eq(Appointment.class));
+        assertEquals("completed", updates.getAllValues().get(0).getUpdateObject().get("$set", org.bson.Document.class).get("status"));
+        assertEquals("no_show", updates.getAllValues().get(1).getUpdateObject().get("$set", org.bson.Document.class).get("status"));
+        verify(appointmentIntervalIndex).removeAll(List.of("a1", "a2", "a3"));
+
+        assertFalse(metrics.isRunning());
+        assertEquals(1, metrics.getCompleted());
+        assertEquals(2, metrics.getNoShow());
+        assertEquals(1, metrics.getChunks());
+        assertEquals(3, metrics.getBacklog());
+        assertEquals(1, metrics.getTotalRuns());
+        verify(jobLeaseManager).release("appointment-status-sweep");
+        verify(eventPublisher).publishEvent(any(AppointmentsSavedEvent.class));
+    }
+
+    @Test
+    void sweep_LeaseHeldByAnotherNode_DoesNothing() {
+        when(jobLeaseManager.tryAcquire("appointment-status-sweep")).thenReturn(false);
+
+        assertFalse(sweeper.sweep());
+
+        verifyNoInteractions(mongoTemplate);
+        verify(jobLeaseManager, never()).release(anyString());
+    }
+}
@@ -0,0 +1,192 @@
+package com.scheduler.schedulerapp.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.BranchCapacityCounter;
+import com.scheduler.schedulerapp.model.HospitalBranch;
+import com.scheduler.schedulerapp.repository.HospitalBranchRepository;
+import com.scheduler.schedulerapp.service.appointment.BranchCapacityManager;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BranchCapacityManagerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private HospitalBranchRepository hospitalBranchRepository;
+
+    @InjectMocks
+    private BranchCapacityManager branchCapacityManager;
+
+    private Appointment appointment;
+
+    @BeforeEach
+    void setUp() {
+        HospitalBranch branch = new HospitalBranch();
+        branch.setId("branch123");
+        branch.setHourlyCapacity(3);
+        branch.setDailyCapacity(20);
+        lenient().when(hospitalBranchRepository.findById("branch123")).thenReturn(Optional.of(branch));
+
+        appointment = new Appointment();
+        appointment.setId("appointment123");
+        appointment.setBranchId("branch123");
+        appointment.setStatus("scheduled");
+        appointment.setStartTime(LocalDateTime.of(2025, 1, 15, 9, 30));
+        appointment.setEndTime(LocalDateTime.of(2025, 1, 15, 10, 15));
+    }
+
+    @Test
+    void reserve_OpenBranch_IncrementsEachCounterOnlyBelowItsLimit() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(BranchCapacityCounter.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        branchCapacityManager.reserve(appointment);
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(3)).upsert(queries.capture(), any(Update.class), eq(BranchCapacityCounter.class));
+        List<String> filters = queries.getAllValues().stream().map(query -> query.getQueryObject().toJson()).toList();
+        assertTrue(filters.get(0).contains("branch123:hour:2025-01-15T09:00"));
+        assertTrue(filters.get(0).contains("\"$lt\": 3"));
+        assertTrue(filters.get(0).contains("\"$ne\": \"appointment123\""));
+        assertTrue(filters.get(1).contains("branch123:hour:2025-01-15T10:00"));
+        assertTrue(filters.get(2).contains("branch123:day:2025-01-15T00:00"));
+        assertTrue(filters.get(2).contains("\"$lt\": 20"));
+    }
+
+    @Test
+    void reserve_SecondHourFull_ReleasesFirstHourAndThrows() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(BranchCapacityCounter.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> branchCapacityManager.reserve(appointment));
+
+        assertTrue(exception.getMessage().contains("fully booked"));
+        verify(mongoTemplate, times(3)).upsert(any(Query.class), any(Update.class), eq(BranchCapacityCounter.class));
+        ArgumentCaptor<Query> released = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(released.capture(), any(Update.class), eq(BranchCapacityCounter.class));
+        assertTrue(released.getValue().getQueryObject().toJson().contains("branch123:hour:2025-01-15T09:00"));
+        assertFalse(released.getValue().getQueryObject().toJson().contains("T10:00"));
+    }
+
+    @Test
+    void reserveAll_OneAppointmentDoesNotFit_ReturnsItsReason() {
+        Appointment other = new Appointment();
+        other.setId("appointment456");
+        other.setBranchId("branch123");
+        other.setStatus("scheduled");
+        other.setStartTime(LocalDateTime.of(2025, 1, 15, 14, 0));
+        other.setEndTime(LocalDateTime.of(2025, 1, 15, 14, 30));
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(BranchCapacityCounter.class)))
+                .thenAnswer(invocation -> invocation.<Query>getArgument(0).getQueryObject().toJson().contains("T14:00")
+                        ? UpdateResult.acknowledged(0, 0L, null)
+                        : UpdateResult.acknowledged(1, 1L, null));
+
+        Map<String, String> rejected = branchCapacityManager.reserveAll(List.of(appointment, other));
+
+        assertEquals(Map.of("appointment456", "Branch is fully booked for the hour starting 2025-01-15T14:00"), rejected);
+    }
+
+    @Test
+    void reserveOccurrences_LaterOccurrenceDoesNotFit_ReleasesEarlierOnesAndThrows() {
+        Appointment first = occurrence(LocalDateTime.of(2025, 1, 6, 9, 0));
+        Appointment second = occurrence(LocalDateTime.of(2025, 1, 13, 9, 0));
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(BranchCapacityCounter.class)))
+                .thenAnswer(invocation -> invocation.<Query>getArgument(0).getQueryObject().toJson().contains("2025-01-13")
+                        ? UpdateResult.acknowledged(0, 0L, null)
+                        : UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.find(any(Query.class), eq(BranchCapacityCounter.class)))
+                .thenReturn(List.of(counter("branch123:day:2025-01-06T00:00", 1, first.getId())));
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BranchCapacityCounter.class)).thenReturn(bulk);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> branchCapacityManager.reserveOccurrences(List.of(first, second)));
+
+        assertTrue(exception.getMessage().startsWith("Series occurrence on 2025-01-13T09:00"));
+        ArgumentCaptor<Query> released = ArgumentCaptor.forClass(Query.class);
+        verify(bulk).updateMulti(released.capture(), any(Update.class));
+        assertEquals(first.getId(), released.getValue().getQueryObject().get("holders"));
+        verify(bulk).execute();
+        verify(mongoTemplate).remove(any(Query.class), eq(BranchCapacityCounter.class));
+    }
+
+    @Test
+    void reserve_SeriesOccurrence_TagsCountersWithItsSeries() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(BranchCapacityCounter.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        branchCapacityManager.reserve(occurrence(LocalDateTime.of(2025, 1, 6, 9, 0)));
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), updates.capture(), eq(BranchCapacityCounter.class));
+        for (Update update : updates.getAllValues()) {
+            assertEquals(new Document("series", "series123"), update.getUpdateObject().get("$addToSet"));
+        }
+    }
+
+    @Test
+    void releaseSeries_TaggedCounters_PullsOnlyThatSeriesAndRemovesEmptyCounters() {
+        when(mongoTemplate.find(any(Query.class), eq(BranchCapacityCounter.class))).thenReturn(List.of(
+                counter("branch123:day:2025-01-06T00:00", 2, "series123@2025-01-06T09:00", "appointment123")));
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BranchCapacityCounter.class)).thenReturn(bulk);
+
+        branchCapacityManager.releaseSeries(List.of("series123"));
+
+        ArgumentCaptor<Query> read = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(read.capture(), eq(BranchCapacityCounter.class));
+        assertTrue(read.getValue().getQueryObject().toJson().contains("\"series\": {\"$in\": [\"series123\"]}"));
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk).updateOne(any(Query.class), update.capture());
+        assertEquals(new Document("count", -1), update.getValue().getUpdateObject().get("$inc"));
+        assertEquals(List.of("series123@2025-01-06T09:00"),
+                ((Document) update.getValue().getUpdateObject().get("$pullAll")).get("holders"));
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(BranchCapacityCounter.class));
+        assertEquals(new Document("$lte", 0), removed.getValue().getQueryObject().get("count"));
+    }
+
+    private BranchCapacityCounter counter(String id, int count, String... holders) {
+        BranchCapacityCounter counter = new BranchCapacityCounter();
+        counter.setId(id);
+        counter.setCount(count);
+        counter.setHolders(List.of(holders));
+        return counter;
+    }
+
+    private Appointment occurrence(LocalDateTime start) {
+        Appointment occurrence = new Appointment();
+        occurrence.setId("series123@" + start);
+        occurrence.setBranchId("branch123");
+        occurrence.setStatus("scheduled");
+        occurrence.setStartTime(start);
+        occurrence.setEndTime(start.plusMinutes(30));
+        return occurrence;
+    }
+}
@@ -0,0 +1,323 @@
+package com.scheduler.schedulerapp.service;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
+import com.scheduler.schedulerapp.model.DeactivationJob;
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.model.StaffBranchMapping;
+import com.scheduler.schedulerapp.repository.DeactivationJobRepository;
+import com.scheduler.schedulerapp.service.access.StaffAccessChangedEvent;
+import com.scheduler.schedulerapp.service.appointment.AppointmentIntervalIndex;
+import com.scheduler.schedulerapp.service.appointment.SlotReservationManager;
+import com.scheduler.schedulerapp.service.series.AppointmentSeriesChangedEvent;
+import com.scheduler.schedulerapp.service.series.SeriesOccurrenceExpander;
+import com.scheduler.schedulerapp.service.deactivation.DeactivationJobServiceImpl;
+import com.scheduler.schedulerapp.service.waitlist.AppointmentsCancelledEvent;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeactivationJobServiceImplTest {
+
+    @Mock
+    private DeactivationJobRepository deactivationJobRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+
+    @Mock
+    private SlotReservationManager slotReservationManager;
+
+    @Mock
+    private SeriesOccurrenceExpander seriesOccurrenceExpander;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private DeactivationJobServiceImpl deactivationJobService;
+
+    private DeactivationJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new DeactivationJob();
+        job.setId("job1");
+        job.setTargetType("doctor");
+        job.setTargetId("doctor1");
+        job.setStatus("running");
+        job.setCutoff(LocalDateTime.of(2025, 1, 15, 9, 0));
+        job.setLastAppointmentId("a1");
+        job.setCancelledAppointments(1L);
+        job.setAttempts(2);
+        lenient().when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(DeactivationJob.class))).thenReturn(job);
+        lenient().when(mongoTemplate.exists(any(Query.class), eq(HospitalStaff.class))).thenReturn(true);
+        lenient().when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(DeactivationJob.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+    }
+
+    @Test
+    void run_ResumesFromCheckpointAndCompletesEveryPhase() {
+        Appointment next = new Appointment();
+        next.setId("a2");
+        next.setStatus("scheduled");
+        StaffBranchMapping mapping = new StaffBranchMapping();
+        mapping.setId("m1");
+        mapping.setDoctorId("doctor1");
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class))).thenReturn(List.of(next), List.of(next), List.of());
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Appointment.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.find(any(Query.class), eq(AppointmentSeries.class))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(StaffBranchMapping.class))).thenReturn(List.of(mapping), List.of());
+        when(mongoTemplate.remove(any(Query.class), eq(StaffBranchMapping.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        deactivationJobService.run("job1");
+
+        ArgumentCaptor<Query> appointmentQuery = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(3)).find(appointmentQuery.capture(), eq(Appointment.class));
+        assertEquals("a1", ((Document) appointmentQuery.getAllValues().get(0).getQueryObject().get("_id")).get("$gt"));
+
+        assertEquals("completed", job.getStatus());
+        assertEquals("done", job.getPhase());
+        assertEquals("a2", job.getLastAppointmentId());
+        assertEquals(2L, job.getCancelledAppointments());
+        assertEquals(1L, job.getRemovedMappings());
+        assertNotNull(job.getCompletedAt());
+        assertEquals("cancelled", next.getStatus());
+        verify(slotReservationManager).releaseAll(List.of("a2"));
+        verify(eventPublisher).publishEvent(any(AppointmentsCancelledEvent.class));
+        verify(eventPublisher).publishEvent(any(StaffAccessChangedEvent.class));
+    }
+
+    @Test
+    void run_AppointmentMovedBetweenReadAndUpdate_ReleasesOnlyWhatWasCancelled() {
+        Appointment cancelled = new Appointment();
+        cancelled.setId("a2");
+        cancelled.setStatus("scheduled");
+        Appointment moved = new Appointment();
+        moved.setId("a3");
+        moved.setStatus("scheduled");
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class)))
+                .thenReturn(List.of(cancelled, moved), List.of(cancelled), List.of());
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Appointment.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.find(any(Query.class), eq(AppointmentSeries.class))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(StaffBranchMapping.class))).thenReturn(List.of());
+
+        deactivationJobService.run("job1");
+
+        ArgumentCaptor<Query> update = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(update.capture(), any(UpdateDefinition.class), eq(Appointment.class));
+        Document filter = update.getValue().getQueryObject();
+        assertEquals("doctor1", filter.get("doctorId"));
+        assertEquals("scheduled", filter.get("status"));
+        assertNotNull(filter.get("startTime"));
+        ArgumentCaptor<Query> readBack = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(3)).find(readBack.capture(), eq(Appointment.class));
+        assertEquals("job1", readBack.getAllValues().get(1).getQueryObject().get("cancelledByJob"));
+        verify(slotReservationManager).releaseAll(List.of("a2"));
+        verify(appointmentIntervalIndex).removeAll(List.of("a2"));
+        ArgumentCaptor<AppointmentsCancelledEvent> event = ArgumentCaptor.forClass(AppointmentsCancelledEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(cancelled), event.getValue().getAppointments());
+        assertEquals("scheduled", moved.getStatus());
+        assertEquals("a3", job.getLastAppointmentId());
+    }
+
+    @Test
+    void run_WhenBatchFails_KeepsCheckpointAndReleasesJobForRetry() {
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        deactivationJobService.run("job1");
+
+        assertEquals("pending", job.getStatus());
+        assertEquals("appointments", job.getPhase());
+        assertEquals("a1", job.getLastAppointmentId());
+        assertEquals("connection reset", job.getError());
+        assertNull(job.getLeaseUntil());
+        verify(mongoTemplate).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(DeactivationJob.class));
+    }
+
+    @Test
+    void run_TargetReactivated_StopsWithoutCancellingAnything() {
+        when(mongoTemplate.exists(any(Query.class), eq(HospitalStaff.class))).thenReturn(false);
+
+        deactivationJobService.run("job1");
+
+        assertEquals("cancelled", job.getStatus());
+        assertEquals("appointments", job.getPhase());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Appointment.class));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Appointment.class));
+        verify(slotReservationManager, never()).releaseAll(any());
+    }
+
+    @Test
+    void run_JobCancelledDuringBatch_StopsAtCheckpoint() {
+        Appointment next = new Appointment();
+        next.setId("a2");
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class))).thenReturn(List.of(next), List.of(next));
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Appointment.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(DeactivationJob.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        deactivationJobService.run("job1");
+
+        verify(mongoTemplate, times(2)).find(any(Query.class), eq(Appointment.class));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(AppointmentSeries.class));
+        assertNotEquals("completed", job.getStatus());
+    }
+
+    @Test
+    void run_BoundsAppointmentsAndMappingsByTheJobCutoff() {
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(AppointmentSeries.class))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(StaffBranchMapping.class))).thenReturn(List.of());
+
+        deactivationJobService.run("job1");
+
+        ArgumentCaptor<Query> appointments = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(appointments.capture(), eq(Appointment.class));
+        assertTrue(appointments.getValue().getQueryObject().toString().contains("createdAt"));
+        ArgumentCaptor<Query> mappings = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(mappings.capture(), eq(StaffBranchMapping.class));
+        ObjectId bound = (ObjectId) ((Document) mappings.getValue().getQueryObject().get("_id")).get("$lt");
+        assertEquals(job.getCutoff().plusSeconds(1).atZone(ZoneId.systemDefault()).toInstant().getEpochSecond(),
+                bound.getTimestamp());
+        assertEquals("completed", job.getStatus());
+    }
+
+    @Test
+    void run_EndsStartedSeriesAtTheCutoffAndReleasesOnlyLaterOccurrences() {
+        AppointmentSeries series = new AppointmentSeries();
+        series.setId("s1");
+        series.setDoctorId("doctor1");
+        series.setSeriesStart(LocalDateTime.of(2025, 1, 1, 8, 30));
+        series.setSeriesEnd(LocalDateTime.of(2025, 3, 1, 9, 0));
+        Appointment later = new Appointment();
+        later.setId("s1@2025-01-22T08:30");
+        job.setPhase("series");
+        when(mongoTemplate.find(any(Query.class), eq(AppointmentSeries.class))).thenReturn(List.of(series));
+        when(seriesOccurrenceExpander.endAt(series, job.getCutoff())).thenReturn(LocalDateTime.of(2025, 1, 15, 9, 30));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(AppointmentSeries.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(seriesOccurrenceExpander.expandFrom(series, job.getCutoff())).thenReturn(List.of(later));
+        when(mongoTemplate.find(any(Query.class), eq(StaffBranchMapping.class))).thenReturn(List.of());
+
+        deactivationJobService.run("job1");
+
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(AppointmentSeries.class));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals(LocalDateTime.of(2025, 1, 15, 9, 30), set.get("seriesEnd"));
+        assertEquals("job1", set.get("endedByJob"));
+        assertNull(set.get("status"));
+        assertEquals("active", series.getStatus());
+        verify(appointmentIntervalIndex).putSeries(series);
+        verify(slotReservationManager).releaseOccurrencesFrom("s1", List.of(later));
+        verify(slotReservationManager, never()).releaseSeries(any());
+        verify(eventPublisher).publishEvent(any(AppointmentSeriesChangedEvent.class));
+        assertEquals(1L, job.getCancelledSeries());
+        assertEquals("completed", job.getStatus());
+    }
+
+    @Test
+    void run_SeriesNotStartedByCutoff_IsCancelled() {
+        AppointmentSeries series = new AppointmentSeries();
+        series.setId("s1");
+        series.setSeriesStart(LocalDateTime.of(2025, 2, 1, 8, 30));
+        series.setSeriesEnd(LocalDateTime.of(2025, 3, 1, 9, 0));
+        job.setPhase("series");
+        when(mongoTemplate.find(any(Query.class), eq(AppointmentSeries.class))).thenReturn(List.of(series));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(AppointmentSeries.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.find(any(Query.class), eq(StaffBranchMapping.class))).thenReturn(List.of());
+
+        deactivationJobService.run("job1");
+
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(AppointmentSeries.class));
+        assertEquals("cancelled", ((Document) update.getValue().getUpdateObject().get("$set")).get("status"));
+        verify(seriesOccurrenceExpander, never()).endAt(any(), any());
+        verify(slotReservationManager).releaseOccurrencesFrom(eq("s1"), any());
+    }
+
+    @Test
+    void run_SeriesEndedByOthersSinceRead_IsLeftAlone() {
+        AppointmentSeries series = new AppointmentSeries();
+        series.setId("s1");
+        series.setSeriesStart(LocalDateTime.of(2025, 2, 1, 8, 30));
+        series.setSeriesEnd(LocalDateTime.of(2025, 3, 1, 9, 0));
+        job.setPhase("series");
+        when(mongoTemplate.find(any(Query.class), eq(AppointmentSeries.class))).thenReturn(List.of(series));
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(AppointmentSeries.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        when(mongoTemplate.find(any(Query.class), eq(StaffBranchMapping.class))).thenReturn(List.of());
+
+        deactivationJobService.run("job1");
+
+        verify(slotReservationManager, never()).releaseOccurrencesFrom(any(), any());
+        verify(appointmentIntervalIndex, never()).putSeries(any());
+        assertEquals(0L, job.getCancelledSeries());
+    }
+
+    @Test
+    void run_SeriesEndedByThisJobBeforeACrash_IsReleasedAgainWithoutRewriting() {
+        AppointmentSeries series = new AppointmentSeries();
+        series.setId("s1");
+        series.setSeriesStart(LocalDateTime.of(2025, 1, 1, 8, 30));
+        series.setSeriesEnd(LocalDateTime.of(2025, 1, 15, 9, 30));
+        series.setEndedByJob("job1");
+        job.setPhase("series");
+        when(mongoTemplate.find(any(Query.class), eq(AppointmentSeries.class))).thenReturn(List.of(series));
+        when(seriesOccurrenceExpander.expandFrom(series, job.getCutoff())).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(StaffBranchMapping.class))).thenReturn(List.of());
+
+        deactivationJobService.run("job1");
+
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(AppointmentSeries.class));
+        verify(slotReservationManager).releaseOccurrencesFrom("s1", List.of());
+        assertEquals(0L, job.getCancelledSeries());
+    }
+
+    @Test
+    void cancelJobsForTarget_MarksPendingAndRunningJobsCancelled() {
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(DeactivationJob.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertEquals(1L, deactivationJobService.cancelJobsForTarget("doctor1"));
+
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), update.capture(), eq(DeactivationJob.class));
+        assertEquals("cancelled", ((Document) update.getValue().getUpdateObject().get("$set")).get("status"));
+    }
+}
@@ -0,0 +1,172 @@
+package com.scheduler.schedulerapp.service;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.DoctorAgenda;
+import com.scheduler.schedulerapp.model.HospitalBranch;
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.model.Patient;
+import com.scheduler.schedulerapp.repository.DoctorAgendaRepository;
+import com.scheduler.schedulerapp.service.agenda.DoctorAgendaServiceImpl;
+import com.scheduler.schedulerapp.service.appointment.AppointmentService;
+import com.scheduler.schedulerapp.service.appointment.AppointmentsSavedEvent;
+import com.scheduler.schedulerapp.service.archive.AppointmentsArchivedEvent;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.hospitalbranch.HospitalBranchService;
+import com.scheduler.schedulerapp.service.patient.PatientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorAgendaServiceImplTest {
+
+    @Mock
+    private DoctorAgendaRepository doctorAgendaRepository;
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Mock
+    private DoctorService doctorService;
+
+    @Mock
+    private PatientService patientService;
+
+    @Mock
+    private HospitalBranchService hospitalBranchService;
+
+    @InjectMocks
+    private DoctorAgendaServiceImpl doctorAgendaService;
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 15);
+
+    private final List<Runnable> queuedRefreshes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(doctorAgendaService, "refresher", (Executor) queuedRefreshes::add);
+    }
+
+    private void runRefreshes() {
+        List<Runnable> refreshes = List.copyOf(queuedRefreshes);
+        queuedRefreshes.clear();
+        refreshes.forEach(Runnable::run);
+    }
+
+    private Appointment appointment(String id, LocalDateTime start, int minutes, String status) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setDoctorId("doctor123");
+        appointment.setPatientId("patient123");
+        appointment.setBranchId("branch123");
+        appointment.setStartTime(start);
+        appointment.setEndTime(start.plusMinutes(minutes));
+        appointment.setStatus(status);
+        return appointment;
+    }
+
+    private void stubNames() {
+        HospitalStaff doctor = new HospitalStaff();
+        doctor.setId("doctor123");
+        doctor.setName("Dr. Smith");
+        when(doctorService.getDoctorById("doctor123")).thenReturn(Optional.of(doctor));
+        Patient patient = new Patient();
+        patient.setId("patient123");
+        patient.setName("John Doe");
+        when(patientService.getPatientsByIds(any())).thenReturn(List.of(patient));
+        HospitalBranch branch = new HospitalBranch();
+        branch.setId("branch123");
+        branch.setBranchCode("BR-1");
+        when(hospitalBranchService.getBranchesByIds(any())).thenReturn(List.of(branch));
+        when(doctorAgendaRepository.save(any(DoctorAgenda.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void getAgenda_MissingAgenda_BuildsDayWithResolvedNamesAndBookedMinutes() {
+        stubNames();
+        when(doctorAgendaRepository.findById("doctor123:2025-01-15")).thenReturn(Optional.empty());
+        when(appointmentService.getAppointmentsByDoctorAndDateRange(eq("doctor123"), any(), any())).thenReturn(List.of(
+                appointment("a2", DAY.atTime(11, 0), 30, "cancelled"),
+                appointment("a1", DAY.atTime(9, 0), 45, "scheduled"),
+                appointment("a3", DAY.plusDays(1).atStartOfDay(), 60, "scheduled")));
+
+        DoctorAgenda agenda = doctorAgendaService.getAgenda("doctor123", DAY);
+
+        assertEquals("doctor123:2025-01-15", agenda.getId());
+        assertEquals("Dr. Smith", agenda.getDoctorName());
+        assertEquals(2, agenda.getEntries().size());
+        assertEquals("a1", agenda.getEntries().get(0).getAppointmentId());
+        assertEquals("John Doe", agenda.getEntries().get(0).getPatientName());
+        assertEquals("BR-1", agenda.getEntries().get(0).getBranchCode());
+        assertEquals(45, agenda.getBookedMinutes());
+    }
+
+    @Test
+    void onAppointmentsSaved_MovedAppointment_RebuildsOldAndNewDays() {
+        stubNames();
+        DoctorAgenda previousDay = new DoctorAgenda();
+        previousDay.setId("doctor123:2025-01-14");
+        previousDay.setDoctorId("doctor123");
+        previousDay.setDate(DAY.minusDays(1));
+        when(doctorAgendaRepository.findKeysContainingAppointments(any())).thenReturn(List.of(previousDay));
+        Appointment moved = appointment("a1", DAY.atTime(9, 0), 30, "scheduled");
+        when(appointmentService.getAppointmentsByDoctorAndDateRange(eq("doctor123"), any(), any()))
+                .thenReturn(List.of(moved), List.of());
+
+        doctorAgendaService.onAppointmentsSaved(new AppointmentsSavedEvent(List.of(moved)));
+        verifyNoInteractions(doctorAgendaRepository);
+        runRefreshes();
+
+        ArgumentCaptor<DoctorAgenda> saved = ArgumentCaptor.forClass(DoctorAgenda.class);
+        verify(doctorAgendaRepository, times(2)).save(saved.capture());
+        assertEquals("doctor123:2025-01-15", saved.getAllValues().get(0).getId());
+        assertEquals(1, saved.getAllValues().get(0).getEntries().size());
+        assertEquals("doctor123:2025-01-14", saved.getAllValues().get(1).getId());
+        assertTrue(saved.getAllValues().get(1).getEntries().isEmpty());
+    }
+
+    @Test
+    void onAppointmentsSaved_SameDayTouchedTwiceBeforeRefresh_RebuildsItOnce() {
+        stubNames();
+        Appointment first = appointment("a1", DAY.atTime(9, 0), 30, "scheduled");
+        Appointment second = appointment("a2", DAY.atTime(10, 0), 30, "completed");
+        when(appointmentService.getAppointmentsByDoctorAndDateRange(eq("doctor123"), any(), any()))
+                .thenReturn(List.of(first, second));
+
+        doctorAgendaService.onAppointmentsSaved(new AppointmentsSavedEvent(List.of(first)));
+        doctorAgendaService.onAppointmentsSaved(new AppointmentsSavedEvent(List.of(second)));
+
+        assertEquals(1, queuedRefreshes.size());
+        runRefreshes();
+        verify(doctorAgendaRepository).findKeysContainingAppointments(Set.of("a1", "a2"));
+        verify(doctorAgendaRepository, times(1)).save(any(DoctorAgenda.class));
+    }
+
+    @Test
+    void onAppointmentsArchived_DropsArchivedDaysWithoutRebuilding() {
+        doctorAgendaService.onAppointmentsArchived(new AppointmentsArchivedEvent(List.of(
+                appointment("a1", DAY.atTime(9, 0), 30, "completed"),
+                appointment("a2", DAY.atTime(14, 0), 30, "no_show"))));
+
+        verify(doctorAgendaRepository).deleteAllById(Set.of("doctor123:2025-01-15"));
+        verifyNoInteractions(appointmentService);
+        assertTrue(queuedRefreshes.isEmpty());
+    }
+}
@@ -1,14 +1,24 @@
 package com.scheduler.schedulerapp.service;
 
+import com.scheduler.schedulerapp.model.DeactivationJob;
 import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.repository.AppointmentRepository;
+import com.scheduler.schedulerapp.repository.DoctorBranchMappingRepository;
 import com.scheduler.schedulerapp.repository.DoctorRepository;
+import com.scheduler.schedulerapp.service.activitylogservice.ActivityLogService;
+import com.scheduler.schedulerapp.service.auth.AuthService;
+import com.scheduler.schedulerapp.service.deactivation.DeactivationJobService;
 import com.scheduler.schedulerapp.service.doctor.DoctorServiceImpl;
+import com.scheduler.schedulerapp.service.doctor.StaffCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.List;
@@ -24,6 +34,27 @@ class DoctorServiceImplTest {
     @Mock
     private DoctorRepository doctorRepository;
 
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private DoctorBranchMappingRepository doctorBranchMappingRepository;
+
+    @Mock
+    private DeactivationJobService deactivationJobService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ActivityLogService activityLogService;
+
+    @Mock
+    private AuthService authService;
+
+    @Spy
+    private StaffCache staffCache = new StaffCache();
+
     @InjectMocks
     private DoctorServiceImpl doctorService;
 
@@ -93,6 +124,21 @@ class DoctorServiceImplTest {
         verify(doctorRepository, times(1)).findById(null);
     }
 
+    @Test
+    void getDoctorById_RepeatedUntilUpdated_ReadsRepositoryOncePerVersion() {
+        when(doctorRepository.findById("1")).thenReturn(Optional.of(doctor1));
+        when(doctorRepository.save(any(HospitalStaff.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        doctorService.getDoctorById("1");
+        doctorService.getDoctorById("1");
+        doctorService.updateDoctor("1", doctor2);
+        doctorService.getDoctorById("1");
+
+        verify(doctorRepository, times(3)).findById("1");
+        assertEquals(1, staffCache.getHits());
+        assertEquals(2, staffCache.getMisses());
+    }
+
     @Test
     void getDoctorsByRole_WhenDoctorsExist_ShouldReturnDoctorsWithRole() {
         String role = "doctor";
@@ -229,4 +275,33 @@ class DoctorServiceImplTest {
         });
         verify(doctorRepository, times(1)).deleteById(null);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteDoctor_EnqueuesDeactivationJobInsteadOfCascadingInline() {
+        DeactivationJob job = new DeactivationJob();
+        job.setId("job1");
+        when(doctorRepository.findById("1")).thenReturn(Optional.of(doctor1));
+        when(deactivationJobService.enqueueDoctorDeactivation("1")).thenReturn(job);
+
+        doctorService.deleteDoctor("1");
+
+        assertFalse(doctor1.getIsActive());
+        InOrder order = inOrder(deactivationJobService, doctorRepository);
+        order.verify(deactivationJobService).enqueueDoctorDeactivation("1");
+        order.verify(doctorRepository).save(doctor1);
+        order.verify(deactivationJobService).start(job);
+        verify(appointmentRepository, never()).save(any());
+    }
+
+    @Test
+    void reactivateDoctor_CancelsPendingDeactivationJob() {
+        doctor1.setIsActive(false);
+        when(doctorRepository.findById("1")).thenReturn(Optional.of(doctor1));
+        when(doctorRepository.save(doctor1)).thenReturn(doctor1);
+
+        doctorService.reactivateDoctor("1");
+
+        assertTrue(doctor1.getIsActive());
+        verify(deactivationJobService).cancelJobsForTarget("1");
+    }
+}
@@ -0,0 +1,36 @@
+package com.scheduler.schedulerapp.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.scheduler.schedulerapp.service.reminder.EmailReminderSender;
+import com.scheduler.schedulerapp.service.reminder.ReminderMessage;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailReminderSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    void send_ReminderMessage_DeliversMailToRecipient() throws Exception {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        EmailReminderSender sender = new EmailReminderSender();
+        ReflectionTestUtils.setField(sender, "mailSender", mailSender);
+
+        sender.send(new ReminderMessage("appointment1", "email", "patient@example.com",
+                "Appointment reminder: Checkup", "Your appointment is tomorrow."));
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertEquals("Appointment reminder: Checkup", received[0].getSubject());
+        assertEquals("patient@example.com", received[0].getAllRecipients()[0].toString());
+    }
+}
@@ -0,0 +1,89 @@
+package com.scheduler.schedulerapp.service;
+
+import com.scheduler.schedulerapp.dto.HospitalBranchInputDTO;
+import com.scheduler.schedulerapp.dto.HospitalBranchUpdateInputDTO;
+import com.scheduler.schedulerapp.model.HospitalBranch;
+import com.scheduler.schedulerapp.repository.HospitalBranchRepository;
+import com.scheduler.schedulerapp.service.hospitalbranch.HospitalBranchServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HospitalBranchServiceImplTest {
+
+    @Mock
+    private HospitalBranchRepository hospitalBranchRepository;
+
+    @InjectMocks
+    private HospitalBranchServiceImpl hospitalBranchService;
+
+    private HospitalBranch existingBranch() {
+        HospitalBranch branch = new HospitalBranch();
+        branch.setId("branch123");
+        branch.setBranchCode("BR-1");
+        branch.setHourlyCapacity(3);
+        branch.setDailyCapacity(20);
+        branch.setIsActive(true);
+        when(hospitalBranchRepository.findById("branch123")).thenReturn(Optional.of(branch));
+        return branch;
+    }
+
+    @Test
+    void createBranch_ZeroHourlyCapacity_ThrowsIllegalArgumentException() {
+        HospitalBranchInputDTO input = new HospitalBranchInputDTO();
+        input.setBranchCode("BR-2");
+        input.setHourlyCapacity(0);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> hospitalBranchService.createBranch(input));
+
+        assertEquals("Hourly capacity must be at least 1", exception.getMessage());
+        verify(hospitalBranchRepository, never()).save(any());
+    }
+
+    @Test
+    void updateBranch_ClearDailyCapacity_RemovesLimitAndKeepsHourly() {
+        HospitalBranch branch = existingBranch();
+        when(hospitalBranchRepository.save(branch)).thenReturn(branch);
+        HospitalBranchUpdateInputDTO input = new HospitalBranchUpdateInputDTO();
+        input.setClearDailyCapacity(true);
+
+        HospitalBranch updated = hospitalBranchService.updateBranch("branch123", input);
+
+        assertNull(updated.getDailyCapacity());
+        assertEquals(3, updated.getHourlyCapacity());
+    }
+
+    @Test
+    void updateBranch_SetAndClearHourlyCapacity_ThrowsIllegalArgumentException() {
+        existingBranch();
+        HospitalBranchUpdateInputDTO input = new HospitalBranchUpdateInputDTO();
+        input.setHourlyCapacity(5);
+        input.setClearHourlyCapacity(true);
+
+        assertThrows(IllegalArgumentException.class, () -> hospitalBranchService.updateBranch("branch123", input));
+
+        verify(hospitalBranchRepository, never()).save(any());
+    }
+
+    @Test
+    void updateBranch_NegativeDailyCapacity_ThrowsIllegalArgumentException() {
+        existingBranch();
+        HospitalBranchUpdateInputDTO input = new HospitalBranchUpdateInputDTO();
+        input.setDailyCapacity(-1);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> hospitalBranchService.updateBranch("branch123", input));
+
+        assertEquals("Daily capacity must be at least 1", exception.getMessage());
+    }
+}
@@ -0,0 +1,62 @@
+package com.scheduler.schedulerapp.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.scheduler.schedulerapp.model.JobLease;
+import com.scheduler.schedulerapp.service.lease.JobLeaseManager;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobLeaseManagerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private JobLeaseManager jobLeaseManager;
+
+    @Test
+    void tryAcquire_ExpiredOrMissingLease_TakesItForThisNode() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(JobLease.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, new BsonString("appointment-archive")));
+
+        assertTrue(jobLeaseManager.tryAcquire("appointment-archive"));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(JobLease.class));
+        assertEquals("appointment-archive", query.getValue().getQueryObject().get("_id"));
+        assertTrue(query.getValue().getQueryObject().containsKey("leaseUntil"));
+        assertEquals(jobLeaseManager.getNodeId(),
+                update.getValue().getUpdateObject().get("$set", org.bson.Document.class).get("owner"));
+    }
+
+    @Test
+    void tryAcquire_LeaseHeldElsewhere_ReturnsFalse() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(JobLease.class)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        assertFalse(jobLeaseManager.tryAcquire("appointment-archive"));
+    }
+
+    @Test
+    void renew_LeaseTakenOver_ReturnsFalse() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(JobLease.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertFalse(jobLeaseManager.renew("appointment-archive"));
+    }
+}
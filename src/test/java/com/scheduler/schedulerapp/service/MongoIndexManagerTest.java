@@ -0,0 +1,124 @@
+package com.scheduler.schedulerapp.service;
+
+import com.scheduler.schedulerapp.model.BranchCapacityCounter;
+import com.scheduler.schedulerapp.service.indexmanagement.MongoIndexManager;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoIndexManagerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @InjectMocks
+    private MongoIndexManager mongoIndexManager;
+
+    @BeforeEach
+    void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setInitialEntitySet(Set.of(BranchCapacityCounter.class));
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        ReflectionTestUtils.setField(mongoIndexManager, "mongoMappingContext", mappingContext);
+        when(mongoTemplate.indexOps(BranchCapacityCounter.class)).thenReturn(indexOperations);
+    }
+
+    private IndexInfo index(String json) {
+        return IndexInfo.indexInfoOf(Document.parse(json));
+    }
+
+    @Test
+    void verifyIndexes_LiveIndexesMatch_ReportsNoDrift() {
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(
+                index("{name: '_id_', key: {_id: 1}}"),
+                index("{name: 'holders', key: {holders: 1}}"),
+                index("{name: 'series', key: {series: 1}}"),
+                index("{name: 'expiresAt_ttl', key: {expiresAt: 1}, expireAfterSeconds: 0}")));
+
+        assertTrue(mongoIndexManager.verifyIndexes(false).isEmpty());
+    }
+
+    @Test
+    void verifyIndexes_TtlAndOptionsDiffer_ReportsEachDifference() {
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(
+                index("{name: '_id_', key: {_id: 1}}"),
+                index("{name: 'holders', key: {holders: 1}, sparse: true, partialFilterExpression: {count: {$gt: 0}}}"),
+                index("{name: 'series', key: {series: 1}}"),
+                index("{name: 'expiresAt_ttl', key: {expiresAt: 1}, expireAfterSeconds: 3600}")));
+
+        List<String> drift = mongoIndexManager.verifyIndexes(false);
+
+        assertEquals(2, drift.size());
+        assertTrue(drift.get(0).startsWith("branchCapacityCounters.holders differs"));
+        assertTrue(drift.get(0).contains("sparse declared false, found true"));
+        assertTrue(drift.get(0).contains("partialFilterExpression declared null"));
+        assertTrue(drift.get(1).contains("expireAfterSeconds declared 0, found 3600"));
+    }
+
+    @Test
+    void verifyIndexes_MissingUndeclaredAndRenamed_ReportsWithoutCreating() {
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(
+                index("{name: '_id_', key: {_id: 1}}"),
+                index("{name: 'holders_1', key: {holders: 1}}"),
+                index("{name: 'branchId_1', key: {branchId: 1}}")));
+
+        List<String> drift = mongoIndexManager.verifyIndexes(false);
+
+        assertTrue(drift.contains("branchCapacityCounters.holders exists under the name holders_1"));
+        assertTrue(drift.contains("branchCapacityCounters.expiresAt_ttl is missing"));
+        assertTrue(drift.contains("branchCapacityCounters.branchId_1 is not declared on BranchCapacityCounter"));
+        verify(indexOperations, never()).createIndex(any(IndexDefinition.class));
+    }
+
+    @Test
+    void verifyIndexes_CreateMissing_BuildsOnlyTheMissingIndex() {
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(
+                index("{name: '_id_', key: {_id: 1}}"),
+                index("{name: 'holders', key: {holders: 1}}"),
+                index("{name: 'series', key: {series: 1}}")));
+
+        assertTrue(mongoIndexManager.verifyIndexes(true).isEmpty());
+
+        verify(indexOperations).createIndex(argThat(definition ->
+                "expiresAt_ttl".equals(definition.getIndexOptions().getString("name"))));
+    }
+
+    @Test
+    void verifyIndexes_DropUndeclared_DropsOnlyIndexesNoLongerDeclared() {
+        ReflectionTestUtils.setField(mongoIndexManager, "dropUndeclared", true);
+        when(indexOperations.getIndexInfo()).thenReturn(List.of(
+                index("{name: '_id_', key: {_id: 1}}"),
+                index("{name: 'holders', key: {holders: 1}}"),
+                index("{name: 'series', key: {series: 1}}"),
+                index("{name: 'expiresAt_ttl', key: {expiresAt: 1}, expireAfterSeconds: 0}"),
+                index("{name: 'branchId_1', key: {branchId: 1}}")));
+
+        assertTrue(mongoIndexManager.verifyIndexes(false).isEmpty());
+
+        verify(indexOperations).dropIndex("branchId_1");
+        verify(indexOperations, times(1)).dropIndex(anyString());
+    }
+}
@@ -0,0 +1,60 @@
+package com.scheduler.schedulerapp.service;
+
+import com.scheduler.schedulerapp.service.series.RecurrenceRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceRuleTest {
+
+    private List<LocalDateTime> all(RecurrenceRule rule, LocalDateTime start) {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        rule.occurrences(start).forEachRemaining(occurrences::add);
+        return occurrences;
+    }
+
+    @Test
+    void occurrences_WeeklyByDayWithCount_SkipsDaysBeforeStart() {
+        LocalDateTime wednesday = LocalDateTime.of(2025, 1, 15, 10, 0);
+
+        List<LocalDateTime> occurrences = all(RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,WE;COUNT=4"), wednesday);
+
+        assertEquals(List.of(
+                wednesday,
+                LocalDateTime.of(2025, 1, 20, 10, 0),
+                LocalDateTime.of(2025, 1, 22, 10, 0),
+                LocalDateTime.of(2025, 1, 27, 10, 0)), occurrences);
+    }
+
+    @Test
+    void occurrences_MonthlyOn31st_SkipsShortMonthsUntilEnd() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 31, 9, 30);
+
+        List<LocalDateTime> occurrences = all(RecurrenceRule.parse("FREQ=MONTHLY;UNTIL=20250601"), start);
+
+        assertEquals(List.of(start, LocalDateTime.of(2025, 3, 31, 9, 30), LocalDateTime.of(2025, 5, 31, 9, 30)),
+                occurrences);
+    }
+
+    @Test
+    void occurrences_Unbounded_GeneratesLazily() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;INTERVAL=2");
+        Iterator<LocalDateTime> occurrences = rule.occurrences(LocalDateTime.of(2025, 1, 1, 8, 0));
+
+        occurrences.next();
+        assertFalse(rule.isBounded());
+        assertEquals(LocalDateTime.of(2025, 1, 3, 8, 0), occurrences.next());
+    }
+
+    @Test
+    void parse_CountAndUntil_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RecurrenceRule.parse("FREQ=WEEKLY;COUNT=3;UNTIL=20250601"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=YEARLY;COUNT=3"));
+    }
+}
@@ -0,0 +1,192 @@
+package com.scheduler.schedulerapp.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.Patient;
+import com.scheduler.schedulerapp.model.ReminderClaim;
+import com.scheduler.schedulerapp.model.ReminderScanCursor;
+import com.scheduler.schedulerapp.repository.AppointmentRepository;
+import com.scheduler.schedulerapp.service.appointment.AppointmentsSavedEvent;
+import com.scheduler.schedulerapp.service.patient.PatientService;
+import com.scheduler.schedulerapp.service.reminder.ReminderMessage;
+import com.scheduler.schedulerapp.service.reminder.ReminderSender;
+import com.scheduler.schedulerapp.service.reminder.ReminderServiceImpl;
+import com.scheduler.schedulerapp.service.waitlist.AppointmentsCancelledEvent;
+import org.bson.BsonString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderServiceImplTest {
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private PatientService patientService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private Environment environment;
+
+    @InjectMocks
+    private ReminderServiceImpl reminderService;
+
+    private final List<ReminderMessage> delivered = new CopyOnWriteArrayList<>();
+    private final CountDownLatch deliveredLatch = new CountDownLatch(1);
+
+    private static final long LEAD_MINUTES = 60;
+
+    @BeforeEach
+    void setUp() {
+        ReminderSender email = new ReminderSender() {
+            @Override
+            public String getChannel() {
+                return "email";
+            }
+
+            @Override
+            public void send(ReminderMessage message) {
+                delivered.add(message);
+                deliveredLatch.countDown();
+            }
+        };
+        ReflectionTestUtils.setField(reminderService, "senders", List.of(email));
+        ReflectionTestUtils.setField(reminderService, "leadMinutes", LEAD_MINUTES);
+        ReflectionTestUtils.setField(reminderService, "tickMillis", 10L);
+        ReflectionTestUtils.setField(reminderService, "wheelSize", 64);
+        when(environment.getProperty(anyString(), eq(Double.class), anyDouble())).thenReturn(1000.0);
+        reminderService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reminderService.shutdown();
+    }
+
+    private Appointment appointment(LocalDateTime start) {
+        Appointment appointment = new Appointment();
+        appointment.setId("appointment123");
+        appointment.setPatientId("patient123");
+        appointment.setTitle("Checkup");
+        appointment.setStatus("scheduled");
+        appointment.setStartTime(start);
+        appointment.setEndTime(start.plusMinutes(30));
+        return appointment;
+    }
+
+    private void stubPatient() {
+        Patient patient = new Patient();
+        patient.setId("patient123");
+        patient.setEmail("john@example.com");
+        when(patientService.getPatientsByIds(any())).thenReturn(List.of(patient));
+    }
+
+    private void scan(Appointment... appointments) {
+        lenient().when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(ReminderScanCursor.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(appointmentRepository.streamByStatusAndStartTimeRange(eq("scheduled"), any(), any()))
+                .thenReturn(Stream.of(appointments));
+        reminderService.queueUpcomingReminders();
+    }
+
+    @Test
+    void onAppointmentsCancelled_QueuedReminder_IsDropped() {
+        stubPatient();
+        Appointment appointment = appointment(LocalDateTime.now().plusMinutes(LEAD_MINUTES + 5));
+        scan(appointment);
+        assertEquals(1, reminderService.getQueuedCount());
+
+        reminderService.onAppointmentsCancelled(new AppointmentsCancelledEvent(List.of(appointment)));
+
+        assertEquals(0, reminderService.getQueuedCount());
+    }
+
+    @Test
+    void onAppointmentsSaved_MovedPastScannedWindow_DropsQueuedReminder() {
+        stubPatient();
+        Appointment appointment = appointment(LocalDateTime.now().plusMinutes(LEAD_MINUTES + 5));
+        scan(appointment);
+
+        reminderService.onAppointmentsSaved(new AppointmentsSavedEvent(
+                List.of(appointment(LocalDateTime.now().plusDays(3)))));
+
+        assertEquals(0, reminderService.getQueuedCount());
+    }
+
+    @Test
+    void dispatch_AppointmentMovedEarlier_ClaimsAndSendsForNewStartTime() throws InterruptedException {
+        stubPatient();
+        LocalDateTime movedTo = LocalDateTime.now().plusMinutes(30).withNano(0);
+        when(appointmentRepository.findById("appointment123")).thenReturn(Optional.of(appointment(movedTo)));
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(ReminderClaim.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, new BsonString("claimed")));
+
+        scan(appointment(LocalDateTime.now().plusMinutes(LEAD_MINUTES)));
+
+        assertTrue(deliveredLatch.await(2, TimeUnit.SECONDS));
+        assertEquals("john@example.com", delivered.get(0).getRecipient());
+        ArgumentCaptor<Query> claim = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).upsert(claim.capture(), any(Update.class), eq(ReminderClaim.class));
+        assertEquals("appointment123:email:" + movedTo, claim.getValue().getQueryObject().get("_id"));
+    }
+
+    @Test
+    void dispatch_ClaimedByAnotherNode_DoesNotSend() throws InterruptedException {
+        stubPatient();
+        LocalDateTime start = LocalDateTime.now().plusMinutes(LEAD_MINUTES);
+        when(appointmentRepository.findById("appointment123")).thenReturn(Optional.of(appointment(start)));
+        CountDownLatch claimed = new CountDownLatch(1);
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(ReminderClaim.class))).thenAnswer(invocation -> {
+            claimed.countDown();
+            throw new DuplicateKeyException("E11000 duplicate key error");
+        });
+
+        scan(appointment(start));
+
+        assertTrue(claimed.await(2, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertTrue(delivered.isEmpty());
+        assertEquals(0, reminderService.getSentCount());
+    }
+
+    @Test
+    void queueUpcomingReminders_AfterRestart_ResumesFromPersistedCursor() {
+        LocalDateTime stoppedAt = LocalDateTime.now().minusMinutes(20);
+        ReminderScanCursor cursor = new ReminderScanCursor("reminders", stoppedAt, stoppedAt);
+        when(mongoTemplate.findById("reminders", ReminderScanCursor.class)).thenReturn(cursor);
+
+        scan();
+
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(appointmentRepository).streamByStatusAndStartTimeRange(eq("scheduled"), from.capture(), any());
+        assertEquals(stoppedAt.plusMinutes(LEAD_MINUTES), from.getValue());
+        verify(mongoTemplate).upsert(any(Query.class), any(Update.class), eq(ReminderScanCursor.class));
+    }
+}
@@ -0,0 +1,65 @@
+package com.scheduler.schedulerapp.service;
+
+import com.scheduler.schedulerapp.service.reminder.ReminderTask;
+import com.scheduler.schedulerapp.service.reminder.ReminderTimeWheel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReminderTimeWheelTest {
+
+    private final ReminderTimeWheel wheel = new ReminderTimeWheel(10, 8);
+
+    @AfterEach
+    void tearDown() {
+        wheel.stop();
+    }
+
+    private ReminderTask task(String appointmentId, long delayMillis) {
+        return new ReminderTask(appointmentId, "email", "patient@example.com", "Checkup",
+                LocalDateTime.now().plusDays(1), System.currentTimeMillis() + delayMillis, 1);
+    }
+
+    @Test
+    void schedule_TasksBeyondOneRevolution_FireInDeadlineOrder() throws InterruptedException {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        wheel.start(task -> {
+            fired.add(task.getAppointmentId());
+            done.countDown();
+        });
+
+        wheel.schedule(task("late", 250));
+        wheel.schedule(task("soon", 20));
+        wheel.schedule(task("middle", 120));
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("soon", "middle", "late"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancel_QueuedTask_NeverFires() throws InterruptedException {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        wheel.start(task -> {
+            fired.add(task.getAppointmentId());
+            done.countDown();
+        });
+
+        wheel.schedule(task("cancelled", 30));
+        wheel.schedule(task("kept", 60));
+        wheel.cancel("cancelled:email");
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(List.of("kept"), fired);
+    }
+}
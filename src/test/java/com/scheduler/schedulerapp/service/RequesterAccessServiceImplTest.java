@@ -0,0 +1,96 @@
+package com.scheduler.schedulerapp.service;
+
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.model.StaffBranchMapping;
+import com.scheduler.schedulerapp.repository.DoctorBranchMappingRepository;
+import com.scheduler.schedulerapp.repository.DoctorRepository;
+import com.scheduler.schedulerapp.service.access.AccessProfile;
+import com.scheduler.schedulerapp.service.access.RequesterAccessServiceImpl;
+import com.scheduler.schedulerapp.service.access.StaffAccessChangedEvent;
+import com.scheduler.schedulerapp.service.doctor.StaffCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequesterAccessServiceImplTest {
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private DoctorBranchMappingRepository doctorBranchMappingRepository;
+
+    @Spy
+    private StaffCache staffCache = new StaffCache();
+
+    @InjectMocks
+    private RequesterAccessServiceImpl requesterAccessService;
+
+    @Test
+    void getProfile_Receptionist_LoadsBranchesOnceUntilAccessChanges() {
+        HospitalStaff receptionist = new HospitalStaff();
+        receptionist.setId("r1");
+        receptionist.setRole("receptionist");
+        StaffBranchMapping mapping = new StaffBranchMapping();
+        mapping.setDoctorId("r1");
+        mapping.setBranchId("branch1");
+        when(doctorRepository.findById("r1")).thenReturn(Optional.of(receptionist));
+        when(doctorBranchMappingRepository.findByDoctorId("r1")).thenReturn(List.of(mapping));
+
+        AccessProfile first = requesterAccessService.getProfile("r1").orElseThrow();
+        AccessProfile second = requesterAccessService.getProfile("r1").orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(Set.of("branch1"), first.getBranchIds());
+        assertTrue(first.canAccessBranch("branch1"));
+        assertFalse(first.canAccessBranch("branch2"));
+        verify(doctorRepository, times(1)).findById("r1");
+
+        staffCache.onStaffAccessChanged(new StaffAccessChangedEvent(List.of("r1")));
+        requesterAccessService.getProfile("r1");
+
+        verify(doctorRepository, times(2)).findById("r1");
+    }
+
+    @Test
+    void getProfile_CacheFull_EvictsLeastRecentlyUsedProfile() {
+        ReflectionTestUtils.setField(staffCache, "maxSize", 2);
+        for (String id : List.of("a1", "a2", "a3")) {
+            HospitalStaff admin = new HospitalStaff();
+            admin.setId(id);
+            admin.setRole("admin");
+            when(doctorRepository.findById(id)).thenReturn(Optional.of(admin));
+        }
+
+        requesterAccessService.getProfile("a1");
+        requesterAccessService.getProfile("a2");
+        requesterAccessService.getProfile("a1");
+        requesterAccessService.getProfile("a3");
+        requesterAccessService.getProfile("a1");
+        requesterAccessService.getProfile("a2");
+
+        verify(doctorRepository, times(1)).findById("a1");
+        verify(doctorRepository, times(2)).findById("a2");
+        verify(doctorRepository, times(1)).findById("a3");
+    }
+
+    @Test
+    void getProfile_UnknownRequester_ReturnsEmpty() {
+        when(doctorRepository.findById("missing")).thenReturn(Optional.empty());
+
+        assertTrue(requesterAccessService.getProfile("missing").isEmpty());
+        verifyNoInteractions(doctorBranchMappingRepository);
+    }
+}
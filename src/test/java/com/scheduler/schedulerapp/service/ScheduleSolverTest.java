@@ -0,0 +1,80 @@
+package com.scheduler.schedulerapp.service;
+
+import com.scheduler.schedulerapp.service.optimizer.ScheduleSolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleSolverTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private ScheduleSolver.Solution solve(BitSet[] doctors, Map<String, BitSet> patients, List<ScheduleSolver.Item> items) {
+        return new ScheduleSolver(doctors, patients, items)
+                .solve(pool, 2, System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void solve_FlexibleRequestBlocksTightOne_PlacesBoth() {
+        BitSet doctor = new BitSet();
+        doctor.set(4, 12);
+
+        ScheduleSolver.Solution solution = solve(new BitSet[]{doctor}, Map.of(), List.of(
+                new ScheduleSolver.Item("p1", 0, 4, 2, -1),
+                new ScheduleSolver.Item("p2", 0, 2, 2, -1)));
+
+        assertTrue(solution.isPlaced(0));
+        assertTrue(solution.isPlaced(1));
+        assertEquals(0, solution.startOf(1));
+        assertEquals(2, solution.startOf(0));
+        assertFalse(solution.isTimedOut());
+    }
+
+    @Test
+    void solve_MoreRequestsThanCapacity_LeavesRestUnplaced() {
+        BitSet doctor = new BitSet();
+        doctor.set(4, 12);
+
+        ScheduleSolver.Solution solution = solve(new BitSet[]{doctor}, Map.of(), List.of(
+                new ScheduleSolver.Item("p1", 0, 4, 2, -1),
+                new ScheduleSolver.Item("p2", 0, 4, 2, -1),
+                new ScheduleSolver.Item("p3", 0, 4, 2, -1)));
+
+        int placed = 0;
+        for (int i = 0; i < 3; i++) {
+            if (solution.isPlaced(i)) {
+                placed++;
+            } else {
+                assertTrue(solution.wasAttempted(i));
+            }
+        }
+        assertEquals(2, placed);
+    }
+
+    @Test
+    void solve_SamePatientTwoDoctors_DoesNotDoubleBookPatient() {
+        BitSet busyPatient = new BitSet();
+        busyPatient.set(0, 2);
+
+        ScheduleSolver.Solution solution = solve(new BitSet[]{new BitSet(), new BitSet()}, Map.of("p1", busyPatient),
+                List.of(
+                        new ScheduleSolver.Item("p1", 0, 4, 2, -1),
+                        new ScheduleSolver.Item("p1", 0, 4, 2, 1)));
+
+        assertTrue(solution.isPlaced(0) ^ solution.isPlaced(1));
+        int placed = solution.isPlaced(0) ? 0 : 1;
+        assertEquals(2, solution.startOf(placed));
+    }
+}
@@ -0,0 +1,137 @@
+package com.scheduler.schedulerapp.service;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.AppointmentSeries;
+import com.scheduler.schedulerapp.model.SlotReservation;
+import com.scheduler.schedulerapp.repository.SlotReservationRepository;
+import com.scheduler.schedulerapp.service.appointment.BranchCapacityManager;
+import com.scheduler.schedulerapp.service.appointment.SlotReservationManager;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotReservationManagerTest {
+
+    @Mock
+    private SlotReservationRepository slotReservationRepository;
+
+    @Mock
+    private BranchCapacityManager branchCapacityManager;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private SlotReservationManager slotReservationManager;
+
+    @Test
+    void requireOnSlotGrid_TimeOffTheGrid_ThrowsIllegalArgumentException() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> SlotReservationManager.requireOnSlotGrid(LocalDateTime.of(2025, 1, 15, 10, 0),
+                        LocalDateTime.of(2025, 1, 15, 10, 32)));
+
+        assertTrue(exception.getMessage().contains("5-minute boundaries"));
+        assertDoesNotThrow(() -> SlotReservationManager.requireOnSlotGrid(LocalDateTime.of(2025, 1, 15, 10, 35)));
+    }
+
+    @Test
+    void slotsCovering_BackToBackOnTheGrid_ShareNoSlot() {
+        List<LocalDateTime> first = SlotReservationManager.slotsCovering(
+                LocalDateTime.of(2025, 1, 15, 10, 0), LocalDateTime.of(2025, 1, 15, 10, 35));
+        List<LocalDateTime> second = SlotReservationManager.slotsCovering(
+                LocalDateTime.of(2025, 1, 15, 10, 35), LocalDateTime.of(2025, 1, 15, 11, 0));
+
+        assertEquals(LocalDateTime.of(2025, 1, 15, 10, 30), first.get(first.size() - 1));
+        assertEquals(LocalDateTime.of(2025, 1, 15, 10, 35), second.get(0));
+    }
+
+    @Test
+    void releaseOrphans_HolderNeverSaved_ReleasesItsReservationsAndCapacity() {
+        when(mongoTemplate.findDistinct(any(Query.class), eq("appointmentId"), eq(SlotReservation.class), eq(String.class)))
+                .thenReturn(List.of("saved", "series", "orphan"));
+        Appointment saved = new Appointment();
+        saved.setId("saved");
+        AppointmentSeries series = new AppointmentSeries();
+        series.setId("series");
+        when(mongoTemplate.find(any(Query.class), eq(Appointment.class))).thenReturn(List.of(saved));
+        when(mongoTemplate.find(any(Query.class), eq(AppointmentSeries.class))).thenReturn(List.of(series));
+
+        int released = slotReservationManager.releaseOrphans();
+
+        assertEquals(1, released);
+        verify(slotReservationRepository).deleteByAppointmentIdIn(List.of("orphan"));
+        verify(branchCapacityManager).releaseAll(List.of("orphan"));
+        verify(branchCapacityManager).releaseSeries(List.of("orphan"));
+    }
+
+    @Test
+    void reserveAll_SlotTakenMeanwhile_ReportsConflictNextToCapacityReason() {
+        Appointment full = appointment("full", LocalDateTime.of(2025, 1, 15, 9, 0));
+        Appointment taken = appointment("taken", LocalDateTime.of(2025, 1, 15, 10, 0));
+        when(branchCapacityManager.reserveAll(List.of(full, taken)))
+                .thenReturn(Map.of("full", "Branch is fully booked on 2025-01-15"));
+        when(slotReservationRepository.insert(anyList())).thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        Map<String, String> rejected = slotReservationManager.reserveAll(List.of(full, taken));
+
+        assertEquals("Branch is fully booked on 2025-01-15", rejected.get("full"));
+        assertEquals("Appointment conflicts with an appointment booked for the same time slot", rejected.get("taken"));
+        verify(branchCapacityManager).releaseAll(List.of("taken"));
+    }
+
+    @Test
+    void reserveSeries_SlotTaken_ReleasesOccurrenceCapacity() {
+        Appointment occurrence = appointment("series123@2025-01-15T09:00", LocalDateTime.of(2025, 1, 15, 9, 0));
+        when(slotReservationRepository.insert(anyList())).thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        assertThrows(RuntimeException.class,
+                () -> slotReservationManager.reserveSeries("series123", List.of(occurrence)));
+
+        verify(branchCapacityManager).reserveOccurrences(List.of(occurrence));
+        verify(slotReservationRepository).deleteByAppointmentId("series123");
+        verify(branchCapacityManager).releaseAll(List.of(occurrence.getId()));
+    }
+
+    @Test
+    void releaseOccurrencesFrom_LaterOccurrences_DropsSeriesSlotsFromTheFirstOfThem() {
+        Appointment first = appointment("series123@2025-01-15T09:00", LocalDateTime.of(2025, 1, 15, 9, 0));
+        Appointment second = appointment("series123@2025-01-22T09:00", LocalDateTime.of(2025, 1, 22, 9, 0));
+
+        slotReservationManager.releaseOccurrencesFrom("series123", List.of(first, second));
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(SlotReservation.class));
+        assertEquals("series123", removed.getValue().getQueryObject().get("appointmentId"));
+        assertEquals(new Document("$gte", LocalDateTime.of(2025, 1, 15, 9, 0)),
+                removed.getValue().getQueryObject().get("slotStart"));
+        verify(branchCapacityManager).releaseAll(List.of(first.getId(), second.getId()));
+    }
+
+    private Appointment appointment(String id, LocalDateTime start) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setDoctorId("doctor123");
+        appointment.setPatientId("patient123");
+        appointment.setBranchId("branch123");
+        appointment.setStatus("scheduled");
+        appointment.setStartTime(start);
+        appointment.setEndTime(start.plusMinutes(30));
+        return appointment;
+    }
+}
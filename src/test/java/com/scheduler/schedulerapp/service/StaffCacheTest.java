@@ -0,0 +1,114 @@
+package com.scheduler.schedulerapp.service;
+
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.service.access.AccessProfile;
+import com.scheduler.schedulerapp.service.access.StaffAccessChangedEvent;
+import com.scheduler.schedulerapp.service.doctor.StaffCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaffCacheTest {
+
+    private HospitalStaff staff(String id) {
+        HospitalStaff staff = new HospitalStaff();
+        staff.setId(id);
+        return staff;
+    }
+
+    @Test
+    void get_MoreIdsThanMaxSize_EvictsLeastRecentlyUsed() {
+        StaffCache cache = new StaffCache();
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<HospitalStaff>> loader = id -> {
+            loads.incrementAndGet();
+            return Optional.of(staff(id));
+        };
+
+        cache.get("1", loader);
+        cache.get("2", loader);
+        cache.get("1", loader);
+        cache.get("3", loader);
+        cache.get("1", loader);
+        cache.get("2", loader);
+
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getHits());
+        assertEquals(4, cache.getMisses());
+        assertEquals(2, cache.getEvictions());
+        assertEquals(2, cache.getSize());
+    }
+
+    @Test
+    void get_ExpiredOrMissingEntries_AreReloadedAndMissingIdsNotCached() {
+        StaffCache cache = new StaffCache();
+        ReflectionTestUtils.setField(cache, "ttlMillis", 0L);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<HospitalStaff>> loader = id -> {
+            loads.incrementAndGet();
+            return Optional.of(staff(id));
+        };
+
+        cache.get("1", loader);
+        cache.get("1", loader);
+        cache.get("missing", id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertEquals(3, loads.get());
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    void get_CallerChangesReturnedStaff_CachedEntryIsUnchanged() {
+        StaffCache cache = new StaffCache();
+        Function<String, Optional<HospitalStaff>> loader = id -> {
+            HospitalStaff staff = staff(id);
+            staff.setName("Dr. Grey");
+            return Optional.of(staff);
+        };
+
+        cache.get("1", loader).orElseThrow().setName("Dr. Shepherd");
+        HospitalStaff cached = cache.get("1", loader).orElseThrow();
+
+        assertEquals("Dr. Grey", cached.getName());
+        assertNotSame(cached, cache.get("1", loader).orElseThrow());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    void getProfile_StaffAlreadyCached_ResolvesProfileOnceWithoutReloading() {
+        StaffCache cache = new StaffCache();
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger resolves = new AtomicInteger();
+        Function<String, Optional<HospitalStaff>> loader = id -> {
+            loads.incrementAndGet();
+            return Optional.of(staff(id));
+        };
+        Function<HospitalStaff, AccessProfile> resolver = staff -> {
+            resolves.incrementAndGet();
+            return new AccessProfile(staff.getId(), true, false, Set.of());
+        };
+
+        cache.get("1", loader);
+        AccessProfile first = cache.getProfile("1", loader, resolver).orElseThrow();
+        AccessProfile second = cache.getProfile("1", loader, resolver).orElseThrow();
+        cache.onStaffAccessChanged(new StaffAccessChangedEvent(List.of("1")));
+        cache.getProfile("1", loader, resolver);
+
+        assertSame(first, second);
+        assertEquals(2, loads.get());
+        assertEquals(2, resolves.get());
+    }
+}
@@ -0,0 +1,212 @@
+package com.scheduler.schedulerapp.service;
+
+import com.scheduler.schedulerapp.model.Appointment;
+import com.scheduler.schedulerapp.model.HospitalBranch;
+import com.scheduler.schedulerapp.model.HospitalStaff;
+import com.scheduler.schedulerapp.model.WaitlistEntry;
+import com.scheduler.schedulerapp.repository.WaitlistEntryRepository;
+import com.scheduler.schedulerapp.service.appointment.AppointmentService;
+import com.scheduler.schedulerapp.service.doctor.DoctorService;
+import com.scheduler.schedulerapp.service.hospitalbranch.HospitalBranchService;
+import com.scheduler.schedulerapp.service.waitlist.WaitlistServiceImpl;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceImplTest {
+
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Mock
+    private DoctorService doctorService;
+
+    @Mock
+    private HospitalBranchService hospitalBranchService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private WaitlistServiceImpl waitlistService;
+
+    private LocalDateTime slotStart;
+    private Appointment cancelled;
+
+    @BeforeEach
+    void setUp() {
+        slotStart = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).withHour(10);
+        cancelled = new Appointment();
+        cancelled.setId("cancelled1");
+        cancelled.setDoctorId("doctor1");
+        cancelled.setPatientId("patient0");
+        cancelled.setBranchId("branch1");
+        cancelled.setStartTime(slotStart);
+        cancelled.setEndTime(slotStart.plusHours(1));
+        cancelled.setStatus("cancelled");
+    }
+
+    private WaitlistEntry entry(String id, String doctorId, String branchId, int priority) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId(id);
+        entry.setPatientId("patient-" + id);
+        entry.setDoctorId(doctorId);
+        entry.setBranchId(branchId);
+        entry.setDurationMinutes(30);
+        entry.setEarliestStart(slotStart.minusDays(1));
+        entry.setLatestEnd(slotStart.plusDays(2));
+        entry.setPriority(priority);
+        entry.setStatus("waiting");
+        entry.setCreatedAt(LocalDateTime.now());
+        return entry;
+    }
+
+    private HospitalStaff doctor(boolean active) {
+        HospitalStaff doctor = new HospitalStaff();
+        doctor.setId("doctor1");
+        doctor.setIsActive(active);
+        return doctor;
+    }
+
+    private void stubOpenDoctorAndBranch(List<WaitlistEntry> doctorQueue, List<WaitlistEntry> branchQueue) {
+        HospitalBranch branch = new HospitalBranch();
+        branch.setId("branch1");
+        branch.setIsActive(true);
+        when(doctorService.getDoctorsByIds(anyCollection())).thenReturn(List.of(doctor(true)));
+        when(hospitalBranchService.getBranchesByIds(anyCollection())).thenReturn(List.of(branch));
+        when(waitlistEntryRepository.findByStatusAndDoctorIdIn(eq("waiting"), anyCollection())).thenReturn(doctorQueue);
+        when(waitlistEntryRepository.findByStatusAndDoctorIdIsNullAndBranchIdIn(eq("waiting"), anyCollection())).thenReturn(branchQueue);
+    }
+
+    private List<String> claimedIds() {
+        List<String> claimed = new ArrayList<>();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(WaitlistEntry.class)))
+                .thenAnswer(invocation -> {
+                    Update update = invocation.getArgument(1);
+                    if ("booking".equals(update.getUpdateObject().get("$set", Document.class).get("status"))) {
+                        claimed.add(invocation.getArgument(0, Query.class).getQueryObject().getString("_id"));
+                    }
+                    return new WaitlistEntry();
+                });
+        return claimed;
+    }
+
+    @Test
+    void backfill_FreedHour_ClaimsAndBooksHighestPriorityEntriesInOrder() {
+        stubOpenDoctorAndBranch(
+                List.of(entry("low", "doctor1", null, 0), entry("high", "doctor1", null, 5)),
+                List.of(entry("branchWide", null, "branch1", 3)));
+        List<String> claimed = claimedIds();
+        when(appointmentService.createAppointment(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Appointment> booked = waitlistService.backfill(List.of(cancelled));
+
+        assertEquals(2, booked.size());
+        assertEquals("patient-high", booked.get(0).getPatientId());
+        assertEquals(slotStart, booked.get(0).getStartTime());
+        assertEquals("patient-branchWide", booked.get(1).getPatientId());
+        assertEquals(slotStart.plusMinutes(30), booked.get(1).getStartTime());
+        assertEquals("branch1", booked.get(1).getBranchId());
+        assertEquals(List.of("high", "branchWide"), claimed);
+        verify(waitlistEntryRepository, never()).save(any());
+    }
+
+    @Test
+    void backfill_EntryClaimedByAnotherNode_OffersSlotToNextEntry() {
+        stubOpenDoctorAndBranch(
+                List.of(entry("low", "doctor1", null, 0), entry("high", "doctor1", null, 5)),
+                List.of());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(WaitlistEntry.class)))
+                .thenAnswer(invocation -> "high".equals(invocation.getArgument(0, Query.class).getQueryObject().getString("_id"))
+                        ? null
+                        : new WaitlistEntry());
+        when(appointmentService.createAppointment(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Appointment> booked = waitlistService.backfill(List.of(cancelled));
+
+        assertEquals(1, booked.size());
+        assertEquals("patient-low", booked.get(0).getPatientId());
+        assertEquals(slotStart, booked.get(0).getStartTime());
+    }
+
+    @Test
+    void backfill_BookingFails_ReturnsClaimToWaiting() {
+        stubOpenDoctorAndBranch(List.of(entry("only", "doctor1", null, 0)), List.of());
+        List<String> claimed = claimedIds();
+        when(appointmentService.createAppointment(any(Appointment.class))).thenThrow(new RuntimeException("conflict"));
+
+        List<Appointment> booked = waitlistService.backfill(List.of(cancelled));
+
+        assertTrue(booked.isEmpty());
+        assertEquals(List.of("only"), claimed);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).findAndModify(any(Query.class), updates.capture(), any(FindAndModifyOptions.class), eq(WaitlistEntry.class));
+        assertEquals("waiting", updates.getAllValues().get(1).getUpdateObject().get("$set", Document.class).get("status"));
+    }
+
+    @Test
+    void backfill_DoctorDeactivated_BooksNothing() {
+        when(doctorService.getDoctorsByIds(anyCollection())).thenReturn(List.of(doctor(false)));
+        when(hospitalBranchService.getBranchesByIds(anyCollection())).thenReturn(List.of());
+
+        List<Appointment> booked = waitlistService.backfill(List.of(cancelled));
+
+        assertTrue(booked.isEmpty());
+        verify(appointmentService, never()).createAppointment(any());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void backfill_EarliestStartOffTheGrid_BooksFromTheNextSlot() {
+        WaitlistEntry late = entry("late", "doctor1", null, 0);
+        late.setEarliestStart(slotStart.plusMinutes(7));
+        stubOpenDoctorAndBranch(List.of(late), List.of());
+        claimedIds();
+        when(appointmentService.createAppointment(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Appointment> booked = waitlistService.backfill(List.of(cancelled));
+
+        assertEquals(slotStart.plusMinutes(10), booked.get(0).getStartTime());
+    }
+
+    @Test
+    void joinWaitlist_DurationOffTheSlotGrid_Throws() {
+        WaitlistEntry entry = entry("entry1", "doctor1", null, 0);
+        entry.setDurationMinutes(32);
+
+        assertThrows(IllegalArgumentException.class, () -> waitlistService.joinWaitlist(entry));
+        verify(waitlistEntryRepository, never()).save(any());
+    }
+
+    @Test
+    void leaveWaitlist_AlreadyBookedElsewhere_Throws() {
+        when(waitlistEntryRepository.findById("entry1")).thenReturn(Optional.of(entry("entry1", "doctor1", null, 0)));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(WaitlistEntry.class)))
+                .thenReturn(null);
+
+        assertThrows(IllegalArgumentException.class, () -> waitlistService.leaveWaitlist("entry1"));
+    }
+}